@@ -0,0 +1,198 @@
+package com.example.blockcipher.cli;
+
+import com.example.blockcipher.core.AesBlockCipher;
+import com.example.blockcipher.core.BlockCipher;
+import com.example.blockcipher.factory.ModeFactory;
+import com.example.blockcipher.mode.ModeType;
+import com.example.blockcipher.service.ModeCipherService;
+import com.example.blockcipher.util.BufferPool;
+import com.example.blockcipher.util.Hex;
+import com.example.blockcipher.util.PooledBuffer;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 파일/디렉터리를 일괄 암복호화하는 명령행 도구입니다.
+ *
+ * <pre>
+ * encrypt|decrypt --mode CTR --key &lt;hex&gt; --in &lt;file|dir&gt; --out &lt;file|dir&gt;
+ *                 [--workers N] [--chunk-size BYTES] [--queue-depth N]
+ * </pre>
+ *
+ * <p>처리 순서</p>
+ * <p>1. 인자 해석 및 AES 키 생성</p>
+ * <p>2. 입력이 디렉터리면 하위 파일 전체를 같은 상대 경로로 출력 디렉터리에 대응</p>
+ * <p>3. 파일마다 {@link CipherPipeline} 실행(미지원 모드는 {@link ModeCipherService}로 메모리 처리)</p>
+ * <p>4. 파일별/전체 처리량과 단계 사용률 출력</p>
+ */
+public final class BulkCipherCli {
+    private BulkCipherCli() {
+    }
+
+    public static void main(String[] args) {
+        try {
+            run(args);
+        } catch (IllegalArgumentException | IOException e) {
+            System.err.println("error: " + e.getMessage());
+            System.err.println(usage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * 인자를 해석해 작업 전체를 수행하고 합산 보고서를 반환합니다.
+     */
+    static PipelineReport run(String[] args) throws IOException {
+        if (args.length == 0) {
+            throw new IllegalArgumentException("missing command");
+        }
+        boolean encrypting = parseCommand(args[0]);
+        Map<String, String> options = parseOptions(args);
+        ModeType type = ModeType.valueOf(require(options, "mode").toUpperCase(Locale.ROOT));
+        BlockCipher cipher = new AesBlockCipher(Hex.decode(require(options, "key")));
+        Path in = Paths.get(require(options, "in"));
+        Path out = Paths.get(require(options, "out"));
+        int workers = intOption(options, "workers", Runtime.getRuntime().availableProcessors());
+        int chunkSize = intOption(options, "chunk-size", CipherPipeline.DEFAULT_CHUNK_SIZE);
+        int queueDepth = intOption(options, "queue-depth", 4);
+
+        CipherPipeline pipeline = CipherPipeline.supports(type)
+            ? new CipherPipeline(type, cipher, encrypting, workers, chunkSize, queueDepth)
+            : null;
+        ModeCipherService fallback = pipeline == null ? new ModeCipherService(ModeFactory.create(type, cipher)) : null;
+        BufferPool heapPool = BufferPool.heap();
+
+        try {
+            PipelineReport total = PipelineReport.empty();
+            for (Path[] job : jobs(in, out)) {
+                Path parent = job[1].toAbsolutePath().getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                PipelineReport report = pipeline != null
+                    ? pipeline.run(job[0], job[1])
+                    : inMemory(fallback, heapPool, encrypting, job[0], job[1]);
+                System.out.println(job[0] + " -> " + job[1] + " : " + report);
+                total = total.plus(report);
+            }
+            System.out.println("total : " + total);
+            System.out.println("buffers : " + (pipeline != null ? pipeline.pool() : heapPool));
+            return total;
+        } finally {
+            if (pipeline != null) {
+                pipeline.close();
+            }
+        }
+    }
+
+    /**
+     * 입력/출력 경로 쌍 목록을 만듭니다. 디렉터리는 재귀적으로 같은 구조를 유지합니다.
+     */
+    private static List<Path[]> jobs(Path in, Path out) throws IOException {
+        List<Path[]> jobs = new ArrayList<>();
+        if (!Files.isDirectory(in)) {
+            jobs.add(new Path[] {in, out});
+            return jobs;
+        }
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(in)) {
+            files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        for (Path file : files) {
+            jobs.add(new Path[] {file, out.resolve(in.relativize(file).toString())});
+        }
+        return jobs;
+    }
+
+    /**
+     * 스트리밍을 지원하지 않는 모드(GCM, CBC-CS3 등)는 파일 전체를 메모리에서 처리합니다.
+     */
+    private static PipelineReport inMemory(
+        ModeCipherService service,
+        BufferPool pool,
+        boolean encrypting,
+        Path source,
+        Path target
+    ) throws IOException {
+        long started = System.nanoTime();
+        byte[] input = Files.readAllBytes(source);
+        long written = 0;
+        try (
+            PooledBuffer output = encrypting
+                ? service.encryptWithHeader(input, pool)
+                : service.decryptWithHeader(input, pool);
+            FileChannel channel = FileChannel.open(
+                target,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE
+            )
+        ) {
+            ByteBuffer buffer = output.buffer();
+            while (buffer.hasRemaining()) {
+                written += channel.write(buffer);
+            }
+        }
+        long wall = System.nanoTime() - started;
+        return new PipelineReport(input.length, written, wall, 0, wall, 1, 0, 0, 0, 0, 0);
+    }
+
+    private static boolean parseCommand(String command) {
+        switch (command) {
+            case "encrypt":
+                return true;
+            case "decrypt":
+                return false;
+            default:
+                throw new IllegalArgumentException("unknown command: " + command);
+        }
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 1; i < args.length; i += 2) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("invalid option: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+
+    private static String require(Map<String, String> options, String name) {
+        String value = options.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("missing option: --" + name);
+        }
+        return value;
+    }
+
+    private static int intOption(Map<String, String> options, String name, int defaultValue) {
+        String value = options.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--" + name + " must be an integer: " + value);
+        }
+    }
+
+    private static String usage() {
+        return "usage: encrypt|decrypt --mode <ECB|CBC|CFB|CFB8|OFB|CTR|GCM|CBC_CS3> --key <hex> --in <path> --out <path>"
+            + " [--workers N] [--chunk-size BYTES] [--queue-depth N]";
+    }
+}
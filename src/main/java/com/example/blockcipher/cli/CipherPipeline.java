@@ -0,0 +1,574 @@
+package com.example.blockcipher.cli;
+
+import com.example.blockcipher.core.BlockCipher;
+import com.example.blockcipher.mode.ModeType;
+import com.example.blockcipher.padding.Pkcs7Padding;
+import com.example.blockcipher.stream.StreamingModeCipher;
+import com.example.blockcipher.util.BufferPool;
+import com.example.blockcipher.util.PooledBuffer;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 파일 하나를 "읽기 -> 암복호화 -> 순서 보장 쓰기" 3단계 파이프라인으로 처리합니다.
+ *
+ * <p>단계 구성</p>
+ * <p>1. reader: NIO {@link FileChannel}에서 고정 크기 청크를 읽어 작업 큐에 넣음</p>
+ * <p>2. workers: 청크를 암복호화해 쓰기 큐에 넣음</p>
+ * <p>3. writer: 청크 순번대로 재정렬해 출력 채널에 씀</p>
+ *
+ * <p>청크 버퍼(direct {@link ByteBuffer})는 실행 시작 시 {@link BufferPool}에서 고정 개수만 빌려 돌려 쓰며,
+ * 청크 수와 큐가 모두 고정 크기라서 느린 단계가 있으면 앞 단계가 자연스럽게 멈춥니다(backpressure).
+ * 같은 파이프라인으로 여러 파일을 처리하면 버퍼는 풀을 통해 파일 간에도 재사용됩니다.</p>
+ *
+ * <p>청크 크기는 버퍼 크기입니다. 패딩 블록이 들어갈 자리를 남기기 위해 청크마다
+ * {@code chunkSize - blockSize} 바이트씩 읽으므로 입력/출력 버퍼가 같은 크기 등급에 들어갑니다.</p>
+ *
+ * <p>청크끼리 독립적으로 계산 가능한 경우만 작업자를 여러 개 사용합니다.</p>
+ * <p>CTR: 청크 시작 블록 번호로 counter를 바로 계산({@code IV + offset/16})</p>
+ * <p>ECB: 블록이 서로 독립, 마지막 청크만 패딩</p>
+ * <p>CBC 복호화: 직전 청크의 마지막 암호문 블록을 체인 값으로 사용</p>
+ * <p>CBC 암호화/CFB/OFB는 앞 블록 결과가 필요하므로 작업자 1개가 하나의 스트림 상태를 이어갑니다.</p>
+ *
+ * <p>파일 형식은 {@code ModeCipherService}와 같은 {@code [IV || ciphertext]}입니다.
+ * CTR counter는 IV 전체(128비트)를 증가시키는 {@code CounterLayout.FULL_128}입니다.</p>
+ *
+ * <p>단계 스레드(reader 1 + workers + writer 1)는 파이프라인 생성 시 한 번 만들어 파일 간에 재사용하므로
+ * 파일은 한 번에 하나씩 처리하고, 다 쓰면 {@link #close()}로 스레드를 정리합니다.</p>
+ */
+public final class CipherPipeline implements AutoCloseable {
+    /** 기본 청크 크기(1 MiB). */
+    public static final int DEFAULT_CHUNK_SIZE = 1024 * 1024;
+
+    /** 작업자 종료 신호. */
+    private static final Chunk POISON = new Chunk(null, null, 0);
+
+    /** 실패 후 단계 스레드가 멈추기를 기다리는 최대 시간(분). */
+    private static final long STOP_TIMEOUT_MINUTES = 1;
+
+    private final ModeType type;
+    private final BlockCipher cipher;
+    private final boolean encrypting;
+    private final int workers;
+    private final int chunkSize;
+    private final int queueDepth;
+    private final BufferPool pool;
+    private final SecureRandom random = new SecureRandom();
+    /** 파일마다 재사용하는 단계 스레드. */
+    private final ExecutorService executor;
+
+    /**
+     * @param type 모드(ECB/CBC/CFB/OFB/CTR)
+     * @param cipher 단일 블록 암호 함수
+     * @param encrypting 암호화면 true
+     * @param workers 병렬 가능한 모드에서 사용할 작업자 수
+     * @param chunkSize 청크 버퍼 크기(블록 크기 배수로 올림, 최소 2블록)
+     * @param queueDepth 작업 큐/쓰기 큐 용량
+     * @param pool 청크 버퍼를 빌릴 풀(direct 권장)
+     */
+    public CipherPipeline(
+        ModeType type,
+        BlockCipher cipher,
+        boolean encrypting,
+        int workers,
+        int chunkSize,
+        int queueDepth,
+        BufferPool pool
+    ) {
+        this.type = Objects.requireNonNull(type, "type must not be null");
+        this.cipher = Objects.requireNonNull(cipher, "cipher must not be null");
+        if (!supports(type)) {
+            throw new IllegalArgumentException("pipeline does not support mode type: " + type);
+        }
+        if (workers <= 0 || chunkSize <= 0 || queueDepth <= 0) {
+            throw new IllegalArgumentException("workers, chunkSize and queueDepth must be positive");
+        }
+        int blockSize = cipher.blockSize();
+        this.encrypting = encrypting;
+        this.workers = isParallel() ? workers : 1;
+        this.chunkSize = Math.max(2 * blockSize, ((chunkSize + blockSize - 1) / blockSize) * blockSize);
+        this.queueDepth = queueDepth;
+        this.pool = Objects.requireNonNull(pool, "pool must not be null");
+        this.executor = Executors.newFixedThreadPool(this.workers + 2, runnable -> {
+            Thread thread = new Thread(runnable, "cipher-pipeline");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 전용 direct 버퍼 풀로 생성합니다.
+     */
+    public CipherPipeline(
+        ModeType type,
+        BlockCipher cipher,
+        boolean encrypting,
+        int workers,
+        int chunkSize,
+        int queueDepth
+    ) {
+        this(type, cipher, encrypting, workers, chunkSize, queueDepth, BufferPool.direct());
+    }
+
+    /**
+     * 청크 버퍼를 빌리는 풀(적중률 확인용)을 반환합니다.
+     */
+    public BufferPool pool() {
+        return pool;
+    }
+
+    /**
+     * 파이프라인(스트리밍 처리)을 지원하는 모드인지 반환합니다.
+     */
+    public static boolean supports(ModeType type) {
+        return type == ModeType.ECB || type == ModeType.CBC || type == ModeType.CFB
+            || type == ModeType.OFB || type == ModeType.CTR;
+    }
+
+    /**
+     * 청크 단위 병렬 처리가 가능한 모드/방향인지 반환합니다.
+     */
+    public boolean isParallel() {
+        return type == ModeType.CTR || type == ModeType.ECB || (type == ModeType.CBC && !encrypting);
+    }
+
+    /**
+     * 파일 하나를 처리합니다.
+     *
+     * @param source 입력 파일(복호화면 {@code [IV || ciphertext]})
+     * @param target 출력 파일(암호화면 {@code [IV || ciphertext]})
+     * @return 처리량/사용률 보고서
+     * @throws IllegalStateException 닫혔거나, 이전 실행의 단계 스레드가 멈추지 않아 사용할 수 없는 경우
+     */
+    public synchronized PipelineReport run(Path source, Path target) throws IOException {
+        if (executor.isShutdown()) {
+            throw new IllegalStateException("pipeline is closed");
+        }
+        long started = System.nanoTime();
+        try (
+            FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+            FileChannel out = FileChannel.open(
+                target,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE
+            )
+        ) {
+            int ivLength = type == ModeType.ECB ? 0 : cipher.blockSize();
+            byte[] iv = new byte[ivLength];
+            if (encrypting) {
+                random.nextBytes(iv);
+                writeFully(out, ByteBuffer.wrap(iv));
+            } else {
+                readFully(in, ByteBuffer.wrap(iv), 0);
+            }
+            long payloadStart = encrypting ? 0 : ivLength;
+            Run run = new Run(in, out, iv, payloadStart, in.size() - payloadStart);
+            run.execute();
+            return run.report(System.nanoTime() - started, encrypting ? ivLength : 0);
+        }
+    }
+
+    /**
+     * 단계 스레드를 종료합니다. 실행 중인 파일이 있으면 끝날 때까지 기다립니다.
+     */
+    @Override
+    public synchronized void close() {
+        executor.shutdown();
+    }
+
+    /**
+     * 파일 하나에 대한 실행 상태(큐, 버퍼 풀, 통계)입니다.
+     */
+    private final class Run {
+        private final FileChannel in;
+        private final FileChannel out;
+        private final byte[] iv;
+        private final long payloadStart;
+        private final long payloadSize;
+
+        private final List<Chunk> chunks = new ArrayList<>();
+        private final BlockingQueue<Chunk> free;
+        private final BlockingQueue<Chunk> work;
+        private final BlockingQueue<Chunk> written;
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        /** 지금 단계 작업을 실행 중인 스레드(실패 시 인터럽트 대상). */
+        private final Set<Thread> stageThreads = ConcurrentHashMap.newKeySet();
+
+        private final AtomicLong readerBusy = new AtomicLong();
+        private final AtomicLong workerBusy = new AtomicLong();
+        private final AtomicLong writerBusy = new AtomicLong();
+        private final DepthGauge workDepth = new DepthGauge();
+        private final DepthGauge writeDepth = new DepthGauge();
+        private long bytesOut;
+
+        Run(FileChannel in, FileChannel out, byte[] iv, long payloadStart, long payloadSize) {
+            this.in = in;
+            this.out = out;
+            this.iv = iv;
+            this.payloadStart = payloadStart;
+            this.payloadSize = payloadSize;
+            int poolSize = (2 * queueDepth) + workers;
+            this.free = new ArrayBlockingQueue<>(poolSize);
+            this.work = new ArrayBlockingQueue<>(queueDepth);
+            this.written = new ArrayBlockingQueue<>(poolSize);
+            for (int i = 0; i < poolSize; i++) {
+                Chunk chunk = new Chunk(pool.acquire(chunkSize), pool.acquire(chunkSize), cipher.blockSize());
+                chunks.add(chunk);
+                free.add(chunk);
+            }
+        }
+
+        /**
+         * 단계를 실행하고 모두 끝날 때까지 기다립니다.
+         *
+         * <p>실패하면 실행 중인 단계를 인터럽트하고 모두 멈출 때까지 기다린 뒤에만 청크 버퍼를 풀에 돌려줍니다.
+         * 아직 시작하지 않은 단계는 취소하지 않고 실행시켜, 실패를 보고 바로 끝나며 종료를 알리게 합니다.
+         * 제한 시간 안에 멈추지 않은 스레드가 있으면 그 스레드가 아직 버퍼에 쓸 수 있으므로 버퍼를 돌려주지 않고,
+         * 단계 스레드도 더 쓸 수 없으니 파이프라인을 닫습니다.</p>
+         */
+        void execute() throws IOException {
+            List<Future<?>> futures = new ArrayList<>();
+            CountDownLatch stopped = new CountDownLatch(workers + 2);
+            try {
+                futures.add(executor.submit(guard(this::readLoop, stopped)));
+                StreamingModeCipher serial = isParallel() ? null : serialStream();
+                for (int i = 0; i < workers; i++) {
+                    futures.add(executor.submit(guard(() -> workLoop(serial), stopped)));
+                }
+                futures.add(executor.submit(guard(this::writeLoop, stopped)));
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure.compareAndSet(null, new IOException("pipeline interrupted", e));
+            } catch (ExecutionException e) {
+                // guard()가 실패를 기록하므로 아래에서 원인을 다시 던집니다.
+            } finally {
+                if (failure.get() != null) {
+                    for (Thread thread : stageThreads) {
+                        thread.interrupt();
+                    }
+                }
+                // 제출하지 못한 단계는 실행되지 않으므로 기다리지 않습니다.
+                for (int i = futures.size(); i < workers + 2; i++) {
+                    stopped.countDown();
+                }
+                if (awaitStop(stopped)) {
+                    for (Chunk chunk : chunks) {
+                        chunk.release();
+                    }
+                } else {
+                    executor.shutdownNow();
+                    failure.compareAndSet(null, new IllegalStateException(
+                        "pipeline stages did not stop; chunk buffers were not returned to the pool"
+                    ));
+                }
+            }
+            Throwable cause = failure.get();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause != null) {
+                throw new IllegalStateException("pipeline failed", cause);
+            }
+        }
+
+        /**
+         * 단계 작업을 감싸서 첫 실패를 기록하고 나머지 단계를 깨웁니다.
+         */
+        private Runnable guard(StageTask task, CountDownLatch stopped) {
+            return () -> {
+                Thread current = Thread.currentThread();
+                stageThreads.add(current);
+                try {
+                    task.run();
+                } catch (Throwable t) {
+                    // 다른 단계는 take()/put()에서 이 값을 보고 대기를 멈춥니다.
+                    failure.compareAndSet(null, t);
+                    throw new IllegalStateException(t);
+                } finally {
+                    stageThreads.remove(current);
+                    stopped.countDown();
+                }
+            };
+        }
+
+        /**
+         * reader 단계: 청크를 읽고, CBC 복호화라면 직전 청크의 마지막 블록을 체인 값으로 기록합니다.
+         */
+        private void readLoop() throws Exception {
+            int blockSize = cipher.blockSize();
+            byte[] chain = iv.clone();
+            long position = 0;
+            long sequence = 0;
+            Chunk chunk;
+            do {
+                chunk = take(free);
+                long busyStart = System.nanoTime();
+                chunk.input.clear();
+                long remaining = payloadSize - position;
+                chunk.input.limit((int) Math.min(chunkSize - blockSize, remaining));
+                readFully(in, chunk.input, payloadStart + position);
+                chunk.input.flip();
+
+                int length = chunk.input.remaining();
+                chunk.sequence = sequence++;
+                chunk.offset = position;
+                position += length;
+                chunk.last = position >= payloadSize;
+                if (type == ModeType.CBC && !encrypting) {
+                    System.arraycopy(chain, 0, chunk.chainIv, 0, blockSize);
+                    if (length >= blockSize) {
+                        chunk.input.get(length - blockSize, chain, 0, blockSize);
+                    }
+                }
+                readerBusy.addAndGet(System.nanoTime() - busyStart);
+                workDepth.sample(work.size());
+                put(work, chunk);
+            } while (!chunk.last);
+
+            for (int i = 0; i < workers; i++) {
+                put(work, POISON);
+            }
+        }
+
+        /**
+         * worker 단계: 병렬 모드는 청크마다 독립 스트림을, 순차 모드는 공유 스트림 하나를 사용합니다.
+         */
+        private void workLoop(StreamingModeCipher serial) throws Exception {
+            while (true) {
+                Chunk chunk = take(work);
+                if (chunk == POISON) {
+                    return;
+                }
+                long busyStart = System.nanoTime();
+                chunk.output.clear();
+                if (serial != null) {
+                    serial.update(chunk.input, chunk.output);
+                    if (chunk.last) {
+                        serial.doFinal(chunk.output);
+                    }
+                } else {
+                    StreamingModeCipher stream = chunkStream(chunk);
+                    stream.update(chunk.input, chunk.output);
+                    stream.doFinal(chunk.output);
+                }
+                chunk.output.flip();
+                workerBusy.addAndGet(System.nanoTime() - busyStart);
+                put(written, chunk);
+            }
+        }
+
+        /**
+         * writer 단계: 순번이 맞는 청크부터 출력하고 버퍼를 풀에 돌려줍니다.
+         */
+        private void writeLoop() throws Exception {
+            PriorityQueue<Chunk> reorder = new PriorityQueue<>(Comparator.comparingLong(c -> c.sequence));
+            long next = 0;
+            boolean done = false;
+            while (!done) {
+                writeDepth.sample(written.size());
+                reorder.add(take(written));
+                long busyStart = System.nanoTime();
+                while (!reorder.isEmpty() && reorder.peek().sequence == next) {
+                    Chunk chunk = reorder.poll();
+                    bytesOut += writeFully(out, chunk.output);
+                    next++;
+                    done = chunk.last;
+                    put(free, chunk);
+                }
+                writerBusy.addAndGet(System.nanoTime() - busyStart);
+            }
+        }
+
+        /**
+         * 병렬 모드에서 청크 하나를 독립적으로 처리할 스트림을 만듭니다.
+         */
+        private StreamingModeCipher chunkStream(Chunk chunk) {
+            switch (type) {
+                case CTR:
+                    return StreamingModeCipher.ctrAt(cipher, iv, chunk.offset / cipher.blockSize());
+                case ECB:
+                    return StreamingModeCipher.create(
+                        ModeType.ECB, cipher, encrypting, chunk.last ? new Pkcs7Padding() : null, new byte[0]
+                    );
+                default:
+                    return StreamingModeCipher.create(
+                        ModeType.CBC, cipher, false, chunk.last ? new Pkcs7Padding() : null, chunk.chainIv
+                    );
+            }
+        }
+
+        /**
+         * 순차 모드에서 작업자 하나가 이어서 사용할 스트림을 만듭니다.
+         */
+        private StreamingModeCipher serialStream() {
+            return encrypting
+                ? StreamingModeCipher.encryptor(type, cipher, iv)
+                : StreamingModeCipher.decryptor(type, cipher, iv);
+        }
+
+        private Chunk take(BlockingQueue<Chunk> queue) throws InterruptedException {
+            while (true) {
+                if (failure.get() != null) {
+                    throw new InterruptedException("another pipeline stage failed");
+                }
+                Chunk chunk = queue.poll(50, TimeUnit.MILLISECONDS);
+                if (chunk != null) {
+                    return chunk;
+                }
+            }
+        }
+
+        private void put(BlockingQueue<Chunk> queue, Chunk chunk) throws InterruptedException {
+            while (!queue.offer(chunk, 50, TimeUnit.MILLISECONDS)) {
+                if (failure.get() != null) {
+                    throw new InterruptedException("another pipeline stage failed");
+                }
+            }
+        }
+
+        PipelineReport report(long wallNanos, int headerBytes) {
+            return new PipelineReport(
+                payloadSize,
+                bytesOut + headerBytes,
+                wallNanos,
+                readerBusy.get(),
+                workerBusy.get(),
+                workers,
+                writerBusy.get(),
+                workDepth.max,
+                workDepth.average(),
+                writeDepth.max,
+                writeDepth.average()
+            );
+        }
+    }
+
+    /**
+     * 버퍼를 풀에 돌려주기 전에 모든 단계 작업이 멈췄는지 확인합니다.
+     *
+     * @return 제한 시간 안에 모두 멈췄으면 true
+     */
+    private static boolean awaitStop(CountDownLatch stopped) {
+        boolean interrupted = Thread.interrupted();
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(STOP_TIMEOUT_MINUTES);
+        try {
+            while (true) {
+                try {
+                    return stopped.await(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    // 버퍼를 안전하게 돌려줄 수 있는지 알아야 하므로 끝까지 기다립니다.
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void readFully(FileChannel in, ByteBuffer buffer, long position) throws IOException {
+        long at = position;
+        while (buffer.hasRemaining()) {
+            int read = in.read(buffer, at);
+            if (read < 0) {
+                throw new IOException("unexpected end of file");
+            }
+            at += read;
+        }
+    }
+
+    private static long writeFully(FileChannel out, ByteBuffer buffer) throws IOException {
+        long written = 0;
+        while (buffer.hasRemaining()) {
+            written += out.write(buffer);
+        }
+        return written;
+    }
+
+    /**
+     * 예외를 던질 수 있는 단계 작업입니다.
+     */
+    @FunctionalInterface
+    private interface StageTask {
+        void run() throws Exception;
+    }
+
+    /**
+     * 파이프라인을 오가는 청크(풀에서 빌린 입력/출력 버퍼 한 쌍)입니다.
+     */
+    private static final class Chunk {
+        final PooledBuffer inputLease;
+        final PooledBuffer outputLease;
+        final ByteBuffer input;
+        final ByteBuffer output;
+        final byte[] chainIv;
+        long sequence;
+        long offset;
+        boolean last;
+
+        Chunk(PooledBuffer inputLease, PooledBuffer outputLease, int blockSize) {
+            this.inputLease = inputLease;
+            this.outputLease = outputLease;
+            this.chainIv = new byte[blockSize];
+            this.input = inputLease == null ? null : inputLease.buffer();
+            this.output = outputLease == null ? null : outputLease.buffer();
+        }
+
+        void release() {
+            inputLease.release();
+            outputLease.release();
+        }
+    }
+
+    /**
+     * 큐 깊이 표본의 최대/평균을 기록합니다(단일 스레드에서만 갱신).
+     */
+    private static final class DepthGauge {
+        int max;
+        long sum;
+        long count;
+
+        void sample(int depth) {
+            max = Math.max(max, depth);
+            sum += depth;
+            count++;
+        }
+
+        double average() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.blockcipher.cli;
+
+import java.util.Locale;
+
+/**
+ * 파이프라인 한 번(또는 여러 번 합산)의 처리량과 단계별 사용률을 담는 결과 객체입니다.
+ *
+ * <p>단계 사용률 = 해당 단계가 큐 대기 없이 실제 작업한 시간 / 전체 경과 시간(작업자 단계는 작업자 수로 나눔).
+ * 사용률이 100%에 가까운 단계가 병목이며, 큐 깊이가 계속 최대치면 그 뒤 단계가 느린 것입니다.</p>
+ */
+public final class PipelineReport {
+    private final long bytesIn;
+    private final long bytesOut;
+    private final long wallNanos;
+    private final long readerBusyNanos;
+    private final long workerBusyNanos;
+    private final int workers;
+    private final long writerBusyNanos;
+    private final int maxWorkQueueDepth;
+    private final double avgWorkQueueDepth;
+    private final int maxWriteQueueDepth;
+    private final double avgWriteQueueDepth;
+
+    PipelineReport(
+        long bytesIn,
+        long bytesOut,
+        long wallNanos,
+        long readerBusyNanos,
+        long workerBusyNanos,
+        int workers,
+        long writerBusyNanos,
+        int maxWorkQueueDepth,
+        double avgWorkQueueDepth,
+        int maxWriteQueueDepth,
+        double avgWriteQueueDepth
+    ) {
+        this.bytesIn = bytesIn;
+        this.bytesOut = bytesOut;
+        this.wallNanos = wallNanos;
+        this.readerBusyNanos = readerBusyNanos;
+        this.workerBusyNanos = workerBusyNanos;
+        this.workers = workers;
+        this.writerBusyNanos = writerBusyNanos;
+        this.maxWorkQueueDepth = maxWorkQueueDepth;
+        this.avgWorkQueueDepth = avgWorkQueueDepth;
+        this.maxWriteQueueDepth = maxWriteQueueDepth;
+        this.avgWriteQueueDepth = avgWriteQueueDepth;
+    }
+
+    public long bytesIn() {
+        return bytesIn;
+    }
+
+    public long bytesOut() {
+        return bytesOut;
+    }
+
+    /**
+     * 입력 기준 처리량(MB/s, 1 MB = 10^6 바이트).
+     */
+    public double megabytesPerSecond() {
+        return wallNanos == 0 ? 0 : (bytesIn / 1e6) / (wallNanos / 1e9);
+    }
+
+    public double readerUtilization() {
+        return ratio(readerBusyNanos, wallNanos);
+    }
+
+    public double workerUtilization() {
+        return ratio(workerBusyNanos, wallNanos * Math.max(1, workers));
+    }
+
+    public double writerUtilization() {
+        return ratio(writerBusyNanos, wallNanos);
+    }
+
+    public int maxWorkQueueDepth() {
+        return maxWorkQueueDepth;
+    }
+
+    public int maxWriteQueueDepth() {
+        return maxWriteQueueDepth;
+    }
+
+    /**
+     * 여러 파일의 결과를 합산합니다. 큐 평균은 경과 시간 가중 평균입니다.
+     */
+    public PipelineReport plus(PipelineReport other) {
+        long wall = wallNanos + other.wallNanos;
+        return new PipelineReport(
+            bytesIn + other.bytesIn,
+            bytesOut + other.bytesOut,
+            wall,
+            readerBusyNanos + other.readerBusyNanos,
+            workerBusyNanos + other.workerBusyNanos,
+            Math.max(workers, other.workers),
+            writerBusyNanos + other.writerBusyNanos,
+            Math.max(maxWorkQueueDepth, other.maxWorkQueueDepth),
+            weighted(avgWorkQueueDepth, wallNanos, other.avgWorkQueueDepth, other.wallNanos),
+            Math.max(maxWriteQueueDepth, other.maxWriteQueueDepth),
+            weighted(avgWriteQueueDepth, wallNanos, other.avgWriteQueueDepth, other.wallNanos)
+        );
+    }
+
+    /**
+     * 빈 결과(합산 시작값)를 반환합니다.
+     */
+    static PipelineReport empty() {
+        return new PipelineReport(0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            Locale.ROOT,
+            "%.1f MB in %.3f s = %.1f MB/s | util reader %.0f%% workers(%d) %.0f%% writer %.0f%%"
+                + " | queue work avg %.1f max %d, write avg %.1f max %d",
+            bytesIn / 1e6,
+            wallNanos / 1e9,
+            megabytesPerSecond(),
+            readerUtilization() * 100,
+            workers,
+            workerUtilization() * 100,
+            writerUtilization() * 100,
+            avgWorkQueueDepth,
+            maxWorkQueueDepth,
+            avgWriteQueueDepth,
+            maxWriteQueueDepth
+        );
+    }
+
+    private static double ratio(long part, long whole) {
+        return whole == 0 ? 0 : Math.min(1.0, (double) part / whole);
+    }
+
+    private static double weighted(double a, long wa, double b, long wb) {
+        long total = wa + wb;
+        return total == 0 ? 0 : ((a * wa) + (b * wb)) / total;
+    }
+}
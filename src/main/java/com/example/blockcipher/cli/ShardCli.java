@@ -0,0 +1,95 @@
+package com.example.blockcipher.cli;
+
+import com.example.blockcipher.shard.ShardCoordinator;
+import com.example.blockcipher.shard.ShardReport;
+import com.example.blockcipher.util.Hex;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 큰 파일 하나를 작업자 JVM 여러 개로 CTR 암복호화하는 명령행 도구입니다.
+ *
+ * <pre>
+ * encrypt|decrypt --key &lt;hex&gt; --iv &lt;hex&gt; --in &lt;file&gt; --out &lt;file&gt;
+ *                 [--workers N] [--shard-size BYTES] [--max-attempts N] [--shard-timeout-ms MILLIS]
+ * </pre>
+ *
+ * <p>출력은 IV 헤더 없는 원시 CTR 암호문이므로 IV는 호출자가 따로 보관합니다.</p>
+ */
+public final class ShardCli {
+    private ShardCli() {
+    }
+
+    public static void main(String[] args) {
+        try {
+            System.out.println(run(args));
+        } catch (IllegalArgumentException | IOException e) {
+            System.err.println("error: " + e.getMessage());
+            System.err.println(usage());
+            System.exit(1);
+        }
+    }
+
+    static ShardReport run(String[] args) throws IOException {
+        if (args.length == 0) {
+            throw new IllegalArgumentException("missing command");
+        }
+        String command = args[0];
+        if (!command.equals("encrypt") && !command.equals("decrypt")) {
+            throw new IllegalArgumentException("unknown command: " + command);
+        }
+        Map<String, String> options = parseOptions(args);
+        byte[] key = Hex.decode(require(options, "key"));
+        byte[] iv = Hex.decode(require(options, "iv"));
+        Path in = Paths.get(require(options, "in"));
+        Path out = Paths.get(require(options, "out"));
+        ShardCoordinator coordinator = new ShardCoordinator(
+            intOption(options, "workers", Runtime.getRuntime().availableProcessors()),
+            intOption(options, "shard-size", ShardCoordinator.DEFAULT_SHARD_SIZE),
+            intOption(options, "max-attempts", ShardCoordinator.DEFAULT_MAX_ATTEMPTS),
+            intOption(options, "shard-timeout-ms", ShardCoordinator.DEFAULT_SHARD_TIMEOUT_MILLIS)
+        );
+        return command.equals("encrypt")
+            ? coordinator.encryptCtr(in, out, key, iv)
+            : coordinator.decryptCtr(in, out, key, iv);
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 1; i < args.length; i += 2) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("invalid option: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+
+    private static String require(Map<String, String> options, String name) {
+        String value = options.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("missing option: --" + name);
+        }
+        return value;
+    }
+
+    private static int intOption(Map<String, String> options, String name, int defaultValue) {
+        String value = options.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--" + name + " must be an integer: " + value);
+        }
+    }
+
+    private static String usage() {
+        return "usage: encrypt|decrypt --key <hex> --iv <hex> --in <file> --out <file>"
+            + " [--workers N] [--shard-size BYTES] [--max-attempts N] [--shard-timeout-ms MILLIS]";
+    }
+}
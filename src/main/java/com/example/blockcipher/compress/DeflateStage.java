@@ -0,0 +1,287 @@
+package com.example.blockcipher.compress;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 암호화 전에 평문을 Deflate로 줄이는 선택적 압축 단계입니다.
+ *
+ * <p>압축 여부는 암호화할 평문 앞의 1바이트 플래그({@link #STORED} / {@link #DEFLATED})로 표시합니다.
+ * 플래그도 암호문 안에 들어가므로 인증 모드(GCM)에서는 본문과 함께 인증됩니다.</p>
+ * <p>1. 입력 앞부분 {@code sampleBytes}만 먼저 압축해 보고, 비율이 {@code maxRatio}보다 크면 압축하지 않음</p>
+ * <p>2. 표본이 통과하면 전체를 압축하고, 결과가 원문보다 작을 때만 사용</p>
+ * <p>3. 해제는 {@code maxInflatedBytes}를 넘으면 중단(압축 폭탄 방지)</p>
+ *
+ * <p>한 번에 처리하는 경로({@link #compressIfWorthwhile}, {@link #decompress})는 스레드마다
+ * {@link Deflater}/{@link Inflater}와 작업 버퍼를 하나씩 두고 {@code reset()}으로 재사용합니다.
+ * 스트리밍 경로는 스트림마다 {@link Compressor}를 하나 만들고 끝나면 네이티브 자원을 반납합니다.</p>
+ *
+ * <p>압축은 평문 내용에 따라 암호문 길이를 바꾸므로, 공격자가 평문 일부를 넣을 수 있는 경우
+ * 길이로 비밀을 추측하는 공격(CRIME/BREACH 유형)에 주의해야 합니다.</p>
+ */
+public final class DeflateStage {
+    /** 압축하지 않은 본문. */
+    public static final byte STORED = 0;
+    /** Deflate(zlib 형식)로 압축한 본문. */
+    public static final byte DEFLATED = 1;
+
+    /** 기본 표본 크기(바이트). */
+    public static final int DEFAULT_SAMPLE_BYTES = 4096;
+    /** 기본 허용 압축 비율(압축 후 / 압축 전). 이보다 크면 압축하지 않습니다. */
+    public static final double DEFAULT_MAX_RATIO = 0.9;
+    /** 기본 해제 상한(바이트). */
+    public static final int DEFAULT_MAX_INFLATED_BYTES = 64 << 20;
+
+    /** 이보다 짧은 입력은 zlib 헤더/체크섬 비용 때문에 압축하지 않습니다. */
+    private static final int MIN_INPUT_BYTES = 64;
+    private static final int SCRATCH_BYTES = 16 * 1024;
+
+    private final int level;
+    private final int sampleBytes;
+    private final double maxRatio;
+    private final int maxInflatedBytes;
+    private final ThreadLocal<Codec> codecs;
+
+    private final LongAdder compressed = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+
+    /**
+     * @param level Deflate 압축 수준({@link Deflater#BEST_SPEED} ~ {@link Deflater#BEST_COMPRESSION})
+     * @param sampleBytes 압축 가능성을 볼 표본 크기(1 이상)
+     * @param maxRatio 허용 압축 비율(0 초과 1 이하)
+     * @param maxInflatedBytes 해제 결과 최대 크기(1 이상)
+     */
+    public DeflateStage(int level, int sampleBytes, double maxRatio, int maxInflatedBytes) {
+        if (level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("level must be between 1 and 9");
+        }
+        if (sampleBytes <= 0) {
+            throw new IllegalArgumentException("sampleBytes must be positive");
+        }
+        if (!(maxRatio > 0 && maxRatio <= 1)) {
+            throw new IllegalArgumentException("maxRatio must be in (0, 1]");
+        }
+        if (maxInflatedBytes <= 0) {
+            throw new IllegalArgumentException("maxInflatedBytes must be positive");
+        }
+        this.level = level;
+        this.sampleBytes = sampleBytes;
+        this.maxRatio = maxRatio;
+        this.maxInflatedBytes = maxInflatedBytes;
+        this.codecs = ThreadLocal.withInitial(() -> new Codec(level));
+    }
+
+    /**
+     * 속도 우선 수준과 기본 표본/비율/상한으로 만듭니다.
+     */
+    public static DeflateStage defaults() {
+        return new DeflateStage(Deflater.BEST_SPEED, DEFAULT_SAMPLE_BYTES, DEFAULT_MAX_RATIO, DEFAULT_MAX_INFLATED_BYTES);
+    }
+
+    /**
+     * 표본이 충분히 줄어드는지 확인합니다.
+     */
+    public boolean sampleCompresses(byte[] input, int offset, int length) {
+        return sampleCompresses(ByteBuffer.wrap(input, offset, length));
+    }
+
+    /**
+     * 버퍼의 남은 구간 앞부분으로 표본 검사를 합니다(버퍼 위치는 바꾸지 않음).
+     */
+    public boolean sampleCompresses(ByteBuffer input) {
+        int length = input.remaining();
+        if (length < MIN_INPUT_BYTES) {
+            return false;
+        }
+        int sample = Math.min(length, sampleBytes);
+        ByteBuffer window = input.duplicate();
+        window.limit(window.position() + sample);
+        Codec codec = codecs.get();
+        Deflater deflater = codec.deflater;
+        deflater.reset();
+        deflater.setInput(window);
+        deflater.finish();
+        long limit = (long) (sample * maxRatio);
+        while (!deflater.finished()) {
+            deflater.deflate(codec.scratch);
+            if (deflater.getBytesWritten() > limit) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 압축할 가치가 있으면 압축 결과를, 아니면 null을 반환합니다.
+     *
+     * <p>null이면 호출자는 원문을 {@link #STORED}로 보냅니다.</p>
+     */
+    public byte[] compressIfWorthwhile(byte[] input) {
+        if (!sampleCompresses(input, 0, input.length)) {
+            bypassed.increment();
+            return null;
+        }
+        Codec codec = codecs.get();
+        Deflater deflater = codec.deflater;
+        deflater.reset();
+        deflater.setInput(input);
+        deflater.finish();
+        byte[] out = new byte[Math.max(MIN_INPUT_BYTES, input.length / 2)];
+        int written = 0;
+        while (!deflater.finished()) {
+            if (written >= input.length) {
+                bypassed.increment();
+                return null;
+            }
+            if (written == out.length) {
+                out = Arrays.copyOf(out, out.length * 2);
+            }
+            written += deflater.deflate(out, written, out.length - written);
+        }
+        if (written >= input.length) {
+            bypassed.increment();
+            return null;
+        }
+        compressed.increment();
+        return Arrays.copyOf(out, written);
+    }
+
+    /**
+     * zlib 형식 본문을 해제합니다.
+     *
+     * @throws IllegalArgumentException 형식 오류, 잘린 입력, 상한 초과
+     */
+    public byte[] decompress(byte[] input, int offset, int length) {
+        Inflater inflater = codecs.get().inflater;
+        inflater.reset();
+        inflater.setInput(input, offset, length);
+        byte[] out = new byte[Math.min(maxInflatedBytes, Math.max(MIN_INPUT_BYTES, length * 4))];
+        int written = 0;
+        try {
+            while (!inflater.finished()) {
+                if (written == out.length) {
+                    if (out.length == maxInflatedBytes) {
+                        throw new IllegalArgumentException("inflated data exceeds " + maxInflatedBytes + " bytes");
+                    }
+                    out = Arrays.copyOf(out, (int) Math.min(maxInflatedBytes, out.length * 2L));
+                }
+                int n = inflater.inflate(out, written, out.length - written);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalArgumentException("truncated deflate data");
+                }
+                written += n;
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("invalid deflate data", e);
+        }
+        if (inflater.getRemaining() > 0) {
+            throw new IllegalArgumentException("trailing bytes after deflate data");
+        }
+        return written == out.length ? out : Arrays.copyOf(out, written);
+    }
+
+    /**
+     * 스트림 하나를 위한 압축기를 만듭니다.
+     */
+    public Compressor newCompressor() {
+        return new Compressor(level);
+    }
+
+    /**
+     * 압축 결과를 사용한 호출 수.
+     */
+    public long compressed() {
+        return compressed.sum();
+    }
+
+    /**
+     * 표본 검사나 결과 크기 때문에 원문을 그대로 보낸 호출 수.
+     */
+    public long bypassed() {
+        return bypassed.sum();
+    }
+
+    /**
+     * 압축 여부를 스트림 첫 청크로 정했을 때 지표에 반영합니다.
+     */
+    public void recordDecision(boolean deflated) {
+        (deflated ? compressed : bypassed).increment();
+    }
+
+    /**
+     * 청크를 순서대로 받아 하나의 zlib 스트림으로 압축합니다(단일 스레드 순차 호출 전제).
+     *
+     * <p>{@link #finish()} 뒤에는 네이티브 자원을 반납하므로 다시 쓸 수 없습니다.</p>
+     */
+    public static final class Compressor {
+        private final Deflater deflater;
+        private final byte[] scratch = new byte[SCRATCH_BYTES];
+        private boolean finished;
+
+        private Compressor(int level) {
+            this.deflater = new Deflater(level);
+        }
+
+        /**
+         * 청크를 넣고 지금까지 만들어진 압축 바이트를 반환합니다(빈 버퍼일 수 있음).
+         */
+        public ByteBuffer update(ByteBuffer in) {
+            requireOpen();
+            deflater.setInput(in);
+            ByteBuffer out = ByteBuffer.allocate(0);
+            while (!deflater.needsInput()) {
+                out = append(out, deflater.deflate(scratch));
+            }
+            return out.flip();
+        }
+
+        /**
+         * 스트림을 닫고 남은 압축 바이트(zlib 체크섬 포함)를 반환합니다.
+         */
+        public ByteBuffer finish() {
+            requireOpen();
+            finished = true;
+            deflater.finish();
+            ByteBuffer out = ByteBuffer.allocate(0);
+            while (!deflater.finished()) {
+                out = append(out, deflater.deflate(scratch));
+            }
+            deflater.end();
+            return out.flip();
+        }
+
+        private ByteBuffer append(ByteBuffer out, int n) {
+            if (n == 0) {
+                return out;
+            }
+            if (out.remaining() < n) {
+                ByteBuffer grown = ByteBuffer.allocate(Math.max(out.capacity() * 2, out.position() + n));
+                out = grown.put(out.flip());
+            }
+            return out.put(scratch, 0, n);
+        }
+
+        private void requireOpen() {
+            if (finished) {
+                throw new IllegalStateException("compressor already finished");
+            }
+        }
+    }
+
+    /**
+     * 스레드별 재사용 객체.
+     */
+    private static final class Codec {
+        final Deflater deflater;
+        final Inflater inflater = new Inflater();
+        final byte[] scratch = new byte[SCRATCH_BYTES];
+
+        Codec(int level) {
+            this.deflater = new Deflater(level);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.blockcipher.container;
+
+import com.example.blockcipher.core.BlockCipher;
+import com.example.blockcipher.factory.ModeFactory;
+import com.example.blockcipher.mode.ModeOfOperation;
+import com.example.blockcipher.mode.ModeType;
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * 평문을 고정 크기 청크로 나눠 청크마다 독립적으로 암호화하는 컨테이너 포맷입니다.
+ *
+ * <p>{@code ModeCipherService}의 {@code [IV || ciphertext]} 형식은 메시지 전체가 하나의 체인이므로
+ * CBC/CFB/OFB 암호화가 완전히 순차적이고, 중간 구간만 복호화할 수도 없습니다.
+ * 이 컨테이너는 청크마다 별도의 IV를 유도해 체인을 끊어 두기 때문에</p>
+ * <p>1. 모든 {@link ModeType}에서 청크 단위 병렬 암복호화가 가능하고</p>
+ * <p>2. 트레일러의 청크 인덱스로 요청한 바이트 범위에 해당하는 청크만 복호화할 수 있습니다.</p>
+ *
+ * <p>청크 IV 유도식: {@code IV_i = MSB_ivLength(E_k(pad(baseIv) xor [i]_128))}.
+ * baseIv는 컨테이너마다 난수로 생성해 헤더에 저장하고, 청크별 IV는 저장하지 않습니다.
+ * 패딩이 있는 모드(ECB/CBC)는 청크마다 패딩이 붙으므로 청크 암호문 길이가 달라질 수 있습니다.</p>
+ */
+public final class ChunkedContainer {
+    /** 기본 청크 크기(64 KiB). */
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    private final ModeType modeType;
+    private final BlockCipher cipher;
+    private final ModeOfOperation mode;
+    private final int chunkSize;
+    private final SecureRandom random;
+
+    /**
+     * @param modeType 청크 암호화에 사용할 모드
+     * @param cipher 단일 블록 암호 함수(모드 생성과 청크 IV 유도에 함께 사용)
+     * @param chunkSize 평문 청크 크기(바이트)
+     */
+    public ChunkedContainer(ModeType modeType, BlockCipher cipher, int chunkSize) {
+        Objects.requireNonNull(modeType, "modeType must not be null");
+        Objects.requireNonNull(cipher, "cipher must not be null");
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+        this.modeType = modeType;
+        this.cipher = cipher;
+        this.mode = ModeFactory.create(modeType, cipher);
+        this.chunkSize = chunkSize;
+        this.random = new SecureRandom();
+    }
+
+    /**
+     * 기본 청크 크기로 컨테이너를 생성합니다.
+     */
+    public ChunkedContainer(ModeType modeType, BlockCipher cipher) {
+        this(modeType, cipher, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * 평문 전체를 컨테이너로 암호화합니다.
+     *
+     * <p>처리 순서</p>
+     * <p>1. baseIv 난수 생성</p>
+     * <p>2. 청크별 IV를 유도해 모든 청크를 병렬 암호화</p>
+     * <p>3. {@code header || chunks || trailer}로 직렬화</p>
+     */
+    public byte[] encrypt(byte[] plaintext) {
+        Objects.requireNonNull(plaintext, "plaintext must not be null");
+        byte[] baseIv = new byte[mode.ivLength()];
+        if (baseIv.length > 0) {
+            random.nextBytes(baseIv);
+        }
+        int chunkCount = (plaintext.length + chunkSize - 1) / chunkSize;
+
+        byte[][] chunks = new byte[chunkCount][];
+        IntStream.range(0, chunkCount)
+            .parallel()
+            .forEach(chunkIndex -> {
+                int offset = chunkIndex * chunkSize;
+                int length = Math.min(chunkSize, plaintext.length - offset);
+                byte[] chunk = Arrays.copyOfRange(plaintext, offset, offset + length);
+                chunks[chunkIndex] = mode.encrypt(chunk, chunkIv(baseIv, chunkIndex));
+            });
+
+        int[] cipherLengths = new int[chunkCount];
+        int bodyLength = 0;
+        for (int i = 0; i < chunkCount; i++) {
+            cipherLengths[i] = chunks[i].length;
+            bodyLength += chunks[i].length;
+        }
+
+        ByteBuffer out = ByteBuffer.allocate(
+            ContainerLayout.FIXED_HEADER_LENGTH + baseIv.length + bodyLength + (chunkCount * 4) + 4
+        );
+        ContainerLayout.writeHeader(out, modeType, chunkSize, plaintext.length, baseIv);
+        for (byte[] chunk : chunks) {
+            out.put(chunk);
+        }
+        ContainerLayout.writeTrailer(out, cipherLengths);
+        return out.array();
+    }
+
+    /**
+     * 컨테이너 전체를 복호화합니다.
+     */
+    public byte[] decrypt(byte[] container) {
+        ContainerLayout layout = parseFor(container);
+        return decryptChunks(container, layout, 0, layout.chunkCount());
+    }
+
+    /**
+     * 지정한 평문 바이트 범위만 복호화합니다.
+     *
+     * <p>범위를 덮는 청크만 골라 병렬 복호화한 뒤, 요청 구간만 잘라 반환합니다.</p>
+     *
+     * @param container 컨테이너 바이트 배열
+     * @param offset 평문 기준 시작 위치
+     * @param length 읽을 길이
+     * @return 요청 구간의 평문
+     */
+    public byte[] decryptRange(byte[] container, long offset, int length) {
+        ContainerLayout layout = parseFor(container);
+        if (offset < 0 || length < 0 || offset + length > layout.plaintextLength) {
+            throw new IllegalArgumentException("range is outside of the plaintext");
+        }
+        if (length == 0) {
+            return new byte[0];
+        }
+        int firstChunk = (int) (offset / layout.chunkSize);
+        int lastChunk = (int) ((offset + length - 1) / layout.chunkSize);
+        byte[] covered = decryptChunks(container, layout, firstChunk, lastChunk + 1);
+
+        int skip = (int) (offset - ((long) firstChunk * layout.chunkSize));
+        return Arrays.copyOfRange(covered, skip, skip + length);
+    }
+
+    /**
+     * {@code [fromChunk, toChunk)} 구간의 청크를 병렬 복호화해 이어붙입니다.
+     */
+    private byte[] decryptChunks(byte[] container, ContainerLayout layout, int fromChunk, int toChunk) {
+        long startPlain = (long) fromChunk * layout.chunkSize;
+        long endPlain = Math.min(layout.plaintextLength, (long) toChunk * layout.chunkSize);
+        byte[] out = new byte[Math.toIntExact(endPlain - startPlain)];
+
+        IntStream.range(fromChunk, toChunk)
+            .parallel()
+            .forEach(chunkIndex -> {
+                int cipherOffset = layout.cipherOffsets[chunkIndex];
+                byte[] chunk = Arrays.copyOfRange(
+                    container, cipherOffset, cipherOffset + layout.cipherLengths[chunkIndex]
+                );
+                byte[] plain = mode.decrypt(chunk, chunkIv(layout.baseIv, chunkIndex));
+
+                long plainOffset = (long) chunkIndex * layout.chunkSize;
+                long expected = Math.min(layout.chunkSize, layout.plaintextLength - plainOffset);
+                if (plain.length != expected) {
+                    throw new IllegalArgumentException("chunk " + chunkIndex + " has unexpected plaintext length");
+                }
+                System.arraycopy(plain, 0, out, (int) (plainOffset - startPlain), plain.length);
+            });
+        return out;
+    }
+
+    /**
+     * 컨테이너를 해석하고 이 인스턴스의 모드와 일치하는지 확인합니다.
+     */
+    private ContainerLayout parseFor(byte[] container) {
+        ContainerLayout layout = ContainerLayout.parse(container);
+        if (layout.modeType != modeType) {
+            throw new IllegalArgumentException("container mode " + layout.modeType + " does not match " + modeType);
+        }
+        if (layout.baseIv.length != mode.ivLength()) {
+            throw new IllegalArgumentException("container iv length does not match mode");
+        }
+        return layout;
+    }
+
+    /**
+     * 청크 번호로부터 청크 IV를 유도합니다.
+     *
+     * <p>{@code IV_i = MSB_ivLength(E_k(pad(baseIv) xor [i]_128))}</p>
+     * <p>E_k가 순열이므로 서로 다른 청크 번호는 서로 다른 IV를 만들고,
+     * 청크 번호를 알면 다른 청크와 무관하게 바로 계산할 수 있습니다.</p>
+     */
+    private byte[] chunkIv(byte[] baseIv, int chunkIndex) {
+        if (baseIv.length == 0) {
+            return baseIv;
+        }
+        int blockSize = cipher.blockSize();
+        byte[] input = Arrays.copyOf(baseIv, blockSize);
+        for (int i = 0; i < 4; i++) {
+            input[blockSize - 1 - i] ^= (byte) (chunkIndex >>> (8 * i));
+        }
+        return Arrays.copyOf(cipher.encryptBlock(input), baseIv.length);
+    }
+}
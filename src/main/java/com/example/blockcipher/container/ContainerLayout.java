@@ -0,0 +1,141 @@
+package com.example.blockcipher.container;
+
+import com.example.blockcipher.mode.ModeType;
+import java.nio.ByteBuffer;
+
+/**
+ * 청크 컨테이너의 헤더/트레일러를 해석한 결과입니다.
+ *
+ * <p>컨테이너 전체 구조</p>
+ * <p>{@code [header][chunk_0 ciphertext]...[chunk_{n-1} ciphertext][trailer]}</p>
+ *
+ * <p>헤더</p>
+ * <p>{@code magic(4) || version(1) || mode(1) || ivLength(1) || chunkSize(4) || plaintextLength(8) || baseIv}</p>
+ * <p>mode는 {@link ModeType#wireId()}입니다.</p>
+ *
+ * <p>트레일러(청크 인덱스)</p>
+ * <p>{@code cipherLength_0(4) || ... || cipherLength_{n-1}(4) || chunkCount(4)}</p>
+ */
+final class ContainerLayout {
+    /** 컨테이너 식별자 "BCCF". */
+    static final int MAGIC = 0x42434346;
+
+    /** 현재 포맷 버전. */
+    static final byte VERSION = 1;
+
+    /** baseIv를 제외한 고정 헤더 길이. */
+    static final int FIXED_HEADER_LENGTH = 4 + 1 + 1 + 1 + 4 + 8;
+
+    final ModeType modeType;
+    final int chunkSize;
+    final long plaintextLength;
+    final byte[] baseIv;
+    /** 각 청크 암호문의 시작 위치(컨테이너 기준). */
+    final int[] cipherOffsets;
+    /** 각 청크 암호문의 길이. */
+    final int[] cipherLengths;
+
+    private ContainerLayout(
+        ModeType modeType,
+        int chunkSize,
+        long plaintextLength,
+        byte[] baseIv,
+        int[] cipherOffsets,
+        int[] cipherLengths
+    ) {
+        this.modeType = modeType;
+        this.chunkSize = chunkSize;
+        this.plaintextLength = plaintextLength;
+        this.baseIv = baseIv;
+        this.cipherOffsets = cipherOffsets;
+        this.cipherLengths = cipherLengths;
+    }
+
+    int chunkCount() {
+        return cipherLengths.length;
+    }
+
+    /**
+     * 헤더를 기록합니다.
+     */
+    static void writeHeader(ByteBuffer out, ModeType modeType, int chunkSize, long plaintextLength, byte[] baseIv) {
+        out.putInt(MAGIC)
+            .put(VERSION)
+            .put((byte) modeType.wireId())
+            .put((byte) baseIv.length)
+            .putInt(chunkSize)
+            .putLong(plaintextLength)
+            .put(baseIv);
+    }
+
+    /**
+     * 트레일러(청크 인덱스)를 기록합니다.
+     */
+    static void writeTrailer(ByteBuffer out, int[] cipherLengths) {
+        for (int length : cipherLengths) {
+            out.putInt(length);
+        }
+        out.putInt(cipherLengths.length);
+    }
+
+    /**
+     * 컨테이너 바이트 배열에서 헤더와 트레일러를 읽어 레이아웃을 복원합니다.
+     *
+     * <p>청크 본문은 읽지 않으므로 범위 복호화 시 필요한 청크만 골라 처리할 수 있습니다.</p>
+     */
+    static ContainerLayout parse(byte[] container) {
+        if (container == null || container.length < FIXED_HEADER_LENGTH + 4) {
+            throw new IllegalArgumentException("container is too short");
+        }
+        ByteBuffer in = ByteBuffer.wrap(container);
+        if (in.getInt() != MAGIC) {
+            throw new IllegalArgumentException("invalid container magic");
+        }
+        byte version = in.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("unsupported container version: " + version);
+        }
+        ModeType modeType = ModeType.fromWireId(in.get() & 0xFF);
+        int ivLength = in.get() & 0xFF;
+        int chunkSize = in.getInt();
+        long plaintextLength = in.getLong();
+        if (chunkSize <= 0 || plaintextLength < 0) {
+            throw new IllegalArgumentException("invalid container header");
+        }
+        if (in.remaining() < ivLength + 4) {
+            throw new IllegalArgumentException("container is too short");
+        }
+        byte[] baseIv = new byte[ivLength];
+        in.get(baseIv);
+        int bodyStart = in.position();
+
+        // 곱셈과 배열 할당 전에 인덱스가 실제 남은 바이트 안에 들어가는지 먼저 확인합니다.
+        int chunkCount = ByteBuffer.wrap(container, container.length - 4, 4).getInt();
+        if (chunkCount < 0 || chunkCount > (container.length - 4 - bodyStart) / 4) {
+            throw new IllegalArgumentException("container is too short");
+        }
+        long expectedChunks = (plaintextLength + chunkSize - 1) / chunkSize;
+        if (chunkCount != expectedChunks) {
+            throw new IllegalArgumentException("chunk index does not match plaintext length");
+        }
+        int trailerStart = container.length - 4 - (chunkCount * 4);
+
+        ByteBuffer trailer = ByteBuffer.wrap(container, trailerStart, chunkCount * 4);
+        int[] offsets = new int[chunkCount];
+        int[] lengths = new int[chunkCount];
+        int offset = bodyStart;
+        for (int i = 0; i < chunkCount; i++) {
+            int length = trailer.getInt();
+            if (length < 0 || length > trailerStart - offset) {
+                throw new IllegalArgumentException("chunk index is out of range");
+            }
+            offsets[i] = offset;
+            lengths[i] = length;
+            offset += length;
+        }
+        if (offset != trailerStart) {
+            throw new IllegalArgumentException("chunk index does not cover the body");
+        }
+        return new ContainerLayout(modeType, chunkSize, plaintextLength, baseIv, offsets, lengths);
+    }
+}
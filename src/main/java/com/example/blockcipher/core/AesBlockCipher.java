@@ -1,8 +1,11 @@
 package com.example.blockcipher.core;
 
+import com.example.blockcipher.jfr.CipherSetupEvent;
 import java.security.GeneralSecurityException;
 import java.util.Arrays;
 import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
 
 /**
@@ -11,6 +14,11 @@ import javax.crypto.spec.SecretKeySpec;
  * <p>중요한 점은 {@code AES/ECB/NoPadding} 설정이 "운영 모드로 ECB를 쓰겠다"는 의미가 아니라,
  * JCA에서 블록 암호 원시 함수 {@code E_k(·)} / {@code D_k(·)}를 얻기 위한 내부 설정이라는 점입니다.
  * 운영 모드(ECB/CBC/CFB/OFB/CTR)의 체이닝 규칙은 mode 패키지에서 별도로 수행합니다.</p>
+ *
+ * <p>블록 연산용 Cipher는 스레드마다 방향별로 한 번만 생성/초기화해 재사용합니다.
+ * {@code AES/ECB/NoPadding}은 {@code doFinal} 뒤 같은 키로 초기화된 상태로 돌아가므로,
+ * CFB-8처럼 블록 하나씩 자주 호출하는 모드도 호출마다 {@code Cipher.getInstance}/{@code init} 비용을 치르지 않습니다.
+ * Cipher 객체는 스레드 안전하지 않으므로 인스턴스 하나를 공유하지 않고 {@link ThreadLocal}에 둡니다.</p>
  */
 public final class AesBlockCipher implements BlockCipher {
     /** AES는 항상 16바이트 블록을 사용합니다. */
@@ -19,6 +27,15 @@ public final class AesBlockCipher implements BlockCipher {
     /** 복사 보관된 비밀키 객체입니다. */
     private final SecretKeySpec secretKey;
 
+    /** 키 길이(비트). */
+    private final int keySizeBits;
+
+    /** 스레드별 블록 암호화용 Cipher. */
+    private final ThreadLocal<Cipher> encryptor = ThreadLocal.withInitial(() -> newBlockCipher(Cipher.ENCRYPT_MODE));
+
+    /** 스레드별 블록 복호화용 Cipher. */
+    private final ThreadLocal<Cipher> decryptor = ThreadLocal.withInitial(() -> newBlockCipher(Cipher.DECRYPT_MODE));
+
     /**
      * AES 키로 객체를 생성합니다.
      *
@@ -31,7 +48,16 @@ public final class AesBlockCipher implements BlockCipher {
         if (key.length != 16 && key.length != 24 && key.length != 32) {
             throw new IllegalArgumentException("AES key must be 16, 24, or 32 bytes");
         }
+        CipherSetupEvent event = new CipherSetupEvent();
+        event.begin();
         this.secretKey = new SecretKeySpec(Arrays.copyOf(key, key.length), "AES");
+        this.keySizeBits = key.length * 8;
+        event.end();
+        if (event.shouldCommit()) {
+            event.implementation = "AesBlockCipher";
+            event.keyBits = keySizeBits;
+            event.commit();
+        }
     }
 
     @Override
@@ -39,6 +65,11 @@ public final class AesBlockCipher implements BlockCipher {
         return AES_BLOCK_SIZE;
     }
 
+    @Override
+    public int keySizeBits() {
+        return keySizeBits;
+    }
+
     /**
      * 한 블록을 AES로 암호화합니다.
      */
@@ -55,22 +86,109 @@ public final class AesBlockCipher implements BlockCipher {
         return runCipher(ciphertextBlock, Cipher.DECRYPT_MODE);
     }
 
+    /**
+     * 여러 블록을 JCA Cipher 한 번의 {@code doFinal}로 암호화합니다.
+     *
+     * <p>블록마다 결과 배열을 새로 만드는 {@link #encryptBlock}과 달리 출력 배열에 바로 쓰고,
+     * JDK의 AES intrinsic이 있으면 그대로 활용합니다.</p>
+     */
+    @Override
+    public void encryptBlocks(byte[] in, int inOff, byte[] out, int outOff, int count) {
+        runCipher(in, inOff, out, outOff, count, Cipher.ENCRYPT_MODE);
+    }
+
+    /**
+     * 여러 블록을 JCA Cipher 한 번의 {@code doFinal}로 복호화합니다.
+     */
+    @Override
+    public void decryptBlocks(byte[] in, int inOff, byte[] out, int outOff, int count) {
+        runCipher(in, inOff, out, outOff, count, Cipher.DECRYPT_MODE);
+    }
+
+    /**
+     * 같은 키로 초기화한 JCA 전체 모드 Cipher를 생성합니다.
+     *
+     * <p>블록 단위 조합 대신 JDK의 intrinsic 가속 모드 구현(CBC/CTR/CFB/OFB/GCM)에 위임하는
+     * 빠른 경로에서 사용합니다. 키는 이 객체 밖으로 꺼내지 않고 초기화된 Cipher만 반환합니다.
+     * 생성/초기화 시간은 {@link CipherSetupEvent}로 기록합니다(블록마다 쓰는 단일 블록 경로는 기록하지 않음).</p>
+     *
+     * @param transformation JCA 변환 문자열(예: {@code AES/CBC/PKCS5Padding})
+     * @param opmode {@link Cipher#ENCRYPT_MODE} 또는 {@link Cipher#DECRYPT_MODE}
+     * @param iv IV/nonce(ECB는 0길이, GCM은 12바이트)
+     * @return 초기화된 Cipher
+     */
+    public Cipher newModeCipher(String transformation, int opmode, byte[] iv) {
+        CipherSetupEvent event = new CipherSetupEvent();
+        event.begin();
+        try {
+            Cipher cipher = Cipher.getInstance(transformation);
+            if (iv.length == 0) {
+                cipher.init(opmode, secretKey);
+            } else if (transformation.startsWith("AES/GCM/")) {
+                cipher.init(opmode, secretKey, new GCMParameterSpec(128, iv));
+            } else {
+                cipher.init(opmode, secretKey, new IvParameterSpec(iv));
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.implementation = transformation;
+                event.keyBits = keySizeBits;
+                event.commit();
+            }
+            return cipher;
+        } catch (GeneralSecurityException e) {
+            throw new CryptoException("AES mode cipher initialization failed: " + transformation, e);
+        }
+    }
+
     /**
      * 공통 블록 연산 함수입니다.
      *
-     * <p>입력 길이를 검증한 뒤 JCA Cipher를 생성/초기화/실행합니다.
+     * <p>입력 길이를 검증한 뒤 이 스레드의 JCA Cipher로 실행합니다.
      * 보안 예외는 프로젝트 전용 {@link CryptoException}으로 감싸서 상위에서 일관되게 처리하게 합니다.</p>
      */
     private byte[] runCipher(byte[] input, int mode) {
         if (input == null || input.length != AES_BLOCK_SIZE) {
             throw new IllegalArgumentException("input must be exactly one AES block (16 bytes)");
         }
+        try {
+            return blockCipher(mode).doFinal(input);
+        } catch (GeneralSecurityException e) {
+            throw new CryptoException("AES block operation failed", e);
+        }
+    }
+
+    /**
+     * 여러 블록용 공통 함수입니다. JCA는 입력/출력 영역이 겹쳐도 올바르게 처리합니다.
+     */
+    private void runCipher(byte[] in, int inOff, byte[] out, int outOff, int count, int mode) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative");
+        }
+        if (count == 0) {
+            return;
+        }
+        try {
+            blockCipher(mode).doFinal(in, inOff, count * AES_BLOCK_SIZE, out, outOff);
+        } catch (GeneralSecurityException e) {
+            throw new CryptoException("AES block operation failed", e);
+        }
+    }
+
+    private Cipher blockCipher(int mode) {
+        return mode == Cipher.ENCRYPT_MODE ? encryptor.get() : decryptor.get();
+    }
+
+    /**
+     * 스레드별 재사용 Cipher를 처음 한 번 생성/초기화합니다.
+     */
+    private Cipher newBlockCipher(int mode) {
         try {
             Cipher cipher = Cipher.getInstance("AES/ECB/NoPadding");
             cipher.init(mode, secretKey);
-            return cipher.doFinal(input);
+            return cipher;
         } catch (GeneralSecurityException e) {
-            throw new CryptoException("AES block operation failed", e);
+            throw new CryptoException("AES block cipher initialization failed", e);
         }
     }
 }
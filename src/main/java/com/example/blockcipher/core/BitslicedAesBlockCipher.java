@@ -0,0 +1,520 @@
+package com.example.blockcipher.core;
+
+import com.example.blockcipher.jfr.CipherSetupEvent;
+import java.util.Arrays;
+
+/**
+ * 8개 블록을 한 번에 처리하는 비트슬라이스 AES 구현체입니다(순수 Java, 테이블 없음).
+ *
+ * <p>AES-NI 같은 하드웨어 가속이 없는 환경에서도 상수 시간으로 동작하도록,
+ * S-box 조회 테이블 대신 GF(2^8) 역원을 비트 연산으로 계산합니다.</p>
+ *
+ * <p>상태 표현</p>
+ * <p>1. 8블록 x 16바이트의 비트 {@code b}(0..7)를 모아 "비트 평면" 하나로 만듭니다(128비트 = {@code long} 2개).</p>
+ * <p>2. 평면 안에서 바이트 위치 {@code p}는 8비트 묶음(블록 0..7이 한 비트씩)을 차지합니다.
+ *    {@code long} 0은 바이트 0..7(열 0,1), {@code long} 1은 바이트 8..15(열 2,3)를 담습니다.</p>
+ * <p>3. 따라서 ShiftRows/MixColumns는 묶음 단위 시프트, SubBytes는 평면 간 논리 연산이 됩니다.</p>
+ *
+ * <p>S-box: {@code S(x) = A(x^254) xor 0x63}. {@code x^254}는 곱셈 4번과 제곱 7번의 덧셈 사슬로 계산합니다.
+ * 키 스케줄의 SubWord도 같은 비트슬라이스 S-box를 사용해 키 값에 따른 메모리 접근이 없습니다.</p>
+ *
+ * <p>{@link #encryptBlocks}/{@link #decryptBlocks}가 주 경로이고(스레드별 작업 공간을 재사용해 할당 없음),
+ * 단일 블록 호출은 나머지 레인을 비운 채 8블록 배치를 한 번 돌립니다.</p>
+ */
+public final class BitslicedAesBlockCipher implements BlockCipher {
+    /** 한 배치에서 처리하는 블록 수({@code long}의 바이트 수). */
+    public static final int LANES = 8;
+
+    private static final int BLOCK = AesBlockCipher.AES_BLOCK_SIZE;
+
+    /** 행 r에 해당하는 8비트 묶음(두 열)의 마스크. */
+    private static final long ROW1 = 0x0000FF000000FF00L;
+    private static final long ROW3 = 0xFF000000FF000000L;
+
+    /** {@code x^8..x^14}를 {@code x^8 + x^4 + x^3 + x + 1}로 줄인 값. */
+    private static final int[] REDUCTION = {0x1B, 0x36, 0x6C, 0xD8, 0xAB, 0x4D, 0x9A};
+
+    /** 스레드별 작업 공간. 일괄 호출 경로가 할당 없이 동작하도록 재사용합니다. */
+    private static final ThreadLocal<Scratch> WORKSPACE = ThreadLocal.withInitial(Scratch::new);
+
+    /** 라운드 수(10/12/14). */
+    private final int rounds;
+
+    /** 비트슬라이스 형태의 라운드 키. 인덱스는 {@code round * 16 + word * 8 + bit}. */
+    private final long[] roundKeys;
+
+    /**
+     * @param key 16/24/32바이트 키(AES-128/192/256)
+     */
+    public BitslicedAesBlockCipher(byte[] key) {
+        if (key == null) {
+            throw new IllegalArgumentException("key must not be null");
+        }
+        if (key.length != 16 && key.length != 24 && key.length != 32) {
+            throw new IllegalArgumentException("AES key must be 16, 24, or 32 bytes");
+        }
+        CipherSetupEvent event = new CipherSetupEvent();
+        event.begin();
+        this.rounds = key.length / 4 + 6;
+        byte[] expanded = expandKey(key, rounds);
+        this.roundKeys = new long[(rounds + 1) * 16];
+        for (int round = 0; round <= rounds; round++) {
+            sliceRoundKey(expanded, round * BLOCK, roundKeys, round * 16);
+        }
+        Arrays.fill(expanded, (byte) 0);
+        event.end();
+        if (event.shouldCommit()) {
+            event.implementation = "BitslicedAesBlockCipher";
+            event.keyBits = keySizeBits();
+            event.commit();
+        }
+    }
+
+    @Override
+    public int blockSize() {
+        return BLOCK;
+    }
+
+    @Override
+    public int keySizeBits() {
+        return (rounds - 6) * 32;
+    }
+
+    @Override
+    public byte[] encryptBlock(byte[] plaintextBlock) {
+        requireBlock(plaintextBlock);
+        byte[] out = new byte[BLOCK];
+        encryptBlocks(plaintextBlock, 0, out, 0, 1);
+        return out;
+    }
+
+    @Override
+    public byte[] decryptBlock(byte[] ciphertextBlock) {
+        requireBlock(ciphertextBlock);
+        byte[] out = new byte[BLOCK];
+        decryptBlocks(ciphertextBlock, 0, out, 0, 1);
+        return out;
+    }
+
+    /**
+     * 블록들을 8개씩 묶어 비트슬라이스로 암호화합니다. 마지막 묶음은 8개보다 적을 수 있습니다.
+     */
+    @Override
+    public void encryptBlocks(byte[] in, int inOff, byte[] out, int outOff, int count) {
+        process(in, inOff, out, outOff, count, false);
+    }
+
+    /**
+     * 블록들을 8개씩 묶어 비트슬라이스로 복호화합니다.
+     */
+    @Override
+    public void decryptBlocks(byte[] in, int inOff, byte[] out, int outOff, int count) {
+        process(in, inOff, out, outOff, count, true);
+    }
+
+    private void process(byte[] in, int inOff, byte[] out, int outOff, int count, boolean decrypting) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative");
+        }
+        Scratch scratch = WORKSPACE.get();
+        long[] state = scratch.state;
+        for (int done = 0; done < count; done += LANES) {
+            int lanes = Math.min(LANES, count - done);
+            int offset = done * BLOCK;
+            pack(in, inOff + offset, lanes, state);
+            if (decrypting) {
+                decryptState(state, scratch);
+            } else {
+                encryptState(state, scratch);
+            }
+            unpack(state, out, outOff + offset, lanes);
+        }
+        scratch.clear();
+    }
+
+    /**
+     * 표준 AES 암호화 라운드(FIPS-197).
+     */
+    private void encryptState(long[] s, Scratch scratch) {
+        addRoundKey(s, 0);
+        for (int round = 1; round < rounds; round++) {
+            subBytes(s, scratch);
+            shiftRows(s, ROW1, ROW3);
+            mixColumns(s, 0);
+            mixColumns(s, 8);
+            addRoundKey(s, round);
+        }
+        subBytes(s, scratch);
+        shiftRows(s, ROW1, ROW3);
+        addRoundKey(s, rounds);
+    }
+
+    /**
+     * 역 암호 라운드(FIPS-197 InvCipher).
+     */
+    private void decryptState(long[] s, Scratch scratch) {
+        addRoundKey(s, rounds);
+        for (int round = rounds - 1; round > 0; round--) {
+            shiftRows(s, ROW3, ROW1);
+            invSubBytes(s, scratch);
+            addRoundKey(s, round);
+            invMixColumns(s, 0);
+            invMixColumns(s, 8);
+        }
+        shiftRows(s, ROW3, ROW1);
+        invSubBytes(s, scratch);
+        addRoundKey(s, 0);
+    }
+
+    private void addRoundKey(long[] s, int round) {
+        int base = round * 16;
+        for (int i = 0; i < 16; i++) {
+            s[i] ^= roundKeys[base + i];
+        }
+    }
+
+    private static void subBytes(long[] s, Scratch scratch) {
+        sbox(s, 0, scratch);
+        sbox(s, 8, scratch);
+    }
+
+    private static void invSubBytes(long[] s, Scratch scratch) {
+        invSbox(s, 0, scratch);
+        invSbox(s, 8, scratch);
+    }
+
+    /**
+     * ShiftRows/InvShiftRows.
+     *
+     * <p>행 0은 그대로, 행 2는 두 {@code long}을 맞바꾸고, 나머지 두 행은 한 열씩 회전합니다.
+     * {@code left} 행은 열 {@code c+1}에서, {@code right} 행은 열 {@code c-1}에서 가져옵니다.
+     * 정방향은 (행1, 행3), 역방향은 (행3, 행1)입니다.</p>
+     */
+    private static void shiftRows(long[] s, long left, long right) {
+        long row0 = 0x000000FF000000FFL;
+        long row2 = 0x00FF000000FF0000L;
+        for (int bit = 0; bit < 8; bit++) {
+            long w0 = s[bit];
+            long w1 = s[8 + bit];
+            s[bit] = (w0 & row0) | (w1 & row2)
+                | (((w0 >>> 32) | (w1 << 32)) & left)
+                | (((w1 >>> 32) | (w0 << 32)) & right);
+            s[8 + bit] = (w1 & row0) | (w0 & row2)
+                | (((w1 >>> 32) | (w0 << 32)) & left)
+                | (((w0 >>> 32) | (w1 << 32)) & right);
+        }
+    }
+
+    /**
+     * MixColumns: {@code b_r = 2(a_r xor a_{r+1}) xor a_{r+1} xor a_{r+2} xor a_{r+3}}.
+     *
+     * <p>한 열의 네 행은 32비트 안의 8비트 묶음 네 개이므로, 행 회전은 32비트 단위 회전입니다.</p>
+     */
+    private static void mixColumns(long[] s, int off) {
+        long a0 = s[off];
+        long a1 = s[off + 1];
+        long a2 = s[off + 2];
+        long a3 = s[off + 3];
+        long a4 = s[off + 4];
+        long a5 = s[off + 5];
+        long a6 = s[off + 6];
+        long a7 = s[off + 7];
+        long t0 = a0 ^ rot1(a0);
+        long t1 = a1 ^ rot1(a1);
+        long t2 = a2 ^ rot1(a2);
+        long t3 = a3 ^ rot1(a3);
+        long t4 = a4 ^ rot1(a4);
+        long t5 = a5 ^ rot1(a5);
+        long t6 = a6 ^ rot1(a6);
+        long t7 = a7 ^ rot1(a7);
+        // 2 * t (x^8 = x^4 + x^3 + x + 1)
+        s[off] = t7 ^ others(a0);
+        s[off + 1] = t0 ^ t7 ^ others(a1);
+        s[off + 2] = t1 ^ others(a2);
+        s[off + 3] = t2 ^ t7 ^ others(a3);
+        s[off + 4] = t3 ^ t7 ^ others(a4);
+        s[off + 5] = t4 ^ others(a5);
+        s[off + 6] = t5 ^ others(a6);
+        s[off + 7] = t6 ^ others(a7);
+    }
+
+    /**
+     * InvMixColumns = MixColumns 앞에 {@code a_r ^= 4(a_r xor a_{r+2})}를 적용한 것과 같습니다.
+     */
+    private static void invMixColumns(long[] s, int off) {
+        long u0 = s[off] ^ rot2(s[off]);
+        long u1 = s[off + 1] ^ rot2(s[off + 1]);
+        long u2 = s[off + 2] ^ rot2(s[off + 2]);
+        long u3 = s[off + 3] ^ rot2(s[off + 3]);
+        long u4 = s[off + 4] ^ rot2(s[off + 4]);
+        long u5 = s[off + 5] ^ rot2(s[off + 5]);
+        long u6 = s[off + 6] ^ rot2(s[off + 6]);
+        long u7 = s[off + 7] ^ rot2(s[off + 7]);
+        // 4 * u
+        s[off] ^= u6;
+        s[off + 1] ^= u6 ^ u7;
+        s[off + 2] ^= u0 ^ u7;
+        s[off + 3] ^= u1 ^ u6;
+        s[off + 4] ^= u2 ^ u6 ^ u7;
+        s[off + 5] ^= u3 ^ u7;
+        s[off + 6] ^= u4;
+        s[off + 7] ^= u5;
+        mixColumns(s, off);
+    }
+
+    /** {@code a_{r+1} xor a_{r+2} xor a_{r+3}}. */
+    private static long others(long a) {
+        return rot1(a) ^ rot2(a) ^ rot3(a);
+    }
+
+    /** 행 r 위치에 행 r+1 값을 둡니다(32비트 묶음 안 회전). */
+    private static long rot1(long x) {
+        return ((x >>> 8) & 0x00FFFFFF00FFFFFFL) | ((x << 24) & 0xFF000000FF000000L);
+    }
+
+    private static long rot2(long x) {
+        return ((x >>> 16) & 0x0000FFFF0000FFFFL) | ((x << 16) & 0xFFFF0000FFFF0000L);
+    }
+
+    private static long rot3(long x) {
+        return ((x << 8) & 0xFFFFFF00FFFFFF00L) | ((x >>> 24) & 0x000000FF000000FFL);
+    }
+
+    /**
+     * 비트슬라이스 S-box: {@code x^254}(역원, 0은 0) 후 아핀 변환.
+     *
+     * <p>덧셈 사슬: {@code x^2, x^3, x^12, x^15, x^240, x^252, x^254}.</p>
+     */
+    private static void sbox(long[] s, int off, Scratch k) {
+        System.arraycopy(s, off, k.x, 0, 8);
+        invert(k);
+        long[] b = k.t;
+        for (int i = 0; i < 8; i++) {
+            s[off + i] = b[i] ^ b[(i + 4) & 7] ^ b[(i + 5) & 7] ^ b[(i + 6) & 7] ^ b[(i + 7) & 7];
+        }
+        // 상수 0x63 = 비트 0, 1, 5, 6
+        s[off] = ~s[off];
+        s[off + 1] = ~s[off + 1];
+        s[off + 5] = ~s[off + 5];
+        s[off + 6] = ~s[off + 6];
+    }
+
+    /**
+     * 역 S-box: 역 아핀 변환({@code b_i = s_{i+2} xor s_{i+5} xor s_{i+7} xor 0x05}) 후 역원.
+     */
+    private static void invSbox(long[] s, int off, Scratch k) {
+        for (int i = 0; i < 8; i++) {
+            k.x[i] = s[off + ((i + 2) & 7)] ^ s[off + ((i + 5) & 7)] ^ s[off + ((i + 7) & 7)];
+        }
+        k.x[0] = ~k.x[0];
+        k.x[2] = ~k.x[2];
+        invert(k);
+        System.arraycopy(k.t, 0, s, off, 8);
+    }
+
+    /**
+     * {@code k.t = k.x^254}.
+     */
+    private static void invert(Scratch k) {
+        square(k.x, k.x2, k.p);
+        multiply(k.x2, k.x, k.x3, k.p);
+        square(k.x3, k.x12, k.p);
+        square(k.x12, k.x12, k.p);
+        multiply(k.x12, k.x3, k.x15, k.p);
+        square(k.x15, k.t, k.p);
+        square(k.t, k.t, k.p);
+        square(k.t, k.t, k.p);
+        square(k.t, k.t, k.p);
+        multiply(k.t, k.x12, k.t, k.p);
+        multiply(k.t, k.x2, k.t, k.p);
+    }
+
+    /**
+     * 비트슬라이스 GF(2^8) 곱셈. {@code out}은 입력과 같은 배열이어도 됩니다.
+     */
+    private static void multiply(long[] a, long[] b, long[] out, long[] p) {
+        Arrays.fill(p, 0L);
+        for (int i = 0; i < 8; i++) {
+            long ai = a[i];
+            for (int j = 0; j < 8; j++) {
+                p[i + j] ^= ai & b[j];
+            }
+        }
+        reduce(p, out);
+    }
+
+    /**
+     * 비트슬라이스 제곱. 표수 2에서는 교차항이 사라지므로 {@code p[2i] = a[i]}만 남습니다.
+     */
+    private static void square(long[] a, long[] out, long[] p) {
+        Arrays.fill(p, 0L);
+        for (int i = 0; i < 8; i++) {
+            p[2 * i] = a[i];
+        }
+        reduce(p, out);
+    }
+
+    /**
+     * 15개 항의 곱을 8비트로 줄입니다. 줄인 값이 모두 8비트 미만이라 순서와 무관합니다.
+     */
+    private static void reduce(long[] p, long[] out) {
+        for (int k = 8; k < 15; k++) {
+            int r = REDUCTION[k - 8];
+            long high = p[k];
+            for (int bit = 0; bit < 8; bit++) {
+                p[bit] ^= high & -(long) ((r >>> bit) & 1);
+            }
+        }
+        System.arraycopy(p, 0, out, 0, 8);
+    }
+
+    /**
+     * 블록들을 비트 평면으로 옮깁니다.
+     *
+     * <p>바이트 위치마다 블록 8개의 바이트를 {@code long} 하나로 모은 뒤 8x8 비트 전치를 하면
+     * 결과의 바이트 {@code b}가 곧 비트 평면 {@code b}의 해당 묶음이 됩니다.</p>
+     */
+    private static void pack(byte[] in, int inOff, int lanes, long[] s) {
+        Arrays.fill(s, 0L);
+        for (int p = 0; p < BLOCK; p++) {
+            long gathered = 0;
+            for (int lane = 0; lane < lanes; lane++) {
+                gathered |= (in[inOff + lane * BLOCK + p] & 0xFFL) << (8 * lane);
+            }
+            long planes = transpose8(gathered);
+            int word = (p >>> 3) * 8;
+            int shift = (p & 7) * 8;
+            for (int bit = 0; bit < 8; bit++) {
+                s[word + bit] |= ((planes >>> (8 * bit)) & 0xFFL) << shift;
+            }
+        }
+    }
+
+    private static void unpack(long[] s, byte[] out, int outOff, int lanes) {
+        for (int p = 0; p < BLOCK; p++) {
+            int word = (p >>> 3) * 8;
+            int shift = (p & 7) * 8;
+            long planes = 0;
+            for (int bit = 0; bit < 8; bit++) {
+                planes |= ((s[word + bit] >>> shift) & 0xFFL) << (8 * bit);
+            }
+            long gathered = transpose8(planes);
+            for (int lane = 0; lane < lanes; lane++) {
+                out[outOff + lane * BLOCK + p] = (byte) (gathered >>> (8 * lane));
+            }
+        }
+    }
+
+    /**
+     * 8x8 비트 행렬 전치(비트 {@code 8r + c} ↔ {@code 8c + r}). 자기 자신이 역연산입니다.
+     */
+    static long transpose8(long x) {
+        long t = (x ^ (x >>> 7)) & 0x00AA00AA00AA00AAL;
+        x = x ^ t ^ (t << 7);
+        t = (x ^ (x >>> 14)) & 0x0000CCCC0000CCCCL;
+        x = x ^ t ^ (t << 14);
+        t = (x ^ (x >>> 28)) & 0x00000000F0F0F0F0L;
+        return x ^ t ^ (t << 28);
+    }
+
+    /**
+     * 라운드 키 16바이트를 모든 레인에 같은 값으로 펼칩니다(비트가 1이면 묶음 전체가 {@code 0xFF}).
+     */
+    private static void sliceRoundKey(byte[] expanded, int keyOff, long[] target, int targetOff) {
+        for (int p = 0; p < BLOCK; p++) {
+            int value = expanded[keyOff + p] & 0xFF;
+            int word = (p >>> 3) * 8;
+            int shift = (p & 7) * 8;
+            for (int bit = 0; bit < 8; bit++) {
+                long lane = -(long) ((value >>> bit) & 1) & 0xFFL;
+                target[targetOff + word + bit] |= lane << shift;
+            }
+        }
+    }
+
+    /**
+     * FIPS-197 키 확장. SubWord는 비트슬라이스 S-box로 계산합니다.
+     */
+    private static byte[] expandKey(byte[] key, int rounds) {
+        int nk = key.length / 4;
+        int words = 4 * (rounds + 1);
+        byte[] w = new byte[words * 4];
+        System.arraycopy(key, 0, w, 0, key.length);
+        Scratch scratch = new Scratch();
+        byte[] temp = new byte[4];
+        int rcon = 1;
+        for (int i = nk; i < words; i++) {
+            System.arraycopy(w, (i - 1) * 4, temp, 0, 4);
+            if (i % nk == 0) {
+                byte first = temp[0];
+                temp[0] = temp[1];
+                temp[1] = temp[2];
+                temp[2] = temp[3];
+                temp[3] = first;
+                subWord(temp, scratch);
+                temp[0] ^= (byte) rcon;
+                rcon = (rcon << 1) ^ (0x11B & -(rcon >>> 7));
+            } else if (nk > 6 && i % nk == 4) {
+                subWord(temp, scratch);
+            }
+            for (int j = 0; j < 4; j++) {
+                w[i * 4 + j] = (byte) (w[(i - nk) * 4 + j] ^ temp[j]);
+            }
+        }
+        Arrays.fill(temp, (byte) 0);
+        scratch.clear();
+        return w;
+    }
+
+    /**
+     * 4바이트를 레인 0..3에 두고 비트슬라이스 S-box를 적용합니다.
+     */
+    private static void subWord(byte[] word, Scratch scratch) {
+        long[] planes = new long[8];
+        for (int bit = 0; bit < 8; bit++) {
+            for (int j = 0; j < 4; j++) {
+                planes[bit] |= (long) ((word[j] >>> bit) & 1) << j;
+            }
+        }
+        sbox(planes, 0, scratch);
+        for (int j = 0; j < 4; j++) {
+            int value = 0;
+            for (int bit = 0; bit < 8; bit++) {
+                value |= (int) ((planes[bit] >>> j) & 1) << bit;
+            }
+            word[j] = (byte) value;
+        }
+        Arrays.fill(planes, 0L);
+    }
+
+    private static void requireBlock(byte[] block) {
+        if (block == null || block.length != BLOCK) {
+            throw new IllegalArgumentException("input must be exactly one AES block (16 bytes)");
+        }
+    }
+
+    /**
+     * 상태와 S-box 계산용 임시 평면들(스레드마다 하나, 호출 끝에 0으로 지움).
+     */
+    private static final class Scratch {
+        final long[] state = new long[16];
+        final long[] x = new long[8];
+        final long[] x2 = new long[8];
+        final long[] x3 = new long[8];
+        final long[] x12 = new long[8];
+        final long[] x15 = new long[8];
+        final long[] t = new long[8];
+        final long[] p = new long[15];
+
+        void clear() {
+            Arrays.fill(state, 0L);
+            Arrays.fill(x, 0L);
+            Arrays.fill(x2, 0L);
+            Arrays.fill(x3, 0L);
+            Arrays.fill(x12, 0L);
+            Arrays.fill(x15, 0L);
+            Arrays.fill(t, 0L);
+            Arrays.fill(p, 0L);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.blockcipher.core;
 
+import java.util.Arrays;
+
 /**
  * 블록 암호의 가장 기본 연산을 정의하는 인터페이스입니다.
  *
@@ -14,6 +16,15 @@ public interface BlockCipher {
      */
     int blockSize();
 
+    /**
+     * 키 길이를 비트 단위로 반환합니다.
+     *
+     * <p>JFR 이벤트 등 관측용 값이며, 알 수 없는 구현은 0을 반환합니다.</p>
+     */
+    default int keySizeBits() {
+        return 0;
+    }
+
     /**
      * 한 개의 평문 블록을 암호화합니다.
      *
@@ -29,4 +40,38 @@ public interface BlockCipher {
      * @return 복호화된 블록
      */
     byte[] decryptBlock(byte[] ciphertextBlock);
+
+    /**
+     * 연속된 여러 블록을 한 번에 암호화합니다.
+     *
+     * <p>ECB/CTR처럼 블록끼리 독립인 모드가 호출합니다. 기본 구현은 {@link #encryptBlock}을
+     * 블록마다 호출하고, 여러 블록을 함께 처리할 수 있는 구현체(비트슬라이스 AES, JCA 일괄 호출)는
+     * 재정의합니다. {@code in}과 {@code out}은 같은 배열이어도 됩니다.</p>
+     *
+     * @param in 입력 배열
+     * @param inOff 입력 시작 위치
+     * @param out 출력 배열
+     * @param outOff 출력 시작 위치
+     * @param count 블록 수
+     */
+    default void encryptBlocks(byte[] in, int inOff, byte[] out, int outOff, int count) {
+        int size = blockSize();
+        for (int i = 0; i < count; i++) {
+            byte[] block = Arrays.copyOfRange(in, inOff + i * size, inOff + (i + 1) * size);
+            System.arraycopy(encryptBlock(block), 0, out, outOff + i * size, size);
+        }
+    }
+
+    /**
+     * 연속된 여러 블록을 한 번에 복호화합니다.
+     *
+     * <p>{@link #encryptBlocks}와 같은 규칙을 따릅니다.</p>
+     */
+    default void decryptBlocks(byte[] in, int inOff, byte[] out, int outOff, int count) {
+        int size = blockSize();
+        for (int i = 0; i < count; i++) {
+            byte[] block = Arrays.copyOfRange(in, inOff + i * size, inOff + (i + 1) * size);
+            System.arraycopy(decryptBlock(block), 0, out, outOff + i * size, size);
+        }
+    }
 }
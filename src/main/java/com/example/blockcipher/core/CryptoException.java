@@ -7,6 +7,15 @@ package com.example.blockcipher.core;
  * 하나의 유형으로 다루기 위해 사용합니다.</p>
  */
 public final class CryptoException extends RuntimeException {
+    /**
+     * 원본 예외 없이 프로젝트 내부 검증에서 발생한 암호 오류(인증 태그 불일치 등)를 표현합니다.
+     *
+     * @param message 오류 요약 메시지
+     */
+    public CryptoException(String message) {
+        super(message);
+    }
+
     /**
      * @param message 오류 요약 메시지
      * @param cause 원본 예외
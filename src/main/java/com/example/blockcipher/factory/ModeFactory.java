@@ -1,15 +1,26 @@
 package com.example.blockcipher.factory;
 
+import com.example.blockcipher.core.AesBlockCipher;
 import com.example.blockcipher.core.BlockCipher;
+import com.example.blockcipher.mode.BlockCache;
+import com.example.blockcipher.mode.CBCCS3Mode;
 import com.example.blockcipher.mode.CBCMode;
 import com.example.blockcipher.mode.CFBMode;
+import com.example.blockcipher.mode.CFBSegmentMode;
 import com.example.blockcipher.mode.CTRMode;
+import com.example.blockcipher.mode.CounterLayout;
 import com.example.blockcipher.mode.ECBMode;
+import com.example.blockcipher.mode.GCMMode;
+import com.example.blockcipher.mode.JcaMode;
 import com.example.blockcipher.mode.ModeOfOperation;
 import com.example.blockcipher.mode.ModeType;
 import com.example.blockcipher.mode.OFBMode;
+import com.example.blockcipher.mode.SIVMode;
+import com.example.blockcipher.mode.XTSMode;
 import com.example.blockcipher.padding.PaddingScheme;
 import com.example.blockcipher.padding.Pkcs7Padding;
+import com.example.blockcipher.planner.ExecutionPlanner;
+import com.example.blockcipher.planner.PlannedMode;
 import java.util.EnumMap;
 import java.util.Map;
 import java.util.Objects;
@@ -44,16 +55,144 @@ public final class ModeFactory {
 
         Function<BlockCipher, ModeOfOperation> builder = BUILDERS.get(type);
         if (builder == null) {
+            if (type == ModeType.XTS) {
+                throw new IllegalArgumentException("XTS requires two ciphers; use createXts(dataCipher, tweakCipher)");
+            }
+            if (type == ModeType.SIV) {
+                throw new IllegalArgumentException("SIV requires two ciphers; use createSiv(macCipher, ctrCipher)");
+            }
             throw new IllegalArgumentException("unsupported mode type: " + type);
         }
         return builder.apply(cipher);
     }
 
+    /**
+     * nonce/counter 분할을 지정한 CTR 구현체를 생성합니다.
+     *
+     * @param cipher 사용할 블록 암호 구현체
+     * @param layout nonce/counter 분할 방식
+     * @return CTR 모드 구현체
+     */
+    public static CTRMode createCtr(BlockCipher cipher, CounterLayout layout) {
+        Objects.requireNonNull(cipher, "cipher must not be null");
+        return new CTRMode(cipher, layout, null);
+    }
+
+    /**
+     * 블록 캐시를 붙인 ECB 구현체(PKCS#7)를 생성합니다.
+     *
+     * @param cache 캐시(블록 암호는 {@link BlockCache#cipher()}를 사용)
+     * @return ECB 모드 구현체
+     */
+    public static ECBMode createEcb(BlockCache cache) {
+        Objects.requireNonNull(cache, "cache must not be null");
+        return new ECBMode(cache.cipher(), PKCS7, cache);
+    }
+
+    /**
+     * 세그먼트 크기를 지정한 CFB-s 구현체를 생성합니다.
+     *
+     * <p>s = 8이면 {@link ModeType#CFB8}, s = 블록 크기이면 {@link ModeType#CFB} 타입입니다.</p>
+     *
+     * @param cipher 사용할 블록 암호 구현체
+     * @param segmentBits 세그먼트 크기(비트, 8 또는 블록 크기 비트)
+     * @return CFB-s 모드 구현체
+     */
+    public static CFBSegmentMode createCfbSegment(BlockCipher cipher, int segmentBits) {
+        Objects.requireNonNull(cipher, "cipher must not be null");
+        return new CFBSegmentMode(cipher, segmentBits);
+    }
+
+    /**
+     * 가능하면 JDK 전체 모드 Cipher에 위임하는 구현체를 생성합니다.
+     *
+     * <p>{@link AesBlockCipher}이고 {@link JcaMode#supports(ModeType)}가 true인 모드는
+     * {@link JcaMode}를 반환하고, 그 외에는 {@link #create(ModeType, BlockCipher)}와 같습니다.
+     * 두 경로의 입출력 형식(IV 배치, PKCS#7, CTR wrap 규칙)은 같습니다.</p>
+     *
+     * @param type 생성할 모드 타입
+     * @param cipher 사용할 블록 암호 구현체
+     * @return 모드 구현체
+     */
+    public static ModeOfOperation createAccelerated(ModeType type, BlockCipher cipher) {
+        Objects.requireNonNull(type, "type must not be null");
+        Objects.requireNonNull(cipher, "cipher must not be null");
+        if (cipher instanceof AesBlockCipher && JcaMode.supports(type)) {
+            return new JcaMode(type, (AesBlockCipher) cipher);
+        }
+        return create(type, cipher);
+    }
+
+    /**
+     * 호출마다 순차/병렬/JCA 일괄 중 하나를 고르는 구현체를 생성합니다.
+     *
+     * <p>계획기는 블록 암호 구현 클래스별로 처음 한 번 자체 벤치마크로 보정한 공유 인스턴스
+     * ({@link ExecutionPlanner#calibrated(BlockCipher)})를 사용합니다.</p>
+     *
+     * @param type 생성할 모드 타입
+     * @param cipher 사용할 블록 암호 구현체
+     * @return 계획 실행 모드 구현체
+     */
+    public static PlannedMode createPlanned(ModeType type, BlockCipher cipher) {
+        Objects.requireNonNull(cipher, "cipher must not be null");
+        return createPlanned(type, cipher, ExecutionPlanner.calibrated(cipher));
+    }
+
+    /**
+     * 지정한 계획기를 쓰는 계획 실행 모드를 생성합니다.
+     *
+     * @param type 생성할 모드 타입
+     * @param cipher 사용할 블록 암호 구현체
+     * @param planner 실행 계획기
+     * @return 계획 실행 모드 구현체
+     */
+    public static PlannedMode createPlanned(ModeType type, BlockCipher cipher, ExecutionPlanner planner) {
+        ModeOfOperation sequential = create(type, cipher);
+        ModeOfOperation bulk = cipher instanceof AesBlockCipher && JcaMode.supports(type)
+            ? new JcaMode(type, (AesBlockCipher) cipher)
+            : null;
+        return new PlannedMode(sequential, bulk, PKCS7, planner);
+    }
+
+    /**
+     * 블록 암호 하나만으로 {@link #create(ModeType, BlockCipher)}를 호출할 수 있는 모드인지 반환합니다.
+     *
+     * <p>XTS/SIV처럼 키가 두 개 필요한 모드는 전용 생성 메서드를 사용해야 합니다.</p>
+     */
+    public static boolean supportsSingleCipher(ModeType type) {
+        return BUILDERS.containsKey(type);
+    }
+
+    /**
+     * XTS 모드를 생성합니다.
+     *
+     * @param dataCipher 데이터 암호화용 블록 암호(k1)
+     * @param tweakCipher 트윅 암호화용 블록 암호(k2)
+     * @param sectorSize 섹터 크기(바이트)
+     * @return XTS 모드 구현체
+     */
+    public static XTSMode createXts(BlockCipher dataCipher, BlockCipher tweakCipher, int sectorSize) {
+        return new XTSMode(dataCipher, tweakCipher, sectorSize);
+    }
+
+    /**
+     * SIV 모드를 생성합니다.
+     *
+     * <p>RFC 5297의 키 {@code K}(256/384/512비트)는 앞 절반이 {@code macCipher}, 뒤 절반이 {@code ctrCipher}의 키입니다.</p>
+     *
+     * @param macCipher S2V/CMAC용 블록 암호(k1)
+     * @param ctrCipher CTR 암호화용 블록 암호(k2)
+     * @return SIV 모드 구현체
+     */
+    public static SIVMode createSiv(BlockCipher macCipher, BlockCipher ctrCipher) {
+        return new SIVMode(macCipher, ctrCipher);
+    }
+
     /**
      * 모드 타입별 생성 함수를 등록합니다.
      *
      * <p>ECB/CBC는 패딩이 필요하므로 PKCS7을 주입하고,
-     * CFB/OFB/CTR는 패딩 없이 생성합니다.</p>
+     * CFB/OFB/CTR/GCM/CBC-CS3/CFB-8은 패딩 없이 생성합니다.</p>
      */
     private static Map<ModeType, Function<BlockCipher, ModeOfOperation>> createBuilders() {
         EnumMap<ModeType, Function<BlockCipher, ModeOfOperation>> map = new EnumMap<>(ModeType.class);
@@ -62,6 +201,9 @@ public final class ModeFactory {
         map.put(ModeType.CFB, CFBMode::new);
         map.put(ModeType.OFB, OFBMode::new);
         map.put(ModeType.CTR, CTRMode::new);
+        map.put(ModeType.GCM, GCMMode::new);
+        map.put(ModeType.CBC_CS3, CBCCS3Mode::new);
+        map.put(ModeType.CFB8, CFBSegmentMode::new);
         return Map.copyOf(map);
     }
 }
@@ -0,0 +1,606 @@
+package com.example.blockcipher.gateway;
+
+import static com.example.blockcipher.gateway.GatewayProtocol.HEADER_BYTES;
+import static com.example.blockcipher.gateway.GatewayProtocol.LENGTH_BYTES;
+
+import com.example.blockcipher.service.ModeCipherService;
+import com.example.blockcipher.util.BufferPool;
+import com.example.blockcipher.util.PooledBuffer;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link ModeCipherService}를 TCP로 노출하는 비차단(NIO selector) 암복호화 게이트웨이입니다.
+ *
+ * <p>프레임 형식은 {@link GatewayProtocol}을 따릅니다. 같은 호스트의 다른 프로세스가 사이드카로 쓰는 것을 전제로 하며,
+ * 전송 구간 보호(TLS)나 인증은 하지 않으므로 loopback 주소에 바인딩해야 합니다.</p>
+ *
+ * <p>처리 순서</p>
+ * <p>1. selector 스레드 하나가 accept/read/write를 모두 처리(연결마다 스레드를 두지 않음)</p>
+ * <p>2. 연결별 direct 읽기 버퍼에 받은 바이트에서 완성된 프레임을 모두 꺼냄(한 번 읽기에 여러 요청 = pipelining)</p>
+ * <p>3. payload가 {@code inlineMaxBytes} 이하면 selector 스레드에서 바로 처리, 크면 작업자 풀로 넘김</p>
+ * <p>4. 결과는 풀({@link BufferPool}, direct)에서 빌린 버퍼로 옮기고 연결별 응답 큐에 넣은 뒤 selector를 깨움</p>
+ * <p>5. selector 스레드가 {@code [헤더, 본문]} gathering write로 보내고, 다 보내면 버퍼를 반납</p>
+ *
+ * <p>연결마다 처리 중인 요청(보내지 않은 응답 포함)이 {@code maxInFlight}개에 이르면 그 연결의 읽기를 멈춥니다.
+ * 그래서 작업자 큐와 응답 버퍼는 {@code 연결 수 x maxInFlight}로 제한되고, 느린 클라이언트는 TCP 윈도로 막힙니다.</p>
+ *
+ * <p>응답은 완료 순서로 나가므로 같은 연결에서도 요청 순서와 다를 수 있습니다.
+ * 요청 처리 실패는 {@link GatewayProtocol#STATUS_ERROR} 응답으로 보내고 연결은 유지합니다.
+ * 길이 필드가 잘못된 프레임(상한 초과 등)은 더 읽을 수 없으므로 연결을 닫습니다.</p>
+ */
+public final class CipherGateway implements Closeable {
+    /** 기본 인라인 처리 상한(바이트). 이하 요청은 작업자 풀로 넘기는 비용이 처리 비용보다 큽니다. */
+    public static final int DEFAULT_INLINE_MAX_BYTES = 2048;
+
+    /** 기본 연결당 처리 중 요청 상한. */
+    public static final int DEFAULT_MAX_IN_FLIGHT = 64;
+
+    /** 연결별 기본 읽기 버퍼 크기. 이보다 큰 프레임은 그 프레임 동안만 큰 버퍼로 바꿉니다. */
+    private static final int READ_BUFFER_BYTES = 64 * 1024;
+
+    private final ModeCipherService service;
+    private final int maxPayloadBytes;
+    private final int inlineMaxBytes;
+    private final int maxInFlight;
+    private final BufferPool pool;
+    private final ExecutorService workers;
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final InetSocketAddress localAddress;
+    private final Thread selectorThread;
+
+    /** 응답이 생겨 selector 스레드가 써야 할 연결. */
+    private final ConcurrentLinkedQueue<Connection> writable = new ConcurrentLinkedQueue<>();
+
+    /** 열린 연결(selector 스레드 전용). */
+    private final Set<Connection> connections = new HashSet<>();
+
+    private volatile boolean closed;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder inlined = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder protocolErrors = new LongAdder();
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+
+    /**
+     * 주소에 바인딩합니다. 요청 처리는 {@link #start()} 이후 시작합니다.
+     *
+     * @param service 요청을 처리할 서비스(스레드 안전)
+     * @param address 바인딩 주소(포트 0이면 임의 포트)
+     * @param workerThreads 작업자 스레드 수
+     * @param maxPayloadBytes 요청 payload 최대 크기
+     * @param inlineMaxBytes 이 크기 이하 요청은 selector 스레드에서 처리(0이면 모두 작업자로)
+     * @param maxInFlight 연결당 처리 중 요청 상한
+     */
+    public CipherGateway(
+        ModeCipherService service,
+        InetSocketAddress address,
+        int workerThreads,
+        int maxPayloadBytes,
+        int inlineMaxBytes,
+        int maxInFlight
+    ) throws IOException {
+        this.service = Objects.requireNonNull(service, "service must not be null");
+        Objects.requireNonNull(address, "address must not be null");
+        if (workerThreads <= 0 || maxPayloadBytes <= 0 || maxInFlight <= 0) {
+            throw new IllegalArgumentException("workerThreads, maxPayloadBytes and maxInFlight must be positive");
+        }
+        if (inlineMaxBytes < 0) {
+            throw new IllegalArgumentException("inlineMaxBytes must not be negative");
+        }
+        this.maxPayloadBytes = maxPayloadBytes;
+        this.inlineMaxBytes = inlineMaxBytes;
+        this.maxInFlight = maxInFlight;
+        // 읽기 버퍼와 응답 버퍼 모두 평문을 담으므로 반납 시 지웁니다.
+        this.pool = new BufferPool(
+            true,
+            BufferPool.DEFAULT_MAX_POOLED_SIZE,
+            Math.max(BufferPool.DEFAULT_MAX_BUFFERS_PER_CLASS, maxInFlight),
+            true
+        );
+        this.selector = Selector.open();
+        try {
+            this.server = ServerSocketChannel.open();
+            server.configureBlocking(false);
+            server.bind(address);
+            server.register(selector, SelectionKey.OP_ACCEPT);
+            this.localAddress = (InetSocketAddress) server.getLocalAddress();
+        } catch (IOException e) {
+            selector.close();
+            throw e;
+        }
+        this.workers = Executors.newFixedThreadPool(workerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "cipher-gateway-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.selectorThread = new Thread(this::selectLoop, "cipher-gateway-selector");
+        selectorThread.setDaemon(true);
+    }
+
+    /**
+     * loopback 임의 포트, 코어 수만큼의 작업자, 기본 상한으로 만듭니다.
+     */
+    public static CipherGateway loopback(ModeCipherService service) throws IOException {
+        return new CipherGateway(
+            service,
+            new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+            Runtime.getRuntime().availableProcessors(),
+            GatewayProtocol.DEFAULT_MAX_PAYLOAD_BYTES,
+            DEFAULT_INLINE_MAX_BYTES,
+            DEFAULT_MAX_IN_FLIGHT
+        );
+    }
+
+    /**
+     * selector 스레드를 시작합니다.
+     */
+    public CipherGateway start() {
+        if (closed) {
+            throw new IllegalStateException("gateway is closed");
+        }
+        selectorThread.start();
+        return this;
+    }
+
+    /**
+     * 실제 바인딩 주소(포트 0으로 만들었으면 배정된 포트)를 반환합니다.
+     */
+    public InetSocketAddress localAddress() {
+        return localAddress;
+    }
+
+    /**
+     * 새 연결을 받지 않고, 열린 연결을 닫고, 작업자가 끝나기를 기다린 뒤 풀을 비웁니다.
+     *
+     * <p>보내지 못한 응답은 버립니다(버퍼는 반납).</p>
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (selectorThread.getState() == Thread.State.NEW) {
+            closeQuietly(server);
+            closeQuietly(selector);
+        } else {
+            selector.wakeup();
+            try {
+                selectorThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        workers.shutdown();
+        try {
+            workers.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        pool.clear();
+    }
+
+    /** 받은 연결 수. */
+    public long accepted() {
+        return accepted.sum();
+    }
+
+    /** 처리한 요청 수(실패 포함). */
+    public long requests() {
+        return requests.sum();
+    }
+
+    /** selector 스레드에서 바로 처리한 요청 수. */
+    public long inlined() {
+        return inlined.sum();
+    }
+
+    /** {@link GatewayProtocol#STATUS_ERROR}로 응답한 요청 수. */
+    public long failures() {
+        return failures.sum();
+    }
+
+    /** 잘못된 프레임으로 닫은 연결 수. */
+    public long protocolErrors() {
+        return protocolErrors.sum();
+    }
+
+    public long bytesRead() {
+        return bytesRead.sum();
+    }
+
+    public long bytesWritten() {
+        return bytesWritten.sum();
+    }
+
+    /**
+     * 응답/읽기 버퍼 풀(적중률 확인용)을 반환합니다.
+     */
+    public BufferPool bufferPool() {
+        return pool;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            Locale.ROOT,
+            "CipherGateway[%s, accepted=%d, requests=%d, inlined=%d, failures=%d, protocolErrors=%d, in=%d, out=%d]",
+            localAddress,
+            accepted(),
+            requests(),
+            inlined(),
+            failures(),
+            protocolErrors(),
+            bytesRead(),
+            bytesWritten()
+        );
+    }
+
+    private void selectLoop() {
+        try {
+            while (!closed) {
+                selector.select();
+                Connection ready;
+                while ((ready = writable.poll()) != null) {
+                    // 쓰는 도중 생긴 응답이 다시 예약되도록 먼저 내립니다.
+                    ready.scheduled.set(false);
+                    if (ready.open) {
+                        guarded(ready, this::flush);
+                    }
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    Connection connection = (Connection) key.attachment();
+                    if (key.isWritable()) {
+                        guarded(connection, this::flush);
+                    }
+                    if (connection.open && key.isReadable()) {
+                        guarded(connection, this::read);
+                    }
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            // selector나 서버 소켓 자체가 실패하면 게이트웨이를 멈춥니다.
+            closed = true;
+        } finally {
+            for (Connection connection : new ArrayList<>(connections)) {
+                close(connection);
+            }
+            closeQuietly(server);
+            closeQuietly(selector);
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = server.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            Connection connection = new Connection(channel, pool.acquire(READ_BUFFER_BYTES));
+            connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+            connections.add(connection);
+            accepted.increment();
+        }
+    }
+
+    /**
+     * 소켓에서 읽고 완성된 프레임을 처리한 뒤, 인라인 응답을 바로 씁니다.
+     */
+    private void read(Connection connection) throws IOException {
+        int n = connection.channel.read(connection.readBuffer.buffer());
+        if (n < 0) {
+            close(connection);
+            return;
+        }
+        bytesRead.add(n);
+        parse(connection);
+        if (connection.open) {
+            flush(connection);
+        }
+    }
+
+    /**
+     * 읽기 버퍼(쓰기 모드)에서 완성된 프레임을 꺼내 처리합니다.
+     *
+     * <p>처리 중 요청이 상한에 이르면 남은 바이트는 버퍼에 둔 채 읽기를 멈추고,
+     * 응답을 보내 자리가 나면 {@link #flush}가 다시 호출합니다.</p>
+     */
+    private void parse(Connection connection) {
+        ByteBuffer in = connection.readBuffer.buffer();
+        in.flip();
+        while (connection.inFlight.get() < maxInFlight && in.remaining() >= LENGTH_BYTES) {
+            int length = in.getInt(in.position());
+            if (!validLength(length)) {
+                protocolErrors.increment();
+                close(connection);
+                return;
+            }
+            if (in.remaining() < LENGTH_BYTES + length) {
+                break;
+            }
+            in.position(in.position() + LENGTH_BYTES);
+            int requestId = in.getInt();
+            byte op = in.get();
+            byte[] payload = new byte[length - HEADER_BYTES];
+            in.get(payload);
+            dispatch(connection, requestId, op, payload);
+        }
+        in.compact();
+        resizeReadBuffer(connection);
+        connection.readPaused = connection.inFlight.get() >= maxInFlight;
+        updateInterest(connection);
+    }
+
+    /**
+     * 다음 프레임이 버퍼보다 크면 그 크기의 버퍼로 바꾸고, 큰 버퍼가 비면 기본 크기로 되돌립니다.
+     */
+    private void resizeReadBuffer(Connection connection) {
+        ByteBuffer in = connection.readBuffer.buffer();
+        int needed = Math.max(READ_BUFFER_BYTES, in.position());
+        if (in.position() >= LENGTH_BYTES) {
+            int length = in.getInt(0);
+            if (validLength(length)) {
+                needed = Math.max(needed, LENGTH_BYTES + length);
+            }
+        }
+        boolean grow = needed > in.capacity();
+        boolean shrink = needed == READ_BUFFER_BYTES && in.capacity() > READ_BUFFER_BYTES;
+        if (!grow && !shrink) {
+            return;
+        }
+        PooledBuffer resized = pool.acquire(needed);
+        in.flip();
+        resized.buffer().put(in);
+        connection.readBuffer.release();
+        connection.readBuffer = resized;
+    }
+
+    private boolean validLength(int length) {
+        return length >= HEADER_BYTES && length - HEADER_BYTES <= maxPayloadBytes;
+    }
+
+    private void dispatch(Connection connection, int requestId, byte op, byte[] payload) {
+        connection.inFlight.incrementAndGet();
+        requests.increment();
+        if (payload.length <= inlineMaxBytes) {
+            inlined.increment();
+            complete(connection, handle(requestId, op, payload));
+            return;
+        }
+        try {
+            workers.execute(() -> complete(connection, handle(requestId, op, payload)));
+        } catch (RejectedExecutionException e) {
+            complete(connection, error(requestId, "gateway is closing"));
+        }
+    }
+
+    /**
+     * 요청 하나를 서비스로 처리합니다. 실패는 오류 응답으로 바꿉니다.
+     *
+     * <p>응답은 소켓 쓰기용 direct 버퍼에 담습니다. 직접 구현한 모드는 서비스의 풀 버퍼 경로
+     * ({@code encryptWithHeader(byte[], BufferPool)})에서도 direct 버퍼에는 힙 작업 배열을 거쳐 쓰므로,
+     * 배열 경로 결과를 풀에서 빌린 direct 버퍼로 한 번 복사하고 복호화 결과 배열은 바로 지웁니다.</p>
+     */
+    private Response handle(int requestId, byte op, byte[] payload) {
+        try {
+            byte[] result;
+            if (op == GatewayProtocol.ENCRYPT) {
+                result = service.encryptWithHeader(payload);
+            } else if (op == GatewayProtocol.DECRYPT) {
+                result = service.decryptWithHeader(payload);
+            } else {
+                return error(requestId, "unknown op: " + op);
+            }
+            // 소켓 쓰기용 direct 복사를 selector 스레드가 아니라 처리한 스레드에서 해 둡니다.
+            PooledBuffer body = pool.acquire(result.length);
+            body.buffer().put(result).flip();
+            if (op == GatewayProtocol.DECRYPT) {
+                Arrays.fill(result, (byte) 0);
+            }
+            return Response.ok(requestId, body);
+        } catch (RuntimeException e) {
+            return error(requestId, e.getClass().getSimpleName() + ": " + e.getMessage());
+        }
+    }
+
+    private Response error(int requestId, String message) {
+        failures.increment();
+        return Response.error(requestId, message);
+    }
+
+    /**
+     * 응답을 연결 큐에 넣고 selector 스레드에 쓰기를 예약합니다(어느 스레드에서나 호출 가능).
+     */
+    private void complete(Connection connection, Response response) {
+        connection.responses.add(response);
+        if (!connection.open) {
+            // 닫기와 경합한 응답은 여기서 반납합니다(큐에서 꺼낸 쪽만 반납하므로 한 번만 실행됨).
+            discard(connection);
+            return;
+        }
+        if (connection.scheduled.compareAndSet(false, true)) {
+            writable.add(connection);
+            selector.wakeup();
+        }
+    }
+
+    /**
+     * 보낼 수 있는 만큼 응답을 씁니다. 소켓 버퍼가 차면 OP_WRITE를 걸고 멈춥니다.
+     */
+    private void flush(Connection connection) throws IOException {
+        while (true) {
+            if (connection.current == null) {
+                connection.current = connection.responses.poll();
+                if (connection.current == null) {
+                    break;
+                }
+            }
+            Response response = connection.current;
+            bytesWritten.add(connection.channel.write(response.parts));
+            if (response.hasRemaining()) {
+                connection.writePending = true;
+                updateInterest(connection);
+                return;
+            }
+            response.release();
+            connection.current = null;
+            connection.inFlight.decrementAndGet();
+        }
+        connection.writePending = false;
+        if (connection.readPaused && connection.inFlight.get() < maxInFlight) {
+            parse(connection);
+        } else {
+            updateInterest(connection);
+        }
+    }
+
+    private void updateInterest(Connection connection) {
+        if (!connection.key.isValid()) {
+            return;
+        }
+        int ops = (connection.readPaused ? 0 : SelectionKey.OP_READ)
+            | (connection.writePending ? SelectionKey.OP_WRITE : 0);
+        connection.key.interestOps(ops);
+    }
+
+    private void guarded(Connection connection, ConnectionTask task) {
+        try {
+            task.run(connection);
+        } catch (IOException e) {
+            close(connection);
+        }
+    }
+
+    /**
+     * 연결을 닫고 읽기 버퍼와 보내지 못한 응답을 반납합니다(selector 스레드 전용).
+     */
+    private void close(Connection connection) {
+        if (!connection.open) {
+            return;
+        }
+        connection.open = false;
+        connections.remove(connection);
+        connection.key.cancel();
+        closeQuietly(connection.channel);
+        connection.readBuffer.release();
+        if (connection.current != null) {
+            connection.current.release();
+            connection.current = null;
+        }
+        discard(connection);
+    }
+
+    private static void discard(Connection connection) {
+        Response response;
+        while ((response = connection.responses.poll()) != null) {
+            response.release();
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException ignored) {
+            // 종료 중 오류는 무시합니다.
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionTask {
+        void run(Connection connection) throws IOException;
+    }
+
+    /**
+     * 연결 하나의 상태. 응답 큐와 카운터 외 필드는 selector 스레드만 씁니다.
+     */
+    private static final class Connection {
+        final SocketChannel channel;
+        final ConcurrentLinkedQueue<Response> responses = new ConcurrentLinkedQueue<>();
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        volatile boolean open = true;
+        SelectionKey key;
+        PooledBuffer readBuffer;
+        Response current;
+        boolean readPaused;
+        boolean writePending;
+
+        Connection(SocketChannel channel, PooledBuffer readBuffer) {
+            this.channel = channel;
+            this.readBuffer = readBuffer;
+        }
+    }
+
+    /**
+     * 보낼 응답 하나. {@code parts}는 {@code [프레임 헤더, payload]}입니다.
+     */
+    private static final class Response {
+        final ByteBuffer[] parts;
+        final PooledBuffer body;
+
+        private Response(int requestId, byte status, ByteBuffer payload, PooledBuffer body) {
+            ByteBuffer header = ByteBuffer.allocate(LENGTH_BYTES + HEADER_BYTES);
+            header.putInt(HEADER_BYTES + payload.remaining()).putInt(requestId).put(status).flip();
+            this.parts = new ByteBuffer[] {header, payload};
+            this.body = body;
+        }
+
+        static Response ok(int requestId, PooledBuffer body) {
+            return new Response(requestId, GatewayProtocol.STATUS_OK, body.buffer(), body);
+        }
+
+        static Response error(int requestId, String message) {
+            ByteBuffer payload = ByteBuffer.wrap(String.valueOf(message).getBytes(StandardCharsets.UTF_8));
+            return new Response(requestId, GatewayProtocol.STATUS_ERROR, payload, null);
+        }
+
+        boolean hasRemaining() {
+            return parts[0].hasRemaining() || parts[1].hasRemaining();
+        }
+
+        void release() {
+            if (body != null) {
+                body.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.blockcipher.gateway;
+
+import static com.example.blockcipher.gateway.GatewayProtocol.HEADER_BYTES;
+import static com.example.blockcipher.gateway.GatewayProtocol.LENGTH_BYTES;
+
+import com.example.blockcipher.core.CryptoException;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link CipherGateway}에 요청을 pipelining으로 보내는 클라이언트입니다.
+ *
+ * <p>요청은 응답을 기다리지 않고 바로 소켓에 쓰고 {@link CompletableFuture}를 반환합니다.
+ * 응답 읽기 스레드 하나가 {@code requestId}로 짝을 맞춰 완료시키므로, 후속 처리(콜백)는 짧게 둬야 합니다.</p>
+ *
+ * <p>여러 스레드가 같은 클라이언트로 동시에 보내도 됩니다(프레임 단위로 쓰기를 직렬화).
+ * 서버 오류 응답은 {@link CryptoException}, 연결 종료는 {@link IOException}으로 미완료 요청을 모두 실패시킵니다.</p>
+ */
+public final class GatewayClient implements Closeable {
+    private final SocketChannel channel;
+    private final int maxPayloadBytes;
+    private final Map<Integer, CompletableFuture<byte[]>> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+    private final Object writeLock = new Object();
+    private final ByteBuffer writeHeader = ByteBuffer.allocate(LENGTH_BYTES + HEADER_BYTES);
+    private final Thread reader;
+    private volatile IOException failure;
+
+    /**
+     * @param address 게이트웨이 주소
+     */
+    public GatewayClient(InetSocketAddress address) throws IOException {
+        this(address, GatewayProtocol.DEFAULT_MAX_PAYLOAD_BYTES);
+    }
+
+    /**
+     * @param address 게이트웨이 주소
+     * @param maxPayloadBytes 받을 응답 payload 최대 크기(넘으면 연결을 끊음)
+     */
+    public GatewayClient(InetSocketAddress address, int maxPayloadBytes) throws IOException {
+        if (maxPayloadBytes <= 0) {
+            throw new IllegalArgumentException("maxPayloadBytes must be positive");
+        }
+        this.maxPayloadBytes = maxPayloadBytes;
+        this.channel = SocketChannel.open(address);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        this.reader = new Thread(this::readLoop, "cipher-gateway-client");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    /**
+     * 평문 암호화를 요청합니다. 결과는 {@code [IV || ciphertext]}입니다.
+     */
+    public CompletableFuture<byte[]> encrypt(byte[] plaintext) {
+        return send(GatewayProtocol.ENCRYPT, plaintext);
+    }
+
+    /**
+     * {@code [IV || ciphertext]} 복호화를 요청합니다.
+     */
+    public CompletableFuture<byte[]> decrypt(byte[] ivAndCiphertext) {
+        return send(GatewayProtocol.DECRYPT, ivAndCiphertext);
+    }
+
+    /**
+     * 임의 op로 요청을 보냅니다(알 수 없는 op는 서버가 오류로 응답).
+     */
+    public CompletableFuture<byte[]> send(byte op, byte[] payload) {
+        CompletableFuture<byte[]> future = new CompletableFuture<>();
+        if (failure != null) {
+            future.completeExceptionally(failure);
+            return future;
+        }
+        int requestId = nextId.getAndIncrement();
+        pending.put(requestId, future);
+        try {
+            synchronized (writeLock) {
+                writeHeader.clear();
+                writeHeader.putInt(HEADER_BYTES + payload.length).putInt(requestId).put(op).flip();
+                ByteBuffer[] frame = {writeHeader, ByteBuffer.wrap(payload)};
+                while (frame[0].hasRemaining() || frame[1].hasRemaining()) {
+                    channel.write(frame);
+                }
+            }
+        } catch (IOException e) {
+            pending.remove(requestId);
+            future.completeExceptionally(e);
+        }
+        // 읽기 스레드가 이미 실패를 정리했으면 그 뒤에 넣은 요청은 여기서 실패시킵니다.
+        if (failure != null && pending.remove(requestId) != null) {
+            future.completeExceptionally(failure);
+        }
+        return future;
+    }
+
+    /**
+     * 응답을 아직 받지 못한 요청 수.
+     */
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+        try {
+            reader.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void readLoop() {
+        ByteBuffer header = ByteBuffer.allocate(LENGTH_BYTES + HEADER_BYTES);
+        try {
+            while (true) {
+                header.clear();
+                readFully(header);
+                header.flip();
+                int length = header.getInt();
+                int requestId = header.getInt();
+                byte status = header.get();
+                if (length < HEADER_BYTES || length - HEADER_BYTES > maxPayloadBytes) {
+                    throw new IOException("invalid response length: " + length);
+                }
+                byte[] payload = new byte[length - HEADER_BYTES];
+                readFully(ByteBuffer.wrap(payload));
+                CompletableFuture<byte[]> future = pending.remove(requestId);
+                if (future == null) {
+                    continue;
+                }
+                if (status == GatewayProtocol.STATUS_OK) {
+                    future.complete(payload);
+                } else {
+                    future.completeExceptionally(
+                        new CryptoException("gateway error: " + new String(payload, StandardCharsets.UTF_8))
+                    );
+                }
+            }
+        } catch (IOException e) {
+            failure = e;
+        } finally {
+            if (failure == null) {
+                failure = new IOException("connection closed");
+            }
+            for (Integer requestId : pending.keySet()) {
+                CompletableFuture<byte[]> future = pending.remove(requestId);
+                if (future != null) {
+                    future.completeExceptionally(failure);
+                }
+            }
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // 이미 실패한 연결입니다.
+            }
+        }
+    }
+
+    private void readFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("gateway closed the connection");
+            }
+        }
+    }
+}
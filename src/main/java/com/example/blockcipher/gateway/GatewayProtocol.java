@@ -0,0 +1,37 @@
+package com.example.blockcipher.gateway;
+
+/**
+ * 게이트웨이 TCP 프레임 형식입니다.
+ *
+ * <p>요청: {@code [length(4) || requestId(4) || op(1) || payload]}</p>
+ * <p>응답: {@code [length(4) || requestId(4) || status(1) || payload]}</p>
+ *
+ * <p>{@code length}는 길이 필드 뒤 바이트 수(빅엔디언)입니다. 한 연결에 응답을 기다리지 않고
+ * 요청을 여러 개 보낼 수 있으며(pipelining), 응답은 완료 순서로 오므로 {@code requestId}로 짝을 맞춥니다.</p>
+ *
+ * <p>{@code op}가 {@link #ENCRYPT}이면 payload는 평문, 응답 payload는 {@code ModeCipherService} 형식
+ * {@code [IV || ciphertext]}입니다. {@link #DECRYPT}는 그 반대입니다.
+ * {@code status}가 {@link #STATUS_ERROR}이면 payload는 UTF-8 오류 메시지입니다.</p>
+ */
+public final class GatewayProtocol {
+    /** 평문을 암호화합니다. */
+    public static final byte ENCRYPT = 1;
+    /** {@code [IV || ciphertext]}를 복호화합니다. */
+    public static final byte DECRYPT = 2;
+
+    /** 성공. */
+    public static final byte STATUS_OK = 0;
+    /** 요청 처리 실패(잘못된 입력, 인증 실패, 알 수 없는 op). 연결은 유지됩니다. */
+    public static final byte STATUS_ERROR = 1;
+
+    /** 길이 필드 크기. */
+    public static final int LENGTH_BYTES = 4;
+    /** 길이 필드 뒤 고정 헤더 크기(requestId + op/status). */
+    public static final int HEADER_BYTES = 5;
+
+    /** 기본 최대 payload 크기(16 MiB). 넘는 프레임을 받으면 연결을 닫습니다. */
+    public static final int DEFAULT_MAX_PAYLOAD_BYTES = 16 * 1024 * 1024;
+
+    private GatewayProtocol() {
+    }
+}
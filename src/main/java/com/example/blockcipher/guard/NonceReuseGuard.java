@@ -0,0 +1,285 @@
+package com.example.blockcipher.guard;
+
+import com.example.blockcipher.core.CryptoException;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 한 키에서 사용한 nonce/IV를 기록해 재사용을 감지하는 가드입니다.
+ *
+ * <p>구성</p>
+ * <p>1. Bloom filter: {@link AtomicLongArray} 비트 배열에 CAS로 비트를 켜는 lock-free 구조.
+ * 크기는 예상 삽입 수 {@code n}과 목표 오탐률 {@code p}로 정합니다
+ * ({@code m = -n ln p / (ln 2)^2}, {@code k = m/n ln 2}). 해시는 이중 해싱 {@code h1 + i*h2}.</p>
+ * <p>2. 최근 항목 정확 집합: 최근 {@code recentCapacity}개를 {@link ConcurrentHashMap}에 보관하고
+ * 링 배열 순서대로 오래된 항목을 밀어냅니다. 같은 nonce가 동시에 들어와도 여기서 정확히 한 번만 통과합니다.</p>
+ *
+ * <p>판정</p>
+ * <p>정확 집합에 있으면 확실한 재사용, Bloom filter만 적중하면 "재사용 가능성"(오래된 재사용 또는 오탐)입니다.
+ * 두 경우 모두 {@link Policy}에 따라 거부하거나 표시만 합니다.
+ * 메모리는 생성 시 정한 비트 배열과 최근 집합 크기로 고정됩니다.</p>
+ *
+ * <p>가드는 키마다 하나씩 사용해야 합니다. 다른 키의 nonce가 섞이면 정상 사용을 재사용으로 판정합니다.</p>
+ */
+public final class NonceReuseGuard {
+    /**
+     * 재사용 감지 시 동작입니다.
+     */
+    public enum Policy {
+        /** {@link CryptoException}을 던져 호출을 중단합니다. */
+        REJECT,
+        /** 지표만 올리고 호출은 계속합니다. */
+        FLAG
+    }
+
+    /** 기본 최근 집합 크기. */
+    public static final int DEFAULT_RECENT_CAPACITY = 4096;
+
+    private final Policy policy;
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    private final ConcurrentHashMap<NonceKey, Boolean> recent;
+    private final AtomicReferenceArray<NonceKey> recentOrder;
+    private final AtomicLong recentCursor = new AtomicLong();
+
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder definiteReuses = new LongAdder();
+    private final LongAdder probableReuses = new LongAdder();
+    private final LongAdder setBits = new LongAdder();
+
+    /**
+     * @param expectedInsertions 이 키로 사용할 예상 nonce 수
+     * @param falsePositiveRate 목표 오탐률(0 초과 1 미만)
+     * @param recentCapacity 정확히 기억할 최근 nonce 수
+     * @param policy 재사용 감지 시 동작
+     */
+    public NonceReuseGuard(long expectedInsertions, double falsePositiveRate, int recentCapacity, Policy policy) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("expectedInsertions must be positive");
+        }
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("falsePositiveRate must be between 0 and 1");
+        }
+        if (recentCapacity <= 0) {
+            throw new IllegalArgumentException("recentCapacity must be positive");
+        }
+        this.policy = Objects.requireNonNull(policy, "policy must not be null");
+
+        double ln2 = Math.log(2);
+        long m = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (ln2 * ln2));
+        long words = Math.max(1, (m + 63) / 64);
+        if (words > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("bloom filter would be too large");
+        }
+        this.bits = new AtomicLongArray((int) words);
+        this.bitCount = words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * ln2));
+
+        this.recent = new ConcurrentHashMap<>(recentCapacity * 2);
+        this.recentOrder = new AtomicReferenceArray<>(recentCapacity);
+    }
+
+    /**
+     * 기본 최근 집합 크기로 생성합니다.
+     */
+    public NonceReuseGuard(long expectedInsertions, double falsePositiveRate, Policy policy) {
+        this(expectedInsertions, falsePositiveRate, DEFAULT_RECENT_CAPACITY, policy);
+    }
+
+    /**
+     * nonce를 기록하고 처음 보는 값인지 반환합니다.
+     *
+     * @param nonce 사용하려는 nonce/IV(최대 16바이트)
+     * @return 처음 보는 값이면 true, {@link Policy#FLAG}에서 재사용(가능성)이 감지되면 false
+     * @throws CryptoException {@link Policy#REJECT}에서 재사용(가능성)이 감지된 경우
+     */
+    public boolean checkAndRecord(byte[] nonce) {
+        checks.increment();
+        NonceKey key = NonceKey.of(nonce);
+        boolean definite = recent.putIfAbsent(key, Boolean.TRUE) != null;
+        if (!definite) {
+            remember(key);
+        }
+        // 최근 집합에 먼저 넣은 스레드만 Bloom 비트를 켭니다. 중복 호출이 먼저 켜 버리면
+        // 처음 넣은 쪽도 "이미 본 값"으로 판정되어 어느 호출도 true를 받지 못합니다.
+        boolean seen = !definite && addToBloom(key);
+        if (!definite && !seen) {
+            return true;
+        }
+
+        if (definite) {
+            definiteReuses.increment();
+        } else {
+            probableReuses.increment();
+        }
+        if (policy == Policy.REJECT) {
+            throw new CryptoException(definite ? "nonce reuse detected" : "possible nonce reuse detected");
+        }
+        return false;
+    }
+
+    /**
+     * 기록하지 않고 이미 본 nonce일 수 있는지만 확인합니다(정책 미적용).
+     */
+    public boolean mightHaveSeen(byte[] nonce) {
+        NonceKey key = NonceKey.of(nonce);
+        if (recent.containsKey(key)) {
+            return true;
+        }
+        long h1 = key.hash1();
+        long h2 = key.hash2() | 1L;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + (i * h2), bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public Policy policy() {
+        return policy;
+    }
+
+    /** 검사 횟수. */
+    public long checks() {
+        return checks.sum();
+    }
+
+    /** 최근 집합에서 확인된 재사용 횟수. */
+    public long definiteReuses() {
+        return definiteReuses.sum();
+    }
+
+    /** Bloom filter에서만 적중한 횟수(오래된 재사용 또는 오탐). */
+    public long probableReuses() {
+        return probableReuses.sum();
+    }
+
+    /** 해시 함수 수 {@code k}. */
+    public int hashCount() {
+        return hashCount;
+    }
+
+    /** 비트 배열 크기 {@code m}. */
+    public long bitCount() {
+        return bitCount;
+    }
+
+    /**
+     * 현재 채워진 비트 비율로 추정한 오탐률 {@code (setBits/m)^k}입니다.
+     * 예상 삽입 수를 넘겨 사용하면 이 값이 목표보다 커집니다.
+     */
+    public double estimatedFalsePositiveRate() {
+        return Math.pow((double) setBits.sum() / bitCount, hashCount);
+    }
+
+    /**
+     * 최근 집합에 넣고, 링 배열에서 밀려난 가장 오래된 항목을 제거합니다.
+     */
+    private void remember(NonceKey key) {
+        int slot = (int) Long.remainderUnsigned(recentCursor.getAndIncrement(), recentOrder.length());
+        NonceKey evicted = recentOrder.getAndSet(slot, key);
+        if (evicted != null) {
+            recent.remove(evicted);
+        }
+    }
+
+    /**
+     * {@code k}개 비트를 CAS로 켭니다.
+     *
+     * @return 모든 비트가 이미 켜져 있었으면 true
+     */
+    private boolean addToBloom(NonceKey key) {
+        long h1 = key.hash1();
+        long h2 = key.hash2() | 1L;
+        boolean allSet = true;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + (i * h2), bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = bits.get(word);
+            while ((current & mask) == 0) {
+                if (bits.compareAndSet(word, current, current | mask)) {
+                    setBits.increment();
+                    allSet = false;
+                    break;
+                }
+                current = bits.get(word);
+            }
+        }
+        return allSet;
+    }
+
+    /**
+     * 최대 16바이트 nonce를 두 개의 {@code long}과 길이로 표현한 키입니다.
+     */
+    private static final class NonceKey {
+        private final long high;
+        private final long low;
+        private final int length;
+
+        private NonceKey(long high, long low, int length) {
+            this.high = high;
+            this.low = low;
+            this.length = length;
+        }
+
+        static NonceKey of(byte[] nonce) {
+            if (nonce == null || nonce.length == 0 || nonce.length > 16) {
+                throw new IllegalArgumentException("nonce must be 1 to 16 bytes");
+            }
+            long high = 0;
+            long low = 0;
+            for (int i = 0; i < nonce.length; i++) {
+                if (i < 8) {
+                    high = (high << 8) | (nonce[i] & 0xFFL);
+                } else {
+                    low = (low << 8) | (nonce[i] & 0xFFL);
+                }
+            }
+            return new NonceKey(high, low, nonce.length);
+        }
+
+        long hash1() {
+            return mix(high ^ mix(low + length));
+        }
+
+        long hash2() {
+            return mix(low ^ mix(high + 0x9E3779B97F4A7C15L));
+        }
+
+        /**
+         * MurmurHash3 fmix64.
+         */
+        private static long mix(long value) {
+            long h = value;
+            h ^= h >>> 33;
+            h *= 0xFF51AFD7ED558CCDL;
+            h ^= h >>> 33;
+            h *= 0xC4CEB93FE1A85389L;
+            h ^= h >>> 33;
+            return h;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof NonceKey)) {
+                return false;
+            }
+            NonceKey that = (NonceKey) other;
+            return high == that.high && low == that.low && length == that.length;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(hash1());
+        }
+    }
+}
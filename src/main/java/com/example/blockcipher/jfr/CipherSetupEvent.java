@@ -0,0 +1,32 @@
+package com.example.blockcipher.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * 블록 암호 준비(키 스케줄, JCA Cipher 생성/초기화) 한 번을 나타내는 JFR 이벤트입니다.
+ *
+ * <p>블록마다 Cipher를 새로 만드는 경로가 얼마나 자주 불리는지 보려면 임계값을 0으로 낮춥니다.</p>
+ */
+@Name(CipherSetupEvent.NAME)
+@Label("Block Cipher Setup")
+@Category({"Block Cipher", "Setup"})
+@Description("Key schedule or JCA cipher initialization")
+@StackTrace(false)
+@Threshold("1 ms")
+public final class CipherSetupEvent extends Event {
+    public static final String NAME = "com.example.blockcipher.CipherSetup";
+
+    @Label("Implementation")
+    @Description("Block cipher class or JCA transformation")
+    public String implementation;
+
+    @Label("Key Size")
+    @Description("Key size in bits")
+    public int keyBits;
+}
@@ -0,0 +1,54 @@
+package com.example.blockcipher.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.SettingDefinition;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * {@code ModeOfOperation.encrypt/decrypt} 호출 한 번을 나타내는 JFR 이벤트입니다.
+ *
+ * <p>블록 단위가 아니라 호출 단위로만 기록하고, 기본 임계값(1 ms)과 {@code sampleEvery} 설정으로
+ * 짧은 호출의 기록 비용을 줄입니다. 설정 메서드는 판단마다 순번을 소비하므로, 기록하는 쪽은
+ * {@code shouldCommit()} 없이 {@code isEnabled()} 확인 후 {@code commit()}만 호출합니다.</p>
+ */
+@Name(ModeOperationEvent.NAME)
+@Label("Block Cipher Mode Operation")
+@Category({"Block Cipher", "Mode"})
+@Description("One encrypt/decrypt call on a mode of operation")
+@StackTrace(false)
+@Threshold("1 ms")
+public final class ModeOperationEvent extends Event {
+    public static final String NAME = "com.example.blockcipher.ModeOperation";
+
+    @Label("Mode")
+    public String mode;
+
+    @Label("Operation")
+    @Description("encrypt or decrypt")
+    public String operation;
+
+    @Label("Key Size")
+    @Description("Key size in bits (0 if unknown)")
+    public int keyBits;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    @Label("Execution Path")
+    @Description("SEQUENTIAL (block composition), PARALLEL or JCA_BULK")
+    public String path;
+
+    @Label("Sample Every")
+    @Name("sampleEvery")
+    @SettingDefinition
+    protected boolean sampleEvery(SampleEverySetting setting) {
+        return setting.accept();
+    }
+}
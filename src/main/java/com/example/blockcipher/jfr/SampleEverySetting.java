@@ -0,0 +1,55 @@
+package com.example.blockcipher.jfr;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import jdk.jfr.SettingControl;
+
+/**
+ * "N번 중 1번만 기록" JFR 설정입니다({@code <setting name="sampleEvery">N</setting>}).
+ *
+ * <p>임계값을 넘은 이벤트 중에서도 N번째마다 하나만 커밋해, 짧은 호출이 매우 많은 서비스에서
+ * 기록 비용과 파일 크기를 줄입니다. 여러 레코딩이 서로 다른 값을 요청하면 가장 촘촘한(작은) 값을 씁니다.</p>
+ */
+public final class SampleEverySetting extends SettingControl {
+    private static final String DEFAULT = "1";
+
+    private final AtomicLong counter = new AtomicLong();
+    private volatile long every = 1;
+    private volatile String value = DEFAULT;
+
+    @Override
+    public String combine(Set<String> values) {
+        long smallest = Long.MAX_VALUE;
+        for (String candidate : values) {
+            smallest = Math.min(smallest, parse(candidate));
+        }
+        return smallest == Long.MAX_VALUE ? DEFAULT : Long.toString(smallest);
+    }
+
+    @Override
+    public void setValue(String settingValue) {
+        every = parse(settingValue);
+        value = Long.toString(every);
+    }
+
+    @Override
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * 이번 이벤트를 커밋할 차례인지 반환합니다.
+     */
+    boolean accept() {
+        long n = every;
+        return n <= 1 || counter.getAndIncrement() % n == 0;
+    }
+
+    private static long parse(String text) {
+        try {
+            return Math.max(1, Long.parseLong(text.trim()));
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.blockcipher.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.SettingDefinition;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * {@code ModeCipherService}의 {@code encryptWithHeader/decryptWithHeader} 호출 한 번을 나타내는 JFR 이벤트입니다.
+ *
+ * <p>IV 생성, 헤더 결합, 풀 버퍼 기록까지 포함한 시간이므로 같은 스레드의
+ * {@link ModeOperationEvent}와 비교하면 서비스 계층 비용을 알 수 있습니다.</p>
+ */
+@Name(ServiceCallEvent.NAME)
+@Label("Block Cipher Service Call")
+@Category({"Block Cipher", "Service"})
+@Description("One ModeCipherService call including IV handling")
+@StackTrace(false)
+@Threshold("1 ms")
+public final class ServiceCallEvent extends Event {
+    public static final String NAME = "com.example.blockcipher.ServiceCall";
+
+    @Label("Mode")
+    public String mode;
+
+    @Label("Operation")
+    @Description("encrypt or decrypt")
+    public String operation;
+
+    @Label("Key Size")
+    @Description("Key size in bits (0 if unknown)")
+    public int keyBits;
+
+    @Label("Bytes")
+    @Description("Input size including the IV header on decrypt")
+    @DataAmount
+    public long bytes;
+
+    @Label("Pooled")
+    @Description("Whether the result was written into a pooled buffer")
+    public boolean pooled;
+
+    @Label("Sample Every")
+    @Name("sampleEvery")
+    @SettingDefinition
+    protected boolean sampleEvery(SampleEverySetting setting) {
+        return setting.accept();
+    }
+}
@@ -0,0 +1,286 @@
+package com.example.blockcipher.kdf;
+
+import com.example.blockcipher.core.AesBlockCipher;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * 비밀번호 기반으로 유도한 키를 크기와 수명을 제한해 보관하는 캐시입니다.
+ *
+ * <p>키는 {@code (비밀번호 HMAC, salt, 반복 횟수, 키 길이)}이고 값은 유도된 키 바이트입니다.
+ * 비밀번호 원문이나 빠른 해시는 보관하지 않고, 캐시마다 난수 비밀키로 만든 HMAC만 보관합니다.</p>
+ * <p>1. 조회: 만료된 항목은 제거하고 0으로 지운 뒤 miss로 처리</p>
+ * <p>2. miss: 잠금 밖에서 유도(수백 ms)하고 넣음. 같은 키를 동시에 놓친 스레드는 먼저 시작한 유도의
+ * 결과를 기다려 함께 쓰므로(single-flight) 키마다 유도는 한 번만 돌아갑니다</p>
+ * <p>3. 크기 초과: 가장 오래 쓰지 않은 항목부터 제거하고 0으로 지움</p>
+ *
+ * <p>맵 접근은 짧은 {@code synchronized} 구간으로 직렬화합니다. 비용은 유도에 몰려 있어 경합이 작습니다.
+ * 지운 키로 블록 암호를 만드는 경쟁은 항목 단위 잠금으로 막습니다.</p>
+ */
+public final class DerivedKeyCache {
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+
+    /** 접근 순서 LinkedHashMap(가장 오래 쓰지 않은 항목이 맨 앞). {@code this}로 잠급니다. */
+    private final LinkedHashMap<CacheKey, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    /** 진행 중인 유도. 같은 키의 다른 miss는 이 결과를 기다립니다. */
+    private final ConcurrentHashMap<CacheKey, CompletableFuture<Entry>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxEntries 최대 항목 수(1 이상)
+     * @param ttl 항목 수명(넣은 시점부터, 양수)
+     */
+    public DerivedKeyCache(int maxEntries, Duration ttl) {
+        this(maxEntries, ttl, System::nanoTime);
+    }
+
+    DerivedKeyCache(int maxEntries, Duration ttl, LongSupplier clock) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("ttl must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.clock = clock;
+    }
+
+    /**
+     * 캐시된 키로 블록 암호를 만들고, 없거나 만료되었으면 {@code derive}로 유도해 넣습니다.
+     *
+     * <p>처리 순서</p>
+     * <p>1. 캐시 조회, 적중하면 반환</p>
+     * <p>2. 같은 키의 유도가 진행 중이면 그 결과를 기다려 사용(적중으로 셈, 유도가 실패하면 같은 예외)</p>
+     * <p>3. 아니면 진행 중으로 등록하고 직접 유도해 넣음(miss)</p>
+     * <p>기다린 항목이 그사이 제거되어 지워졌으면 처음부터 다시 시도합니다.</p>
+     *
+     * @param derive 새 키 바이트를 만드는 함수(반환 배열은 캐시가 소유)
+     */
+    AesBlockCipher getOrDerive(CacheKey key, Supplier<byte[]> derive) {
+        while (true) {
+            Entry cached = lookup(key);
+            if (cached != null) {
+                AesBlockCipher cipher = cached.newCipher();
+                if (cipher != null) {
+                    hits.increment();
+                    return cipher;
+                }
+            }
+            CompletableFuture<Entry> mine = new CompletableFuture<>();
+            CompletableFuture<Entry> running = inFlight.putIfAbsent(key, mine);
+            if (running != null) {
+                AesBlockCipher cipher = await(running).newCipher();
+                if (cipher != null) {
+                    hits.increment();
+                    return cipher;
+                }
+                continue;
+            }
+            misses.increment();
+            try {
+                byte[] derived = derive.get();
+                Entry fresh = new Entry(derived, clock.getAsLong() + ttlNanos);
+                AesBlockCipher cipher = new AesBlockCipher(derived);
+                insert(key, fresh);
+                mine.complete(fresh);
+                return cipher;
+            } catch (RuntimeException | Error e) {
+                mine.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key, mine);
+            }
+        }
+    }
+
+    /**
+     * 다른 스레드의 유도 결과를 기다립니다. 실패했으면 그 예외를 그대로 던집니다.
+     */
+    private static Entry await(CompletableFuture<Entry> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    private synchronized Entry lookup(CacheKey key) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expired(clock.getAsLong())) {
+            entries.remove(key);
+            entry.destroy();
+            evictions.increment();
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * 항목을 넣습니다. 다른 스레드가 같은 키를 먼저 넣었으면 새 항목을 지웁니다.
+     */
+    private void insert(CacheKey key, Entry fresh) {
+        List<Entry> removed = new ArrayList<>();
+        synchronized (this) {
+            Entry existing = entries.get(key);
+            if (existing != null && !existing.expired(clock.getAsLong())) {
+                removed.add(fresh);
+            } else {
+                if (existing != null) {
+                    removed.add(existing);
+                    evictions.increment();
+                }
+                entries.put(key, fresh);
+                Iterator<Entry> eldest = entries.values().iterator();
+                while (entries.size() > maxEntries) {
+                    removed.add(eldest.next());
+                    eldest.remove();
+                    evictions.increment();
+                }
+            }
+        }
+        // 지운 항목은 잠금 밖에서 0으로 지웁니다(블록 암호 생성 중이면 항목 잠금이 기다려 줌).
+        removed.forEach(Entry::destroy);
+    }
+
+    /**
+     * 만료된 항목을 모두 제거하고 0으로 지웁니다(주기적으로 호출해 메모리에 남는 시간을 줄일 수 있음).
+     */
+    public void purgeExpired() {
+        List<Entry> removed = new ArrayList<>();
+        synchronized (this) {
+            long now = clock.getAsLong();
+            Iterator<Entry> it = entries.values().iterator();
+            while (it.hasNext()) {
+                Entry entry = it.next();
+                if (entry.expired(now)) {
+                    removed.add(entry);
+                    it.remove();
+                    evictions.increment();
+                }
+            }
+        }
+        removed.forEach(Entry::destroy);
+    }
+
+    /**
+     * 모든 항목을 제거하고 0으로 지웁니다.
+     */
+    public void clear() {
+        List<Entry> removed;
+        synchronized (this) {
+            removed = new ArrayList<>(entries.values());
+            entries.clear();
+        }
+        removed.forEach(Entry::destroy);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    /** 크기 초과, 만료, 교체로 제거(0으로 지움)된 항목 수. */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "DerivedKeyCache{size=" + size() + ", hits=" + hits() + ", misses=" + misses()
+            + ", evictions=" + evictions() + "}";
+    }
+
+    /**
+     * 캐시 키. 배열 필드는 생성 시 복사합니다.
+     */
+    static final class CacheKey {
+        private final byte[] passphraseMac;
+        private final byte[] salt;
+        private final int iterations;
+        private final int keyBytes;
+        private final int hash;
+
+        CacheKey(byte[] passphraseMac, byte[] salt, int iterations, int keyBytes) {
+            this.passphraseMac = passphraseMac.clone();
+            this.salt = salt.clone();
+            this.iterations = iterations;
+            this.keyBytes = keyBytes;
+            this.hash = 31 * (31 * (31 * Arrays.hashCode(passphraseMac) + Arrays.hashCode(salt)) + iterations) + keyBytes;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey that = (CacheKey) other;
+            return iterations == that.iterations && keyBytes == that.keyBytes
+                && Arrays.equals(passphraseMac, that.passphraseMac) && Arrays.equals(salt, that.salt);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * 유도된 키 하나. 지운 뒤에는 블록 암호를 만들지 않습니다.
+     */
+    private static final class Entry {
+        private final byte[] key;
+        private final long expiresAtNanos;
+        private boolean destroyed;
+
+        Entry(byte[] key, long expiresAtNanos) {
+            this.key = key;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        boolean expired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+
+        /**
+         * 지워지지 않았으면 블록 암호를 만들고, 지워졌으면 null을 반환합니다.
+         */
+        synchronized AesBlockCipher newCipher() {
+            return destroyed ? null : new AesBlockCipher(key);
+        }
+
+        synchronized void destroy() {
+            destroyed = true;
+            Arrays.fill(key, (byte) 0);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.blockcipher.kdf;
+
+import com.example.blockcipher.core.AesBlockCipher;
+import com.example.blockcipher.factory.ModeFactory;
+import com.example.blockcipher.mode.ModeType;
+import com.example.blockcipher.service.ModeCipherService;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * 비밀번호로 암복호화하고 salt/반복 횟수를 헤더에 함께 저장하는 서비스입니다.
+ *
+ * <p>형식: {@code [iterations(4, big-endian) || saltLength(1) || salt || IV || ciphertext]}.
+ * {@code [IV || ciphertext]} 부분은 {@link ModeCipherService}와 같습니다.</p>
+ *
+ * <p>사용자마다 salt를 하나 정해 재사용하면({@link #encrypt(char[], byte[], byte[])})
+ * {@link DerivedKeyCache}가 적중해 요청마다 PBKDF2를 다시 돌리지 않습니다. 메시지마다 IV가 새로 뽑히므로
+ * salt 재사용이 같은 (키, IV) 쌍을 만들지는 않습니다.</p>
+ */
+public final class PasswordCipherService {
+    private final ModeType type;
+    private final Pbkdf2KeyDeriver deriver;
+
+    /**
+     * @param type 사용할 모드(키 하나로 동작하는 모드)
+     * @param deriver 키 유도기(캐시 포함 가능)
+     */
+    public PasswordCipherService(ModeType type, Pbkdf2KeyDeriver deriver) {
+        this.type = Objects.requireNonNull(type, "type must not be null");
+        this.deriver = Objects.requireNonNull(deriver, "deriver must not be null");
+        if (!ModeFactory.supportsSingleCipher(type)) {
+            throw new IllegalArgumentException("mode type needs more than one key: " + type);
+        }
+    }
+
+    /**
+     * 새 난수 salt로 암호화합니다.
+     */
+    public byte[] encrypt(char[] passphrase, byte[] plaintext) {
+        return encrypt(passphrase, deriver.newSalt(), plaintext);
+    }
+
+    /**
+     * 주어진 salt로 암호화합니다.
+     *
+     * <p>처리 순서</p>
+     * <p>1. 설정된 반복 횟수로 키 유도(캐시 조회)</p>
+     * <p>2. {@link ModeCipherService}로 {@code [IV || ciphertext]} 생성</p>
+     * <p>3. 반복 횟수와 salt를 앞에 붙여 반환</p>
+     */
+    public byte[] encrypt(char[] passphrase, byte[] salt, byte[] plaintext) {
+        if (salt == null || salt.length == 0 || salt.length > 255) {
+            throw new IllegalArgumentException("salt must be 1..255 bytes");
+        }
+        AesBlockCipher cipher = deriver.derive(passphrase, salt);
+        byte[] body = new ModeCipherService(ModeFactory.create(type, cipher)).encryptWithHeader(plaintext);
+        return ByteBuffer.allocate(5 + salt.length + body.length)
+            .putInt(deriver.iterations())
+            .put((byte) salt.length)
+            .put(salt)
+            .put(body)
+            .array();
+    }
+
+    /**
+     * 헤더의 salt/반복 횟수로 키를 유도해 복호화합니다.
+     *
+     * <p>헤더는 신뢰할 수 없으므로 반복 횟수는 설정된 횟수({@link Pbkdf2KeyDeriver#iterations()}) 이하만 받습니다.
+     * 조작된 헤더로 요청마다 큰 PBKDF2 비용을 치르게 만들 수 없습니다. 더 큰 횟수로 만든 데이터를 열려면
+     * 그 이상으로 설정한 유도기를 사용합니다.</p>
+     *
+     * @throws IllegalArgumentException 헤더가 잘렸거나 반복 횟수가 범위를 벗어난 경우
+     */
+    public byte[] decrypt(char[] passphrase, byte[] packed) {
+        if (packed == null || packed.length < 5) {
+            throw new IllegalArgumentException("input is too short");
+        }
+        ByteBuffer header = ByteBuffer.wrap(packed);
+        int iterations = header.getInt();
+        if (iterations <= 0 || iterations > deriver.iterations()) {
+            throw new IllegalArgumentException("header iterations must be between 1 and " + deriver.iterations());
+        }
+        int saltLength = header.get() & 0xFF;
+        if (saltLength == 0 || packed.length < 5 + saltLength) {
+            throw new IllegalArgumentException("input is too short");
+        }
+        byte[] salt = Arrays.copyOfRange(packed, 5, 5 + saltLength);
+        AesBlockCipher cipher = deriver.derive(passphrase, salt, iterations);
+        byte[] body = Arrays.copyOfRange(packed, 5 + saltLength, packed.length);
+        return new ModeCipherService(ModeFactory.create(type, cipher)).decryptWithHeader(body);
+    }
+}
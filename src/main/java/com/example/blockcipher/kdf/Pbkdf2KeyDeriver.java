@@ -0,0 +1,154 @@
+package com.example.blockcipher.kdf;
+
+import com.example.blockcipher.core.AesBlockCipher;
+import com.example.blockcipher.core.CryptoException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import javax.crypto.Mac;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * 비밀번호와 salt에서 PBKDF2(JCA {@code PBKDF2WithHmacSHA256})로 AES 키를 유도합니다.
+ *
+ * <p>유도 결과는 {@link AesBlockCipher}로만 내보내고, 키 바이트 사본은 사용 후 0으로 지웁니다.
+ * {@link DerivedKeyCache}를 주면 같은 {@code (비밀번호, salt, 반복 횟수)}의 재유도를 건너뜁니다.</p>
+ */
+public final class Pbkdf2KeyDeriver {
+    /** JCA 알고리즘 이름. */
+    public static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    /** 기본 반복 횟수(OWASP 2023 권고, HMAC-SHA256 기준). */
+    public static final int DEFAULT_ITERATIONS = 600_000;
+    /** 기본 salt 길이(바이트). */
+    public static final int SALT_LENGTH = 16;
+    /** 반복 횟수의 절대 상한. 헤더에서 읽은 값은 {@link PasswordCipherService}가 설정된 횟수 이하로 한 번 더 제한합니다. */
+    public static final int MAX_ITERATIONS = 10_000_000;
+
+    private final int iterations;
+    private final int keyBytes;
+    private final DerivedKeyCache cache;
+    private final SecureRandom random = new SecureRandom();
+    /** 캐시 키용 비밀번호 HMAC 키(프로세스마다 난수, 캐시가 있을 때만). */
+    private final SecretKeySpec macKey;
+
+    /**
+     * @param iterations 새로 암호화할 때 쓰는 반복 횟수(1 이상, {@link #MAX_ITERATIONS} 이하)
+     * @param keyBytes AES 키 길이(16/24/32)
+     * @param cache 유도 키 캐시(null이면 매번 유도)
+     */
+    public Pbkdf2KeyDeriver(int iterations, int keyBytes, DerivedKeyCache cache) {
+        requireIterations(iterations);
+        if (keyBytes != 16 && keyBytes != 24 && keyBytes != 32) {
+            throw new IllegalArgumentException("AES key must be 16, 24, or 32 bytes");
+        }
+        this.iterations = iterations;
+        this.keyBytes = keyBytes;
+        this.cache = cache;
+        if (cache != null) {
+            byte[] secret = new byte[32];
+            random.nextBytes(secret);
+            this.macKey = new SecretKeySpec(secret, "HmacSHA256");
+            Arrays.fill(secret, (byte) 0);
+        } else {
+            this.macKey = null;
+        }
+    }
+
+    public int iterations() {
+        return iterations;
+    }
+
+    public int keyBytes() {
+        return keyBytes;
+    }
+
+    /**
+     * 새 난수 salt를 만듭니다.
+     */
+    public byte[] newSalt() {
+        byte[] salt = new byte[SALT_LENGTH];
+        random.nextBytes(salt);
+        return salt;
+    }
+
+    /**
+     * 설정된 반복 횟수로 키를 유도합니다.
+     */
+    public AesBlockCipher derive(char[] passphrase, byte[] salt) {
+        return derive(passphrase, salt, iterations);
+    }
+
+    /**
+     * 주어진 반복 횟수(헤더에서 읽은 값 등)로 키를 유도합니다.
+     *
+     * <p>신뢰할 수 없는 입력에서 읽은 횟수는 호출자가 먼저 제한해야 합니다({@link #MAX_ITERATIONS}는 절대 상한일 뿐입니다).</p>
+     *
+     * <p>처리 순서</p>
+     * <p>1. 인자 검증(빈 비밀번호, 빈 salt, 반복 횟수 범위)</p>
+     * <p>2. 캐시가 있으면 {@code HMAC(비밀번호)}와 salt/반복 횟수/키 길이로 조회</p>
+     * <p>3. 없으면 PBKDF2 실행 후 캐시에 넣음(캐시가 없으면 키 바이트를 바로 지움)</p>
+     */
+    public AesBlockCipher derive(char[] passphrase, byte[] salt, int iterations) {
+        if (passphrase == null || passphrase.length == 0) {
+            throw new IllegalArgumentException("passphrase must not be empty");
+        }
+        if (salt == null || salt.length == 0) {
+            throw new IllegalArgumentException("salt must not be empty");
+        }
+        requireIterations(iterations);
+        if (cache == null) {
+            byte[] key = pbkdf2(passphrase, salt, iterations);
+            try {
+                return new AesBlockCipher(key);
+            } finally {
+                Arrays.fill(key, (byte) 0);
+            }
+        }
+        DerivedKeyCache.CacheKey cacheKey =
+            new DerivedKeyCache.CacheKey(passphraseMac(passphrase), salt, iterations, keyBytes);
+        return cache.getOrDerive(cacheKey, () -> pbkdf2(passphrase, salt, iterations));
+    }
+
+    private byte[] pbkdf2(char[] passphrase, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(passphrase, salt, iterations, keyBytes * 8);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new CryptoException("PBKDF2 key derivation failed", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    /**
+     * 비밀번호의 UTF-8 바이트를 캐시 전용 키로 HMAC합니다(중간 바이트는 0으로 지움).
+     */
+    private byte[] passphraseMac(char[] passphrase) {
+        ByteBuffer encoded = StandardCharsets.UTF_8.encode(CharBuffer.wrap(passphrase));
+        byte[] bytes = new byte[encoded.remaining()];
+        encoded.get(bytes);
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(macKey);
+            return mac.doFinal(bytes);
+        } catch (GeneralSecurityException e) {
+            throw new CryptoException("passphrase HMAC failed", e);
+        } finally {
+            Arrays.fill(bytes, (byte) 0);
+            if (encoded.hasArray()) {
+                Arrays.fill(encoded.array(), (byte) 0);
+            }
+        }
+    }
+
+    private static void requireIterations(int iterations) {
+        if (iterations <= 0 || iterations > MAX_ITERATIONS) {
+            throw new IllegalArgumentException("iterations must be between 1 and " + MAX_ITERATIONS);
+        }
+    }
+}
@@ -1,7 +1,14 @@
 package com.example.blockcipher.mode;
 
 import com.example.blockcipher.core.BlockCipher;
+import com.example.blockcipher.jfr.ModeOperationEvent;
+import com.example.blockcipher.padding.PaddingScheme;
+import com.example.blockcipher.trace.ModeTracer;
+import com.example.blockcipher.trace.TraceKind;
+import com.example.blockcipher.trace.Tracing;
 import com.example.blockcipher.util.Bytes;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.stream.IntStream;
 
 /**
@@ -9,8 +16,26 @@ import java.util.stream.IntStream;
  *
  * <p>요청하신 대로 반복 구간은 Stream API(IntStream)로 구성했고,
  * 상태가 필요한 모드(CBC/CFB/OFB/CTR)를 위해 반드시 순차 실행으로 동작합니다.</p>
+ *
+ * <p>{@link #encrypt}/{@link #decrypt}는 호출 단위 {@link ModeOperationEvent}(JFR)를 기록하고
+ * 실제 모드 규칙은 {@link #encryptInternal}/{@link #decryptInternal}에 위임합니다.
+ * {@link ByteBuffer} 출력 경로는 {@link #encryptInto}/{@link #decryptInto}에 위임하며,
+ * 출력 배열에 바로 쓸 수 있는 모드(ECB/CBC/CTR/GCM)는 이 두 메서드를 재정의합니다.</p>
  */
 abstract class AbstractMode implements ModeOfOperation {
+    /**
+     * 추적 스위치({@link Tracing#ENABLED}).
+     *
+     * <p>{@code static final}이라 꺼져 있으면 JIT가 {@code if (TRACE)} 블록을 통째로 제거합니다.</p>
+     */
+    protected static final boolean TRACE = Tracing.ENABLED;
+
+    /** {@link ModeOperationEvent#path} 값: 호출 스레드에서 순서대로 처리. */
+    protected static final String SEQUENTIAL_PATH = "SEQUENTIAL";
+
+    /** {@link ModeOperationEvent#path} 값: 작업을 나눠 여러 스레드에서 처리. */
+    protected static final String PARALLEL_PATH = "PARALLEL";
+
     /** 단일 블록 암호 원시 연산 객체(AES 등). */
     protected final BlockCipher cipher;
 
@@ -45,6 +70,168 @@ abstract class AbstractMode implements ModeOfOperation {
         return cipher.blockSize();
     }
 
+    @Override
+    public BlockCipher blockCipher() {
+        return cipher;
+    }
+
+    /**
+     * 길이를 보존하는 모드의 기본값입니다. 패딩이나 태그가 붙는 모드는 재정의합니다.
+     */
+    @Override
+    public int maxOutputLength(int inputLength, boolean encrypting) {
+        return inputLength;
+    }
+
+    /**
+     * JFR 이벤트로 감싼 뒤 {@link #encryptInternal}을 호출합니다.
+     */
+    @Override
+    public final byte[] encrypt(byte[] plaintext, byte[] ivOrNonce) {
+        ModeOperationEvent event = new ModeOperationEvent();
+        event.begin();
+        byte[] ciphertext = encryptInternal(plaintext, ivOrNonce);
+        commit(event, "encrypt", plaintext.length, SEQUENTIAL_PATH);
+        return ciphertext;
+    }
+
+    /**
+     * JFR 이벤트로 감싼 뒤 {@link #decryptInternal}을 호출합니다.
+     */
+    @Override
+    public final byte[] decrypt(byte[] ciphertext, byte[] ivOrNonce) {
+        ModeOperationEvent event = new ModeOperationEvent();
+        event.begin();
+        byte[] plaintext = decryptInternal(ciphertext, ivOrNonce);
+        commit(event, "decrypt", ciphertext.length, SEQUENTIAL_PATH);
+        return plaintext;
+    }
+
+    /**
+     * JFR 이벤트로 감싼 뒤 {@link #encryptInto}로 출력 버퍼에 씁니다.
+     */
+    @Override
+    public final int encrypt(byte[] input, int offset, int length, byte[] ivOrNonce, ByteBuffer out) {
+        Bytes.requireRange(input, offset, length);
+        Bytes.requireRemaining(out, maxOutputLength(length, true));
+        ModeOperationEvent event = new ModeOperationEvent();
+        event.begin();
+        int written = write(true, input, offset, length, ivOrNonce, out);
+        commit(event, "encrypt", length, SEQUENTIAL_PATH);
+        return written;
+    }
+
+    /**
+     * JFR 이벤트로 감싼 뒤 {@link #decryptInto}로 출력 버퍼에 씁니다.
+     */
+    @Override
+    public final int decrypt(byte[] input, int offset, int length, byte[] ivOrNonce, ByteBuffer out) {
+        Bytes.requireRange(input, offset, length);
+        Bytes.requireRemaining(out, maxOutputLength(length, false));
+        ModeOperationEvent event = new ModeOperationEvent();
+        event.begin();
+        int written = write(false, input, offset, length, ivOrNonce, out);
+        commit(event, "decrypt", length, SEQUENTIAL_PATH);
+        return written;
+    }
+
+    /**
+     * 힙 버퍼는 배경 배열에 바로 쓰고, direct 버퍼는 작업 배열에 쓴 뒤 한 번 복사합니다.
+     */
+    private int write(boolean encrypting, byte[] input, int offset, int length, byte[] ivOrNonce, ByteBuffer out) {
+        if (out.hasArray()) {
+            int position = out.position();
+            int outOff = out.arrayOffset() + position;
+            int written = encrypting
+                ? encryptInto(input, offset, length, ivOrNonce, out.array(), outOff)
+                : decryptInto(input, offset, length, ivOrNonce, out.array(), outOff);
+            out.position(position + written);
+            return written;
+        }
+        byte[] staging = new byte[maxOutputLength(length, encrypting)];
+        int written = encrypting
+            ? encryptInto(input, offset, length, ivOrNonce, staging, 0)
+            : decryptInto(input, offset, length, ivOrNonce, staging, 0);
+        out.put(staging, 0, written);
+        if (!encrypting) {
+            Arrays.fill(staging, (byte) 0);
+        }
+        return written;
+    }
+
+    /**
+     * 모드 규칙대로 암호화합니다({@link ModeOfOperation#encrypt}와 같은 계약).
+     */
+    protected abstract byte[] encryptInternal(byte[] plaintext, byte[] ivOrNonce);
+
+    /**
+     * 모드 규칙대로 복호화합니다({@link ModeOfOperation#decrypt}와 같은 계약).
+     */
+    protected abstract byte[] decryptInternal(byte[] ciphertext, byte[] ivOrNonce);
+
+    /**
+     * {@code input[offset, offset + length)}를 암호화해 {@code out[outOff, ...)}에 쓰고 쓴 바이트 수를 반환합니다.
+     *
+     * <p>호출 전에 입력 범위와 출력 공간({@link #maxOutputLength})은 검증되어 있습니다.
+     * 기본 구현은 {@link #encryptInternal} 결과를 복사합니다.</p>
+     */
+    protected int encryptInto(byte[] input, int offset, int length, byte[] ivOrNonce, byte[] out, int outOff) {
+        byte[] ciphertext = encryptInternal(Arrays.copyOfRange(input, offset, offset + length), ivOrNonce);
+        System.arraycopy(ciphertext, 0, out, outOff, ciphertext.length);
+        return ciphertext.length;
+    }
+
+    /**
+     * {@code input[offset, offset + length)}를 복호화해 {@code out[outOff, ...)}에 쓰고 쓴 바이트 수를 반환합니다.
+     *
+     * <p>기본 구현은 {@link #decryptInternal} 결과를 복사한 뒤 중간 평문 배열을 0으로 지웁니다.</p>
+     */
+    protected int decryptInto(byte[] input, int offset, int length, byte[] ivOrNonce, byte[] out, int outOff) {
+        byte[] plaintext = decryptInternal(Arrays.copyOfRange(input, offset, offset + length), ivOrNonce);
+        System.arraycopy(plaintext, 0, out, outOff, plaintext.length);
+        Arrays.fill(plaintext, (byte) 0);
+        return plaintext.length;
+    }
+
+    /**
+     * 이벤트가 켜져 있을 때만 필드를 채워 커밋합니다(블록 단위 경로에는 이벤트가 없습니다).
+     *
+     * <p>임계값/{@code sampleEvery} 판단은 {@code commit()}이 한 번만 하도록 {@code shouldCommit()}을 따로 부르지 않습니다.
+     * {@code path}는 이번 호출이 실제로 거친 경로입니다. {@link ModeOfOperation} 진입점은 항상 {@link #SEQUENTIAL_PATH}이고,
+     * 자체 병렬 API가 있는 모드(XTS 섹터 API)는 그 경로에서 직접 기록합니다.</p>
+     */
+    protected final void commit(ModeOperationEvent event, String operation, int length, String path) {
+        event.end();
+        if (event.isEnabled()) {
+            event.mode = type().name();
+            event.operation = operation;
+            event.keyBits = cipher.keySizeBits();
+            event.bytes = length;
+            event.path = path;
+            event.commit();
+        }
+    }
+
+    /**
+     * 블록 단위 중간 값을 설치된 {@link ModeTracer}에 전달합니다.
+     *
+     * <p>호출부는 항상 {@code if (TRACE)}로 감싸서, 꺼진 상태에서는 인자 계산까지 사라지게 합니다.
+     * 모드가 작업 중인 배열과 위치를 그대로 넘기고, 복사는 tracer가 필요할 때만 합니다.</p>
+     */
+    protected final void trace(int blockIndex, TraceKind kind, byte[] src, int offset, int length) {
+        ModeTracer tracer = Tracing.tracer();
+        if (tracer != null) {
+            tracer.onBlock(type(), blockIndex, kind, src, offset, length);
+        }
+    }
+
+    /**
+     * 배열 전체가 한 값인 경우의 {@link #trace(int, TraceKind, byte[], int, int)}.
+     */
+    protected final void trace(int blockIndex, TraceKind kind, byte[] value) {
+        trace(blockIndex, kind, value, 0, value.length);
+    }
+
     /**
      * IV/nonce 길이 검증.
      */
@@ -58,13 +245,51 @@ abstract class AbstractMode implements ModeOfOperation {
      * 입력 길이가 블록 크기의 배수인지 검증.
      */
     protected void requireMultipleBlockLength(byte[] input) {
-        if (input.length % cipher.blockSize() != 0) {
+        requireMultipleBlockLength(input.length);
+    }
+
+    /**
+     * 입력 길이가 블록 크기의 배수인지 검증.
+     */
+    protected void requireMultipleBlockLength(int length) {
+        if (length % cipher.blockSize() != 0) {
             throw new IllegalArgumentException(
                 "input length must be a multiple of block size (" + cipher.blockSize() + " bytes)"
             );
         }
     }
 
+    /**
+     * 패딩 모드의 암호화 출력 길이: 블록 패딩은 1바이트 ~ 한 블록을 붙입니다.
+     */
+    protected int paddedLength(int inputLength) {
+        int blockSize = cipher.blockSize();
+        return (inputLength / blockSize + 1) * blockSize;
+    }
+
+    /**
+     * 마지막 불완전 블록만 패딩해 반환합니다(앞쪽 완전 블록은 입력에서 바로 읽도록 복사하지 않음).
+     *
+     * <p>블록 패딩은 마지막 블록만 바꾸므로 {@code pad(tail)}은 {@code pad(input)}의 끝부분과 같습니다.</p>
+     */
+    protected byte[] padTail(PaddingScheme padding, byte[] input, int offset, int length) {
+        int fullBytes = length - length % cipher.blockSize();
+        return padding.pad(Arrays.copyOfRange(input, offset + fullBytes, offset + length), cipher.blockSize());
+    }
+
+    /**
+     * {@code out[outOff, outOff + length)}의 패딩된 평문에서 마지막 블록만 검증해 패딩을 뺀 길이를 반환합니다.
+     *
+     * <p>남는 패딩 바이트는 0으로 지웁니다. 빈 입력은 {@code unpad}가 그대로 거부합니다.</p>
+     */
+    protected int unpaddedLength(PaddingScheme padding, byte[] out, int outOff, int length) {
+        int lastStart = Math.max(0, length - cipher.blockSize());
+        byte[] last = padding.unpad(Arrays.copyOfRange(out, outOff + lastStart, outOff + length), cipher.blockSize());
+        int unpadded = lastStart + last.length;
+        Arrays.fill(out, outOff + unpadded, outOff + length, (byte) 0);
+        return unpadded;
+    }
+
     /**
      * 블록 단위 입력을 Stream API로 순회해 변환합니다.
      *
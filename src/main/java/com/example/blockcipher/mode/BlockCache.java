@@ -0,0 +1,352 @@
+package com.example.blockcipher.mode;
+
+import com.example.blockcipher.core.BlockCipher;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * 키 하나에 묶인 {@code 평문 블록 -> 암호문 블록} 메모이제이션 표입니다(ECB 전용, 선택 사항).
+ *
+ * <p>ECB는 같은 평문 블록이 항상 같은 암호문 블록이 되므로, 반복 블록이 많은 데이터(고정 폭 레거시 표 등)에서는
+ * 이미 본 블록의 블록 암호 호출을 건너뛸 수 있습니다.</p>
+ *
+ * <p>구조</p>
+ * <p>1. 항목은 {@code long} 네 개(평문 상위/하위, 암호문 상위/하위)로 한 배열에 연속 저장</p>
+ * <p>2. 개방 주소법: 평문 두 {@code long}의 해시 위치부터 {@value #PROBE_WINDOW}칸만 선형 탐사</p>
+ * <p>3. 탐사 구간이 꽉 차면 clock(second chance): 참조 비트가 켜진 칸은 끄고 넘어가며 처음 만난 꺼진 칸을 교체</p>
+ * <p>4. 교체는 제자리에서 하고 항목을 지우지 않으므로, 조회는 빈 칸을 만나면 바로 끝냄</p>
+ *
+ * <p>{@link #encryptBlocks}는 못 찾은 블록을 최대 {@value #MISS_BATCH_BLOCKS}개까지 모아
+ * {@link BlockCipher#encryptBlocks} 한 번으로 암호화한 뒤 넣습니다. 그래서 일괄 처리 구현(JCA, 비트슬라이스)의
+ * 이점을 유지하고, 한 메시지 안의 반복도 다음 묶음부터 적중합니다.
+ * 조회는 {@link StampedLock} 낙관적 읽기, 삽입은 쓰기 잠금이라 여러 스레드가 한 캐시를 공유해도 됩니다.
+ * 참조 비트는 잠금 없이 켜는 힌트라 경쟁 시 일부 유실될 수 있지만 결과 바이트에는 영향이 없습니다.</p>
+ *
+ * <p>표에는 평문과 암호문이 그대로 들어 있습니다. 키를 폐기할 때 {@link #close()}를 호출하면 표를 0으로 지우고,
+ * 이후에는 캐시 없이 블록 암호를 그대로 호출합니다. 적중 여부에 따라 처리 시간이 달라지지만,
+ * ECB는 같은 블록이 같은 암호문이 된다는 사실이 이미 암호문에 드러나므로 새로 노출되는 정보는 없습니다.</p>
+ */
+public final class BlockCache implements AutoCloseable {
+    /** 최대 항목 수. */
+    public static final int MAX_CAPACITY = 1 << 20;
+
+    /** 한 해시 위치에서 탐사하는 칸 수. */
+    static final int PROBE_WINDOW = 8;
+
+    /** 낙관적 읽기 한 번으로 조회하는 최대 블록 수. */
+    static final int LOOKUP_BLOCKS = 64;
+
+    /**
+     * 못 찾은 블록을 모아 한 번에 암호화하는 최대 블록 수.
+     *
+     * <p>{@link com.example.blockcipher.core.AesBlockCipher#encryptBlocks}는 호출마다 JCA Cipher를 새로 초기화하므로
+     * 미적중을 적게 모아 자주 부르면 그 비용이 블록 암호 계산보다 커집니다.</p>
+     */
+    static final int MISS_BATCH_BLOCKS = 1024;
+
+    private static final int BLOCK = 16;
+
+    private static final VarHandle LONG_BE =
+        MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private final BlockCipher cipher;
+    private final int mask;
+
+    /** 칸마다 {@code [평문 상위, 평문 하위, 암호문 상위, 암호문 하위]}. */
+    private final long[] table;
+    /** 칸 사용 여부(쓰기 잠금 안에서만 변경). */
+    private final boolean[] occupied;
+    /** clock 참조 비트(조회 시 잠금 없이 켬). */
+    private final byte[] referenced;
+
+    private final StampedLock lock = new StampedLock();
+    private volatile boolean closed;
+    private int size;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param cipher 이 캐시를 쓸 블록 암호(128비트 블록). 다른 키의 모드에는 붙일 수 없습니다.
+     * @param capacity 최대 항목 수(2의 거듭제곱으로 올림, {@value #PROBE_WINDOW} ~ {@link #MAX_CAPACITY})
+     */
+    public BlockCache(BlockCipher cipher, int capacity) {
+        this.cipher = Objects.requireNonNull(cipher, "cipher must not be null");
+        if (cipher.blockSize() != BLOCK) {
+            throw new IllegalArgumentException("BlockCache requires a 128-bit block cipher");
+        }
+        if (capacity < PROBE_WINDOW || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("capacity must be between " + PROBE_WINDOW + " and " + MAX_CAPACITY);
+        }
+        int slots = Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = slots - 1;
+        this.table = new long[slots * 4];
+        this.occupied = new boolean[slots];
+        this.referenced = new byte[slots];
+    }
+
+    /**
+     * 캐시가 묶인 블록 암호.
+     */
+    public BlockCipher cipher() {
+        return cipher;
+    }
+
+    /**
+     * 표 크기(칸 수).
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * 현재 보관 중인 항목 수.
+     */
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /** 표에서 찾은 블록 수. */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /** 블록 암호로 계산한 블록 수. */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /** 탐사 구간이 꽉 차서 교체한 항목 수. */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * 적중률 = hits / (hits + misses).
+     */
+    public double hitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    /**
+     * {@code count}개 블록을 암호화합니다. 결과는 {@code cipher.encryptBlocks}와 같습니다.
+     *
+     * <p>처리 순서</p>
+     * <p>1. {@value #LOOKUP_BLOCKS}블록씩 낙관적 읽기로 표 조회, 찾으면 출력에 바로 기록(검증 실패 시 읽기 잠금으로 다시 조회)</p>
+     * <p>2. 못 찾은 블록 번호를 {@value #MISS_BATCH_BLOCKS}개 또는 입력 끝까지 모음</p>
+     * <p>3. 모은 블록을 블록 암호 한 번으로 암호화해 출력 위치에 흩어 쓰고, 쓰기 잠금으로 표에 삽입</p>
+     */
+    public void encryptBlocks(byte[] in, int inOff, byte[] out, int outOff, int count) {
+        if (closed) {
+            cipher.encryptBlocks(in, inOff, out, outOff, count);
+            return;
+        }
+        int[] missing = new int[Math.min(count, MISS_BATCH_BLOCKS)];
+        int missCount = 0;
+        for (int block = 0; block < count; ) {
+            int blocks = Math.min(Math.min(LOOKUP_BLOCKS, count - block), missing.length - missCount);
+
+            long stamp = lock.tryOptimisticRead();
+            int found = lookup(in, inOff, out, outOff, block, blocks, missing, missCount);
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    found = lookup(in, inOff, out, outOff, block, blocks, missing, missCount);
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            hits.add(found);
+            missCount += blocks - found;
+            block += blocks;
+
+            if (missCount == missing.length || (block == count && missCount > 0)) {
+                encryptMissing(in, inOff, out, outOff, missing, missCount);
+                missCount = 0;
+            }
+        }
+    }
+
+    /**
+     * 표를 0으로 지우고 비웁니다. 통계는 유지합니다.
+     */
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            Arrays.fill(table, 0L);
+            Arrays.fill(occupied, false);
+            Arrays.fill(referenced, (byte) 0);
+            size = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 키 폐기 시 호출합니다. 표를 0으로 지우고, 이후 호출은 캐시 없이 블록 암호로 바로 갑니다.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        clear();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            Locale.ROOT,
+            "BlockCache[capacity=%d, size=%d, hits=%d, misses=%d, hitRate=%.2f, evictions=%d%s]",
+            capacity(),
+            size(),
+            hits(),
+            misses(),
+            hitRate(),
+            evictions(),
+            closed ? ", closed" : ""
+        );
+    }
+
+    /**
+     * {@code [block, block + blocks)}를 조회해 찾은 블록은 출력에 쓰고, 못 찾은 블록 번호를
+     * {@code missing[missCount..]}에 이어 붙입니다.
+     *
+     * <p>낙관적 읽기 중에는 배열 값이 서로 맞지 않을 수 있지만, 인덱스는 항상 {@code mask} 안이라 예외는 없고
+     * 호출자가 검증에 실패하면 같은 구간을 다시 조회해 출력과 {@code missing}도 덮어씁니다.</p>
+     *
+     * @return 찾은 블록 수
+     */
+    private int lookup(
+        byte[] in,
+        int inOff,
+        byte[] out,
+        int outOff,
+        int block,
+        int blocks,
+        int[] missing,
+        int missCount
+    ) {
+        int found = 0;
+        for (int i = block; i < block + blocks; i++) {
+            int at = inOff + i * BLOCK;
+            long high = (long) LONG_BE.get(in, at);
+            long low = (long) LONG_BE.get(in, at + 8);
+            int slot = find(high, low);
+            if (slot < 0) {
+                missing[missCount++] = i;
+                continue;
+            }
+            int outAt = outOff + i * BLOCK;
+            LONG_BE.set(out, outAt, table[slot * 4 + 2]);
+            LONG_BE.set(out, outAt + 8, table[slot * 4 + 3]);
+            referenced[slot] = 1;
+            found++;
+        }
+        return found;
+    }
+
+    private int find(long high, long low) {
+        int home = hash(high, low);
+        for (int p = 0; p < PROBE_WINDOW; p++) {
+            int slot = (home + p) & mask;
+            if (!occupied[slot]) {
+                return -1;
+            }
+            if (table[slot * 4] == high && table[slot * 4 + 1] == low) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 못 찾은 블록을 모아 블록 암호 한 번으로 암호화하고, 출력 위치에 흩어 쓴 뒤 쓰기 잠금으로 표에 넣습니다.
+     */
+    private void encryptMissing(byte[] in, int inOff, byte[] out, int outOff, int[] missing, int missCount) {
+        misses.add(missCount);
+        byte[] gathered = new byte[missCount * BLOCK];
+        for (int m = 0; m < missCount; m++) {
+            System.arraycopy(in, inOff + missing[m] * BLOCK, gathered, m * BLOCK, BLOCK);
+        }
+        cipher.encryptBlocks(gathered, 0, gathered, 0, missCount);
+        for (int m = 0; m < missCount; m++) {
+            System.arraycopy(gathered, m * BLOCK, out, outOff + missing[m] * BLOCK, BLOCK);
+        }
+
+        long stamp = lock.writeLock();
+        try {
+            if (closed) {
+                return;
+            }
+            int evicted = 0;
+            for (int m = 0; m < missCount; m++) {
+                int at = inOff + missing[m] * BLOCK;
+                evicted += insert(
+                    (long) LONG_BE.get(in, at),
+                    (long) LONG_BE.get(in, at + 8),
+                    (long) LONG_BE.get(gathered, m * BLOCK),
+                    (long) LONG_BE.get(gathered, m * BLOCK + 8)
+                );
+            }
+            evictions.add(evicted);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 쓰기 잠금 안에서 한 항목을 넣습니다(같은 묶음 안의 중복이나 다른 스레드가 먼저 넣은 항목은 건너뜀).
+     *
+     * @return 기존 항목을 교체했으면 1, 아니면 0
+     */
+    private int insert(long high, long low, long cipherHigh, long cipherLow) {
+        int home = hash(high, low);
+        for (int p = 0; p < PROBE_WINDOW; p++) {
+            int slot = (home + p) & mask;
+            if (!occupied[slot]) {
+                occupied[slot] = true;
+                size++;
+                store(slot, high, low, cipherHigh, cipherLow);
+                return 0;
+            }
+            if (table[slot * 4] == high && table[slot * 4 + 1] == low) {
+                return 0;
+            }
+        }
+        // 첫 바퀴에서 참조 비트를 모두 꺼도 두 번째 바퀴에는 반드시 꺼진 칸이 있습니다.
+        for (int step = 0; ; step++) {
+            int slot = (home + (step % PROBE_WINDOW)) & mask;
+            if (referenced[slot] == 0) {
+                store(slot, high, low, cipherHigh, cipherLow);
+                return 1;
+            }
+            referenced[slot] = 0;
+        }
+    }
+
+    private void store(int slot, long high, long low, long cipherHigh, long cipherLow) {
+        table[slot * 4] = high;
+        table[slot * 4 + 1] = low;
+        table[slot * 4 + 2] = cipherHigh;
+        table[slot * 4 + 3] = cipherLow;
+        referenced[slot] = 0;
+    }
+
+    private int hash(long high, long low) {
+        long h = (high ^ Long.rotateLeft(low, 32)) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
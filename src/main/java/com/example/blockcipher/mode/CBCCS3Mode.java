@@ -0,0 +1,154 @@
+package com.example.blockcipher.mode;
+
+import com.example.blockcipher.core.BlockCipher;
+import java.util.Arrays;
+
+/**
+ * 암호문 훔치기(ciphertext stealing)를 적용한 CBC-CS3 모드 구현입니다(NIST SP 800-38A Addendum).
+ *
+ * <p>마지막 평문 블록 {@code P_n*}의 길이를 d(1~b)라고 할 때</p>
+ * <p>{@code C_i = E_k(P_i xor C_{i-1})}, {@code C_0 = IV}, i = 1..n-1</p>
+ * <p>{@code C_n = E_k((P_n* || 0^{b-d}) xor C_{n-1})}</p>
+ * <p>출력: {@code C_1 || ... || C_{n-2} || C_n || MSB_d(C_{n-1})} (CS3은 마지막 두 블록을 항상 교환)</p>
+ *
+ * <p>PKCS#7 패딩을 붙이지 않으므로 암호문 길이가 평문 길이와 같고,
+ * {@code pad}/{@code unpad} 단계의 전체 배열 복사도 없습니다. 결과는 출력 배열에 바로 기록합니다.</p>
+ *
+ * <p>CS3은 평문이 최소 한 블록이어야 정의됩니다. 본 구현은 한 블록보다 짧은 메시지를
+ * {@code C = P xor MSB_len(E_k(IV))}(단일 블록 CFB와 같은 형태)로 처리해 길이 보존 성질을 유지합니다.</p>
+ */
+public final class CBCCS3Mode extends AbstractMode {
+    /**
+     * @param cipher 단일 블록 암호 함수
+     */
+    public CBCCS3Mode(BlockCipher cipher) {
+        super(cipher);
+    }
+
+    @Override
+    public ModeType type() {
+        return ModeType.CBC_CS3;
+    }
+
+    /**
+     * CBC-CS3 암호화를 수행합니다.
+     *
+     * <p>처리 순서</p>
+     * <p>1. 마지막 두 블록 전까지는 일반 CBC 체이닝</p>
+     * <p>2. 끝에서 두 번째 블록으로 {@code C_{n-1}} 생성</p>
+     * <p>3. 마지막 부분 블록을 0으로 채운 값과 {@code C_{n-1}}을 XOR해 {@code C_n} 생성</p>
+     * <p>4. {@code C_n}을 먼저, {@code C_{n-1}}의 앞 d바이트를 마지막에 기록</p>
+     */
+    @Override
+    protected byte[] encryptInternal(byte[] plaintext, byte[] ivOrNonce) {
+        requireIv(ivOrNonce);
+        int blockSize = cipher.blockSize();
+        if (plaintext.length < blockSize) {
+            return shortMessage(plaintext, ivOrNonce);
+        }
+        byte[] out = new byte[plaintext.length];
+        int blocks = (plaintext.length + blockSize - 1) / blockSize;
+        int lastLength = plaintext.length - ((blocks - 1) * blockSize);
+        byte[] previous = ivOrNonce;
+        byte[] block = new byte[blockSize];
+
+        // 마지막 두 블록을 제외한 구간은 일반 CBC와 같습니다(한 블록뿐이면 여기서 끝납니다).
+        int regularBlocks = blocks == 1 ? 1 : blocks - 2;
+        for (int j = 0; j < regularBlocks; j++) {
+            int offset = j * blockSize;
+            for (int i = 0; i < blockSize; i++) {
+                block[i] = (byte) (plaintext[offset + i] ^ previous[i]);
+            }
+            previous = cipher.encryptBlock(block);
+            System.arraycopy(previous, 0, out, offset, blockSize);
+        }
+        if (blocks == 1) {
+            return out;
+        }
+
+        int secondLast = (blocks - 2) * blockSize;
+        int last = secondLast + blockSize;
+        for (int i = 0; i < blockSize; i++) {
+            block[i] = (byte) (plaintext[secondLast + i] ^ previous[i]);
+        }
+        byte[] cipherSecondLast = cipher.encryptBlock(block);
+
+        // (P_n* || 0) xor C_{n-1}: 0으로 채운 자리는 C_{n-1} 값이 그대로 남습니다.
+        System.arraycopy(cipherSecondLast, 0, block, 0, blockSize);
+        for (int i = 0; i < lastLength; i++) {
+            block[i] ^= plaintext[last + i];
+        }
+        byte[] cipherLast = cipher.encryptBlock(block);
+
+        System.arraycopy(cipherLast, 0, out, secondLast, blockSize);
+        System.arraycopy(cipherSecondLast, 0, out, last, lastLength);
+        return out;
+    }
+
+    /**
+     * CBC-CS3 복호화를 수행합니다.
+     *
+     * <p>처리 순서</p>
+     * <p>1. 마지막 두 블록 전까지는 일반 CBC 복호화</p>
+     * <p>2. {@code Z = D_k(C_n)}을 구하면 {@code Z}의 뒤쪽 b-d바이트가 잘려 나간 {@code C_{n-1}}의 꼬리</p>
+     * <p>3. {@code P_n* = MSB_d(Z) xor MSB_d(C_{n-1})}</p>
+     * <p>4. 복원한 {@code C_{n-1}}로 {@code P_{n-1} = D_k(C_{n-1}) xor C_{n-2}}</p>
+     */
+    @Override
+    protected byte[] decryptInternal(byte[] ciphertext, byte[] ivOrNonce) {
+        requireIv(ivOrNonce);
+        int blockSize = cipher.blockSize();
+        if (ciphertext.length < blockSize) {
+            return shortMessage(ciphertext, ivOrNonce);
+        }
+        byte[] out = new byte[ciphertext.length];
+        int blocks = (ciphertext.length + blockSize - 1) / blockSize;
+        int lastLength = ciphertext.length - ((blocks - 1) * blockSize);
+        byte[] previous = ivOrNonce;
+        byte[] block = new byte[blockSize];
+
+        int regularBlocks = blocks == 1 ? 1 : blocks - 2;
+        for (int j = 0; j < regularBlocks; j++) {
+            int offset = j * blockSize;
+            System.arraycopy(ciphertext, offset, block, 0, blockSize);
+            byte[] decrypted = cipher.decryptBlock(block);
+            for (int i = 0; i < blockSize; i++) {
+                out[offset + i] = (byte) (decrypted[i] ^ previous[i]);
+            }
+            previous = Arrays.copyOf(block, blockSize);
+        }
+        if (blocks == 1) {
+            return out;
+        }
+
+        int secondLast = (blocks - 2) * blockSize;
+        int last = secondLast + blockSize;
+        System.arraycopy(ciphertext, secondLast, block, 0, blockSize);
+        byte[] z = cipher.decryptBlock(block);
+
+        // C_{n-1} = MSB_d(C_{n-1}) || LSB_{b-d}(Z)
+        System.arraycopy(ciphertext, last, block, 0, lastLength);
+        System.arraycopy(z, lastLength, block, lastLength, blockSize - lastLength);
+        for (int i = 0; i < lastLength; i++) {
+            out[last + i] = (byte) (z[i] ^ block[i]);
+        }
+
+        byte[] decrypted = cipher.decryptBlock(block);
+        for (int i = 0; i < blockSize; i++) {
+            out[secondLast + i] = (byte) (decrypted[i] ^ previous[i]);
+        }
+        return out;
+    }
+
+    /**
+     * 한 블록보다 짧은 메시지를 {@code MSB_len(E_k(IV))}와 XOR합니다(암복호화 공통).
+     */
+    private byte[] shortMessage(byte[] input, byte[] iv) {
+        byte[] stream = cipher.encryptBlock(iv);
+        byte[] out = new byte[input.length];
+        for (int i = 0; i < input.length; i++) {
+            out[i] = (byte) (input[i] ^ stream[i]);
+        }
+        return out;
+    }
+}
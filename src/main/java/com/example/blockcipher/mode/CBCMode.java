@@ -2,7 +2,7 @@ package com.example.blockcipher.mode;
 
 import com.example.blockcipher.core.BlockCipher;
 import com.example.blockcipher.padding.PaddingScheme;
-import com.example.blockcipher.util.Bytes;
+import com.example.blockcipher.trace.TraceKind;
 import java.util.Arrays;
 
 /**
@@ -34,57 +34,100 @@ public final class CBCMode extends AbstractMode {
         return ModeType.CBC;
     }
 
+    @Override
+    public int maxOutputLength(int inputLength, boolean encrypting) {
+        return encrypting ? paddedLength(inputLength) : inputLength;
+    }
+
+    @Override
+    protected byte[] encryptInternal(byte[] plaintext, byte[] ivOrNonce) {
+        byte[] out = new byte[paddedLength(plaintext.length)];
+        encryptInto(plaintext, 0, plaintext.length, ivOrNonce, out, 0);
+        return out;
+    }
+
+    @Override
+    protected byte[] decryptInternal(byte[] ciphertext, byte[] ivOrNonce) {
+        byte[] paddedPlain = new byte[ciphertext.length];
+        int length = decryptInto(ciphertext, 0, ciphertext.length, ivOrNonce, paddedPlain, 0);
+        return Arrays.copyOf(paddedPlain, length);
+    }
+
     /**
-     * CBC 암호화를 수행합니다.
+     * CBC 암호화를 수행해 출력 배열에 바로 씁니다.
      *
      * <p>처리 순서</p>
      * <p>1. IV 길이 검증</p>
-     * <p>2. 평문 패딩</p>
-     * <p>3. 현재 평문 블록과 이전 암호문 블록(첫 블록은 IV)을 XOR</p>
-     * <p>4. XOR 결과를 블록 암호화</p>
+     * <p>2. 마지막 불완전 블록만 패딩(앞쪽 완전 블록은 입력에서 바로 읽음)</p>
+     * <p>3. 현재 평문 블록과 이전 암호문 블록(첫 블록은 IV)을 XOR해 출력 위치에 기록</p>
+     * <p>4. 출력 위치의 XOR 결과를 그 자리에서 블록 암호화</p>
      * <p>5. 방금 생성한 암호문 블록을 다음 체인 값으로 사용</p>
      */
     @Override
-    public byte[] encrypt(byte[] plaintext, byte[] ivOrNonce) {
+    protected int encryptInto(byte[] input, int offset, int length, byte[] ivOrNonce, byte[] out, int outOff) {
         requireIv(ivOrNonce);
-        byte[] padded = padding.pad(plaintext, cipher.blockSize());
-        byte[][] previous = {Arrays.copyOf(ivOrNonce, ivOrNonce.length)};
+        int blockSize = cipher.blockSize();
+        int fullBytes = length - length % blockSize;
+        byte[] tail = padTail(padding, input, offset, length);
+        int written = fullBytes + tail.length;
 
-        return mapFullBlocks(padded, (block, blockIndex) -> {
+        byte[] previous = ivOrNonce;
+        int previousOff = 0;
+        for (int position = 0, blockIndex = 0; position < written; position += blockSize, blockIndex++) {
+            byte[] block = position < fullBytes ? input : tail;
+            int blockOff = position < fullBytes ? offset + position : position - fullBytes;
+            int target = outOff + position;
             // 현재 평문 블록과 이전 암호문 블록(첫 블록은 IV)을 결합합니다.
-            byte[] chained = Bytes.xor(block, previous[0]);
+            for (int i = 0; i < blockSize; i++) {
+                out[target + i] = (byte) (block[blockOff + i] ^ previous[previousOff + i]);
+            }
+            if (TRACE) {
+                trace(blockIndex, TraceKind.FEEDBACK, previous, previousOff, blockSize);
+                trace(blockIndex, TraceKind.XOR, out, target, blockSize);
+            }
             // 결합 결과를 블록 암호화하면 현재 암호문 블록이 됩니다.
-            byte[] encrypted = cipher.encryptBlock(chained);
+            cipher.encryptBlocks(out, target, out, target, 1);
+            if (TRACE) {
+                trace(blockIndex, TraceKind.OUTPUT, out, target, blockSize);
+            }
             // 다음 블록 처리를 위해 체인 값을 현재 암호문으로 갱신합니다.
-            previous[0] = encrypted;
-            return encrypted;
-        });
+            previous = out;
+            previousOff = target;
+        }
+        return written;
     }
 
     /**
-     * CBC 복호화를 수행합니다.
+     * CBC 복호화를 수행해 출력 배열에 바로 씁니다.
      *
      * <p>처리 순서</p>
      * <p>1. IV 길이 검증</p>
-     * <p>2. 현재 암호문 블록을 블록 복호화</p>
+     * <p>2. 전체 암호문 블록을 {@link BlockCipher#decryptBlocks}로 한 번에 블록 복호화
+     * ({@code D_k(C_i)}는 블록끼리 독립)</p>
      * <p>3. 복호화 결과와 이전 암호문 블록(첫 블록은 IV)을 XOR</p>
-     * <p>4. 현재 암호문 블록을 다음 체인 값으로 갱신</p>
-     * <p>5. 마지막에 패딩 제거</p>
+     * <p>4. 마지막 블록의 패딩을 검증하고 평문 길이 반환</p>
+     *
+     * <p>이전 암호문 블록은 입력에서 읽으므로 {@code input}과 {@code out} 구간이 겹치면 안 됩니다.</p>
      */
     @Override
-    public byte[] decrypt(byte[] ciphertext, byte[] ivOrNonce) {
+    protected int decryptInto(byte[] input, int offset, int length, byte[] ivOrNonce, byte[] out, int outOff) {
         requireIv(ivOrNonce);
-        byte[][] previous = {Arrays.copyOf(ivOrNonce, ivOrNonce.length)};
-
-        byte[] paddedPlain = mapFullBlocks(ciphertext, (block, blockIndex) -> {
-            // 현재 암호문 블록을 먼저 블록 복호화합니다.
-            byte[] decrypted = cipher.decryptBlock(block);
-            // 복호화 결과와 이전 암호문 블록(첫 블록은 IV)을 XOR해 평문을 얻습니다.
-            byte[] plainBlock = Bytes.xor(decrypted, previous[0]);
-            // 다음 반복에서 사용할 이전 암호문을 현재 암호문으로 교체합니다.
-            previous[0] = block;
-            return plainBlock;
-        });
-        return padding.unpad(paddedPlain, cipher.blockSize());
+        requireMultipleBlockLength(length);
+        int blockSize = cipher.blockSize();
+        cipher.decryptBlocks(input, offset, out, outOff, length / blockSize);
+        for (int position = 0, blockIndex = 0; position < length; position += blockSize, blockIndex++) {
+            byte[] previous = position == 0 ? ivOrNonce : input;
+            int previousOff = position == 0 ? 0 : offset + position - blockSize;
+            int target = outOff + position;
+            for (int i = 0; i < blockSize; i++) {
+                out[target + i] ^= previous[previousOff + i];
+            }
+            if (TRACE) {
+                trace(blockIndex, TraceKind.INPUT, input, offset + position, blockSize);
+                trace(blockIndex, TraceKind.FEEDBACK, previous, previousOff, blockSize);
+                trace(blockIndex, TraceKind.OUTPUT, out, target, blockSize);
+            }
+        }
+        return unpaddedLength(padding, out, outOff, length);
     }
 }
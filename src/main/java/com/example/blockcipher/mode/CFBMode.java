@@ -1,6 +1,7 @@
 package com.example.blockcipher.mode;
 
 import com.example.blockcipher.core.BlockCipher;
+import com.example.blockcipher.trace.TraceKind;
 import com.example.blockcipher.util.Bytes;
 import java.util.Arrays;
 
@@ -37,7 +38,7 @@ public final class CFBMode extends AbstractMode {
      * <p>3. 블록 단위 처리에서는 방금 만든 암호문을 다음 feedback으로 사용</p>
      */
     @Override
-    public byte[] encrypt(byte[] plaintext, byte[] ivOrNonce) {
+    protected byte[] encryptInternal(byte[] plaintext, byte[] ivOrNonce) {
         requireIv(ivOrNonce);
         int blockSize = cipher.blockSize();
         byte[][] feedback = {Arrays.copyOf(ivOrNonce, ivOrNonce.length)};
@@ -47,6 +48,11 @@ public final class CFBMode extends AbstractMode {
             byte[] stream = cipher.encryptBlock(feedback[0]);
             byte[] streamChunk = Bytes.slice(stream, 0, chunk.length);
             byte[] cipherChunk = Bytes.xor(chunk, streamChunk);
+            if (TRACE) {
+                trace(chunkIndex, TraceKind.FEEDBACK, feedback[0]);
+                trace(chunkIndex, TraceKind.KEYSTREAM, stream);
+                trace(chunkIndex, TraceKind.OUTPUT, cipherChunk);
+            }
 
             // 블록 단위 처리라면 방금 만든 암호문이 다음 feedback이 됩니다.
             if (chunk.length == blockSize) {
@@ -65,7 +71,7 @@ public final class CFBMode extends AbstractMode {
      * <p>3. 블록 단위 처리에서는 "입력 암호문 청크"를 다음 feedback으로 사용</p>
      */
     @Override
-    public byte[] decrypt(byte[] ciphertext, byte[] ivOrNonce) {
+    protected byte[] decryptInternal(byte[] ciphertext, byte[] ivOrNonce) {
         requireIv(ivOrNonce);
         int blockSize = cipher.blockSize();
         byte[][] feedback = {Arrays.copyOf(ivOrNonce, ivOrNonce.length)};
@@ -75,6 +81,11 @@ public final class CFBMode extends AbstractMode {
             byte[] stream = cipher.encryptBlock(feedback[0]);
             byte[] streamChunk = Bytes.slice(stream, 0, chunk.length);
             byte[] plainChunk = Bytes.xor(chunk, streamChunk);
+            if (TRACE) {
+                trace(chunkIndex, TraceKind.FEEDBACK, feedback[0]);
+                trace(chunkIndex, TraceKind.KEYSTREAM, stream);
+                trace(chunkIndex, TraceKind.OUTPUT, plainChunk);
+            }
 
             // 다음 feedback은 "출력 평문"이 아니라 "입력 암호문"입니다.
             if (chunk.length == blockSize) {
@@ -0,0 +1,134 @@
+package com.example.blockcipher.mode;
+
+import com.example.blockcipher.core.BlockCipher;
+import com.example.blockcipher.trace.TraceKind;
+
+/**
+ * 세그먼트 CFB(CFB-s) 구현입니다. 기본은 s = 8비트(CFB-8)입니다.
+ *
+ * <p>NIST SP 800-38A 6.3절 기준입니다.</p>
+ * <p>{@code I_1 = IV}, {@code I_j = LSB_{b-s}(I_{j-1}) || C#_{j-1}}</p>
+ * <p>{@code O_j = E_k(I_j)}</p>
+ * <p>{@code C#_j = P#_j xor MSB_s(O_j)}, {@code P#_j = C#_j xor MSB_s(O_j)}</p>
+ *
+ * <p>shift register {@code I_j}는 배열 복사로 밀지 않고 링 버퍼로 둡니다.
+ * 길이 {@code 2b} 배열에 같은 바이트를 {@code i}, {@code i + b} 두 곳에 써 두면
+ * 현재 레지스터가 항상 {@code register[head, head + b)} 연속 구간이므로 그대로
+ * {@code encryptBlocks(register, head, ...)}에 넘길 수 있습니다.
+ * 한 세그먼트마다 {@code head}를 s바이트 옮기고 새 암호문 s바이트만 씁니다(메시지당 작업 버퍼 2개 외 할당 없음).</p>
+ *
+ * <p>마지막 세그먼트가 s보다 짧으면 그 길이만큼만 XOR합니다(길이 보존, 패딩 없음).
+ * s = b이면 {@link CFBMode}와 같은 결과입니다.</p>
+ *
+ * <p>{@link #type()}은 저장 형식 헤더에 기록되어 복호화 쪽 모드를 정하므로 s를 구분할 수 있어야 합니다.
+ * 그래서 대응하는 {@link ModeType}이 있는 s = 8비트({@link ModeType#CFB8})와
+ * s = b({@link ModeType#CFB})만 허용합니다.</p>
+ */
+public final class CFBSegmentMode extends AbstractMode {
+    /** 팩토리 기본 세그먼트 크기(비트). */
+    public static final int DEFAULT_SEGMENT_BITS = 8;
+
+    private final int segmentBytes;
+
+    /**
+     * CFB-8 구현체를 생성합니다.
+     *
+     * @param cipher 단일 블록 암호 함수
+     */
+    public CFBSegmentMode(BlockCipher cipher) {
+        this(cipher, DEFAULT_SEGMENT_BITS);
+    }
+
+    /**
+     * @param cipher 단일 블록 암호 함수
+     * @param segmentBits 세그먼트 크기 s(비트, 8 또는 블록 크기 비트)
+     * @throws IllegalArgumentException s에 대응하는 {@link ModeType}이 없는 경우
+     */
+    public CFBSegmentMode(BlockCipher cipher, int segmentBits) {
+        super(cipher);
+        if (segmentBits != DEFAULT_SEGMENT_BITS && segmentBits != cipher.blockSize() * 8) {
+            throw new IllegalArgumentException(
+                "segmentBits must be 8 (CFB8) or " + cipher.blockSize() * 8 + " (CFB)"
+            );
+        }
+        this.segmentBytes = segmentBits / 8;
+    }
+
+    /**
+     * s = 8이면 {@link ModeType#CFB8}, s = b이면 {@link ModeType#CFB}입니다.
+     */
+    @Override
+    public ModeType type() {
+        return segmentBytes * 8 == DEFAULT_SEGMENT_BITS ? ModeType.CFB8 : ModeType.CFB;
+    }
+
+    /**
+     * 세그먼트 크기(비트).
+     */
+    public int segmentBits() {
+        return segmentBytes * 8;
+    }
+
+    /**
+     * CFB-s 암호화를 수행합니다.
+     *
+     * <p>처리 순서</p>
+     * <p>1. 현재 레지스터(처음은 IV)를 암호화해 keystream 블록 생성</p>
+     * <p>2. 앞 s바이트와 평문 세그먼트를 XOR해 암호문 세그먼트 생성</p>
+     * <p>3. 암호문 세그먼트를 레지스터 오른쪽에 밀어 넣음(링 버퍼 head 이동)</p>
+     */
+    @Override
+    protected byte[] encryptInternal(byte[] plaintext, byte[] ivOrNonce) {
+        return process(plaintext, ivOrNonce, true);
+    }
+
+    /**
+     * CFB-s 복호화를 수행합니다.
+     *
+     * <p>keystream은 복호화에서도 {@code encryptBlock}으로 만들고,
+     * 레지스터에는 "입력 암호문 세그먼트"를 밀어 넣습니다.</p>
+     */
+    @Override
+    protected byte[] decryptInternal(byte[] ciphertext, byte[] ivOrNonce) {
+        return process(ciphertext, ivOrNonce, false);
+    }
+
+    private byte[] process(byte[] input, byte[] ivOrNonce, boolean encrypting) {
+        requireIv(ivOrNonce);
+        int blockSize = cipher.blockSize();
+        byte[] register = new byte[blockSize * 2];
+        System.arraycopy(ivOrNonce, 0, register, 0, blockSize);
+        System.arraycopy(ivOrNonce, 0, register, blockSize, blockSize);
+        byte[] keystream = new byte[blockSize];
+        byte[] out = new byte[input.length];
+
+        int head = 0;
+        int segmentIndex = 0;
+        for (int offset = 0; offset < input.length; offset += segmentBytes, segmentIndex++) {
+            int length = Math.min(segmentBytes, input.length - offset);
+            cipher.encryptBlocks(register, head, keystream, 0, 1);
+            if (TRACE) {
+                trace(segmentIndex, TraceKind.FEEDBACK, register, head, blockSize);
+                trace(segmentIndex, TraceKind.KEYSTREAM, keystream);
+            }
+            for (int t = 0; t < length; t++) {
+                byte in = input[offset + t];
+                byte result = (byte) (in ^ keystream[t]);
+                out[offset + t] = result;
+                // 레지스터를 s바이트 왼쪽으로 밀면 비는 오른쪽 끝이 지금 head 위치(와 그 거울)입니다.
+                byte feedback = encrypting ? result : in;
+                int slot = head + t < blockSize ? head + t : head + t - blockSize;
+                register[slot] = feedback;
+                register[slot + blockSize] = feedback;
+            }
+            if (TRACE) {
+                trace(segmentIndex, TraceKind.OUTPUT, out, offset, length);
+            }
+            head += segmentBytes;
+            if (head >= blockSize) {
+                head -= blockSize;
+            }
+        }
+        return out;
+    }
+}
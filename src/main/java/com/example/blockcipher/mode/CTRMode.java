@@ -1,8 +1,12 @@
 package com.example.blockcipher.mode;
 
 import com.example.blockcipher.core.BlockCipher;
-import com.example.blockcipher.util.Bytes;
-import java.util.Arrays;
+import com.example.blockcipher.guard.NonceReuseGuard;
+import com.example.blockcipher.trace.TraceKind;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Objects;
 
 /**
  * CTR 모드 구현입니다.
@@ -13,13 +17,55 @@ import java.util.Arrays;
  *
  * <p>여기서 {@code T_i}는 nonce + counter로 구성된 카운터 블록입니다.
  * 같은 키에서 같은 카운터 블록을 재사용하면 keystream이 재사용되므로 보안상 매우 위험합니다.</p>
+ *
+ * <p>nonce/counter 분할은 {@link CounterLayout}으로 정합니다(기본 {@link CounterLayout#FULL_128}).</p>
  */
 public final class CTRMode extends AbstractMode {
+    /** counter 블록에 {@code long}을 빅엔디언으로 쓰는 뷰(JIT가 단일 저장 명령으로 바꿈). */
+    private static final VarHandle LONG_BE =
+        MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle INT_BE =
+        MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+    /**
+     * 한 번에 암호화할 counter 블록 수. 비트슬라이스 엔진의 8블록 배치 배수이면서
+     * 작은 메시지에서 버퍼가 커지지 않을 정도의 크기입니다.
+     */
+    private static final int BATCH_BLOCKS = 64;
+
+    /** nonce/counter 분할 방식. */
+    private final CounterLayout layout;
+
+    /** 암호화 시 nonce 재사용을 검사할 가드(선택). */
+    private final NonceReuseGuard guard;
+
     /**
      * @param cipher 단일 블록 암호 함수
      */
     public CTRMode(BlockCipher cipher) {
+        this(cipher, CounterLayout.FULL_128, null);
+    }
+
+    /**
+     * @param cipher 단일 블록 암호 함수
+     * @param guard 이 키 전용 nonce 재사용 가드(null이면 검사하지 않음)
+     */
+    public CTRMode(BlockCipher cipher, NonceReuseGuard guard) {
+        this(cipher, CounterLayout.FULL_128, guard);
+    }
+
+    /**
+     * @param cipher 단일 블록 암호 함수(16바이트 블록)
+     * @param layout nonce/counter 분할 방식
+     * @param guard 이 키 전용 nonce 재사용 가드(null이면 검사하지 않음)
+     */
+    public CTRMode(BlockCipher cipher, CounterLayout layout, NonceReuseGuard guard) {
         super(cipher);
+        if (cipher.blockSize() != 16) {
+            throw new IllegalArgumentException("CTR requires a 16-byte block cipher");
+        }
+        this.layout = Objects.requireNonNull(layout, "layout must not be null");
+        this.guard = guard;
     }
 
     @Override
@@ -27,15 +73,27 @@ public final class CTRMode extends AbstractMode {
         return ModeType.CTR;
     }
 
+    public CounterLayout layout() {
+        return layout;
+    }
+
+    /**
+     * 암호화 시 nonce를 기록하는 가드(없으면 null)입니다.
+     */
+    public NonceReuseGuard guard() {
+        return guard;
+    }
+
     /**
      * CTR 암호화를 수행합니다.
      *
      * <p>복호화와 동일한 keystream XOR 함수가 사용됩니다.</p>
      */
     @Override
-    public byte[] encrypt(byte[] plaintext, byte[] ivOrNonce) {
-        requireIv(ivOrNonce);
-        return applyKeystream(plaintext, ivOrNonce);
+    protected byte[] encryptInternal(byte[] plaintext, byte[] ivOrNonce) {
+        byte[] out = new byte[plaintext.length];
+        encryptInto(plaintext, 0, plaintext.length, ivOrNonce, out, 0);
+        return out;
     }
 
     /**
@@ -44,39 +102,127 @@ public final class CTRMode extends AbstractMode {
      * <p>암호화와 동일한 함수를 재사용합니다.</p>
      */
     @Override
-    public byte[] decrypt(byte[] ciphertext, byte[] ivOrNonce) {
+    protected byte[] decryptInternal(byte[] ciphertext, byte[] ivOrNonce) {
+        byte[] out = new byte[ciphertext.length];
+        decryptInto(ciphertext, 0, ciphertext.length, ivOrNonce, out, 0);
+        return out;
+    }
+
+    /**
+     * keystream을 출력 배열에 바로 XOR합니다.
+     *
+     * <p>가드가 있으면 암호화 전에 nonce를 기록하고 재사용을 검사합니다(복호화는 같은 nonce를 다시 쓰므로 검사하지 않음).</p>
+     */
+    @Override
+    protected int encryptInto(byte[] input, int offset, int length, byte[] ivOrNonce, byte[] out, int outOff) {
+        requireIv(ivOrNonce);
+        requireCounterSpace(ivOrNonce, length);
+        if (guard != null) {
+            guard.checkAndRecord(ivOrNonce);
+        }
+        applyKeystream(input, offset, length, ivOrNonce, out, outOff);
+        return length;
+    }
+
+    @Override
+    protected int decryptInto(byte[] input, int offset, int length, byte[] ivOrNonce, byte[] out, int outOff) {
         requireIv(ivOrNonce);
-        return applyKeystream(ciphertext, ivOrNonce);
+        requireCounterSpace(ivOrNonce, length);
+        applyKeystream(input, offset, length, ivOrNonce, out, outOff);
+        return length;
+    }
+
+    /**
+     * 메시지 전체가 쓸 counter 범위 {@code [c, c + blocks - 1]}가 counter 영역 안에 있는지 한 번에 검사합니다.
+     *
+     * <p>블록마다 wrap을 확인하지 않아도 되도록, 처리 전에 남은 counter 공간과 블록 수를 비교합니다.</p>
+     */
+    private void requireCounterSpace(byte[] iv, int length) {
+        long blocks = ((long) length + 15) / 16;
+        if (blocks <= 1) {
+            return;
+        }
+        long lastStep = blocks - 1;
+        boolean fits;
+        switch (layout) {
+            case NONCE_96_COUNTER_32:
+                long counter32 = Integer.toUnsignedLong((int) INT_BE.get(iv, 12));
+                fits = counter32 + lastStep <= 0xFFFFFFFFL;
+                break;
+            case NONCE_64_COUNTER_64:
+                fits = Long.compareUnsigned((long) LONG_BE.get(iv, 8), -1L - lastStep) <= 0;
+                break;
+            default:
+                long high = (long) LONG_BE.get(iv, 0);
+                fits = high != -1L || Long.compareUnsigned((long) LONG_BE.get(iv, 8), -1L - lastStep) <= 0;
+                break;
+        }
+        if (!fits) {
+            throw new IllegalStateException("CTR counter wrapped; nonce/counter space exhausted");
+        }
     }
 
     /**
      * 입력 데이터에 CTR keystream을 XOR하는 공통 함수입니다.
      *
-     * <p>각 청크마다</p>
-     * <p>1. 현재 counter 블록을 암호화해서 keystream 생성</p>
-     * <p>2. 입력 청크와 XOR</p>
-     * <p>3. counter를 1 증가</p>
-     * <p>4. wrap가 발생했는데 아직 처리할 입력이 남아 있으면 예외 발생</p>
+     * <p>counter는 {@code int}/{@code long} 지역 변수(레지스터)에 두고, 재사용하는 counter 블록 배열의
+     * counter 영역에만 빅엔디언으로 써 넣습니다. wrap은 {@link #requireCounterSpace}에서 이미 배제했으므로
+     * 루프 안에는 분기 없는 증가만 남습니다.</p>
+     *
+     * <p>최대 {@link #BATCH_BLOCKS}블록씩</p>
+     * <p>1. counter 값을 counter 블록들에 차례로 기록(블록마다 counter 1 증가)</p>
+     * <p>2. counter 블록들을 {@link BlockCipher#encryptBlocks}로 한 번에 암호화해서 keystream 생성</p>
+     * <p>3. 입력과 XOR해 출력 배열에 바로 기록</p>
      */
-    private byte[] applyKeystream(byte[] input, byte[] ivOrNonce) {
-        int blockSize = cipher.blockSize();
-        byte[][] counter = {Arrays.copyOf(ivOrNonce, ivOrNonce.length)};
-        int[] processed = {0};
-
-        return mapChunks(input, blockSize, (chunk, chunkIndex) -> {
-            // 현재 카운터 블록을 암호화해 이번 청크용 keystream을 생성합니다.
-            byte[] stream = cipher.encryptBlock(counter[0]);
-            byte[] streamChunk = Bytes.slice(stream, 0, chunk.length);
-            byte[] outChunk = Bytes.xor(chunk, streamChunk);
-
-            // keystream 사용 후 카운터를 반드시 증가시킵니다.
-            boolean wrapped = Bytes.incrementBigEndian(counter[0]);
-            processed[0] += chunk.length;
-            // 카운터 공간이 모두 소진됐는데 입력이 남아 있으면 안전하지 않으므로 중단합니다.
-            if (wrapped && processed[0] < input.length) {
-                throw new IllegalStateException("CTR counter wrapped; nonce/counter space exhausted");
+    private void applyKeystream(byte[] input, int offset, int length, byte[] ivOrNonce, byte[] out, int outOff) {
+        int totalBlocks = (length + 15) / 16;
+        int batchBytes = Math.min(totalBlocks, BATCH_BLOCKS) * 16;
+        byte[] counterBlocks = new byte[batchBytes];
+        byte[] stream = new byte[batchBytes];
+        for (int slot = 0; slot < batchBytes; slot += 16) {
+            System.arraycopy(ivOrNonce, 0, counterBlocks, slot, 16);
+        }
+        long high = (long) LONG_BE.get(ivOrNonce, 0);
+        long low = (long) LONG_BE.get(ivOrNonce, 8);
+        int low32 = (int) low;
+
+        for (int base = 0; base < length; base += batchBytes) {
+            int blocks = Math.min(BATCH_BLOCKS, (length - base + 15) / 16);
+            for (int slot = 0; slot < blocks * 16; slot += 16) {
+                switch (layout) {
+                    case NONCE_96_COUNTER_32:
+                        INT_BE.set(counterBlocks, slot + 12, low32);
+                        low32++;
+                        break;
+                    case NONCE_64_COUNTER_64:
+                        LONG_BE.set(counterBlocks, slot + 8, low);
+                        low++;
+                        break;
+                    default:
+                        LONG_BE.set(counterBlocks, slot, high);
+                        LONG_BE.set(counterBlocks, slot + 8, low);
+                        low++;
+                        if (low == 0) {
+                            high++;
+                        }
+                        break;
+                }
+            }
+
+            cipher.encryptBlocks(counterBlocks, 0, stream, 0, blocks);
+            int batchLength = Math.min(blocks * 16, length - base);
+            for (int i = 0; i < batchLength; i++) {
+                out[outOff + base + i] = (byte) (input[offset + base + i] ^ stream[i]);
+            }
+            if (TRACE) {
+                for (int slot = 0; slot < batchLength; slot += 16) {
+                    int blockIndex = (base + slot) / 16;
+                    int end = Math.min(slot + 16, batchLength);
+                    trace(blockIndex, TraceKind.COUNTER, counterBlocks, slot, 16);
+                    trace(blockIndex, TraceKind.KEYSTREAM, stream, slot, 16);
+                    trace(blockIndex, TraceKind.OUTPUT, out, outOff + base + slot, end - slot);
+                }
             }
-            return outChunk;
-        });
+        }
     }
 }
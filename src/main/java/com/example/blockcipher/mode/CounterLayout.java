@@ -0,0 +1,29 @@
+package com.example.blockcipher.mode;
+
+/**
+ * CTR counter 블록을 nonce 부분과 counter 부분으로 나누는 방식입니다.
+ *
+ * <p>IV(16바이트)의 앞부분은 고정 nonce, 뒷부분은 빅엔디언 counter 초기값입니다.
+ * counter는 자기 영역 안에서만 증가하며, 영역을 넘는 wrap은 nonce를 바꾸는 것과 같으므로 허용하지 않습니다.</p>
+ */
+public enum CounterLayout {
+    /** IV 전체(128비트)가 하나의 counter. 기존 {@link CTRMode} 동작. */
+    FULL_128(128),
+    /** 96비트 nonce + 32비트 counter(GCM과 같은 분할). 한 메시지 최대 {@code 2^32}블록. */
+    NONCE_96_COUNTER_32(32),
+    /** 64비트 nonce + 64비트 counter. */
+    NONCE_64_COUNTER_64(64);
+
+    private final int counterBits;
+
+    CounterLayout(int counterBits) {
+        this.counterBits = counterBits;
+    }
+
+    /**
+     * counter 영역 크기(비트)입니다.
+     */
+    public int counterBits() {
+        return counterBits;
+    }
+}
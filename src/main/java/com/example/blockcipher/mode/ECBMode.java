@@ -2,6 +2,8 @@ package com.example.blockcipher.mode;
 
 import com.example.blockcipher.core.BlockCipher;
 import com.example.blockcipher.padding.PaddingScheme;
+import com.example.blockcipher.trace.TraceKind;
+import java.util.Arrays;
 
 /**
  * ECB 모드 구현입니다.
@@ -13,18 +15,37 @@ import com.example.blockcipher.padding.PaddingScheme;
  * <p>각 블록이 독립적으로 처리되기 때문에,
  * 같은 평문 블록은 항상 같은 암호문 블록으로 변환됩니다.
  * 본 구현은 평문 입력에 PKCS#7 패딩을 적용합니다.</p>
+ *
+ * <p>{@link BlockCache}를 붙이면 암호화 시 이미 본 평문 블록의 블록 암호 호출을 건너뜁니다.
+ * 복호화는 캐시를 쓰지 않습니다.</p>
  */
 public final class ECBMode extends AbstractMode {
     /** ECB에서 사용할 패딩 정책(PKCS#7 등). */
     private final PaddingScheme padding;
 
+    /** 암호화 블록 메모이제이션 캐시(선택, null이면 사용하지 않음). */
+    private final BlockCache cache;
+
     /**
      * @param cipher 단일 블록 암호 함수
      * @param padding 평문 길이 정렬용 패딩 정책
      */
     public ECBMode(BlockCipher cipher, PaddingScheme padding) {
+        this(cipher, padding, null);
+    }
+
+    /**
+     * @param cipher 단일 블록 암호 함수
+     * @param padding 평문 길이 정렬용 패딩 정책
+     * @param cache {@code cipher}에 묶인 블록 캐시(null이면 사용하지 않음)
+     */
+    public ECBMode(BlockCipher cipher, PaddingScheme padding, BlockCache cache) {
         super(cipher);
+        if (cache != null && cache.cipher() != cipher) {
+            throw new IllegalArgumentException("block cache belongs to a different cipher");
+        }
         this.padding = padding;
+        this.cache = cache;
     }
 
     @Override
@@ -32,6 +53,13 @@ public final class ECBMode extends AbstractMode {
         return ModeType.ECB;
     }
 
+    /**
+     * 암호화에 쓰는 블록 캐시(없으면 null)입니다.
+     */
+    public BlockCache cache() {
+        return cache;
+    }
+
     /**
      * ECB는 IV/nonce를 사용하지 않습니다.
      */
@@ -40,37 +68,91 @@ public final class ECBMode extends AbstractMode {
         return 0;
     }
 
+    @Override
+    public int maxOutputLength(int inputLength, boolean encrypting) {
+        return encrypting ? paddedLength(inputLength) : inputLength;
+    }
+
+    @Override
+    protected byte[] encryptInternal(byte[] plaintext, byte[] ivOrNonce) {
+        byte[] out = new byte[paddedLength(plaintext.length)];
+        encryptInto(plaintext, 0, plaintext.length, ivOrNonce, out, 0);
+        return out;
+    }
+
+    @Override
+    protected byte[] decryptInternal(byte[] ciphertext, byte[] ivOrNonce) {
+        byte[] paddedPlain = new byte[ciphertext.length];
+        int length = decryptInto(ciphertext, 0, ciphertext.length, ivOrNonce, paddedPlain, 0);
+        return Arrays.copyOf(paddedPlain, length);
+    }
+
     /**
-     * 평문을 ECB 규칙으로 암호화합니다.
+     * 평문을 ECB 규칙으로 암호화해 출력 배열에 바로 씁니다.
      *
      * <p>처리 순서</p>
      * <p>1. IV 전달이 없는지 확인</p>
-     * <p>2. 패딩 적용</p>
-     * <p>3. 각 블록을 독립적으로 {@code E_k} 처리</p>
+     * <p>2. 완전 블록은 입력에서 바로, 마지막 불완전 블록은 패딩해서 {@link BlockCipher#encryptBlocks}로 {@code E_k} 처리
+     * (캐시가 있으면 {@link BlockCache#encryptBlocks}가 못 찾은 블록만 블록 암호로 보냄)</p>
      */
     @Override
-    public byte[] encrypt(byte[] plaintext, byte[] ivOrNonce) {
-        if (ivOrNonce != null && ivOrNonce.length > 0) {
-            throw new IllegalArgumentException("ECB does not use IV/nonce");
+    protected int encryptInto(byte[] input, int offset, int length, byte[] ivOrNonce, byte[] out, int outOff) {
+        requireNoIv(ivOrNonce);
+        int blockSize = cipher.blockSize();
+        int fullBlocks = length / blockSize;
+        byte[] tail = padTail(padding, input, offset, length);
+        encryptBlocks(input, offset, out, outOff, fullBlocks);
+        encryptBlocks(tail, 0, out, outOff + fullBlocks * blockSize, tail.length / blockSize);
+        int written = fullBlocks * blockSize + tail.length;
+        if (TRACE) {
+            byte[] padded = Arrays.copyOfRange(input, offset, offset + written);
+            System.arraycopy(tail, 0, padded, fullBlocks * blockSize, tail.length);
+            traceBlocks(padded, 0, out, outOff, written);
         }
-        byte[] padded = padding.pad(plaintext, cipher.blockSize());
-        return mapFullBlocks(padded, (block, blockIndex) -> cipher.encryptBlock(block));
+        return written;
     }
 
     /**
-     * 암호문을 ECB 규칙으로 복호화합니다.
+     * 암호문을 ECB 규칙으로 복호화해 출력 배열에 바로 씁니다.
      *
      * <p>처리 순서</p>
      * <p>1. IV 전달이 없는지 확인</p>
-     * <p>2. 각 블록을 독립적으로 {@code D_k} 처리</p>
-     * <p>3. 패딩 제거</p>
+     * <p>2. 전체 블록을 {@link BlockCipher#decryptBlocks}로 한 번에 {@code D_k} 처리</p>
+     * <p>3. 마지막 블록의 패딩을 검증하고 평문 길이 반환</p>
      */
     @Override
-    public byte[] decrypt(byte[] ciphertext, byte[] ivOrNonce) {
+    protected int decryptInto(byte[] input, int offset, int length, byte[] ivOrNonce, byte[] out, int outOff) {
+        requireNoIv(ivOrNonce);
+        requireMultipleBlockLength(length);
+        cipher.decryptBlocks(input, offset, out, outOff, length / cipher.blockSize());
+        if (TRACE) {
+            traceBlocks(input, offset, out, outOff, length);
+        }
+        return unpaddedLength(padding, out, outOff, length);
+    }
+
+    private void encryptBlocks(byte[] in, int inOff, byte[] out, int outOff, int blocks) {
+        if (cache == null) {
+            cipher.encryptBlocks(in, inOff, out, outOff, blocks);
+        } else {
+            cache.encryptBlocks(in, inOff, out, outOff, blocks);
+        }
+    }
+
+    private static void requireNoIv(byte[] ivOrNonce) {
         if (ivOrNonce != null && ivOrNonce.length > 0) {
             throw new IllegalArgumentException("ECB does not use IV/nonce");
         }
-        byte[] paddedPlain = mapFullBlocks(ciphertext, (block, blockIndex) -> cipher.decryptBlock(block));
-        return padding.unpad(paddedPlain, cipher.blockSize());
+    }
+
+    /**
+     * 일괄 처리한 입력/출력을 블록 단위 추적 이벤트로 나눠 보냅니다.
+     */
+    private void traceBlocks(byte[] input, int inOff, byte[] output, int outOff, int length) {
+        int blockSize = cipher.blockSize();
+        for (int offset = 0, blockIndex = 0; offset < length; offset += blockSize, blockIndex++) {
+            trace(blockIndex, TraceKind.INPUT, input, inOff + offset, blockSize);
+            trace(blockIndex, TraceKind.OUTPUT, output, outOff + offset, blockSize);
+        }
     }
 }
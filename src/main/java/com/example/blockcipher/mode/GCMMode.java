@@ -0,0 +1,174 @@
+package com.example.blockcipher.mode;
+
+import com.example.blockcipher.core.BlockCipher;
+import com.example.blockcipher.core.CryptoException;
+import java.util.Arrays;
+
+/**
+ * GCM(Galois/Counter Mode) 인증 암호화 구현입니다(NIST SP 800-38D).
+ *
+ * <p>{@code C = GCTR_k(inc32(J_0), P)}</p>
+ * <p>{@code T = E_k(J_0) xor GHASH_H(A, C)}, {@code H = E_k(0^128)}</p>
+ *
+ * <p>출력 형식은 JCA {@code AES/GCM/NoPadding}과 같은 {@code ciphertext || tag(16바이트)}입니다.
+ * IV는 96비트(12바이트)만 지원합니다. 기밀성뿐 아니라 무결성도 보장하므로
+ * 별도 HMAC 패스가 필요 없습니다.</p>
+ *
+ * <p>같은 키에서 IV를 재사용하면 keystream과 인증 키 H가 함께 노출되므로 CTR보다 더 치명적입니다.</p>
+ */
+public final class GCMMode extends AbstractMode {
+    /** GCM IV 길이(96비트). */
+    public static final int IV_LENGTH = 12;
+
+    /** 인증 태그 길이(128비트). */
+    public static final int TAG_LENGTH = 16;
+
+    private static final byte[] NO_AAD = new byte[0];
+
+    /** 키마다 한 번 계산하는 {@code H = E_k(0^128)}의 GHASH 테이블(메시지 간 읽기 전용 공유). */
+    private final GHash.Table ghashTable;
+
+    /**
+     * @param cipher 단일 블록 암호 함수(128비트 블록)
+     */
+    public GCMMode(BlockCipher cipher) {
+        super(cipher);
+        if (cipher.blockSize() != 16) {
+            throw new IllegalArgumentException("GCM requires a 128-bit block cipher");
+        }
+        this.ghashTable = new GHash.Table(cipher.encryptBlock(new byte[16]));
+    }
+
+    @Override
+    public ModeType type() {
+        return ModeType.GCM;
+    }
+
+    @Override
+    public int ivLength() {
+        return IV_LENGTH;
+    }
+
+    @Override
+    public int maxOutputLength(int inputLength, boolean encrypting) {
+        return encrypting ? inputLength + TAG_LENGTH : Math.max(0, inputLength - TAG_LENGTH);
+    }
+
+    /**
+     * AAD 없이 암호화합니다.
+     */
+    @Override
+    protected byte[] encryptInternal(byte[] plaintext, byte[] ivOrNonce) {
+        return encrypt(plaintext, ivOrNonce, NO_AAD);
+    }
+
+    /**
+     * AAD 없이 복호화합니다.
+     */
+    @Override
+    protected byte[] decryptInternal(byte[] ciphertext, byte[] ivOrNonce) {
+        return decrypt(ciphertext, ivOrNonce, NO_AAD);
+    }
+
+    /**
+     * AAD 없이 {@code ciphertext || tag}를 출력 배열에 바로 씁니다.
+     */
+    @Override
+    protected int encryptInto(byte[] input, int offset, int length, byte[] ivOrNonce, byte[] out, int outOff) {
+        return seal(input, offset, length, ivOrNonce, NO_AAD, out, outOff);
+    }
+
+    /**
+     * AAD 없이 복호화해 출력 배열에 바로 씁니다.
+     */
+    @Override
+    protected int decryptInto(byte[] input, int offset, int length, byte[] ivOrNonce, byte[] out, int outOff) {
+        return unseal(input, offset, length, ivOrNonce, NO_AAD, out, outOff);
+    }
+
+    /**
+     * GCM 암호화를 수행합니다.
+     *
+     * @param plaintext 입력 평문
+     * @param iv 12바이트 IV
+     * @param aad 암호화하지 않고 인증만 할 추가 데이터
+     * @return {@code ciphertext || tag}
+     */
+    public byte[] encrypt(byte[] plaintext, byte[] iv, byte[] aad) {
+        byte[] out = new byte[plaintext.length + TAG_LENGTH];
+        seal(plaintext, 0, plaintext.length, iv, aad, out, 0);
+        return out;
+    }
+
+    /**
+     * GCM 복호화를 수행합니다.
+     *
+     * <p>태그 검증이 끝나기 전에는 평문을 반환하지 않고, 실패하면 복호화 결과를 지운 뒤 예외를 던집니다.</p>
+     *
+     * @param ciphertext {@code ciphertext || tag}
+     * @param iv 12바이트 IV
+     * @param aad 암호화 시 사용한 추가 데이터
+     * @return 복호화된 평문
+     * @throws CryptoException 태그가 일치하지 않는 경우
+     */
+    public byte[] decrypt(byte[] ciphertext, byte[] iv, byte[] aad) {
+        if (ciphertext.length < TAG_LENGTH) {
+            throw new IllegalArgumentException("ciphertext is shorter than the GCM tag");
+        }
+        byte[] plain = new byte[ciphertext.length - TAG_LENGTH];
+        unseal(ciphertext, 0, ciphertext.length, iv, aad, plain, 0);
+        return plain;
+    }
+
+    /**
+     * {@code ciphertext || tag}를 {@code out[outOff, ...)}에 쓰고 쓴 바이트 수를 반환합니다.
+     */
+    private int seal(byte[] input, int offset, int length, byte[] iv, byte[] aad, byte[] out, int outOff) {
+        GCMStream stream = newEncryptor(iv, aad);
+        stream.update(input, offset, length, out, outOff);
+        System.arraycopy(stream.finish(), 0, out, outOff + length, TAG_LENGTH);
+        return length + TAG_LENGTH;
+    }
+
+    /**
+     * {@code ciphertext || tag}를 복호화해 {@code out[outOff, ...)}에 쓰고, 태그가 틀리면 쓴 구간을 지운 뒤 예외를 던집니다.
+     */
+    private int unseal(byte[] input, int offset, int length, byte[] iv, byte[] aad, byte[] out, int outOff) {
+        if (length < TAG_LENGTH) {
+            throw new IllegalArgumentException("ciphertext is shorter than the GCM tag");
+        }
+        int bodyLength = length - TAG_LENGTH;
+        GCMStream stream = newDecryptor(iv, aad);
+        stream.update(input, offset, bodyLength, out, outOff);
+        try {
+            stream.verify(Arrays.copyOfRange(input, offset + bodyLength, offset + length));
+        } catch (CryptoException e) {
+            Arrays.fill(out, outOff, outOff + bodyLength, (byte) 0);
+            throw e;
+        }
+        return bodyLength;
+    }
+
+    /**
+     * 스트리밍 암호화기를 생성합니다.
+     */
+    public GCMStream newEncryptor(byte[] iv, byte[] aad) {
+        return open(iv, aad, true);
+    }
+
+    /**
+     * 스트리밍 복호화기를 생성합니다.
+     */
+    public GCMStream newDecryptor(byte[] iv, byte[] aad) {
+        return open(iv, aad, false);
+    }
+
+    private GCMStream open(byte[] iv, byte[] aad, boolean encrypting) {
+        requireIv(iv);
+        GCMStream stream = new GCMStream(cipher, ghashTable, iv, encrypting);
+        if (aad != null && aad.length > 0) {
+            stream.updateAad(aad);
+        }
+        return stream;
+    }
+}
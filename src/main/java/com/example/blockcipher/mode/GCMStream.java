@@ -0,0 +1,174 @@
+package com.example.blockcipher.mode;
+
+import com.example.blockcipher.core.BlockCipher;
+import com.example.blockcipher.core.CryptoException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+/**
+ * GCM을 청크 단위로 나눠 처리하는 스트리밍 암복호기입니다.
+ *
+ * <p>{@code J_0 = IV || 0^31 || 1} (96비트 IV 기준)</p>
+ * <p>{@code C_i = P_i xor E_k(inc32^i(J_0))}</p>
+ * <p>{@code T = E_k(J_0) xor GHASH_H(A || 0^v || C || 0^u || [len(A)]_64 || [len(C)]_64)}</p>
+ *
+ * <p>{@link #update(byte[])} 한 번에 CTR keystream XOR과 GHASH 누적을 함께 수행하므로
+ * 데이터를 한 번만 훑습니다. 카운터는 GCM 규격대로 마지막 32비트만 증가(inc32)시키며,
+ * 값은 {@code int} 레지스터에 두고 카운터 블록의 끝 4바이트에만 기록합니다.</p>
+ *
+ * <p>주의: 복호화 스트림의 {@code update} 결과는 {@link #verify(byte[])}가 성공하기 전까지
+ * 인증되지 않은 평문입니다. 검증 전에 외부로 내보내지 않도록 호출자가 관리해야 합니다.</p>
+ */
+public final class GCMStream {
+    /** GCM이 허용하는 최대 평문 길이({@code 2^39 - 256}비트). */
+    static final long MAX_TEXT_LENGTH = (1L << 36) - 32;
+
+    private final BlockCipher cipher;
+    private final boolean encrypting;
+    private final GHash ghash;
+    private final byte[] j0;
+    private final byte[] counterBlock;
+    private final byte[] keystream;
+    private int counter;
+    private int keystreamOffset;
+    private long aadLength;
+    private long textLength;
+    private boolean aadClosed;
+    private boolean finished;
+
+    /**
+     * @param cipher 단일 블록 암호 함수
+     * @param table 같은 키로 미리 만든 GHASH 테이블
+     * @param iv 12바이트 IV
+     * @param encrypting 암호화 방향이면 true
+     */
+    GCMStream(BlockCipher cipher, GHash.Table table, byte[] iv, boolean encrypting) {
+        this.cipher = cipher;
+        this.encrypting = encrypting;
+        this.ghash = new GHash(table);
+        this.j0 = Arrays.copyOf(iv, cipher.blockSize());
+        this.j0[j0.length - 1] = 1;
+        this.counterBlock = Arrays.copyOf(j0, j0.length);
+        this.keystream = new byte[cipher.blockSize()];
+        this.counter = 1;
+        this.keystreamOffset = keystream.length;
+    }
+
+    /**
+     * 추가 인증 데이터(AAD)를 누적합니다. 본문 처리 전에만 호출할 수 있습니다.
+     */
+    public void updateAad(byte[] aad) {
+        requireOpen();
+        if (aadClosed) {
+            throw new IllegalStateException("AAD must be supplied before any text");
+        }
+        ghash.update(aad, 0, aad.length);
+        aadLength += aad.length;
+    }
+
+    /**
+     * 입력 청크를 처리하고 같은 길이의 출력 청크를 반환합니다.
+     *
+     * <p>각 바이트마다</p>
+     * <p>1. keystream 블록을 다 쓰면 inc32로 다음 카운터 블록을 암호화</p>
+     * <p>2. 입력과 keystream을 XOR</p>
+     * <p>그리고 청크 단위로 암호문(암호화면 출력, 복호화면 입력)을 GHASH에 누적합니다.</p>
+     */
+    public byte[] update(byte[] input) {
+        byte[] out = new byte[input.length];
+        update(input, 0, input.length, out, 0);
+        return out;
+    }
+
+    /**
+     * {@code input[offset, offset + length)}를 처리해 {@code out[outOff, outOff + length)}에 씁니다.
+     *
+     * <p>{@link #update(byte[])}와 같은 처리를 출력 배열에 바로 합니다.
+     * 복호화 방향은 GHASH에 입력(암호문)을 누적하므로 {@code input}과 {@code out} 구간이 겹치면 안 됩니다.</p>
+     *
+     * @return 쓴 바이트 수({@code length})
+     */
+    public int update(byte[] input, int offset, int length, byte[] out, int outOff) {
+        requireOpen();
+        if (!aadClosed) {
+            ghash.padToBlock();
+            aadClosed = true;
+        }
+        if (length > MAX_TEXT_LENGTH - textLength) {
+            throw new IllegalStateException("GCM text length limit exceeded");
+        }
+        for (int i = 0; i < length; i++) {
+            if (keystreamOffset == keystream.length) {
+                nextKeystreamBlock();
+            }
+            out[outOff + i] = (byte) (input[offset + i] ^ keystream[keystreamOffset++]);
+        }
+        if (encrypting) {
+            ghash.update(out, outOff, length);
+        } else {
+            ghash.update(input, offset, length);
+        }
+        textLength += length;
+        return length;
+    }
+
+    /**
+     * 암호화 스트림을 종료하고 16바이트 인증 태그를 반환합니다.
+     */
+    public byte[] finish() {
+        if (!encrypting) {
+            throw new IllegalStateException("finish() is for encryption; use verify(tag) to decrypt");
+        }
+        return computeTag();
+    }
+
+    /**
+     * 복호화 스트림을 종료하고 인증 태그를 검증합니다.
+     *
+     * @throws CryptoException 태그가 일치하지 않는 경우
+     */
+    public void verify(byte[] tag) {
+        if (encrypting) {
+            throw new IllegalStateException("verify(tag) is for decryption; use finish() to encrypt");
+        }
+        byte[] expected = computeTag();
+        if (tag == null || !MessageDigest.isEqual(expected, tag)) {
+            throw new CryptoException("GCM authentication tag mismatch");
+        }
+    }
+
+    /**
+     * {@code T = E_k(J_0) xor S}
+     */
+    private byte[] computeTag() {
+        requireOpen();
+        finished = true;
+        byte[] s = ghash.finish(aadLength, textLength);
+        byte[] tagMask = cipher.encryptBlock(j0);
+        for (int i = 0; i < s.length; i++) {
+            s[i] ^= tagMask[i];
+        }
+        return s;
+    }
+
+    /**
+     * inc32 후 카운터 블록을 암호화해 keystream을 채웁니다.
+     */
+    private void nextKeystreamBlock() {
+        counter++;
+        int last = counterBlock.length - 4;
+        counterBlock[last] = (byte) (counter >>> 24);
+        counterBlock[last + 1] = (byte) (counter >>> 16);
+        counterBlock[last + 2] = (byte) (counter >>> 8);
+        counterBlock[last + 3] = (byte) counter;
+        byte[] block = cipher.encryptBlock(counterBlock);
+        System.arraycopy(block, 0, keystream, 0, keystream.length);
+        keystreamOffset = 0;
+    }
+
+    private void requireOpen() {
+        if (finished) {
+            throw new IllegalStateException("GCM stream is already finished");
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.blockcipher.mode;
+
+/**
+ * GCM 인증에 쓰이는 GHASH 함수입니다.
+ *
+ * <p>{@code X_i = (X_{i-1} xor B_i) · H} (GF(2^128), 다항식 {@code x^128 + x^7 + x^2 + x + 1})</p>
+ *
+ * <p>곱셈은 Shoup의 4비트 테이블 방식으로 수행합니다.
+ * 키마다 한 번 {@code H}의 배수 16개({@code M[i] = i · H}, i는 4비트 값)를 미리 계산해 두고,
+ * 128비트 입력을 니블 단위로 훑으면서 "4비트 시프트 + 테이블 XOR"를 32번 반복합니다.
+ * 시프트로 밀려나는 4비트는 {@link #LAST4} 표로 한 번에 환원(reduction)합니다.</p>
+ *
+ * <p>128비트 값은 빅엔디언 기준 상위/하위 {@code long} 두 개로 보관합니다.
+ * 테이블({@link Table})은 키마다 한 번 만들어 읽기 전용으로 공유하고,
+ * 누적 상태를 가진 이 클래스는 메시지마다 새로 만들며 스레드 간에 공유하지 않습니다.</p>
+ */
+final class GHash {
+    /** 니블 시프트로 밀려난 4비트의 환원 값(상위 16비트 위치 기준). */
+    private static final long[] LAST4 = {
+        0x0000, 0x1c20, 0x3840, 0x2460, 0x7080, 0x6ca0, 0x48c0, 0x54e0,
+        0xe100, 0xfd20, 0xd940, 0xc560, 0x9180, 0x8da0, 0xa9c0, 0xb5e0
+    };
+
+    /** {@code i · H}의 상위 64비트(공유, 읽기 전용). */
+    private final long[] tableHigh;
+    /** {@code i · H}의 하위 64비트(공유, 읽기 전용). */
+    private final long[] tableLow;
+
+    /** 누적 상태 X의 상위/하위 64비트. */
+    private long stateHigh;
+    private long stateLow;
+
+    /** 블록 경계에 맞지 않는 입력을 모아 두는 버퍼. */
+    private final byte[] pending = new byte[16];
+    private int pendingLength;
+
+    /**
+     * @param table 키에 묶인 {@code H} 배수 테이블
+     */
+    GHash(Table table) {
+        this.tableHigh = table.high;
+        this.tableLow = table.low;
+    }
+
+    /**
+     * 입력을 누적합니다. 블록 경계에 맞지 않는 나머지는 다음 호출까지 보관합니다.
+     */
+    void update(byte[] data, int offset, int length) {
+        int index = offset;
+        int end = offset + length;
+        if (pendingLength > 0) {
+            while (pendingLength < 16 && index < end) {
+                pending[pendingLength++] = data[index++];
+            }
+            if (pendingLength < 16) {
+                return;
+            }
+            absorb(pending, 0);
+            pendingLength = 0;
+        }
+        while (end - index >= 16) {
+            absorb(data, index);
+            index += 16;
+        }
+        while (index < end) {
+            pending[pendingLength++] = data[index++];
+        }
+    }
+
+    /**
+     * 남아 있는 부분 블록을 0으로 채워 누적합니다(AAD와 암호문 경계에서 사용).
+     */
+    void padToBlock() {
+        if (pendingLength == 0) {
+            return;
+        }
+        for (int i = pendingLength; i < 16; i++) {
+            pending[i] = 0;
+        }
+        absorb(pending, 0);
+        pendingLength = 0;
+    }
+
+    /**
+     * 길이 블록 {@code [len(A)]_64 || [len(C)]_64}(비트 단위)를 누적하고 최종 값을 반환합니다.
+     */
+    byte[] finish(long aadBytes, long textBytes) {
+        padToBlock();
+        stateHigh ^= aadBytes << 3;
+        stateLow ^= textBytes << 3;
+        multiplyH();
+        byte[] out = new byte[16];
+        writeLong(out, 0, stateHigh);
+        writeLong(out, 8, stateLow);
+        return out;
+    }
+
+    /**
+     * {@code X = (X xor B) · H}
+     */
+    private void absorb(byte[] block, int offset) {
+        stateHigh ^= readLong(block, offset);
+        stateLow ^= readLong(block, offset + 8);
+        multiplyH();
+    }
+
+    /**
+     * 4비트 테이블을 사용해 {@code X = X · H}를 계산합니다.
+     *
+     * <p>가장 낮은 차수 쪽 바이트(인덱스 15)부터 니블 단위로 처리합니다.
+     * 각 단계는 "누적값을 4비트 시프트하고 밀려난 4비트를 환원한 뒤, 현재 니블의 테이블 값을 XOR"입니다.</p>
+     */
+    private void multiplyH() {
+        long xh = stateHigh;
+        long xl = stateLow;
+
+        int nibble = (int) (xl & 0x0F);
+        long zh = tableHigh[nibble];
+        long zl = tableLow[nibble];
+
+        for (int i = 15; i >= 0; i--) {
+            int b = (int) ((i < 8 ? xh >>> ((7 - i) * 8) : xl >>> ((15 - i) * 8)) & 0xFF);
+            int low = b & 0x0F;
+            int high = b >>> 4;
+
+            if (i != 15) {
+                int rem = (int) (zl & 0x0F);
+                zl = (zh << 60) | (zl >>> 4);
+                zh = (zh >>> 4) ^ (LAST4[rem] << 48);
+                zh ^= tableHigh[low];
+                zl ^= tableLow[low];
+            }
+            int rem = (int) (zl & 0x0F);
+            zl = (zh << 60) | (zl >>> 4);
+            zh = (zh >>> 4) ^ (LAST4[rem] << 48);
+            zh ^= tableHigh[high];
+            zl ^= tableLow[high];
+        }
+
+        stateHigh = zh;
+        stateLow = zl;
+    }
+
+    /**
+     * 해시 부분키 {@code H}의 4비트 배수 테이블 {@code M[i] = i · H}입니다.
+     *
+     * <p>생성 후 바뀌지 않으므로 같은 키의 모든 메시지/스레드가 공유합니다.</p>
+     */
+    static final class Table {
+        private final long[] high = new long[16];
+        private final long[] low = new long[16];
+
+        /**
+         * @param h 해시 부분키 {@code H = E_k(0^128)}
+         */
+        Table(byte[] h) {
+            long vh = readLong(h, 0);
+            long vl = readLong(h, 8);
+            high[8] = vh;
+            low[8] = vl;
+            // 8·H에서 시작해 x를 곱할 때마다(비트 순서상 오른쪽 시프트) 4·H, 2·H, 1·H를 얻습니다.
+            for (int i = 4; i > 0; i >>= 1) {
+                long reduce = (vl & 1L) * 0xe1000000L;
+                vl = (vh << 63) | (vl >>> 1);
+                vh = (vh >>> 1) ^ (reduce << 32);
+                high[i] = vh;
+                low[i] = vl;
+            }
+            // 나머지 항목은 선형성(M[a xor b] = M[a] xor M[b])으로 채웁니다.
+            for (int i = 2; i <= 8; i <<= 1) {
+                for (int j = 1; j < i; j++) {
+                    high[i + j] = high[i] ^ high[j];
+                    low[i + j] = low[i] ^ low[j];
+                }
+            }
+        }
+    }
+
+    private static long readLong(byte[] in, int offset) {
+        long v = 0;
+        for (int i = 0; i < 8; i++) {
+            v = (v << 8) | (in[offset + i] & 0xFFL);
+        }
+        return v;
+    }
+
+    private static void writeLong(byte[] out, int offset, long v) {
+        for (int i = 7; i >= 0; i--) {
+            out[offset + i] = (byte) v;
+            v >>>= 8;
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.example.blockcipher.mode;
+
+import com.example.blockcipher.core.AesBlockCipher;
+import com.example.blockcipher.core.CryptoException;
+import com.example.blockcipher.jfr.ModeOperationEvent;
+import com.example.blockcipher.util.Bytes;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Objects;
+import javax.crypto.AEADBadTagException;
+import javax.crypto.BadPaddingException;
+import javax.crypto.Cipher;
+import javax.crypto.IllegalBlockSizeException;
+import javax.crypto.ShortBufferException;
+
+/**
+ * JDK의 전체 모드 Cipher({@code AES/CBC}, {@code AES/CTR} 등)에 위임하는 빠른 경로입니다.
+ *
+ * <p>다른 모드 구현은 {@code AES/ECB/NoPadding} 단일 블록 호출을 조합하지만,
+ * 이 클래스는 메시지 전체를 JDK에 넘겨 AES-NI 등 intrinsic 가속을 그대로 사용합니다.
+ * 결과와 오류 처리는 직접 구현한 모드와 같도록 맞춥니다.</p>
+ * <p>1. IV 배치와 길이 검증 메시지가 같다(ECB는 IV 없음).</p>
+ * <p>2. ECB/CBC는 PKCS#7 패딩(JCA 이름은 PKCS5Padding)을 사용하고, 패딩 오류는 {@link IllegalArgumentException}으로 바꾼다.</p>
+ * <p>3. CTR은 JDK가 128비트 카운터를 조용히 wrap하므로, 처리 전에 wrap 여부를 먼저 계산해 {@link IllegalStateException}을 던진다.</p>
+ * <p>4. GCM 태그 불일치는 {@link CryptoException}으로 바꾼다.</p>
+ * <p>5. 호출마다 경로 {@code JCA_BULK}로 {@link ModeOperationEvent}를 기록한다.</p>
+ * <p>6. {@link ByteBuffer} 출력 경로는 JCA {@code doFinal(ByteBuffer, ByteBuffer)}로 출력 버퍼(direct 포함)에 바로 쓴다.</p>
+ */
+public final class JcaMode implements ModeOfOperation {
+    /** 모드 타입 -> JCA 변환 문자열. */
+    private static final Map<ModeType, String> TRANSFORMATIONS = Map.of(
+        ModeType.ECB, "AES/ECB/PKCS5Padding",
+        ModeType.CBC, "AES/CBC/PKCS5Padding",
+        ModeType.CFB, "AES/CFB/NoPadding",
+        ModeType.CFB8, "AES/CFB8/NoPadding",
+        ModeType.OFB, "AES/OFB/NoPadding",
+        ModeType.CTR, "AES/CTR/NoPadding",
+        ModeType.GCM, "AES/GCM/NoPadding"
+    );
+
+    private final ModeType type;
+    private final AesBlockCipher cipher;
+    private final String transformation;
+
+    /**
+     * @param type 위임할 모드 타입({@link #supports(ModeType)}가 true여야 함)
+     * @param cipher AES 키를 보관한 블록 암호 객체
+     */
+    public JcaMode(ModeType type, AesBlockCipher cipher) {
+        this.type = Objects.requireNonNull(type, "type must not be null");
+        this.cipher = Objects.requireNonNull(cipher, "cipher must not be null");
+        this.transformation = TRANSFORMATIONS.get(type);
+        if (transformation == null) {
+            throw new IllegalArgumentException("no JCA fast path for mode type: " + type);
+        }
+    }
+
+    /**
+     * JCA 빠른 경로가 있는 모드인지 반환합니다.
+     */
+    public static boolean supports(ModeType type) {
+        return TRANSFORMATIONS.containsKey(type);
+    }
+
+    @Override
+    public ModeType type() {
+        return type;
+    }
+
+    @Override
+    public int ivLength() {
+        switch (type) {
+            case ECB:
+                return 0;
+            case GCM:
+                return GCMMode.IV_LENGTH;
+            default:
+                return cipher.blockSize();
+        }
+    }
+
+    @Override
+    public int maxOutputLength(int inputLength, boolean encrypting) {
+        switch (type) {
+            case ECB:
+            case CBC:
+                return encrypting ? (inputLength / cipher.blockSize() + 1) * cipher.blockSize() : inputLength;
+            case GCM:
+                return encrypting ? inputLength + GCMMode.TAG_LENGTH : Math.max(0, inputLength - GCMMode.TAG_LENGTH);
+            default:
+                return inputLength;
+        }
+    }
+
+    @Override
+    public byte[] encrypt(byte[] plaintext, byte[] ivOrNonce) {
+        byte[] iv = requireEncryptable(plaintext.length, ivOrNonce);
+        ModeOperationEvent event = begin();
+        byte[] output = doFinal(Cipher.ENCRYPT_MODE, plaintext, iv);
+        commit(event, Cipher.ENCRYPT_MODE, plaintext.length);
+        return output;
+    }
+
+    @Override
+    public byte[] decrypt(byte[] ciphertext, byte[] ivOrNonce) {
+        byte[] iv = requireDecryptable(ciphertext.length, ivOrNonce);
+        ModeOperationEvent event = begin();
+        byte[] output = doFinal(Cipher.DECRYPT_MODE, ciphertext, iv);
+        commit(event, Cipher.DECRYPT_MODE, ciphertext.length);
+        return output;
+    }
+
+    @Override
+    public int encrypt(byte[] input, int offset, int length, byte[] ivOrNonce, ByteBuffer out) {
+        Bytes.requireRange(input, offset, length);
+        Bytes.requireRemaining(out, maxOutputLength(length, true));
+        byte[] iv = requireEncryptable(length, ivOrNonce);
+        ModeOperationEvent event = begin();
+        int written = doFinal(Cipher.ENCRYPT_MODE, ByteBuffer.wrap(input, offset, length), iv, out);
+        commit(event, Cipher.ENCRYPT_MODE, length);
+        return written;
+    }
+
+    @Override
+    public int decrypt(byte[] input, int offset, int length, byte[] ivOrNonce, ByteBuffer out) {
+        Bytes.requireRange(input, offset, length);
+        Bytes.requireRemaining(out, maxOutputLength(length, false));
+        byte[] iv = requireDecryptable(length, ivOrNonce);
+        ModeOperationEvent event = begin();
+        int written = doFinal(Cipher.DECRYPT_MODE, ByteBuffer.wrap(input, offset, length), iv, out);
+        commit(event, Cipher.DECRYPT_MODE, length);
+        return written;
+    }
+
+    private byte[] requireEncryptable(int length, byte[] ivOrNonce) {
+        byte[] iv = requireIv(ivOrNonce);
+        if (type == ModeType.CTR) {
+            requireNoCounterWrap(iv, length);
+        }
+        return iv;
+    }
+
+    private byte[] requireDecryptable(int length, byte[] ivOrNonce) {
+        byte[] iv = requireIv(ivOrNonce);
+        switch (type) {
+            case ECB:
+            case CBC:
+                if (length == 0) {
+                    throw new IllegalArgumentException("invalid padded input length");
+                }
+                break;
+            case CTR:
+                requireNoCounterWrap(iv, length);
+                break;
+            case GCM:
+                if (length < GCMMode.TAG_LENGTH) {
+                    throw new IllegalArgumentException("ciphertext is shorter than the GCM tag");
+                }
+                break;
+            default:
+                break;
+        }
+        return iv;
+    }
+
+    /**
+     * IV 길이를 직접 구현한 모드와 같은 규칙·메시지로 검증합니다.
+     */
+    private byte[] requireIv(byte[] ivOrNonce) {
+        if (type == ModeType.ECB) {
+            if (ivOrNonce != null && ivOrNonce.length > 0) {
+                throw new IllegalArgumentException("ECB does not use IV/nonce");
+            }
+            return new byte[0];
+        }
+        if (ivOrNonce == null || ivOrNonce.length != ivLength()) {
+            throw new IllegalArgumentException("iv/nonce must be exactly " + ivLength() + " bytes");
+        }
+        return ivOrNonce;
+    }
+
+    /**
+     * {@code CTRMode}와 같은 wrap 규칙을 처리 전에 한 번에 검사합니다.
+     *
+     * <p>{@code CTRMode}는 counter가 {@code 2^128 - 1}에서 0으로 돌아간 뒤에도 입력이 남아 있으면 예외를 던집니다.
+     * 즉 필요한 블록 수 {@code m}이 {@code 2^128 - counter}보다 크면 실패입니다.
+     * 블록 수는 {@code 2^31} 미만이므로 상위 64비트가 모두 1일 때만 하위 64비트 덧셈 overflow를 확인하면 됩니다.</p>
+     */
+    private static void requireNoCounterWrap(byte[] counter, int length) {
+        long blocks = (length + 15L) / 16;
+        if (blocks == 0) {
+            return;
+        }
+        long high = 0;
+        long low = 0;
+        for (int i = 0; i < 8; i++) {
+            high = (high << 8) | (counter[i] & 0xFFL);
+            low = (low << 8) | (counter[8 + i] & 0xFFL);
+        }
+        if (high == -1L && Long.compareUnsigned(low, -blocks) > 0) {
+            throw new IllegalStateException("CTR counter wrapped; nonce/counter space exhausted");
+        }
+    }
+
+    private static ModeOperationEvent begin() {
+        ModeOperationEvent event = new ModeOperationEvent();
+        event.begin();
+        return event;
+    }
+
+    private void commit(ModeOperationEvent event, int opmode, int length) {
+        event.end();
+        if (event.isEnabled()) {
+            event.mode = type.name();
+            event.operation = opmode == Cipher.ENCRYPT_MODE ? "encrypt" : "decrypt";
+            event.keyBits = cipher.keySizeBits();
+            event.bytes = length;
+            event.path = "JCA_BULK";
+            event.commit();
+        }
+    }
+
+    private byte[] doFinal(int opmode, byte[] input, byte[] iv) {
+        Cipher jca = cipher.newModeCipher(transformation, opmode, iv);
+        try {
+            return jca.doFinal(input);
+        } catch (AEADBadTagException e) {
+            throw new CryptoException("GCM authentication tag mismatch");
+        } catch (IllegalBlockSizeException e) {
+            throw blockSizeError(e);
+        } catch (BadPaddingException e) {
+            throw new IllegalArgumentException("invalid PKCS#7 padding", e);
+        }
+    }
+
+    private int doFinal(int opmode, ByteBuffer input, byte[] iv, ByteBuffer out) {
+        Cipher jca = cipher.newModeCipher(transformation, opmode, iv);
+        try {
+            return jca.doFinal(input, out);
+        } catch (AEADBadTagException e) {
+            throw new CryptoException("GCM authentication tag mismatch");
+        } catch (IllegalBlockSizeException e) {
+            throw blockSizeError(e);
+        } catch (BadPaddingException e) {
+            throw new IllegalArgumentException("invalid PKCS#7 padding", e);
+        } catch (ShortBufferException e) {
+            throw new IllegalArgumentException("output buffer is too small", e);
+        }
+    }
+
+    private IllegalArgumentException blockSizeError(IllegalBlockSizeException e) {
+        return new IllegalArgumentException(
+            "input length must be a multiple of block size (" + cipher.blockSize() + " bytes)", e
+        );
+    }
+}
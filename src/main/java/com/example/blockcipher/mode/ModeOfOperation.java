@@ -1,5 +1,10 @@
 package com.example.blockcipher.mode;
 
+import com.example.blockcipher.core.BlockCipher;
+import com.example.blockcipher.util.Bytes;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
 /**
  * 블록 암호 운영 모드의 공통 동작을 정의합니다.
  *
@@ -38,4 +43,62 @@ public interface ModeOfOperation {
      * @return 복호화된 평문
      */
     byte[] decrypt(byte[] ciphertext, byte[] ivOrNonce);
+
+    /**
+     * 길이 {@code inputLength}인 입력을 처리했을 때 나올 수 있는 최대 출력 길이를 반환합니다.
+     *
+     * <p>{@link #encrypt(byte[], int, int, byte[], ByteBuffer)}/{@link #decrypt(byte[], int, int, byte[], ByteBuffer)}에
+     * 넘길 버퍼 크기를 미리 정할 때 사용합니다. 패딩 모드의 복호화처럼 실제 길이가 더 짧을 수 있습니다.</p>
+     *
+     * @param inputLength 입력 길이
+     * @param encrypting 암호화면 true, 복호화면 false
+     */
+    int maxOutputLength(int inputLength, boolean encrypting);
+
+    /**
+     * {@code input[offset, offset + length)}를 암호화해 {@code out}의 현재 position부터 씁니다.
+     *
+     * <p>결과는 {@link #encrypt(byte[], byte[])}와 같고, 쓴 만큼 position이 전진합니다.
+     * 기본 구현은 배열 경로 결과를 복사하며, 출력 버퍼에 바로 쓸 수 있는 구현체는 재정의합니다.</p>
+     *
+     * @param out 최소 {@link #maxOutputLength}{@code (length, true)} 바이트가 남은 버퍼
+     * @return 쓴 바이트 수
+     * @throws IllegalArgumentException 범위가 잘못되었거나 출력 버퍼가 부족한 경우
+     */
+    default int encrypt(byte[] input, int offset, int length, byte[] ivOrNonce, ByteBuffer out) {
+        Bytes.requireRange(input, offset, length);
+        Bytes.requireRemaining(out, maxOutputLength(length, true));
+        byte[] ciphertext = encrypt(Arrays.copyOfRange(input, offset, offset + length), ivOrNonce);
+        out.put(ciphertext);
+        return ciphertext.length;
+    }
+
+    /**
+     * {@code input[offset, offset + length)}를 복호화해 {@code out}의 현재 position부터 씁니다.
+     *
+     * <p>결과는 {@link #decrypt(byte[], byte[])}와 같고, 쓴 만큼 position이 전진합니다.
+     * 기본 구현은 배열 경로 결과를 복사한 뒤 중간 평문 배열을 0으로 지웁니다.</p>
+     *
+     * @param out 최소 {@link #maxOutputLength}{@code (length, false)} 바이트가 남은 버퍼
+     * @return 쓴 바이트 수
+     * @throws IllegalArgumentException 범위가 잘못되었거나 출력 버퍼가 부족한 경우
+     */
+    default int decrypt(byte[] input, int offset, int length, byte[] ivOrNonce, ByteBuffer out) {
+        Bytes.requireRange(input, offset, length);
+        Bytes.requireRemaining(out, maxOutputLength(length, false));
+        byte[] plaintext = decrypt(Arrays.copyOfRange(input, offset, offset + length), ivOrNonce);
+        out.put(plaintext);
+        Arrays.fill(plaintext, (byte) 0);
+        return plaintext.length;
+    }
+
+    /**
+     * 블록 단위로 동작하는 모드라면 내부 블록 암호를 반환합니다.
+     *
+     * <p>서비스가 같은 키로 상태 보존형 스트림({@code StreamingModeCipher})을 만들 때 사용합니다.
+     * 블록 암호를 노출하지 않는 구현(JCA 위임 등)은 null을 반환합니다.</p>
+     */
+    default BlockCipher blockCipher() {
+        return null;
+    }
 }
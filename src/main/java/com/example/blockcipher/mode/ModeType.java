@@ -2,16 +2,57 @@ package com.example.blockcipher.mode;
 
 /**
  * 프로젝트에서 지원하는 블록 암호 운영 모드 목록입니다.
+ *
+ * <p>저장 형식(컨테이너 헤더, 스트림 스냅샷)에는 선언 순서({@code ordinal()}) 대신 {@link #wireId()}를 기록합니다.
+ * 상수 순서를 바꾸거나 중간에 추가해도 이미 저장한 데이터를 읽을 수 있도록, 한 번 정한 값은 바꾸지 않고
+ * 새 모드에는 쓰지 않은 값을 새로 붙입니다.</p>
  */
 public enum ModeType {
     /** ECB(전자 코드북 모드) */
-    ECB,
+    ECB(0),
     /** CBC(암호문 블록 연쇄 모드) */
-    CBC,
+    CBC(1),
     /** CFB(암호문 피드백 모드, 본 구현은 블록 단위 CFB) */
-    CFB,
+    CFB(2),
     /** OFB(출력 피드백 모드) */
-    OFB,
+    OFB(3),
     /** CTR(카운터 모드) */
-    CTR
+    CTR(4),
+    /** GCM(갈루아/카운터 모드, 인증 암호화) */
+    GCM(5),
+    /** XTS(트윅 기반 섹터 암호화 모드, 두 개의 키 사용) */
+    XTS(6),
+    /** CBC-CS3(암호문 훔치기 CBC, 패딩 없이 평문 길이 유지) */
+    CBC_CS3(7),
+    /** CFB-8(8비트 세그먼트 CFB, {@code CFBSegmentMode}) */
+    CFB8(8),
+    /** SIV(합성 IV 결정적 인증 암호화, RFC 5297, 두 개의 키 사용) */
+    SIV(9);
+
+    private final int wireId;
+
+    ModeType(int wireId) {
+        this.wireId = wireId;
+    }
+
+    /**
+     * 저장 형식에 기록하는 고정 식별자(0 ~ 255)입니다.
+     */
+    public int wireId() {
+        return wireId;
+    }
+
+    /**
+     * {@link #wireId()} 값으로 모드를 찾습니다.
+     *
+     * @throws IllegalArgumentException 알 수 없는 식별자인 경우
+     */
+    public static ModeType fromWireId(int wireId) {
+        for (ModeType type : values()) {
+            if (type.wireId == wireId) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("unknown mode id: " + wireId);
+    }
 }
@@ -1,6 +1,7 @@
 package com.example.blockcipher.mode;
 
 import com.example.blockcipher.core.BlockCipher;
+import com.example.blockcipher.trace.TraceKind;
 import com.example.blockcipher.util.Bytes;
 import java.util.Arrays;
 
@@ -32,7 +33,7 @@ public final class OFBMode extends AbstractMode {
      * OFB 암호화를 수행합니다.
      */
     @Override
-    public byte[] encrypt(byte[] plaintext, byte[] ivOrNonce) {
+    protected byte[] encryptInternal(byte[] plaintext, byte[] ivOrNonce) {
         requireIv(ivOrNonce);
         return applyKeystream(plaintext, ivOrNonce);
     }
@@ -43,7 +44,7 @@ public final class OFBMode extends AbstractMode {
      * <p>암호화와 동일한 함수로 처리됩니다.</p>
      */
     @Override
-    public byte[] decrypt(byte[] ciphertext, byte[] ivOrNonce) {
+    protected byte[] decryptInternal(byte[] ciphertext, byte[] ivOrNonce) {
         requireIv(ivOrNonce);
         return applyKeystream(ciphertext, ivOrNonce);
     }
@@ -64,7 +65,12 @@ public final class OFBMode extends AbstractMode {
             feedback[0] = cipher.encryptBlock(feedback[0]);
             byte[] streamChunk = Bytes.slice(feedback[0], 0, chunk.length);
             // 입력과 keystream을 XOR하면 암호화/복호화 결과가 됩니다.
-            return Bytes.xor(chunk, streamChunk);
+            byte[] outChunk = Bytes.xor(chunk, streamChunk);
+            if (TRACE) {
+                trace(chunkIndex, TraceKind.KEYSTREAM, feedback[0]);
+                trace(chunkIndex, TraceKind.OUTPUT, outChunk);
+            }
+            return outChunk;
         });
     }
 }
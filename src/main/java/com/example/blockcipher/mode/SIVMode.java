@@ -0,0 +1,298 @@
+package com.example.blockcipher.mode;
+
+import com.example.blockcipher.core.BlockCipher;
+import com.example.blockcipher.core.CryptoException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * SIV(Synthetic Initialization Vector) 결정적 인증 암호화 구현입니다(RFC 5297).
+ *
+ * <p>{@code V = S2V_k1(AD_1, ..., AD_n, P)}</p>
+ * <p>{@code C = CTR_k2(Q, P)}, {@code Q = V}에서 31번/63번 비트(바이트 8, 12의 최상위 비트)를 지운 값</p>
+ * <p>{@code S2V}: {@code D = CMAC(0^128)}, AD마다 {@code D = dbl(D) xor CMAC(AD_i)},
+ *    마지막 {@code P}가 16바이트 이상이면 {@code CMAC(P xorend D)}, 짧으면 {@code CMAC(dbl(D) xor pad(P))}</p>
+ *
+ * <p>출력 형식은 RFC와 같은 {@code V(16바이트) || C}입니다. IV가 평문과 AD에서 계산되므로
+ * 같은 키에서 같은 (AD, 평문)은 항상 같은 암호문이 되고, 저장 계층이 암호문만 보고 중복을 제거할 수 있습니다.
+ * 반대로 같은 평문이 반복된다는 사실은 그대로 드러나므로, 드러나면 안 되는 데이터는 nonce를 AD 요소로 넣습니다.</p>
+ *
+ * <p>CMAC 부분키 {@code K1 = dbl(E_k1(0))}, {@code K2 = dbl(K1)}과 S2V 시작값 {@code CMAC(0^128)}은
+ * 키마다 고정이므로 생성 시 한 번 계산해 {@code long} 두 개씩으로 들고 있습니다.
+ * {@code P xorend D}는 평문을 복사하지 않고 CMAC 흡수 단계에서 마지막 16바이트에만 {@code D}를 XOR합니다.</p>
+ *
+ * <p>{@link ModeOfOperation} API의 {@code ivOrNonce}는 빈 배열이면 결정적 모드, 비어 있지 않으면
+ * 마지막 AD 요소로 쓰는 nonce입니다(RFC 5297 3장). 그래서 {@link #ivLength()}는 0이고,
+ * {@code ModeCipherService}는 헤더 없이 {@code V || C}만 만듭니다.</p>
+ */
+public final class SIVMode extends AbstractMode {
+    /** 합성 IV(V) 길이. */
+    public static final int TAG_LENGTH = 16;
+
+    /** S2V가 받을 수 있는 AD 요소 최대 개수(평문 포함 127개). */
+    public static final int MAX_ASSOCIATED_DATA = 126;
+
+    /** CTR 단계에서 counter 블록을 한 번에 암호화하는 최대 블록 수. */
+    private static final int BATCH_BLOCKS = 64;
+
+    private static final VarHandle LONG_BE =
+        MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    /** S2V/CMAC용 블록 암호(k1). */
+    private final BlockCipher macCipher;
+
+    /** CMAC 부분키 K1(완전한 마지막 블록용). */
+    private final long subkey1High;
+    private final long subkey1Low;
+
+    /** CMAC 부분키 K2(패딩한 마지막 블록용). */
+    private final long subkey2High;
+    private final long subkey2Low;
+
+    /** S2V 시작값 {@code CMAC(0^128)}. */
+    private final long zeroMacHigh;
+    private final long zeroMacLow;
+
+    /**
+     * @param macCipher S2V/CMAC용 블록 암호(k1, RFC 키의 앞 절반)
+     * @param ctrCipher CTR 암호화용 블록 암호(k2, RFC 키의 뒤 절반)
+     */
+    public SIVMode(BlockCipher macCipher, BlockCipher ctrCipher) {
+        super(Objects.requireNonNull(ctrCipher, "ctrCipher must not be null"));
+        this.macCipher = Objects.requireNonNull(macCipher, "macCipher must not be null");
+        if (macCipher == ctrCipher) {
+            throw new IllegalArgumentException("SIV requires two independent ciphers");
+        }
+        if (macCipher.blockSize() != 16 || ctrCipher.blockSize() != 16) {
+            throw new IllegalArgumentException("SIV requires a 128-bit block cipher");
+        }
+        byte[] l = macCipher.encryptBlock(new byte[16]);
+        long lHigh = (long) LONG_BE.get(l, 0);
+        long lLow = (long) LONG_BE.get(l, 8);
+        this.subkey1High = dblHigh(lHigh, lLow);
+        this.subkey1Low = dblLow(lHigh, lLow);
+        this.subkey2High = dblHigh(subkey1High, subkey1Low);
+        this.subkey2Low = dblLow(subkey1High, subkey1Low);
+        byte[] zeroMac = cmac(new byte[16], 16, null);
+        this.zeroMacHigh = (long) LONG_BE.get(zeroMac, 0);
+        this.zeroMacLow = (long) LONG_BE.get(zeroMac, 8);
+    }
+
+    @Override
+    public ModeType type() {
+        return ModeType.SIV;
+    }
+
+    /**
+     * IV는 평문에서 합성하므로 호출자가 넘길 IV가 없습니다.
+     */
+    @Override
+    public int ivLength() {
+        return 0;
+    }
+
+    /**
+     * 암호화는 합성 IV(태그) 16바이트가 붙고, 복호화는 그만큼 줄어듭니다.
+     */
+    @Override
+    public int maxOutputLength(int inputLength, boolean encrypting) {
+        return encrypting ? inputLength + TAG_LENGTH : Math.max(0, inputLength - TAG_LENGTH);
+    }
+
+    /**
+     * AD 없이 암호화합니다. {@code ivOrNonce}가 비어 있지 않으면 nonce로 S2V에 넣습니다.
+     */
+    @Override
+    protected byte[] encryptInternal(byte[] plaintext, byte[] ivOrNonce) {
+        return encrypt(plaintext, nonceItems(ivOrNonce));
+    }
+
+    /**
+     * AD 없이 복호화합니다. 암호화 때와 같은 {@code ivOrNonce}를 넘겨야 합니다.
+     */
+    @Override
+    protected byte[] decryptInternal(byte[] ciphertext, byte[] ivOrNonce) {
+        return decrypt(ciphertext, nonceItems(ivOrNonce));
+    }
+
+    /**
+     * SIV 암호화를 수행합니다.
+     *
+     * <p>처리 순서</p>
+     * <p>1. {@code V = S2V(AD..., P)}</p>
+     * <p>2. {@code V}에서 두 비트를 지운 {@code Q}를 초기 counter로 CTR 암호화</p>
+     * <p>3. {@code V || C}로 결합해 반환</p>
+     *
+     * @param plaintext 입력 평문
+     * @param associatedData 암호화하지 않고 인증만 할 데이터 목록(순서가 의미를 가짐, 최대 126개)
+     * @return {@code V || C}
+     */
+    public byte[] encrypt(byte[] plaintext, List<byte[]> associatedData) {
+        Objects.requireNonNull(plaintext, "plaintext must not be null");
+        byte[] v = s2v(associatedData, plaintext);
+        byte[] out = new byte[TAG_LENGTH + plaintext.length];
+        System.arraycopy(v, 0, out, 0, TAG_LENGTH);
+        applyKeystream(v, plaintext, 0, out, TAG_LENGTH, plaintext.length);
+        return out;
+    }
+
+    /**
+     * SIV 복호화를 수행합니다.
+     *
+     * <p>CTR로 복원한 평문에서 {@code V}를 다시 계산해 비교하고, 일치하지 않으면 평문을 지운 뒤 예외를 던집니다.</p>
+     *
+     * @param sealed {@code V || C}
+     * @param associatedData 암호화 시 사용한 AD 목록
+     * @return 복호화된 평문
+     * @throws CryptoException 합성 IV가 일치하지 않는 경우
+     */
+    public byte[] decrypt(byte[] sealed, List<byte[]> associatedData) {
+        if (sealed.length < TAG_LENGTH) {
+            throw new IllegalArgumentException("ciphertext is shorter than the SIV tag");
+        }
+        byte[] v = Arrays.copyOf(sealed, TAG_LENGTH);
+        byte[] plain = new byte[sealed.length - TAG_LENGTH];
+        applyKeystream(v, sealed, TAG_LENGTH, plain, 0, plain.length);
+        if (!MessageDigest.isEqual(v, s2v(associatedData, plain))) {
+            Arrays.fill(plain, (byte) 0);
+            throw new CryptoException("SIV authentication tag mismatch");
+        }
+        return plain;
+    }
+
+    /**
+     * {@code S2V(AD_1, ..., AD_n, P)}를 계산합니다.
+     */
+    private byte[] s2v(List<byte[]> associatedData, byte[] plaintext) {
+        Objects.requireNonNull(associatedData, "associatedData must not be null");
+        if (associatedData.size() > MAX_ASSOCIATED_DATA) {
+            throw new IllegalArgumentException("SIV accepts at most " + MAX_ASSOCIATED_DATA + " associated data items");
+        }
+        long dHigh = zeroMacHigh;
+        long dLow = zeroMacLow;
+        for (byte[] item : associatedData) {
+            Objects.requireNonNull(item, "associated data item must not be null");
+            byte[] mac = cmac(item, item.length, null);
+            long nextHigh = dblHigh(dHigh, dLow) ^ (long) LONG_BE.get(mac, 0);
+            dLow = dblLow(dHigh, dLow) ^ (long) LONG_BE.get(mac, 8);
+            dHigh = nextHigh;
+        }
+        if (plaintext.length >= 16) {
+            byte[] mask = new byte[16];
+            LONG_BE.set(mask, 0, dHigh);
+            LONG_BE.set(mask, 8, dLow);
+            return cmac(plaintext, plaintext.length, mask);
+        }
+        byte[] t = new byte[16];
+        System.arraycopy(plaintext, 0, t, 0, plaintext.length);
+        t[plaintext.length] = (byte) 0x80;
+        LONG_BE.set(t, 0, (long) LONG_BE.get(t, 0) ^ dblHigh(dHigh, dLow));
+        LONG_BE.set(t, 8, (long) LONG_BE.get(t, 8) ^ dblLow(dHigh, dLow));
+        return cmac(t, 16, null);
+    }
+
+    /**
+     * AES-CMAC(RFC 4493)을 계산합니다.
+     *
+     * <p>{@code tailMask}가 있으면 메시지의 마지막 16바이트에 XOR한 값으로 흡수합니다({@code xorend}).
+     * 상태 블록 하나를 제자리에서 {@code encryptBlocks}로 갱신하므로 블록마다 배열을 만들지 않습니다.</p>
+     *
+     * @param data 메시지
+     * @param length 메시지 길이
+     * @param tailMask 마지막 16바이트에 XOR할 값(null이면 없음, 있으면 {@code length >= 16})
+     */
+    private byte[] cmac(byte[] data, int length, byte[] tailMask) {
+        byte[] state = new byte[16];
+        int maskFrom = tailMask == null ? Integer.MAX_VALUE : length - 16;
+        int blocks = length == 0 ? 1 : (length + 15) / 16;
+        for (int block = 0; block < blocks - 1; block++) {
+            absorb(state, data, block * 16, 16, maskFrom, tailMask);
+            macCipher.encryptBlocks(state, 0, state, 0, 1);
+        }
+        int lastOffset = (blocks - 1) * 16;
+        int lastLength = length - lastOffset;
+        absorb(state, data, lastOffset, lastLength, maskFrom, tailMask);
+        if (lastLength == 16) {
+            LONG_BE.set(state, 0, (long) LONG_BE.get(state, 0) ^ subkey1High);
+            LONG_BE.set(state, 8, (long) LONG_BE.get(state, 8) ^ subkey1Low);
+        } else {
+            state[lastLength] ^= (byte) 0x80;
+            LONG_BE.set(state, 0, (long) LONG_BE.get(state, 0) ^ subkey2High);
+            LONG_BE.set(state, 8, (long) LONG_BE.get(state, 8) ^ subkey2Low);
+        }
+        macCipher.encryptBlocks(state, 0, state, 0, 1);
+        return state;
+    }
+
+    private static void absorb(byte[] state, byte[] data, int offset, int length, int maskFrom, byte[] mask) {
+        if (offset + length <= maskFrom) {
+            for (int i = 0; i < length; i++) {
+                state[i] ^= data[offset + i];
+            }
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            int at = offset + i;
+            state[i] ^= at >= maskFrom ? (byte) (data[at] ^ mask[at - maskFrom]) : data[at];
+        }
+    }
+
+    /**
+     * {@code Q}(V에서 두 비트를 지운 값)를 초기 counter로 keystream을 XOR합니다.
+     *
+     * <p>counter는 128비트 전체를 mod 2^128로 증가시킵니다(RFC 5297은 wrap을 허용).
+     * {@link CTRMode}와 같이 최대 {@link #BATCH_BLOCKS}블록씩 counter 블록을 만들어 {@link BlockCipher#encryptBlocks}로 암호화합니다.</p>
+     */
+    private void applyKeystream(byte[] v, byte[] in, int inOff, byte[] out, int outOff, int length) {
+        if (length == 0) {
+            return;
+        }
+        long high = (long) LONG_BE.get(v, 0);
+        long low = (long) LONG_BE.get(v, 8) & 0x7FFFFFFF7FFFFFFFL;
+        int batchBytes = Math.min((length + 15) / 16, BATCH_BLOCKS) * 16;
+        byte[] counterBlocks = new byte[batchBytes];
+        byte[] stream = new byte[batchBytes];
+
+        for (int base = 0; base < length; base += batchBytes) {
+            int blocks = Math.min(BATCH_BLOCKS, (length - base + 15) / 16);
+            for (int slot = 0; slot < blocks * 16; slot += 16) {
+                LONG_BE.set(counterBlocks, slot, high);
+                LONG_BE.set(counterBlocks, slot + 8, low);
+                low++;
+                if (low == 0) {
+                    high++;
+                }
+            }
+            cipher.encryptBlocks(counterBlocks, 0, stream, 0, blocks);
+            int chunk = Math.min(blocks * 16, length - base);
+            for (int i = 0; i < chunk; i++) {
+                out[outOff + base + i] = (byte) (in[inOff + base + i] ^ stream[i]);
+            }
+        }
+    }
+
+    /**
+     * {@code ivOrNonce}를 AD 목록으로 바꿉니다(빈 배열이면 AD 없음, 아니면 nonce 하나).
+     */
+    private static List<byte[]> nonceItems(byte[] ivOrNonce) {
+        if (ivOrNonce == null) {
+            throw new IllegalArgumentException("iv/nonce must not be null (use an empty array for deterministic SIV)");
+        }
+        return ivOrNonce.length == 0 ? List.of() : List.of(ivOrNonce);
+    }
+
+    /** GF(2^128) {@code x · 2}의 상위 64비트. */
+    private static long dblHigh(long high, long low) {
+        return (high << 1) | (low >>> 63);
+    }
+
+    /** GF(2^128) {@code x · 2}의 하위 64비트(최상위 비트가 넘치면 {@code 0x87}로 환원). */
+    private static long dblLow(long high, long low) {
+        return (low << 1) ^ ((high >>> 63) * 0x87L);
+    }
+}
@@ -0,0 +1,265 @@
+package com.example.blockcipher.mode;
+
+import com.example.blockcipher.core.BlockCipher;
+import com.example.blockcipher.jfr.ModeOperationEvent;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * XTS-AES 모드 구현입니다(IEEE Std 1619, NIST SP 800-38E).
+ *
+ * <p>데이터 단위(섹터) i와 단위 내부 블록 j에 대해</p>
+ * <p>{@code T_0 = E_k2(i)}, {@code T_j = T_{j-1} · α} (GF(2^128))</p>
+ * <p>{@code C_j = E_k1(P_j xor T_j) xor T_j}</p>
+ * <p>{@code P_j = D_k1(C_j xor T_j) xor T_j}</p>
+ *
+ * <p>섹터 번호만 알면 다른 섹터와 무관하게 암복호화할 수 있으므로
+ * 디스크 이미지처럼 섹터 단위 임의 접근이 필요한 저장소에 맞습니다.
+ * 여러 섹터를 한 번에 처리할 때는 섹터 단위로 병렬 실행합니다.</p>
+ *
+ * <p>트윅은 리틀엔디언 128비트 값을 {@code long} 두 개로 들고 있으면서
+ * α 곱셈(1비트 시프트 + 0x87 환원)과 XOR을 배열 할당 없이 수행합니다.
+ * 데이터 단위 길이가 블록 배수가 아니면 마지막 두 블록에 암호문 훔치기(ciphertext stealing)를 적용해
+ * 암호문 길이를 평문 길이와 같게 유지합니다.</p>
+ *
+ * <p>{@link ModeOfOperation} API로 호출할 때는 {@code ivOrNonce}가 16바이트 트윅 값(섹터 번호의 리틀엔디언 표현)이며,
+ * 입력 전체를 하나의 데이터 단위로 처리합니다.</p>
+ */
+public final class XTSMode extends AbstractMode {
+    /** 기본 섹터 크기(4 KiB). */
+    public static final int DEFAULT_SECTOR_SIZE = 4096;
+
+    /** 데이터 단위 하나에 허용되는 최대 블록 수(2^20). */
+    private static final int MAX_BLOCKS_PER_UNIT = 1 << 20;
+
+    /** 트윅 암호화용 블록 암호(k2). */
+    private final BlockCipher tweakCipher;
+
+    /** 섹터 API에서 사용할 섹터 크기. */
+    private final int sectorSize;
+
+    /**
+     * @param dataCipher 데이터 암호화용 블록 암호(k1)
+     * @param tweakCipher 트윅 암호화용 블록 암호(k2, k1과 다른 키여야 함)
+     * @param sectorSize 섹터 크기(바이트, 16 이상)
+     */
+    public XTSMode(BlockCipher dataCipher, BlockCipher tweakCipher, int sectorSize) {
+        super(Objects.requireNonNull(dataCipher, "dataCipher must not be null"));
+        this.tweakCipher = Objects.requireNonNull(tweakCipher, "tweakCipher must not be null");
+        if (dataCipher == tweakCipher) {
+            throw new IllegalArgumentException("XTS requires two independent ciphers");
+        }
+        if (dataCipher.blockSize() != 16 || tweakCipher.blockSize() != 16) {
+            throw new IllegalArgumentException("XTS requires a 128-bit block cipher");
+        }
+        if (sectorSize < 16 || sectorSize / 16 > MAX_BLOCKS_PER_UNIT) {
+            throw new IllegalArgumentException("sectorSize must be between 16 bytes and 2^20 blocks");
+        }
+        this.sectorSize = sectorSize;
+    }
+
+    /**
+     * 기본 섹터 크기(4 KiB)로 생성합니다.
+     */
+    public XTSMode(BlockCipher dataCipher, BlockCipher tweakCipher) {
+        this(dataCipher, tweakCipher, DEFAULT_SECTOR_SIZE);
+    }
+
+    @Override
+    public ModeType type() {
+        return ModeType.XTS;
+    }
+
+    /**
+     * 섹터 크기를 반환합니다.
+     */
+    public int sectorSize() {
+        return sectorSize;
+    }
+
+    /**
+     * 입력 전체를 하나의 데이터 단위로 보고 암호화합니다.
+     *
+     * @param plaintext 16바이트 이상의 평문
+     * @param ivOrNonce 16바이트 트윅 값
+     */
+    @Override
+    protected byte[] encryptInternal(byte[] plaintext, byte[] ivOrNonce) {
+        requireIv(ivOrNonce);
+        byte[] out = new byte[plaintext.length];
+        processUnit(plaintext, 0, plaintext.length, out, ivOrNonce, true);
+        return out;
+    }
+
+    /**
+     * 입력 전체를 하나의 데이터 단위로 보고 복호화합니다.
+     */
+    @Override
+    protected byte[] decryptInternal(byte[] ciphertext, byte[] ivOrNonce) {
+        requireIv(ivOrNonce);
+        byte[] out = new byte[ciphertext.length];
+        processUnit(ciphertext, 0, ciphertext.length, out, ivOrNonce, false);
+        return out;
+    }
+
+    /**
+     * 섹터 하나를 암호화합니다.
+     *
+     * @param sector 섹터 데이터(16바이트 이상, 섹터 크기 이하)
+     * @param sectorNumber 섹터 번호
+     */
+    public byte[] encryptSector(byte[] sector, long sectorNumber) {
+        return encryptSectors(sector, sectorNumber);
+    }
+
+    /**
+     * 섹터 하나를 복호화합니다.
+     */
+    public byte[] decryptSector(byte[] sector, long sectorNumber) {
+        return decryptSectors(sector, sectorNumber);
+    }
+
+    /**
+     * 연속된 여러 섹터를 병렬로 암호화합니다.
+     *
+     * <p>섹터 k의 번호는 {@code firstSector + k}이며, 마지막 섹터만 섹터 크기보다 짧을 수 있습니다(16바이트 이상).</p>
+     *
+     * @param data 섹터들을 이어붙인 데이터
+     * @param firstSector 첫 섹터 번호
+     */
+    public byte[] encryptSectors(byte[] data, long firstSector) {
+        return processSectors(data, firstSector, true);
+    }
+
+    /**
+     * 연속된 여러 섹터를 병렬로 복호화합니다.
+     */
+    public byte[] decryptSectors(byte[] data, long firstSector) {
+        return processSectors(data, firstSector, false);
+    }
+
+    /**
+     * 섹터 API 공통 처리입니다. 섹터가 둘 이상이면 병렬 경로로 JFR 이벤트를 기록합니다.
+     */
+    private byte[] processSectors(byte[] data, long firstSector, boolean encrypting) {
+        Objects.requireNonNull(data, "data must not be null");
+        ModeOperationEvent event = new ModeOperationEvent();
+        event.begin();
+        int sectorCount = (data.length + sectorSize - 1) / sectorSize;
+        byte[] out = new byte[data.length];
+
+        IntStream.range(0, sectorCount)
+            .parallel()
+            .forEach(k -> {
+                int offset = k * sectorSize;
+                int length = Math.min(sectorSize, data.length - offset);
+                processUnit(data, offset, length, out, sectorTweak(firstSector + k), encrypting);
+            });
+        commit(event, encrypting ? "encrypt" : "decrypt", data.length,
+            sectorCount > 1 ? PARALLEL_PATH : SEQUENTIAL_PATH);
+        return out;
+    }
+
+    /**
+     * 섹터 번호를 16바이트 리틀엔디언 트윅 값으로 변환합니다.
+     */
+    private static byte[] sectorTweak(long sectorNumber) {
+        byte[] tweak = new byte[16];
+        for (int i = 0; i < 8; i++) {
+            tweak[i] = (byte) (sectorNumber >>> (8 * i));
+        }
+        return tweak;
+    }
+
+    /**
+     * 데이터 단위 하나를 처리합니다.
+     *
+     * <p>처리 순서</p>
+     * <p>1. {@code T = E_k2(tweak)}</p>
+     * <p>2. 전체 블록은 {@code E_k1(P xor T) xor T} 후 {@code T = T · α}</p>
+     * <p>3. 마지막 블록이 부분 블록이면 직전 블록과 암호문 훔치기 수행</p>
+     */
+    private void processUnit(byte[] in, int offset, int length, byte[] out, byte[] tweak, boolean encrypting) {
+        if (length < 16) {
+            throw new IllegalArgumentException("XTS data unit must be at least 16 bytes");
+        }
+        if ((length + 15) / 16 > MAX_BLOCKS_PER_UNIT) {
+            throw new IllegalArgumentException("XTS data unit must not exceed 2^20 blocks");
+        }
+        byte[] t = tweakCipher.encryptBlock(tweak);
+        long tLow = readLongLe(t, 0);
+        long tHigh = readLongLe(t, 8);
+
+        int fullBlocks = length / 16;
+        int tail = length % 16;
+        // 부분 블록이 있으면 마지막 전체 블록은 훔치기 단계에서 따로 처리합니다.
+        int plainBlocks = tail == 0 ? fullBlocks : fullBlocks - 1;
+        byte[] block = new byte[16];
+
+        for (int j = 0; j < plainBlocks; j++) {
+            int at = offset + (j * 16);
+            System.arraycopy(in, at, block, 0, 16);
+            byte[] result = xtsBlock(block, tLow, tHigh, encrypting);
+            System.arraycopy(result, 0, out, at, 16);
+
+            long carry = tHigh >>> 63;
+            tHigh = (tHigh << 1) | (tLow >>> 63);
+            tLow = (tLow << 1) ^ (carry * 0x87L);
+        }
+        if (tail == 0) {
+            return;
+        }
+
+        // T_{m-1}(현재 트윅)과 T_m(다음 트윅)을 모두 사용합니다.
+        long nextCarry = tHigh >>> 63;
+        long nextHigh = (tHigh << 1) | (tLow >>> 63);
+        long nextLow = (tLow << 1) ^ (nextCarry * 0x87L);
+
+        int lastFull = offset + (plainBlocks * 16);
+        int partial = lastFull + 16;
+
+        // 암호화는 T_{m-1}, T_m 순서로, 복호화는 T_m, T_{m-1} 순서로 사용합니다.
+        long firstLow = encrypting ? tLow : nextLow;
+        long firstHigh = encrypting ? tHigh : nextHigh;
+        long secondLow = encrypting ? nextLow : tLow;
+        long secondHigh = encrypting ? nextHigh : tHigh;
+
+        System.arraycopy(in, lastFull, block, 0, 16);
+        byte[] cc = xtsBlock(block, firstLow, firstHigh, encrypting);
+
+        // 마지막 부분 출력은 CC의 앞 tail 바이트, 나머지는 부분 입력 || CC 꼬리로 다시 처리합니다.
+        System.arraycopy(in, partial, block, 0, tail);
+        System.arraycopy(cc, tail, block, tail, 16 - tail);
+        System.arraycopy(cc, 0, out, partial, tail);
+
+        byte[] last = xtsBlock(block, secondLow, secondHigh, encrypting);
+        System.arraycopy(last, 0, out, lastFull, 16);
+    }
+
+    /**
+     * {@code E_k1(X xor T) xor T} 또는 {@code D_k1(X xor T) xor T}를 계산합니다.
+     *
+     * <p>{@code block}은 입력 XOR 단계에서 덮어씁니다.</p>
+     */
+    private byte[] xtsBlock(byte[] block, long tLow, long tHigh, boolean encrypting) {
+        xorTweak(block, tLow, tHigh);
+        byte[] result = encrypting ? cipher.encryptBlock(block) : cipher.decryptBlock(block);
+        xorTweak(result, tLow, tHigh);
+        return result;
+    }
+
+    private static void xorTweak(byte[] block, long tLow, long tHigh) {
+        for (int i = 0; i < 8; i++) {
+            block[i] ^= (byte) (tLow >>> (8 * i));
+            block[8 + i] ^= (byte) (tHigh >>> (8 * i));
+        }
+    }
+
+    private static long readLongLe(byte[] in, int offset) {
+        long v = 0;
+        for (int i = 7; i >= 0; i--) {
+            v = (v << 8) | (in[offset + i] & 0xFFL);
+        }
+        return v;
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.blockcipher.planner;
+
+import com.example.blockcipher.core.BlockCipher;
+import com.example.blockcipher.mode.ModeType;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 호출마다 순차/병렬/JCA 일괄 중 가장 싼 실행 방식을 고르는 계획기입니다.
+ *
+ * <p>작은 메시지를 여러 스레드로 나누면 분배 비용 때문에 오히려 느려지므로,
+ * {@link PlannerCalibration}의 비용 모델로 세 방식의 예상 시간을 비교해 최솟값을 고릅니다.</p>
+ *
+ * <p>후보 조건</p>
+ * <p>1. SEQUENTIAL: 항상 후보</p>
+ * <p>2. PARALLEL: 코어 2개 이상, 블록이 서로 독립인 방향(ECB, CTR, CBC 복호화),
+ *    구간당 최소 {@link #MIN_SEGMENT_BYTES} 이상을 줄 수 있는 크기</p>
+ * <p>3. JCA_BULK: JCA 경로가 있는 모드와 블록 암호({@code JcaMode})</p>
+ *
+ * <p>결정은 {@link #metrics()}에 모드/전략별로 기록됩니다.</p>
+ */
+public final class ExecutionPlanner {
+    /** 병렬 구간 하나의 최소 크기(바이트). */
+    public static final int MIN_SEGMENT_BYTES = 16 * 1024;
+
+    /** 블록 암호 구현 클래스별로 한 번만 측정한 기본 계획기. */
+    private static final Map<Class<?>, ExecutionPlanner> CALIBRATED = new ConcurrentHashMap<>();
+
+    private final PlannerCalibration calibration;
+    private final int cores;
+    private final PlannerMetrics metrics = new PlannerMetrics();
+
+    /**
+     * @param calibration 비용 모델 상수
+     * @param cores 병렬 경로에 쓸 코어 수(1이면 병렬 경로를 고르지 않음)
+     */
+    public ExecutionPlanner(PlannerCalibration calibration, int cores) {
+        this.calibration = Objects.requireNonNull(calibration, "calibration must not be null");
+        if (cores <= 0) {
+            throw new IllegalArgumentException("cores must be positive");
+        }
+        this.cores = cores;
+    }
+
+    /**
+     * 블록 암호 구현 클래스별로 처음 한 번 자체 벤치마크를 돌려 만든 계획기를 반환합니다.
+     *
+     * <p>같은 구현 클래스(예: {@code AesBlockCipher})는 키와 무관하게 비용이 같으므로 계획기와 지표를 공유합니다.</p>
+     */
+    public static ExecutionPlanner calibrated(BlockCipher cipher) {
+        Objects.requireNonNull(cipher, "cipher must not be null");
+        return CALIBRATED.computeIfAbsent(
+            cipher.getClass(),
+            ignored -> new ExecutionPlanner(
+                PlannerCalibration.measure(cipher),
+                Runtime.getRuntime().availableProcessors()
+            )
+        );
+    }
+
+    /**
+     * 실행 방식을 고르고 지표에 기록합니다.
+     *
+     * @param type 모드 타입
+     * @param encrypting 암호화면 true
+     * @param length 입력 길이(바이트)
+     * @param jcaAvailable 이 호출에 JCA 일괄 경로를 쓸 수 있는지
+     * @return 선택한 실행 방식
+     */
+    public ExecutionStrategy plan(ModeType type, boolean encrypting, int length, boolean jcaAvailable) {
+        ExecutionStrategy strategy = choose(type, encrypting, length, jcaAvailable);
+        metrics.record(type, strategy, length);
+        return strategy;
+    }
+
+    /**
+     * 지표 기록 없이 비용 모델만 평가합니다.
+     */
+    public ExecutionStrategy choose(ModeType type, boolean encrypting, int length, boolean jcaAvailable) {
+        Objects.requireNonNull(type, "type must not be null");
+        ExecutionStrategy best = ExecutionStrategy.SEQUENTIAL;
+        double bestCost = sequentialCost(type, length);
+        if (parallelEligible(type, encrypting, length)) {
+            double cost = calibration.parallelOverheadNanos()
+                + length * calibration.bulkNanosPerByte() / segments(length);
+            if (cost < bestCost) {
+                best = ExecutionStrategy.PARALLEL;
+                bestCost = cost;
+            }
+        }
+        if (jcaAvailable) {
+            double cost = calibration.jcaSetupNanos() + length * calibration.jcaNanosPerByte();
+            if (cost < bestCost) {
+                best = ExecutionStrategy.JCA_BULK;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 병렬 실행 시 나눌 구간 수({@code min(cores, length / MIN_SEGMENT_BYTES)}, 최소 1).
+     */
+    public int segments(int length) {
+        return Math.max(1, Math.min(cores, length / MIN_SEGMENT_BYTES));
+    }
+
+    /**
+     * 블록끼리 독립이라 구간으로 나눌 수 있는 모드/방향인지 반환합니다.
+     */
+    public static boolean parallelizable(ModeType type, boolean encrypting) {
+        return type == ModeType.ECB || type == ModeType.CTR || (type == ModeType.CBC && !encrypting);
+    }
+
+    public PlannerCalibration calibration() {
+        return calibration;
+    }
+
+    public int cores() {
+        return cores;
+    }
+
+    public PlannerMetrics metrics() {
+        return metrics;
+    }
+
+    @Override
+    public String toString() {
+        return "ExecutionPlanner[cores=" + cores + ", " + calibration + ", " + metrics + "]";
+    }
+
+    private boolean parallelEligible(ModeType type, boolean encrypting, int length) {
+        return cores > 1 && parallelizable(type, encrypting) && segments(length) > 1;
+    }
+
+    /**
+     * ECB/CTR은 모드 구현이 이미 {@code encryptBlocks} 일괄 경로를 쓰고, 나머지는 블록마다 호출합니다.
+     */
+    private double sequentialCost(ModeType type, int length) {
+        boolean bulk = type == ModeType.ECB || type == ModeType.CTR;
+        return length * (bulk ? calibration.bulkNanosPerByte() : calibration.blockNanosPerByte());
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.blockcipher.planner;
+
+/**
+ * 한 번의 암복호화 호출을 실행하는 방식입니다.
+ */
+public enum ExecutionStrategy {
+    /** 모드 구현을 호출 스레드에서 그대로 실행합니다. */
+    SEQUENTIAL,
+    /** 메시지를 구간으로 나눠 공용 ForkJoinPool에서 동시에 처리합니다(ECB, CTR, CBC 복호화). */
+    PARALLEL,
+    /** JDK 전체 모드 Cipher 한 번에 위임합니다({@code JcaMode}). */
+    JCA_BULK
+}
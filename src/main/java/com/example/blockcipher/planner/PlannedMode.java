@@ -0,0 +1,366 @@
+package com.example.blockcipher.planner;
+
+import com.example.blockcipher.core.BlockCipher;
+import com.example.blockcipher.guard.NonceReuseGuard;
+import com.example.blockcipher.jfr.ModeOperationEvent;
+import com.example.blockcipher.mode.BlockCache;
+import com.example.blockcipher.mode.CTRMode;
+import com.example.blockcipher.mode.CounterLayout;
+import com.example.blockcipher.mode.ECBMode;
+import com.example.blockcipher.mode.ModeOfOperation;
+import com.example.blockcipher.mode.ModeType;
+import com.example.blockcipher.padding.PaddingScheme;
+import com.example.blockcipher.util.Bytes;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * 호출마다 {@link ExecutionPlanner}가 고른 방식으로 실행하는 모드 래퍼입니다.
+ *
+ * <p>세 경로의 입출력 형식은 같습니다.</p>
+ * <p>1. SEQUENTIAL: 기존 모드 구현({@code ModeFactory.create})</p>
+ * <p>2. PARALLEL: 블록 구간을 {@code IntStream.parallel()}로 나눠 {@code encryptBlocks/decryptBlocks} 일괄 호출</p>
+ * <p>3. JCA_BULK: {@code JcaMode}</p>
+ *
+ * <p>IV 길이나 암호문 길이가 잘못된 호출은 순차 경로로 보내 기존과 같은 예외/메시지를 받게 합니다.
+ * 병렬 경로는 순차 구현의 설정을 그대로 따릅니다. CTR은 {@link CTRMode#layout()}의 counter 영역만 증가시키고
+ * 암호화 전에 {@link CTRMode#guard()}로 nonce를 기록하며, ECB 암호화는 {@link ECBMode#cache()}를 거칩니다.
+ * JCA 일괄 구현은 이 설정을 알지 못하므로, 기본 설정이 아닌 순차 구현과는 함께 쓸 수 없습니다.</p>
+ *
+ * <p>순차/JCA 경로는 위임 대상이 {@link ModeOperationEvent}를 기록하므로, 이 클래스는 PARALLEL 경로만 기록합니다.
+ * {@link ByteBuffer} 출력 경로도 같은 계획을 따르며, 순차/JCA 경로는 위임 대상의 버퍼 경로로 바로 쓰고
+ * PARALLEL 경로는 배열 결과를 복사합니다.</p>
+ */
+public final class PlannedMode implements ModeOfOperation {
+    private final ModeOfOperation sequential;
+    private final ModeOfOperation bulk;
+    private final PaddingScheme padding;
+    private final ExecutionPlanner planner;
+    private final BlockCipher cipher;
+    private final CounterLayout layout;
+    private final NonceReuseGuard guard;
+    private final BlockCache cache;
+
+    /**
+     * @param sequential 기본 모드 구현(블록 암호를 노출해야 병렬 경로 사용 가능)
+     * @param bulk JCA 일괄 구현(없으면 null)
+     * @param padding ECB/CBC 병렬 경로에서 쓸 패딩(순차 구현과 같아야 함)
+     * @param planner 실행 계획기
+     * @throws IllegalArgumentException {@code bulk}가 있는데 순차 구현이 기본이 아닌 counter 분할,
+     *     nonce 가드, 블록 캐시 중 하나를 쓰는 경우
+     */
+    public PlannedMode(ModeOfOperation sequential, ModeOfOperation bulk, PaddingScheme padding, ExecutionPlanner planner) {
+        this.sequential = Objects.requireNonNull(sequential, "sequential must not be null");
+        this.padding = Objects.requireNonNull(padding, "padding must not be null");
+        this.planner = Objects.requireNonNull(planner, "planner must not be null");
+        if (bulk != null && bulk.type() != sequential.type()) {
+            throw new IllegalArgumentException("bulk mode type must match: " + bulk.type());
+        }
+        this.cipher = sequential.blockCipher();
+        CTRMode ctr = sequential instanceof CTRMode ? (CTRMode) sequential : null;
+        this.layout = ctr != null ? ctr.layout() : CounterLayout.FULL_128;
+        this.guard = ctr != null ? ctr.guard() : null;
+        this.cache = sequential instanceof ECBMode ? ((ECBMode) sequential).cache() : null;
+        if (bulk != null && (layout != CounterLayout.FULL_128 || guard != null || cache != null)) {
+            throw new IllegalArgumentException("bulk mode cannot honour the sequential mode's counter layout, guard or cache");
+        }
+        this.bulk = bulk;
+    }
+
+    @Override
+    public ModeType type() {
+        return sequential.type();
+    }
+
+    @Override
+    public int ivLength() {
+        return sequential.ivLength();
+    }
+
+    @Override
+    public BlockCipher blockCipher() {
+        return cipher;
+    }
+
+    public ExecutionPlanner planner() {
+        return planner;
+    }
+
+    @Override
+    public int maxOutputLength(int inputLength, boolean encrypting) {
+        return sequential.maxOutputLength(inputLength, encrypting);
+    }
+
+    @Override
+    public byte[] encrypt(byte[] plaintext, byte[] ivOrNonce) {
+        switch (plan(true, plaintext.length, ivOrNonce)) {
+            case PARALLEL:
+                return parallelEncrypt(plaintext, ivOrNonce);
+            case JCA_BULK:
+                return bulk.encrypt(plaintext, ivOrNonce);
+            default:
+                return sequential.encrypt(plaintext, ivOrNonce);
+        }
+    }
+
+    @Override
+    public byte[] decrypt(byte[] ciphertext, byte[] ivOrNonce) {
+        switch (plan(false, ciphertext.length, ivOrNonce)) {
+            case PARALLEL:
+                return parallelDecrypt(ciphertext, ivOrNonce);
+            case JCA_BULK:
+                return bulk.decrypt(ciphertext, ivOrNonce);
+            default:
+                return sequential.decrypt(ciphertext, ivOrNonce);
+        }
+    }
+
+    @Override
+    public int encrypt(byte[] input, int offset, int length, byte[] ivOrNonce, ByteBuffer out) {
+        Bytes.requireRange(input, offset, length);
+        switch (plan(true, length, ivOrNonce)) {
+            case PARALLEL:
+                Bytes.requireRemaining(out, maxOutputLength(length, true));
+                byte[] ciphertext = parallelEncrypt(Arrays.copyOfRange(input, offset, offset + length), ivOrNonce);
+                out.put(ciphertext);
+                return ciphertext.length;
+            case JCA_BULK:
+                return bulk.encrypt(input, offset, length, ivOrNonce, out);
+            default:
+                return sequential.encrypt(input, offset, length, ivOrNonce, out);
+        }
+    }
+
+    @Override
+    public int decrypt(byte[] input, int offset, int length, byte[] ivOrNonce, ByteBuffer out) {
+        Bytes.requireRange(input, offset, length);
+        switch (plan(false, length, ivOrNonce)) {
+            case PARALLEL:
+                Bytes.requireRemaining(out, maxOutputLength(length, false));
+                byte[] plaintext = parallelDecrypt(Arrays.copyOfRange(input, offset, offset + length), ivOrNonce);
+                out.put(plaintext);
+                Arrays.fill(plaintext, (byte) 0);
+                return plaintext.length;
+            case JCA_BULK:
+                return bulk.decrypt(input, offset, length, ivOrNonce, out);
+            default:
+                return sequential.decrypt(input, offset, length, ivOrNonce, out);
+        }
+    }
+
+    private byte[] parallelEncrypt(byte[] plaintext, byte[] ivOrNonce) {
+        ModeOperationEvent event = new ModeOperationEvent();
+        event.begin();
+        byte[] ciphertext = type() == ModeType.ECB
+            ? parallelBlocks(padding.pad(plaintext, cipher.blockSize()), true)
+            : parallelCtr(plaintext, ivOrNonce, true);
+        commit(event, "encrypt", plaintext.length);
+        return ciphertext;
+    }
+
+    private byte[] parallelDecrypt(byte[] ciphertext, byte[] ivOrNonce) {
+        ModeOperationEvent event = new ModeOperationEvent();
+        event.begin();
+        byte[] plaintext;
+        if (type() == ModeType.ECB) {
+            plaintext = padding.unpad(parallelBlocks(ciphertext, false), cipher.blockSize());
+        } else if (type() == ModeType.CBC) {
+            plaintext = padding.unpad(parallelCbcDecrypt(ciphertext, ivOrNonce), cipher.blockSize());
+        } else {
+            plaintext = parallelCtr(ciphertext, ivOrNonce, false);
+        }
+        commit(event, "decrypt", ciphertext.length);
+        return plaintext;
+    }
+
+    private void commit(ModeOperationEvent event, String operation, int length) {
+        event.end();
+        if (event.isEnabled()) {
+            event.mode = type().name();
+            event.operation = operation;
+            event.keyBits = cipher.keySizeBits();
+            event.bytes = length;
+            event.path = ExecutionStrategy.PARALLEL.name();
+            event.commit();
+        }
+    }
+
+    /**
+     * 계획기에 묻기 전에, 병렬 경로가 기존 검증을 건너뛰게 되는 입력은 순차 경로로 고정합니다.
+     */
+    private ExecutionStrategy plan(boolean encrypting, int length, byte[] ivOrNonce) {
+        ExecutionStrategy strategy = planner.choose(type(), encrypting, length, bulk != null);
+        if (strategy == ExecutionStrategy.PARALLEL && !parallelInputValid(encrypting, length, ivOrNonce)) {
+            strategy = ExecutionStrategy.SEQUENTIAL;
+        }
+        planner.metrics().record(type(), strategy, length);
+        return strategy;
+    }
+
+    private boolean parallelInputValid(boolean encrypting, int length, byte[] ivOrNonce) {
+        if (cipher == null || !ExecutionPlanner.parallelizable(type(), encrypting)) {
+            return false;
+        }
+        int blockSize = cipher.blockSize();
+        boolean ivValid = type() == ModeType.ECB
+            ? ivOrNonce == null || ivOrNonce.length == 0
+            : ivOrNonce != null && ivOrNonce.length == ivLength();
+        boolean lengthValid = type() == ModeType.CTR || encrypting
+            || (length > 0 && length % blockSize == 0);
+        return ivValid && lengthValid && (type() != ModeType.CTR || blockSize == 16);
+    }
+
+    /**
+     * ECB: 블록 구간마다 일괄 암복호화합니다. 암호화는 순차 구현과 같은 블록 캐시를 거칩니다.
+     */
+    private byte[] parallelBlocks(byte[] input, boolean encrypting) {
+        int blockSize = cipher.blockSize();
+        int blocks = input.length / blockSize;
+        int segments = planner.segments(input.length);
+        int perSegment = (blocks + segments - 1) / segments;
+        byte[] out = new byte[input.length];
+        IntStream.range(0, segments).parallel().forEach(segment -> {
+            int first = segment * perSegment;
+            int count = Math.min(perSegment, blocks - first);
+            if (count <= 0) {
+                return;
+            }
+            int offset = first * blockSize;
+            if (encrypting && cache != null) {
+                cache.encryptBlocks(input, offset, out, offset, count);
+            } else if (encrypting) {
+                cipher.encryptBlocks(input, offset, out, offset, count);
+            } else {
+                cipher.decryptBlocks(input, offset, out, offset, count);
+            }
+        });
+        return out;
+    }
+
+    /**
+     * CBC 복호화: {@code P_i = D_k(C_i) xor C_{i-1}}는 블록마다 독립이므로 구간별로
+     * 일괄 복호화한 뒤 직전 암호문 블록(첫 블록은 IV)과 XOR합니다.
+     */
+    private byte[] parallelCbcDecrypt(byte[] ciphertext, byte[] iv) {
+        int blockSize = cipher.blockSize();
+        byte[] out = parallelBlocks(ciphertext, false);
+        int segments = planner.segments(ciphertext.length);
+        int bytesPerSegment = ((ciphertext.length / blockSize + segments - 1) / segments) * blockSize;
+        IntStream.range(0, segments).parallel().forEach(segment -> {
+            int start = segment * bytesPerSegment;
+            int end = Math.min(ciphertext.length, start + bytesPerSegment);
+            for (int i = start; i < end; i++) {
+                byte previous = i < blockSize ? iv[i] : ciphertext[i - blockSize];
+                out[i] ^= previous;
+            }
+        });
+        return out;
+    }
+
+    /**
+     * CTR: 구간 {@code s}는 counter {@code IV + firstBlock(s)}부터 시작합니다.
+     *
+     * <p>처리 순서</p>
+     * <p>1. {@code CTRMode}와 같게 메시지 전체 counter 범위가 counter 영역 안에 있는지 한 번 검사</p>
+     * <p>2. 암호화이고 가드가 있으면 nonce 기록/재사용 검사</p>
+     * <p>3. 구간마다 counter 블록을 만들어 일괄 암호화한 뒤 입력과 XOR</p>
+     */
+    private byte[] parallelCtr(byte[] input, byte[] iv, boolean encrypting) {
+        long blocks = (input.length + 15L) / 16;
+        requireCounterSpace(iv, blocks);
+        if (encrypting && guard != null) {
+            guard.checkAndRecord(iv);
+        }
+        int segments = planner.segments(input.length);
+        int perSegment = (int) ((blocks + segments - 1) / segments);
+        byte[] out = new byte[input.length];
+        IntStream.range(0, segments).parallel().forEach(segment -> {
+            long first = (long) segment * perSegment;
+            int count = (int) Math.min(perSegment, blocks - first);
+            if (count <= 0) {
+                return;
+            }
+            byte[] counters = new byte[count * 16];
+            for (int i = 0; i < count; i++) {
+                writeCounter(counters, i * 16, iv, first + i);
+            }
+            byte[] stream = new byte[counters.length];
+            cipher.encryptBlocks(counters, 0, stream, 0, count);
+            int offset = (int) (first * 16);
+            int length = Math.min(stream.length, input.length - offset);
+            for (int i = 0; i < length; i++) {
+                out[offset + i] = (byte) (input[offset + i] ^ stream[i]);
+            }
+            Arrays.fill(stream, (byte) 0);
+        });
+        return out;
+    }
+
+    /**
+     * counter 범위 {@code [c, c + blocks - 1]}가 counter 영역을 넘으면 {@code CTRMode}와 같은 예외를 던집니다.
+     */
+    private void requireCounterSpace(byte[] iv, long blocks) {
+        if (blocks <= 1) {
+            return;
+        }
+        long lastStep = blocks - 1;
+        boolean fits;
+        switch (layout) {
+            case NONCE_96_COUNTER_32:
+                fits = (readLong(iv, 8) & 0xFFFFFFFFL) + lastStep <= 0xFFFFFFFFL;
+                break;
+            case NONCE_64_COUNTER_64:
+                fits = Long.compareUnsigned(readLong(iv, 8), -1L - lastStep) <= 0;
+                break;
+            default:
+                fits = readLong(iv, 0) != -1L || Long.compareUnsigned(readLong(iv, 8), -1L - lastStep) <= 0;
+                break;
+        }
+        if (!fits) {
+            throw new IllegalStateException("CTR counter wrapped; nonce/counter space exhausted");
+        }
+    }
+
+    /**
+     * IV를 복사한 뒤 counter 영역에 {@code 초기 counter + step}을 씁니다.
+     *
+     * <p>범위 검사를 통과했으므로 counter 영역 밖으로 올림이 생기는 경우는 FULL_128의 하위 64비트 올림뿐입니다.</p>
+     */
+    private void writeCounter(byte[] counters, int offset, byte[] iv, long step) {
+        System.arraycopy(iv, 0, counters, offset, 16);
+        long low = readLong(iv, 8);
+        switch (layout) {
+            case NONCE_96_COUNTER_32:
+                long counter32 = (low & 0xFFFFFFFFL) + step;
+                writeLong(counters, offset + 8, (low & 0xFFFFFFFF00000000L) | counter32);
+                break;
+            case NONCE_64_COUNTER_64:
+                writeLong(counters, offset + 8, low + step);
+                break;
+            default:
+                long next = low + step;
+                if (Long.compareUnsigned(next, low) < 0) {
+                    writeLong(counters, offset, readLong(iv, 0) + 1);
+                }
+                writeLong(counters, offset + 8, next);
+                break;
+        }
+    }
+
+    private static long readLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (bytes[offset + i] & 0xFFL);
+        }
+        return value;
+    }
+
+    private static void writeLong(byte[] bytes, int offset, long value) {
+        for (int i = 7; i >= 0; i--) {
+            bytes[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.blockcipher.planner;
+
+import com.example.blockcipher.core.AesBlockCipher;
+import com.example.blockcipher.core.BlockCipher;
+import com.example.blockcipher.mode.JcaMode;
+import com.example.blockcipher.mode.ModeType;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * 실행 계획 비용 모델의 상수들입니다.
+ *
+ * <p>비용 모델(나노초)</p>
+ * <p>1. 순차: {@code n * (블록 일괄 처리 가능 ? bulkNanosPerByte : blockNanosPerByte)}</p>
+ * <p>2. 병렬: {@code parallelOverheadNanos + n * bulkNanosPerByte / cores}</p>
+ * <p>3. JCA 일괄: {@code jcaSetupNanos + n * jcaNanosPerByte}</p>
+ *
+ * <p>{@link #measure(BlockCipher)}가 시작 시 짧은 자체 벤치마크로 값을 잽니다.
+ * 테스트나 운영에서 값을 고정하고 싶으면 생성자로 직접 만듭니다.</p>
+ */
+public final class PlannerCalibration {
+    /** 측정용 일괄 처리 크기(블록 수). */
+    private static final int SAMPLE_BLOCKS = 256;
+    /** 블록 단위 측정 횟수(JCA 단일 블록 경로는 느리므로 작게 둡니다). */
+    private static final int SINGLE_BLOCK_SAMPLES = 32;
+    /** JCA 바이트당 비용 측정 크기. */
+    private static final int JCA_SAMPLE_BYTES = 64 * 1024;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURE_ROUNDS = 5;
+
+    private final double blockNanosPerByte;
+    private final double bulkNanosPerByte;
+    private final double jcaSetupNanos;
+    private final double jcaNanosPerByte;
+    private final double parallelOverheadNanos;
+
+    /**
+     * @param blockNanosPerByte {@code encryptBlock}을 블록마다 호출할 때의 바이트당 비용
+     * @param bulkNanosPerByte {@code encryptBlocks} 일괄 호출의 바이트당 비용
+     * @param jcaSetupNanos JCA Cipher 생성/초기화 고정 비용(JCA 경로가 없으면 {@link Double#POSITIVE_INFINITY})
+     * @param jcaNanosPerByte JCA 전체 모드의 바이트당 비용(JCA 경로가 없으면 {@link Double#POSITIVE_INFINITY})
+     * @param parallelOverheadNanos 병렬 작업 분배/합류 고정 비용
+     */
+    public PlannerCalibration(
+        double blockNanosPerByte,
+        double bulkNanosPerByte,
+        double jcaSetupNanos,
+        double jcaNanosPerByte,
+        double parallelOverheadNanos
+    ) {
+        requirePositive(blockNanosPerByte, "blockNanosPerByte");
+        requirePositive(bulkNanosPerByte, "bulkNanosPerByte");
+        requirePositive(jcaSetupNanos, "jcaSetupNanos");
+        requirePositive(jcaNanosPerByte, "jcaNanosPerByte");
+        requirePositive(parallelOverheadNanos, "parallelOverheadNanos");
+        this.blockNanosPerByte = blockNanosPerByte;
+        this.bulkNanosPerByte = bulkNanosPerByte;
+        this.jcaSetupNanos = jcaSetupNanos;
+        this.jcaNanosPerByte = jcaNanosPerByte;
+        this.parallelOverheadNanos = parallelOverheadNanos;
+    }
+
+    /**
+     * 주어진 블록 암호 구현으로 비용 상수를 측정합니다(수십 밀리초 이내).
+     *
+     * <p>처리 순서</p>
+     * <p>1. {@code encryptBlock} 반복과 {@code encryptBlocks} 일괄 호출의 바이트당 비용</p>
+     * <p>2. {@link AesBlockCipher}면 JCA CTR 16바이트/64KiB 호출로 고정 비용과 바이트당 비용 분리</p>
+     * <p>3. 코어 수만큼의 빈 병렬 작업으로 분배/합류 비용</p>
+     *
+     * <p>각 항목은 예열 후 여러 번 잰 값 중 최솟값을 사용해 GC/스케줄링 잡음을 줄입니다.</p>
+     */
+    public static PlannerCalibration measure(BlockCipher cipher) {
+        int blockSize = cipher.blockSize();
+        byte[] block = new byte[blockSize];
+        byte[] sample = new byte[SAMPLE_BLOCKS * blockSize];
+        byte[] out = new byte[sample.length];
+
+        double block1 = bestNanos(() -> {
+            for (int i = 0; i < SINGLE_BLOCK_SAMPLES; i++) {
+                cipher.encryptBlock(block);
+            }
+        }) / (SINGLE_BLOCK_SAMPLES * (double) blockSize);
+        double bulk = bestNanos(() -> cipher.encryptBlocks(sample, 0, out, 0, SAMPLE_BLOCKS)) / sample.length;
+
+        double jcaSetup = Double.POSITIVE_INFINITY;
+        double jcaPerByte = Double.POSITIVE_INFINITY;
+        if (cipher instanceof AesBlockCipher) {
+            JcaMode jca = new JcaMode(ModeType.CTR, (AesBlockCipher) cipher);
+            byte[] iv = new byte[jca.ivLength()];
+            byte[] small = new byte[blockSize];
+            byte[] large = new byte[JCA_SAMPLE_BYTES];
+            double smallNanos = bestNanos(() -> jca.encrypt(small, iv));
+            double largeNanos = bestNanos(() -> jca.encrypt(large, iv));
+            jcaSetup = Math.max(1.0, smallNanos);
+            jcaPerByte = Math.max(0.001, (largeNanos - smallNanos) / (large.length - small.length));
+        }
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        LongAdder sink = new LongAdder();
+        double overhead = bestNanos(() -> IntStream.range(0, cores).parallel().forEach(sink::add));
+
+        return new PlannerCalibration(
+            Math.max(0.001, block1),
+            Math.max(0.001, bulk),
+            jcaSetup,
+            jcaPerByte,
+            Math.max(1.0, overhead)
+        );
+    }
+
+    public double blockNanosPerByte() {
+        return blockNanosPerByte;
+    }
+
+    public double bulkNanosPerByte() {
+        return bulkNanosPerByte;
+    }
+
+    public double jcaSetupNanos() {
+        return jcaSetupNanos;
+    }
+
+    public double jcaNanosPerByte() {
+        return jcaNanosPerByte;
+    }
+
+    public double parallelOverheadNanos() {
+        return parallelOverheadNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "PlannerCalibration[block=%.2f ns/B, bulk=%.2f ns/B, jcaSetup=%.0f ns, jca=%.3f ns/B, parallelOverhead=%.0f ns]",
+            blockNanosPerByte, bulkNanosPerByte, jcaSetupNanos, jcaNanosPerByte, parallelOverheadNanos
+        );
+    }
+
+    private static double bestNanos(Runnable task) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            task.run();
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            long started = System.nanoTime();
+            task.run();
+            best = Math.min(best, System.nanoTime() - started);
+        }
+        return Math.max(1, best);
+    }
+
+    private static void requirePositive(double value, String name) {
+        if (!(value > 0)) {
+            throw new IllegalArgumentException(name + " must be positive");
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.blockcipher.planner;
+
+import com.example.blockcipher.mode.ModeType;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 실행 계획 결정 지표입니다(모드 x 전략별 결정 수와 처리 바이트).
+ *
+ * <p>여러 스레드가 동시에 기록하므로 {@link LongAdder}로 집계하고, 읽기는 근사 스냅샷입니다.</p>
+ */
+public final class PlannerMetrics {
+    private static final int MODES = ModeType.values().length;
+    private static final int STRATEGIES = ExecutionStrategy.values().length;
+
+    private final LongAdder[] decisions = newAdders();
+    private final LongAdder[] bytes = newAdders();
+
+    PlannerMetrics() {
+    }
+
+    void record(ModeType type, ExecutionStrategy strategy, int length) {
+        int index = index(type, strategy);
+        decisions[index].increment();
+        bytes[index].add(length);
+    }
+
+    /**
+     * 전략 하나의 전체 결정 수.
+     */
+    public long decisions(ExecutionStrategy strategy) {
+        long total = 0;
+        for (ModeType type : ModeType.values()) {
+            total += decisions(type, strategy);
+        }
+        return total;
+    }
+
+    /**
+     * 모드/전략 조합의 결정 수.
+     */
+    public long decisions(ModeType type, ExecutionStrategy strategy) {
+        return decisions[index(type, strategy)].sum();
+    }
+
+    /**
+     * 전략 하나로 처리한 전체 바이트 수.
+     */
+    public long bytes(ExecutionStrategy strategy) {
+        long total = 0;
+        for (ModeType type : ModeType.values()) {
+            total += bytes[index(type, strategy)].sum();
+        }
+        return total;
+    }
+
+    /**
+     * 모든 지표를 0으로 되돌립니다.
+     */
+    public void reset() {
+        for (int i = 0; i < decisions.length; i++) {
+            decisions[i].reset();
+            bytes[i].reset();
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(", ", "PlannerMetrics[", "]");
+        for (ExecutionStrategy strategy : ExecutionStrategy.values()) {
+            joiner.add(strategy + "=" + decisions(strategy) + " calls/" + bytes(strategy) + " B");
+        }
+        return joiner.toString();
+    }
+
+    private static int index(ModeType type, ExecutionStrategy strategy) {
+        return type.ordinal() * STRATEGIES + strategy.ordinal();
+    }
+
+    private static LongAdder[] newAdders() {
+        LongAdder[] adders = new LongAdder[MODES * STRATEGIES];
+        for (int i = 0; i < adders.length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+}
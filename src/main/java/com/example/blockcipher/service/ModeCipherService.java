@@ -1,7 +1,17 @@
 package com.example.blockcipher.service;
 
+import com.example.blockcipher.compress.DeflateStage;
+import com.example.blockcipher.core.BlockCipher;
+import com.example.blockcipher.core.CryptoException;
+import com.example.blockcipher.guard.NonceReuseGuard;
+import com.example.blockcipher.jfr.ServiceCallEvent;
+import com.example.blockcipher.mode.CTRMode;
+import com.example.blockcipher.mode.CounterLayout;
 import com.example.blockcipher.mode.ModeOfOperation;
+import com.example.blockcipher.util.BufferPool;
 import com.example.blockcipher.util.Bytes;
+import com.example.blockcipher.util.PooledBuffer;
+import java.nio.ByteBuffer;
 import java.security.SecureRandom;
 import java.util.Arrays;
 
@@ -10,20 +20,55 @@ import java.util.Arrays;
  *
  * <p>암호화 결과를 항상 {@code [IV(or nonce) || ciphertext]} 형식으로 맞춰서 반환하고,
  * 복호화 시에는 같은 형식을 역으로 분해해 모드에 전달합니다.</p>
+ *
+ * <p>압축 단계({@link DeflateStage})를 주면 평문 앞에 flag 1바이트를 붙여 {@code [flag || body]}를 암호화하고,
+ * flag가 {@link DeflateStage#DEFLATED}이면 body가 압축된 평문입니다. 형식은 그대로 {@code [IV || ciphertext]}이며,
+ * flag도 암호문 안에 있으므로 GCM에서는 본문과 함께 인증됩니다.</p>
+ *
+ * <p>공개 메서드 호출마다 {@link ServiceCallEvent}(JFR)를 기록합니다.</p>
  */
 public final class ModeCipherService {
+    /** 가드가 재사용을 감지했을 때 IV를 다시 뽑는 최대 횟수. */
+    private static final int MAX_IV_ATTEMPTS = 3;
+
     /** 실제 암복호화를 수행할 모드 구현체. */
     private final ModeOfOperation mode;
 
     /** IV/nonce 생성을 위한 난수기. */
     private final SecureRandom random;
 
+    /** 생성한 IV의 재사용을 검사할 가드(선택). */
+    private final NonceReuseGuard guard;
+
+    /** 암호화 전 압축 단계(선택). 있으면 평문 앞에 flag 1바이트를 붙여 암호화합니다. */
+    private final DeflateStage compression;
+
     /**
      * @param mode 사용할 모드 구현체
      */
     public ModeCipherService(ModeOfOperation mode) {
+        this(mode, null);
+    }
+
+    /**
+     * @param mode 사용할 모드 구현체
+     * @param guard 이 키 전용 nonce 재사용 가드(null이면 검사하지 않음).
+     *              모드 자체에도 가드가 있으면 같은 IV를 두 번 기록하므로 한쪽에만 둡니다.
+     */
+    public ModeCipherService(ModeOfOperation mode, NonceReuseGuard guard) {
+        this(mode, guard, null);
+    }
+
+    /**
+     * @param mode 사용할 모드 구현체
+     * @param guard 이 키 전용 nonce 재사용 가드(null이면 검사하지 않음)
+     * @param compression 암호화 전 압축 단계(null이면 압축하지 않고 flag도 쓰지 않음)
+     */
+    public ModeCipherService(ModeOfOperation mode, NonceReuseGuard guard, DeflateStage compression) {
         this.mode = mode;
         this.random = new SecureRandom();
+        this.guard = guard;
+        this.compression = compression;
     }
 
     /**
@@ -31,18 +76,23 @@ public final class ModeCipherService {
      *
      * <p>처리 순서</p>
      * <p>1. 모드가 요구하는 IV 길이 조회</p>
-     * <p>2. 해당 길이만큼 난수 IV 생성(ECB는 0길이)</p>
-     * <p>3. 모드 암호화 수행</p>
-     * <p>4. {@code [IV || ciphertext]}로 결합해 반환</p>
+     * <p>2. 해당 길이만큼 난수 IV 생성(ECB는 0길이, 가드가 있으면 재사용 검사)</p>
+     * <p>3. 압축 단계가 있으면 표본 검사 후 압축(효과가 없으면 원문 그대로)하고 앞에 flag를 붙임</p>
+     * <p>4. 모드 암호화 수행</p>
+     * <p>5. {@code [IV || ciphertext]}로 결합해 반환</p>
      */
     public byte[] encryptWithHeader(byte[] plaintext) {
-        int ivLength = mode.ivLength();
-        byte[] iv = new byte[ivLength];
-        if (ivLength > 0) {
-            random.nextBytes(iv);
-        }
-        byte[] ciphertext = mode.encrypt(plaintext, iv);
-        return Bytes.concat(iv, ciphertext);
+        ServiceCallEvent event = new ServiceCallEvent();
+        event.begin();
+        byte[] packed = encryptArray(plaintext);
+        commit(event, "encrypt", plaintext.length, false);
+        return packed;
+    }
+
+    private byte[] encryptArray(byte[] plaintext) {
+        byte[] body = encodeBody(plaintext);
+        byte[] iv = newIv();
+        return Bytes.concat(iv, mode.encrypt(body, iv));
     }
 
     /**
@@ -52,14 +102,187 @@ public final class ModeCipherService {
      * <p>1. 앞부분 IV를 분리</p>
      * <p>2. 나머지 암호문 분리</p>
      * <p>3. 모드 복호화 호출</p>
+     * <p>4. 압축 단계가 있으면 평문 첫 바이트(flag)를 떼고, {@link DeflateStage#DEFLATED}이면 압축 해제</p>
      */
     public byte[] decryptWithHeader(byte[] ivAndCiphertext) {
+        ServiceCallEvent event = new ServiceCallEvent();
+        event.begin();
+        byte[] plaintext = decryptArray(ivAndCiphertext);
+        commit(event, "decrypt", ivAndCiphertext.length, false);
+        return plaintext;
+    }
+
+    private byte[] decryptArray(byte[] ivAndCiphertext) {
         int ivLength = mode.ivLength();
         if (ivAndCiphertext.length < ivLength) {
             throw new IllegalArgumentException("input is too short");
         }
         byte[] iv = Arrays.copyOfRange(ivAndCiphertext, 0, ivLength);
         byte[] ciphertext = Arrays.copyOfRange(ivAndCiphertext, ivLength, ivAndCiphertext.length);
-        return mode.decrypt(ciphertext, iv);
+        return decodeBody(mode.decrypt(ciphertext, iv));
+    }
+
+    /**
+     * {@link #encryptWithHeader(byte[])}와 같은 결과를 풀에서 빌린 버퍼에 씁니다.
+     *
+     * <p>처리 순서</p>
+     * <p>1. 난수 IV 생성(가드가 있으면 재사용 검사)과 선택적 압축</p>
+     * <p>2. {@code IV + 최대 출력 길이}({@link ModeOfOperation#maxOutputLength}) 크기의 버퍼를 풀에서 빌려 IV를 씀</p>
+     * <p>3. 모드의 버퍼 출력 경로로 IV 바로 뒤에 암호문을 씀</p>
+     *
+     * <p>암호화는 항상 모드 구현체를 거치므로 모드에 설정된 가드, CTR counter 배치, ECB 블록 캐시 등이
+     * 그대로 적용됩니다. 힙 버퍼 풀이면 ECB/CBC/CTR/GCM은 암호문 배열도 {@code [IV || ciphertext]} 결합 사본도 만들지 않습니다.
+     * 결과는 {@code [0, limit)} 구간이며, 사용 후 호출자가 반납해야 합니다.</p>
+     */
+    public PooledBuffer encryptWithHeader(byte[] plaintext, BufferPool pool) {
+        ServiceCallEvent event = new ServiceCallEvent();
+        event.begin();
+        PooledBuffer pooled = encryptPooled(plaintext, pool);
+        commit(event, "encrypt", plaintext.length, true);
+        return pooled;
+    }
+
+    private PooledBuffer encryptPooled(byte[] plaintext, BufferPool pool) {
+        byte[] body = encodeBody(plaintext);
+        byte[] iv = newIv();
+        PooledBuffer pooled = pool.acquire(iv.length + mode.maxOutputLength(body.length, true));
+        try {
+            ByteBuffer out = pooled.buffer();
+            out.put(iv);
+            mode.encrypt(body, 0, body.length, iv, out);
+            out.flip();
+            return pooled;
+        } catch (RuntimeException e) {
+            pooled.release();
+            throw e;
+        }
+    }
+
+    /**
+     * {@link #decryptWithHeader(byte[])}와 같은 결과를 풀에서 빌린 버퍼에 씁니다.
+     *
+     * <p>입력에서 암호문을 복사해 분리하지 않고 위치로 나눠 모드의 버퍼 출력 경로로 바로 복호화합니다.
+     * 압축 단계가 있으면 flag 확인과 압축 해제를 위해 배열 경로 결과를 버퍼로 복사합니다.
+     * 결과는 {@code [0, limit)} 구간이며, 사용 후 호출자가 반납해야 합니다.</p>
+     */
+    public PooledBuffer decryptWithHeader(byte[] ivAndCiphertext, BufferPool pool) {
+        ServiceCallEvent event = new ServiceCallEvent();
+        event.begin();
+        PooledBuffer pooled = decryptPooled(ivAndCiphertext, pool);
+        commit(event, "decrypt", ivAndCiphertext.length, true);
+        return pooled;
+    }
+
+    private PooledBuffer decryptPooled(byte[] ivAndCiphertext, BufferPool pool) {
+        if (compression != null) {
+            byte[] plaintext = decryptArray(ivAndCiphertext);
+            PooledBuffer pooled = pool.acquire(plaintext.length);
+            pooled.buffer().put(plaintext).flip();
+            Arrays.fill(plaintext, (byte) 0);
+            return pooled;
+        }
+        int ivLength = mode.ivLength();
+        if (ivAndCiphertext.length < ivLength) {
+            throw new IllegalArgumentException("input is too short");
+        }
+        byte[] iv = Arrays.copyOfRange(ivAndCiphertext, 0, ivLength);
+        int cipherLength = ivAndCiphertext.length - ivLength;
+        PooledBuffer pooled = pool.acquire(mode.maxOutputLength(cipherLength, false));
+        try {
+            ByteBuffer out = pooled.buffer();
+            mode.decrypt(ivAndCiphertext, ivLength, cipherLength, iv, out);
+            out.flip();
+            return pooled;
+        } catch (RuntimeException e) {
+            pooled.release();
+            throw e;
+        }
+    }
+
+    /**
+     * 이벤트가 켜져 있을 때만 필드를 채워 커밋합니다(임계값/샘플링 판단은 {@code commit()}이 합니다).
+     */
+    private void commit(ServiceCallEvent event, String operation, int length, boolean pooled) {
+        event.end();
+        if (event.isEnabled()) {
+            BlockCipher cipher = mode.blockCipher();
+            event.mode = mode.type().name();
+            event.operation = operation;
+            event.keyBits = cipher == null ? 0 : cipher.keySizeBits();
+            event.bytes = length;
+            event.pooled = pooled;
+            event.commit();
+        }
+    }
+
+    /**
+     * 압축 단계가 있으면 압축(효과가 없으면 원문)한 본문 앞에 flag를 붙입니다.
+     */
+    private byte[] encodeBody(byte[] plaintext) {
+        if (compression == null) {
+            return plaintext;
+        }
+        byte[] deflated = compression.compressIfWorthwhile(plaintext);
+        byte[] body = deflated == null ? plaintext : deflated;
+        byte[] flagged = new byte[1 + body.length];
+        flagged[0] = deflated == null ? DeflateStage.STORED : DeflateStage.DEFLATED;
+        System.arraycopy(body, 0, flagged, 1, body.length);
+        return flagged;
+    }
+
+    /**
+     * 복호화한 {@code [flag || body]}에서 flag를 떼고 필요하면 압축을 해제합니다.
+     */
+    private byte[] decodeBody(byte[] decrypted) {
+        if (compression == null) {
+            return decrypted;
+        }
+        if (decrypted.length == 0) {
+            throw new IllegalArgumentException("input is too short");
+        }
+        byte flag = decrypted[0];
+        if (flag != DeflateStage.STORED && flag != DeflateStage.DEFLATED) {
+            throw new IllegalArgumentException("unknown compression flag: " + flag);
+        }
+        if (flag == DeflateStage.DEFLATED) {
+            return compression.decompress(decrypted, 1, decrypted.length - 1);
+        }
+        return Arrays.copyOfRange(decrypted, 1, decrypted.length);
+    }
+
+    /**
+     * 난수 IV를 만듭니다.
+     *
+     * <p>nonce/counter를 나누는 CTR 배치({@link CounterLayout})는 nonce 부분만 난수로 채우고 counter 부분은 0에서
+     * 시작합니다. counter까지 난수로 두면 큰 메시지가 counter 영역 끝을 넘어 무작위로 거부됩니다.</p>
+     *
+     * <p>가드가 재사용(또는 Bloom filter 오탐)을 감지하면 IV를 다시 뽑습니다.
+     * {@code MAX_IV_ATTEMPTS}번 모두 감지되면 REJECT 정책은 예외를 던지고, FLAG 정책은 마지막 IV를 사용합니다.</p>
+     */
+    private byte[] newIv() {
+        byte[] iv = new byte[mode.ivLength()];
+        if (iv.length == 0) {
+            return iv;
+        }
+        int counterBytes = 0;
+        if (mode instanceof CTRMode && ((CTRMode) mode).layout() != CounterLayout.FULL_128) {
+            counterBytes = ((CTRMode) mode).layout().counterBits() / 8;
+        }
+        for (int attempt = 1; ; attempt++) {
+            random.nextBytes(iv);
+            Arrays.fill(iv, iv.length - counterBytes, iv.length, (byte) 0);
+            if (guard == null) {
+                return iv;
+            }
+            try {
+                if (guard.checkAndRecord(iv) || attempt == MAX_IV_ATTEMPTS) {
+                    return iv;
+                }
+            } catch (CryptoException e) {
+                if (attempt == MAX_IV_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
     }
 }
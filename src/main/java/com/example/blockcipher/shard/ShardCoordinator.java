@@ -0,0 +1,652 @@
+package com.example.blockcipher.shard;
+
+import com.example.blockcipher.core.AesBlockCipher;
+import com.example.blockcipher.core.BlockCipher;
+import com.example.blockcipher.util.Hex;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.zip.CRC32C;
+
+/**
+ * 큰 파일의 CTR 암복호화를 로컬 작업자 JVM 여러 개에 나눠 맡기는 조정자입니다.
+ *
+ * <p>CTR은 블록 {@code j}의 counter가 {@code IV + j}로 정해지므로 파일을 {@code shardSize} 단위로 잘라
+ * 서로 독립적으로 처리할 수 있습니다. 출력은 입력과 같은 길이의 원시 CTR 암호문({@code LargeFileCipher}와 같음)이고,
+ * 작업자가 같은 위치에 직접 쓰므로 순서대로 조립하는 단계가 따로 없습니다.</p>
+ *
+ * <p>처리 순서</p>
+ * <p>1. loopback 서버 소켓을 열고 작업자 JVM {@code workers}개를 띄움(토큰은 환경 변수, 키는 소켓으로만 전달)</p>
+ * <p>2. shard를 작업자 수만큼 연속 구간으로 나눠 작업자별 deque에 넣음</p>
+ * <p>3. 작업자마다 연결 스레드 하나가 설정(경로/키/IV)을 보내고 준비 응답을 받은 뒤,
+ * 재시도 큐 -> 자기 deque 앞 -> 가장 긴 다른 deque 뒤(work stealing) 순서로 꺼내 할당</p>
+ * <p>4. 결과를 받으면 출력 구간을 다시 읽어 CRC32C를 비교하고, 마지막 블록 하나를 직접 계산해 키/counter를 확인</p>
+ * <p>5. 작업자 오류, 연결 끊김(프로세스 종료), 검증 실패는 그 shard를 재시도 큐에 넣음({@code maxAttempts}회까지).
+ * 설정 단계에서 끊긴 작업자는 shard를 하나도 받지 않은 채 잃은 작업자로 처리하고, 그 deque는 다른 작업자가 가져감</p>
+ * <p>6. shard 하나의 결과를 {@code shardTimeoutMillis} 안에 받지 못하면 그 작업자를 강제 종료하고 끊긴 작업자와 같이 처리</p>
+ *
+ * <p>죽은 작업자는 다시 띄우지 않고 남은 작업자가 그 몫을 가져갑니다. 모든 작업자가 죽거나 한 shard가
+ * {@code maxAttempts}번 실패하면 {@link IOException}으로 끝나며, 출력 파일은 불완전한 상태로 남습니다.</p>
+ */
+public final class ShardCoordinator {
+    /** 기본 shard 크기(64 MiB). */
+    public static final int DEFAULT_SHARD_SIZE = 64 * 1024 * 1024;
+
+    /** 기본 shard당 최대 시도 횟수. */
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+    /** 기본 shard 하나의 결과를 기다리는 최대 시간(5분). */
+    public static final int DEFAULT_SHARD_TIMEOUT_MILLIS = 5 * 60 * 1000;
+
+    /** 작업자 JVM이 접속하기까지 기다리는 시간. */
+    private static final int CONNECT_TIMEOUT_MILLIS = 30_000;
+
+    private static final int BLOCK_SIZE = 16;
+
+    private final int workers;
+    private final int shardSize;
+    private final int maxAttempts;
+    private final int shardTimeoutMillis;
+    private final Class<?> workerMain;
+    private final IntFunction<List<String>> workerJvmArgs;
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * @param workers 작업자 JVM 수
+     * @param shardSize shard 크기(16의 배수, {@link ShardWorker#IO_CHUNK} 이상 권장)
+     * @param maxAttempts shard당 최대 시도 횟수
+     */
+    public ShardCoordinator(int workers, int shardSize, int maxAttempts) {
+        this(workers, shardSize, maxAttempts, DEFAULT_SHARD_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * @param shardTimeoutMillis shard 하나의 결과를 기다리는 최대 시간(넘기면 작업자를 잃은 것으로 처리)
+     */
+    public ShardCoordinator(int workers, int shardSize, int maxAttempts, int shardTimeoutMillis) {
+        this(workers, shardSize, maxAttempts, shardTimeoutMillis, ShardWorker.class, id -> List.of());
+    }
+
+    /**
+     * @param workerMain 작업자 JVM에서 실행할 {@code main} 클래스({@link ShardWorker}와 같은 프로토콜)
+     * @param workerJvmArgs 작업자 번호별 추가 JVM 인자(힙 크기 등)
+     */
+    ShardCoordinator(
+        int workers,
+        int shardSize,
+        int maxAttempts,
+        int shardTimeoutMillis,
+        Class<?> workerMain,
+        IntFunction<List<String>> workerJvmArgs
+    ) {
+        if (workers <= 0 || maxAttempts <= 0 || shardTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("workers, maxAttempts and shardTimeoutMillis must be positive");
+        }
+        if (shardSize <= 0 || shardSize % BLOCK_SIZE != 0) {
+            throw new IllegalArgumentException("shardSize must be a positive multiple of " + BLOCK_SIZE);
+        }
+        this.workers = workers;
+        this.shardSize = shardSize;
+        this.maxAttempts = maxAttempts;
+        this.shardTimeoutMillis = shardTimeoutMillis;
+        this.workerMain = Objects.requireNonNull(workerMain, "workerMain must not be null");
+        this.workerJvmArgs = Objects.requireNonNull(workerJvmArgs, "workerJvmArgs must not be null");
+    }
+
+    /**
+     * 파일 전체를 CTR로 암호화합니다.
+     *
+     * @param key AES 키(16/24/32바이트)
+     * @param iv 초기 counter 블록(16바이트)
+     */
+    public ShardReport encryptCtr(Path source, Path target, byte[] key, byte[] iv) throws IOException {
+        return run(source, target, key, iv);
+    }
+
+    /**
+     * CTR 암호문 파일 전체를 복호화합니다(CTR은 암호화와 같은 연산).
+     */
+    public ShardReport decryptCtr(Path source, Path target, byte[] key, byte[] iv) throws IOException {
+        return run(source, target, key, iv);
+    }
+
+    private ShardReport run(Path source, Path target, byte[] key, byte[] iv) throws IOException {
+        if (iv == null || iv.length != BLOCK_SIZE) {
+            throw new IllegalArgumentException("iv must be exactly " + BLOCK_SIZE + " bytes");
+        }
+        BlockCipher cipher = new AesBlockCipher(key);
+        long start = System.nanoTime();
+        long size = Files.size(source);
+        prepareTarget(target, size);
+        List<Shard> shards = plan(size);
+        if (shards.isEmpty()) {
+            return new ShardReport(0, 0, 0, 0, new int[workers], System.nanoTime() - start);
+        }
+        WorkQueues queues = new WorkQueues(shards, workers, maxAttempts);
+        String token = newToken();
+
+        List<Process> processes = new ArrayList<>();
+        List<WorkerLink> links = new ArrayList<>();
+        try (ServerSocket server = new ServerSocket(0, workers, InetAddress.getLoopbackAddress())) {
+            for (int id = 0; id < workers; id++) {
+                processes.add(spawn(id, server.getLocalPort(), token));
+            }
+            links.addAll(acceptWorkers(server, token));
+            Thread[] drivers = new Thread[workers];
+            for (WorkerLink link : links) {
+                Process process = processes.get(link.id);
+                drivers[link.id] = new Thread(
+                    () -> drive(link, process, queues, cipher, source, target, key, iv),
+                    "shard-link-" + link.id
+                );
+                drivers[link.id].start();
+            }
+            for (Thread driver : drivers) {
+                join(driver);
+            }
+        } finally {
+            for (WorkerLink link : links) {
+                link.shutdown();
+            }
+            for (Process process : processes) {
+                stop(process);
+            }
+        }
+        String failure = queues.failure();
+        if (failure != null) {
+            throw new IOException(failure);
+        }
+        return new ShardReport(size, shards.size(), queues.retries, queues.steals, queues.completedBy, System.nanoTime() - start);
+    }
+
+    /**
+     * 작업자 하나를 맡는 연결 스레드 본문입니다.
+     *
+     * <p>설정도 이 스레드에서 보내므로, 한 작업자의 설정 실패는 그 작업자만 잃은 것으로 끝나고
+     * 다른 작업자와 조정자 스레드는 계속 진행합니다.</p>
+     */
+    private void drive(
+        WorkerLink link,
+        Process process,
+        WorkQueues queues,
+        BlockCipher cipher,
+        Path source,
+        Path target,
+        byte[] key,
+        byte[] iv
+    ) {
+        try {
+            link.setup(source, target, key, iv);
+        } catch (IOException e) {
+            link.close();
+            kill(process);
+            queues.workerLost();
+            return;
+        }
+        try (
+            FileChannel sourceChannel = FileChannel.open(source, StandardOpenOption.READ);
+            FileChannel targetChannel = FileChannel.open(target, StandardOpenOption.READ)
+        ) {
+            Shard shard;
+            while ((shard = queues.take(link.id)) != null) {
+                int reportedCrc;
+                try {
+                    reportedCrc = link.process(shard);
+                } catch (ShardFailedException e) {
+                    queues.retry(shard, "worker " + link.id + ": " + e.getMessage());
+                    continue;
+                } catch (IOException e) {
+                    // 시간 초과로 끊은 작업자가 뒤늦게 같은 구간에 쓰지 않도록 프로세스가 끝난 뒤에 재시도합니다.
+                    link.close();
+                    kill(process);
+                    queues.retry(shard, "worker " + link.id + " lost: " + e);
+                    queues.workerLost();
+                    return;
+                }
+                String problem = verify(shard, reportedCrc, cipher, iv, sourceChannel, targetChannel);
+                if (problem == null) {
+                    queues.complete(shard, link.id);
+                } else {
+                    queues.retry(shard, "worker " + link.id + ": " + problem);
+                }
+            }
+        } catch (IOException e) {
+            queues.fail("coordinator I/O error: " + e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queues.fail("coordinator interrupted");
+        }
+    }
+
+    /**
+     * 작업자가 쓴 구간을 검증합니다. 문제가 없으면 null을 반환합니다.
+     *
+     * <p>1. 출력 구간 전체의 CRC32C를 다시 계산해 보고값과 비교(쓰기 누락/손상)</p>
+     * <p>2. 마지막 블록의 keystream을 직접 계산해 {@code P xor C}와 비교(다른 키/counter 사용)</p>
+     */
+    private static String verify(
+        Shard shard,
+        int reportedCrc,
+        BlockCipher cipher,
+        byte[] iv,
+        FileChannel source,
+        FileChannel target
+    ) throws IOException {
+        CRC32C crc = new CRC32C();
+        ByteBuffer buffer = ByteBuffer.allocate(Math.min(ShardWorker.IO_CHUNK, shard.length));
+        for (long done = 0; done < shard.length; ) {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), shard.length - done));
+            ShardWorker.readFully(target, buffer, shard.offset + done);
+            buffer.flip();
+            crc.update(buffer);
+            done += buffer.limit();
+        }
+        if ((int) crc.getValue() != reportedCrc) {
+            return "checksum mismatch for shard " + shard.id;
+        }
+        long lastBlock = (shard.offset + shard.length - 1) / BLOCK_SIZE;
+        int sampleLength = (int) Math.min(BLOCK_SIZE, shard.offset + shard.length - lastBlock * BLOCK_SIZE);
+        ByteBuffer plain = ByteBuffer.allocate(sampleLength);
+        ByteBuffer sealed = ByteBuffer.allocate(sampleLength);
+        ShardWorker.readFully(source, plain, lastBlock * BLOCK_SIZE);
+        ShardWorker.readFully(target, sealed, lastBlock * BLOCK_SIZE);
+        byte[] keystream = cipher.encryptBlock(ShardWorker.counterAt(iv, lastBlock));
+        for (int i = 0; i < sampleLength; i++) {
+            if ((plain.get(i) ^ keystream[i]) != sealed.get(i)) {
+                return "keystream mismatch for shard " + shard.id;
+            }
+        }
+        return null;
+    }
+
+    private List<Shard> plan(long size) {
+        List<Shard> shards = new ArrayList<>();
+        for (long offset = 0; offset < size; offset += shardSize) {
+            shards.add(new Shard(shards.size(), offset, (int) Math.min(shardSize, size - offset)));
+        }
+        return shards;
+    }
+
+    /**
+     * 출력 파일을 입력과 같은 크기로 만듭니다(작업자는 위치 기반으로 덮어씀).
+     */
+    private static void prepareTarget(Path target, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(
+            target,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE
+        )) {
+            if (size > 0) {
+                channel.write(ByteBuffer.allocate(1), size - 1);
+            }
+        }
+    }
+
+    private Process spawn(int id, int port, String token) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(workerJvmArgs.apply(id));
+        command.add("-cp");
+        command.add(workerClassPath());
+        command.add(workerMain.getName());
+        command.add(InetAddress.getLoopbackAddress().getHostAddress());
+        command.add(Integer.toString(port));
+        command.add(Integer.toString(id));
+        ProcessBuilder builder = new ProcessBuilder(command)
+            .redirectOutput(ProcessBuilder.Redirect.INHERIT)
+            .redirectError(ProcessBuilder.Redirect.INHERIT);
+        builder.environment().put(ShardProtocol.TOKEN_ENV, token);
+        return builder.start();
+    }
+
+    /**
+     * 작업자는 이 라이브러리 클래스만 쓰므로, 이 클래스가 있는 디렉터리/JAR를 클래스패스로 씁니다.
+     * 진입점 클래스가 다른 위치에 있으면(테스트 작업자) 그 위치를 앞에 붙입니다.
+     */
+    private String workerClassPath() {
+        try {
+            String library = codeSource(ShardWorker.class);
+            String main = codeSource(workerMain);
+            return main.equals(library) ? library : main + File.pathSeparator + library;
+        } catch (URISyntaxException e) {
+            return System.getProperty("java.class.path");
+        }
+    }
+
+    private static String codeSource(Class<?> type) throws URISyntaxException {
+        return Path.of(type.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+    }
+
+    /**
+     * 작업자 접속을 받습니다. 토큰이 틀리거나 번호가 중복된 접속은 닫고 계속 기다립니다.
+     */
+    private List<WorkerLink> acceptWorkers(ServerSocket server, String token) throws IOException {
+        WorkerLink[] byId = new WorkerLink[workers];
+        int connected = 0;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(CONNECT_TIMEOUT_MILLIS);
+        List<WorkerLink> links = new ArrayList<>();
+        try {
+            while (connected < workers) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    throw new SocketTimeoutException(connected + " of " + workers + " workers connected");
+                }
+                server.setSoTimeout((int) remaining);
+                Socket socket = server.accept();
+                socket.setSoTimeout((int) remaining);
+                WorkerLink link;
+                try {
+                    link = WorkerLink.handshake(socket, token);
+                } catch (IOException e) {
+                    socket.close();
+                    continue;
+                }
+                if (link.id < 0 || link.id >= workers || byId[link.id] != null) {
+                    socket.close();
+                    continue;
+                }
+                // 이후 읽기는 shard 결과 대기뿐이므로 읽기 시간 제한이 곧 shard당 제한입니다.
+                socket.setSoTimeout(shardTimeoutMillis);
+                byId[link.id] = link;
+                links.add(link);
+                connected++;
+            }
+            return links;
+        } catch (IOException e) {
+            for (WorkerLink link : links) {
+                link.shutdown();
+            }
+            throw e;
+        }
+    }
+
+    private String newToken() {
+        byte[] bytes = new byte[16];
+        random.nextBytes(bytes);
+        return Hex.encode(bytes);
+    }
+
+    private static void join(Thread thread) {
+        if (thread == null) {
+            return;
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 작업자를 강제 종료하고 끝날 때까지 기다립니다.
+     */
+    private static void kill(Process process) {
+        process.destroyForcibly();
+        try {
+            process.waitFor(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void stop(Process process) {
+        try {
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 파일의 {@code [offset, offset + length)} 구간 하나. {@code attempts}는 {@link WorkQueues} 잠금 안에서만 씁니다.
+     */
+    private static final class Shard {
+        final int id;
+        final long offset;
+        final int length;
+        int attempts;
+
+        Shard(int id, long offset, int length) {
+            this.id = id;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    /**
+     * 작업자별 deque와 재시도 큐. shard가 수십 MiB 단위라 잠금 하나로 충분합니다.
+     */
+    private static final class WorkQueues {
+        private final List<ArrayDeque<Shard>> local;
+        private final ArrayDeque<Shard> retryQueue = new ArrayDeque<>();
+        private final int maxAttempts;
+        private final int[] completedBy;
+        private int remaining;
+        private int liveWorkers;
+        private int retries;
+        private int steals;
+        private String failure;
+
+        WorkQueues(List<Shard> shards, int workers, int maxAttempts) {
+            this.local = new ArrayList<>(workers);
+            this.maxAttempts = maxAttempts;
+            this.completedBy = new int[workers];
+            this.remaining = shards.size();
+            this.liveWorkers = workers;
+            for (int i = 0; i < workers; i++) {
+                local.add(new ArrayDeque<>());
+            }
+            // 연속 구간으로 나눠 작업자마다 파일을 순서대로 읽게 합니다.
+            for (int i = 0; i < shards.size(); i++) {
+                local.get((int) ((long) i * workers / shards.size())).addLast(shards.get(i));
+            }
+        }
+
+        /**
+         * 다음 shard를 꺼냅니다. 모두 끝났거나 작업이 실패했으면 null을 반환합니다.
+         *
+         * <p>꺼낼 것이 없어도 다른 작업자가 처리 중인 shard가 실패해 돌아올 수 있으므로 끝날 때까지 기다립니다.</p>
+         */
+        synchronized Shard take(int worker) throws InterruptedException {
+            while (true) {
+                if (failure != null || remaining == 0) {
+                    return null;
+                }
+                Shard shard = retryQueue.pollFirst();
+                if (shard == null) {
+                    shard = local.get(worker).pollFirst();
+                }
+                if (shard == null) {
+                    shard = steal(worker);
+                }
+                if (shard != null) {
+                    return shard;
+                }
+                wait();
+            }
+        }
+
+        /**
+         * 가장 많이 남은 다른 작업자 deque의 뒤쪽(그 작업자가 가장 나중에 처리할 shard)을 가져옵니다.
+         */
+        private Shard steal(int worker) {
+            ArrayDeque<Shard> victim = null;
+            for (int i = 0; i < local.size(); i++) {
+                if (i != worker && (victim == null || local.get(i).size() > victim.size())) {
+                    victim = local.get(i);
+                }
+            }
+            if (victim == null || victim.isEmpty()) {
+                return null;
+            }
+            steals++;
+            return victim.pollLast();
+        }
+
+        synchronized void complete(Shard shard, int worker) {
+            remaining--;
+            completedBy[worker]++;
+            if (remaining == 0) {
+                notifyAll();
+            }
+        }
+
+        synchronized void retry(Shard shard, String reason) {
+            shard.attempts++;
+            retries++;
+            if (shard.attempts >= maxAttempts) {
+                fail("shard " + shard.id + " failed " + shard.attempts + " times, last: " + reason);
+                return;
+            }
+            retryQueue.addLast(shard);
+            notifyAll();
+        }
+
+        synchronized void workerLost() {
+            liveWorkers--;
+            if (liveWorkers == 0 && remaining > 0) {
+                fail("all workers failed with " + remaining + " shards remaining");
+            }
+        }
+
+        synchronized void fail(String reason) {
+            if (failure == null) {
+                failure = reason;
+            }
+            notifyAll();
+        }
+
+        synchronized String failure() {
+            return failure;
+        }
+    }
+
+    /**
+     * 작업자가 FAILED로 응답한 경우(연결은 유지).
+     */
+    private static final class ShardFailedException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        ShardFailedException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * 작업자 JVM 하나와의 소켓 연결.
+     */
+    private static final class WorkerLink implements Closeable {
+        final int id;
+        private final Socket socket;
+        private final DataInputStream in;
+        private final DataOutputStream out;
+
+        private WorkerLink(int id, Socket socket, DataInputStream in, DataOutputStream out) {
+            this.id = id;
+            this.socket = socket;
+            this.in = in;
+            this.out = out;
+        }
+
+        static WorkerLink handshake(Socket socket, String token) throws IOException {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            if (in.readByte() != ShardProtocol.HELLO) {
+                throw new IOException("expected HELLO");
+            }
+            byte[] presented = in.readUTF().getBytes(StandardCharsets.UTF_8);
+            if (!MessageDigest.isEqual(presented, token.getBytes(StandardCharsets.UTF_8))) {
+                throw new IOException("invalid worker token");
+            }
+            return new WorkerLink(in.readInt(), socket, in, out);
+        }
+
+        void setup(Path source, Path target, byte[] key, byte[] iv) throws IOException {
+            out.writeByte(ShardProtocol.SETUP);
+            out.writeUTF(source.toAbsolutePath().toString());
+            out.writeUTF(target.toAbsolutePath().toString());
+            out.writeInt(key.length);
+            out.write(key);
+            out.writeInt(iv.length);
+            out.write(iv);
+            out.flush();
+            byte type = in.readByte();
+            if (type != ShardProtocol.READY) {
+                throw new IOException("unexpected message type " + type + ", expected READY");
+            }
+        }
+
+        /**
+         * shard를 할당하고 결과를 기다려 보고된 CRC32C를 반환합니다.
+         */
+        int process(Shard shard) throws IOException, ShardFailedException {
+            out.writeByte(ShardProtocol.ASSIGN);
+            out.writeInt(shard.id);
+            out.writeLong(shard.offset);
+            out.writeInt(shard.length);
+            out.flush();
+            byte type = in.readByte();
+            int shardId = in.readInt();
+            if (shardId != shard.id) {
+                throw new IOException("result for shard " + shardId + ", expected " + shard.id);
+            }
+            if (type == ShardProtocol.DONE) {
+                return in.readInt();
+            }
+            if (type == ShardProtocol.FAILED) {
+                throw new ShardFailedException(in.readUTF());
+            }
+            throw new IOException("unexpected message type " + type);
+        }
+
+        /**
+         * 살아 있으면 종료를 알리고 소켓을 닫습니다.
+         */
+        void shutdown() {
+            try {
+                out.writeByte(ShardProtocol.SHUTDOWN);
+                out.flush();
+            } catch (IOException ignored) {
+                // 이미 끊긴 작업자입니다.
+            }
+            close();
+        }
+
+        @Override
+        public void close() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // 종료 중 오류는 무시합니다.
+            }
+        }
+    }
+}
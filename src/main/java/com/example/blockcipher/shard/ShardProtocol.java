@@ -0,0 +1,30 @@
+package com.example.blockcipher.shard;
+
+/**
+ * 조정자와 작업자 JVM 사이 loopback 소켓 메시지 형식입니다({@code DataOutputStream} 빅엔디언).
+ *
+ * <p>1. 작업자 -> 조정자: {@code HELLO(token UTF, workerId int)}</p>
+ * <p>2. 조정자 -> 작업자: {@code SETUP(source UTF, target UTF, key, iv)} (배열은 {@code int 길이 || 바이트})</p>
+ * <p>3. 작업자 -> 조정자: {@code READY} (두 파일을 연 뒤)</p>
+ * <p>4. 조정자 -> 작업자: {@code ASSIGN(shardId int, offset long, length int)}</p>
+ * <p>5. 작업자 -> 조정자: {@code DONE(shardId int, crc32c int)} 또는 {@code FAILED(shardId int, message UTF)}</p>
+ * <p>6. 조정자 -> 작업자: {@code SHUTDOWN}</p>
+ *
+ * <p>키는 명령줄 인자가 아니라 이 소켓으로만 전달합니다. 토큰은 환경 변수로 넘겨 같은 호스트의
+ * 다른 프로세스가 포트에 먼저 붙어 키를 받아 가지 못하게 합니다.</p>
+ */
+final class ShardProtocol {
+    static final byte HELLO = 1;
+    static final byte SETUP = 2;
+    static final byte ASSIGN = 3;
+    static final byte DONE = 4;
+    static final byte FAILED = 5;
+    static final byte SHUTDOWN = 6;
+    static final byte READY = 7;
+
+    /** 작업자에게 접속 토큰을 넘기는 환경 변수. */
+    static final String TOKEN_ENV = "BLOCKCIPHER_SHARD_TOKEN";
+
+    private ShardProtocol() {
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.blockcipher.shard;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * 분산 작업 한 번의 결과 요약입니다.
+ *
+ * <p>작업자별 shard 수가 고르면 분배가 잘 된 것이고, {@code steals}가 많으면 처음 나눈 몫의 처리 속도가
+ * 작업자마다 달랐다는 뜻입니다. {@code retries}는 작업자 실패나 검증 실패로 다시 할당한 횟수입니다.</p>
+ */
+public final class ShardReport {
+    private final long bytes;
+    private final int shards;
+    private final int retries;
+    private final int steals;
+    private final int[] shardsPerWorker;
+    private final long wallNanos;
+
+    ShardReport(long bytes, int shards, int retries, int steals, int[] shardsPerWorker, long wallNanos) {
+        this.bytes = bytes;
+        this.shards = shards;
+        this.retries = retries;
+        this.steals = steals;
+        this.shardsPerWorker = shardsPerWorker.clone();
+        this.wallNanos = wallNanos;
+    }
+
+    public long bytes() {
+        return bytes;
+    }
+
+    public int shards() {
+        return shards;
+    }
+
+    public int retries() {
+        return retries;
+    }
+
+    public int steals() {
+        return steals;
+    }
+
+    /**
+     * 작업자 번호별로 완료(검증 통과)한 shard 수.
+     */
+    public int[] shardsPerWorker() {
+        return shardsPerWorker.clone();
+    }
+
+    public long wallNanos() {
+        return wallNanos;
+    }
+
+    /**
+     * 처리량(MB/s, 1 MB = 10^6 바이트). 작업자 JVM 기동 시간을 포함합니다.
+     */
+    public double megabytesPerSecond() {
+        return wallNanos == 0 ? 0 : (bytes / 1e6) / (wallNanos / 1e9);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            Locale.ROOT,
+            "%.1f MB in %.3f s = %.1f MB/s | shards %d, retries %d, steals %d, per worker %s",
+            bytes / 1e6,
+            wallNanos / 1e9,
+            megabytesPerSecond(),
+            shards,
+            retries,
+            steals,
+            Arrays.toString(shardsPerWorker)
+        );
+    }
+}
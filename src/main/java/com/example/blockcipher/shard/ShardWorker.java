@@ -0,0 +1,218 @@
+package com.example.blockcipher.shard;
+
+import com.example.blockcipher.core.AesBlockCipher;
+import com.example.blockcipher.factory.ModeFactory;
+import com.example.blockcipher.mode.ModeOfOperation;
+import com.example.blockcipher.mode.ModeType;
+import com.example.blockcipher.util.Bytes;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+/**
+ * {@link ShardCoordinator}가 띄우는 작업자 JVM의 진입점입니다.
+ *
+ * <pre>
+ * java -cp ... com.example.blockcipher.shard.ShardWorker &lt;host&gt; &lt;port&gt; &lt;workerId&gt;
+ * </pre>
+ *
+ * <p>처리 순서</p>
+ * <p>1. 조정자에 접속해 토큰(환경 변수)과 번호를 보내고, 입력/출력 경로와 키/IV를 받아 두 파일을 연 뒤 준비 완료를 알림</p>
+ * <p>2. 할당받은 shard {@code [offset, offset + length)}를 1 MiB씩 읽어 {@code CTRMode}로 암호화하고 같은 위치에 씀</p>
+ * <p>3. 구간마다 counter를 {@code IV + position / 16}으로 바로 계산하므로 앞 shard와 독립적으로 처리</p>
+ * <p>4. 쓴 암호문의 CRC32C를 보고하고 다음 할당을 기다림</p>
+ *
+ * <p>데이터는 소켓으로 오가지 않고 같은 호스트의 파일을 위치 기반으로 직접 읽고 씁니다.
+ * 소켓에는 할당과 결과(수십 바이트)만 오갑니다.</p>
+ */
+public final class ShardWorker {
+    /** 한 번에 읽고 암호화하는 크기(블록 크기 배수). */
+    static final int IO_CHUNK = 1 << 20;
+
+    /**
+     * 작업자 처리 단계마다 부르는 훅입니다. 운영 작업자는 {@link #NONE}을 쓰고,
+     * 테스트의 장애 주입 작업자가 같은 처리 흐름에 끼어들 때만 구현합니다.
+     */
+    interface Hooks {
+        Hooks NONE = new Hooks() {
+        };
+
+        /**
+         * 조정자에 접속 인사를 보낸 뒤 설정을 받기 직전에 호출됩니다.
+         */
+        default void beforeSetup() {
+        }
+
+        /**
+         * 할당을 받은 뒤 shard를 처리하기 직전에 호출됩니다.
+         *
+         * @param completed 이 작업자가 지금까지 끝낸 shard 수
+         */
+        default void beforeShard(int completed) {
+        }
+    }
+
+    private ShardWorker() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        run(args, Hooks.NONE);
+    }
+
+    /**
+     * {@link #main}의 본문입니다. 다른 진입점이 훅을 끼워 같은 처리 흐름을 실행할 수 있게 분리했습니다.
+     */
+    static void run(String[] args, Hooks hooks) throws IOException {
+        if (args.length != 3) {
+            throw new IllegalArgumentException("usage: ShardWorker <host> <port> <workerId>");
+        }
+        String token = System.getenv(ShardProtocol.TOKEN_ENV);
+        if (token == null) {
+            throw new IllegalStateException(ShardProtocol.TOKEN_ENV + " is not set");
+        }
+        try (Socket socket = new Socket(args[0], Integer.parseInt(args[1]))) {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            out.writeByte(ShardProtocol.HELLO);
+            out.writeUTF(token);
+            out.writeInt(Integer.parseInt(args[2]));
+            out.flush();
+
+            hooks.beforeSetup();
+            expect(in.readByte(), ShardProtocol.SETUP);
+            Path source = Path.of(in.readUTF());
+            Path target = Path.of(in.readUTF());
+            byte[] key = readBytes(in);
+            byte[] iv = readBytes(in);
+            ModeOfOperation ctr = ModeFactory.create(ModeType.CTR, new AesBlockCipher(key));
+            Arrays.fill(key, (byte) 0);
+
+            try (
+                FileChannel sourceChannel = FileChannel.open(source, StandardOpenOption.READ);
+                FileChannel targetChannel = FileChannel.open(target, StandardOpenOption.WRITE)
+            ) {
+                out.writeByte(ShardProtocol.READY);
+                out.flush();
+                serve(in, out, ctr, iv, sourceChannel, targetChannel, hooks);
+            }
+        }
+    }
+
+    private static void serve(
+        DataInputStream in,
+        DataOutputStream out,
+        ModeOfOperation ctr,
+        byte[] iv,
+        FileChannel source,
+        FileChannel target,
+        Hooks hooks
+    ) throws IOException {
+        byte[] buffer = new byte[IO_CHUNK];
+        int completed = 0;
+        while (true) {
+            byte type = in.readByte();
+            if (type == ShardProtocol.SHUTDOWN) {
+                return;
+            }
+            expect(type, ShardProtocol.ASSIGN);
+            int shardId = in.readInt();
+            long offset = in.readLong();
+            int length = in.readInt();
+            hooks.beforeShard(completed);
+            try {
+                int crc = encryptShard(source, target, ctr, iv, offset, length, buffer);
+                out.writeByte(ShardProtocol.DONE);
+                out.writeInt(shardId);
+                out.writeInt(crc);
+                completed++;
+            } catch (IOException | RuntimeException e) {
+                out.writeByte(ShardProtocol.FAILED);
+                out.writeInt(shardId);
+                out.writeUTF(e.getClass().getSimpleName() + ": " + e.getMessage());
+            }
+            out.flush();
+        }
+    }
+
+    /**
+     * shard 하나를 암호화해 같은 위치에 쓰고, 쓴 암호문의 CRC32C를 반환합니다.
+     *
+     * <p>CTR은 암복호화가 같은 연산이므로 복호화 작업도 이 메서드를 씁니다.</p>
+     */
+    static int encryptShard(
+        FileChannel source,
+        FileChannel target,
+        ModeOfOperation ctr,
+        byte[] iv,
+        long offset,
+        int length,
+        byte[] buffer
+    ) throws IOException {
+        CRC32C crc = new CRC32C();
+        for (int done = 0; done < length; ) {
+            int n = Math.min(buffer.length, length - done);
+            long position = offset + done;
+            readFully(source, ByteBuffer.wrap(buffer, 0, n), position);
+            byte[] input = n == buffer.length ? buffer : Arrays.copyOf(buffer, n);
+            byte[] sealed = ctr.encrypt(input, counterAt(iv, position / 16));
+            crc.update(sealed, 0, n);
+            ByteBuffer written = ByteBuffer.wrap(sealed);
+            while (written.hasRemaining()) {
+                target.write(written, position + written.position());
+            }
+            done += n;
+        }
+        return (int) crc.getValue();
+    }
+
+    /**
+     * {@code blockIndex}번째 블록의 counter 블록 {@code IV + blockIndex}를 계산합니다.
+     *
+     * @throws IllegalStateException counter가 {@code 2^128}을 넘어 wrap되는 경우
+     */
+    static byte[] counterAt(byte[] iv, long blockIndex) {
+        byte[] counter = iv.clone();
+        if (Bytes.addBigEndian(counter, blockIndex)) {
+            throw new IllegalStateException("CTR counter wrapped; nonce/counter space exhausted");
+        }
+        return counter;
+    }
+
+    static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long at = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, at);
+            if (read < 0) {
+                throw new EOFException("unexpected end of file at " + at);
+            }
+            at += read;
+        }
+    }
+
+    static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > 64) {
+            throw new IOException("invalid field length: " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    private static void expect(byte actual, byte expected) throws IOException {
+        if (actual != expected) {
+            throw new IOException("unexpected message type " + actual + ", expected " + expected);
+        }
+    }
+}
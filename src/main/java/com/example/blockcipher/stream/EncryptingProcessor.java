@@ -0,0 +1,367 @@
+package com.example.blockcipher.stream;
+
+import com.example.blockcipher.compress.DeflateStage;
+import com.example.blockcipher.core.BlockCipher;
+import com.example.blockcipher.mode.CTRMode;
+import com.example.blockcipher.mode.CounterLayout;
+import com.example.blockcipher.mode.GCMMode;
+import com.example.blockcipher.mode.GCMStream;
+import com.example.blockcipher.mode.ModeOfOperation;
+import com.example.blockcipher.mode.ModeType;
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 평문 청크 스트림을 {@code [IV || ciphertext]} 청크 스트림으로 바꾸는 {@link Flow.Processor}입니다.
+ *
+ * <p>출력 바이트를 이어 붙이면 {@code ModeCipherService.encryptWithHeader} 결과와 같은 형식이 됩니다.</p>
+ * <p>1. 첫 항목: 난수 IV(ECB는 생략)</p>
+ * <p>2. 입력 청크마다: 체이닝 상태를 이어가며 암호화한 결과(빈 결과는 내보내지 않음)</p>
+ * <p>3. 완료 시: 마지막 패딩 블록(ECB/CBC) 또는 인증 태그(GCM)</p>
+ *
+ * <p>흐름 제어</p>
+ * <p>하류 구독자에게 보낼 대기 청크와 상류에 요청해 둔 청크 수의 합이 {@code maxBufferedChunks}를
+ * 넘지 않도록 상류에 요청합니다. 하류가 요청하지 않으면 상류에도 더 요청하지 않으므로
+ * 버퍼가 무한히 커지지 않습니다.</p>
+ *
+ * <p>지원 모드: ECB/CBC/CFB/OFB/CTR({@link StreamingModeCipher}), GCM({@link GCMStream}).
+ * CTR은 {@link CounterLayout#FULL_128} 배치만 지원하고(다른 배치는 생성 시 거부),
+ * 모드에 nonce 가드가 있으면 생성 시 IV를 가드에 기록합니다. 구독자는 하나만 받습니다.</p>
+ *
+ * <p>압축 단계({@link DeflateStage})를 주면 첫 입력 청크로 표본 검사를 한 뒤 flag 1바이트를 평문 첫 바이트로
+ * 암호화하고(GCM에서는 본문과 함께 인증), 압축하기로 했으면 이후 청크를 하나의 zlib 스트림으로 압축해 암호화합니다.
+ * 이어 붙인 결과는 같은 압축 단계를 준 {@code ModeCipherService}로 복호화할 수 있습니다.</p>
+ */
+public final class EncryptingProcessor implements Flow.Processor<ByteBuffer, ByteBuffer> {
+    private final int maxBufferedChunks;
+    private final ChunkEncryptor encryptor;
+    private final DeflateStage compression;
+
+    /** 압축 단계가 있고 아직 압축 여부(flag)를 정하지 않았으면 true. */
+    private boolean flagPending;
+    /** 압축하기로 결정한 경우의 스트림 압축기. */
+    private DeflateStage.Compressor compressor;
+
+    /** 하류로 보낼 대기 청크. */
+    private final ConcurrentLinkedQueue<ByteBuffer> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    /** 상류에 요청했지만 아직 받지 않은 청크 수. */
+    private final AtomicLong upstreamPending = new AtomicLong();
+    private final AtomicLong demand = new AtomicLong();
+    /** drain 직렬화 카운터(work-in-progress). */
+    private final AtomicInteger wip = new AtomicInteger();
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    private volatile Flow.Subscription upstream;
+    private volatile Flow.Subscriber<? super ByteBuffer> downstream;
+    private volatile boolean upstreamDone;
+    private volatile boolean cancelled;
+    private volatile Throwable error;
+    private boolean terminated;
+
+    /**
+     * @param mode 암호화에 사용할 모드(키 포함)
+     * @param maxBufferedChunks 대기 청크 + 상류 미수신 요청의 최대 합(1 이상)
+     */
+    public EncryptingProcessor(ModeOfOperation mode, int maxBufferedChunks) {
+        this(mode, maxBufferedChunks, null);
+    }
+
+    /**
+     * @param mode 암호화에 사용할 모드(키 포함)
+     * @param maxBufferedChunks 대기 청크 + 상류 미수신 요청의 최대 합(1 이상)
+     * @param compression 암호화 전 압축 단계(null이면 압축하지 않고 flag도 쓰지 않음)
+     */
+    public EncryptingProcessor(ModeOfOperation mode, int maxBufferedChunks, DeflateStage compression) {
+        Objects.requireNonNull(mode, "mode must not be null");
+        if (maxBufferedChunks <= 0) {
+            throw new IllegalArgumentException("maxBufferedChunks must be positive");
+        }
+        this.maxBufferedChunks = maxBufferedChunks;
+
+        byte[] iv = new byte[mode.ivLength()];
+        if (iv.length > 0) {
+            new SecureRandom().nextBytes(iv);
+        }
+        this.encryptor = newEncryptor(mode, iv);
+        this.compression = compression;
+        this.flagPending = compression != null;
+        if (iv.length > 0) {
+            enqueue(ByteBuffer.wrap(iv));
+        }
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber must not be null");
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("processor supports a single subscriber"));
+            return;
+        }
+        subscriber.onSubscribe(new Downstream());
+        downstream = subscriber;
+        drain();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        // 이미 실패/취소로 끝났으면 상류를 받지 않습니다.
+        if (upstream != null || upstreamDone || cancelled) {
+            subscription.cancel();
+            return;
+        }
+        upstream = subscription;
+        drain();
+    }
+
+    /**
+     * 입력 청크를 암호화해 대기열에 넣습니다. Flow 규약상 상류 호출은 순차적이므로
+     * 체이닝 상태는 여기서만 갱신됩니다.
+     */
+    @Override
+    public void onNext(ByteBuffer item) {
+        upstreamPending.decrementAndGet();
+        if (upstreamDone) {
+            return;
+        }
+        try {
+            if (flagPending) {
+                startBody(compression.sampleCompresses(item));
+            }
+            ByteBuffer out = encryptor.update(compressor == null ? item : compressor.update(item));
+            if (out.hasRemaining()) {
+                enqueue(out);
+            }
+        } catch (RuntimeException e) {
+            upstream.cancel();
+            fail(e);
+            return;
+        }
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        fail(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        if (upstreamDone) {
+            return;
+        }
+        try {
+            if (flagPending) {
+                startBody(false);
+            }
+            if (compressor != null) {
+                ByteBuffer rest = encryptor.update(compressor.finish());
+                if (rest.hasRemaining()) {
+                    enqueue(rest);
+                }
+            }
+            ByteBuffer tail = encryptor.finish();
+            if (tail.hasRemaining()) {
+                enqueue(tail);
+            }
+        } catch (RuntimeException e) {
+            fail(e);
+            return;
+        }
+        upstreamDone = true;
+        drain();
+    }
+
+    /**
+     * 압축 여부를 정하고 flag를 본문 첫 바이트로 암호화합니다.
+     */
+    private void startBody(boolean deflate) {
+        flagPending = false;
+        compression.recordDecision(deflate);
+        if (deflate) {
+            compressor = compression.newCompressor();
+        }
+        byte flag = deflate ? DeflateStage.DEFLATED : DeflateStage.STORED;
+        ByteBuffer out = encryptor.update(ByteBuffer.wrap(new byte[] {flag}));
+        if (out.hasRemaining()) {
+            enqueue(out);
+        }
+    }
+
+    private void fail(Throwable throwable) {
+        error = throwable;
+        upstreamDone = true;
+        drain();
+    }
+
+    private void enqueue(ByteBuffer buffer) {
+        queued.incrementAndGet();
+        queue.offer(buffer);
+    }
+
+    /**
+     * 하류 요청만큼 내보내고, 남은 여유만큼 상류에 요청합니다.
+     *
+     * <p>여러 스레드(상류 onNext, 하류 request)에서 호출되므로 {@code wip} 카운터로
+     * 한 번에 한 스레드만 실행하고, 그동안 들어온 호출은 반복 횟수로 흡수합니다.</p>
+     */
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            Flow.Subscriber<? super ByteBuffer> subscriber = downstream;
+            if (subscriber != null && !terminated) {
+                if (cancelled) {
+                    queue.clear();
+                } else {
+                    emit(subscriber);
+                }
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void emit(Flow.Subscriber<? super ByteBuffer> subscriber) {
+        Throwable failure = error;
+        if (failure != null) {
+            terminated = true;
+            queue.clear();
+            subscriber.onError(failure);
+            return;
+        }
+        while (demand.get() > 0) {
+            ByteBuffer item = queue.poll();
+            if (item == null) {
+                break;
+            }
+            queued.decrementAndGet();
+            demand.decrementAndGet();
+            subscriber.onNext(item);
+        }
+        if (upstreamDone) {
+            if (queue.isEmpty()) {
+                terminated = true;
+                subscriber.onComplete();
+            }
+            return;
+        }
+        Flow.Subscription subscription = upstream;
+        if (subscription != null) {
+            long room = maxBufferedChunks - queued.get() - upstreamPending.get();
+            if (room > 0) {
+                upstreamPending.addAndGet(room);
+                subscription.request(room);
+            }
+        }
+    }
+
+    /**
+     * 하류 구독자에게 주는 구독 객체입니다.
+     */
+    private final class Downstream implements Flow.Subscription {
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                // 규칙 3.9: 오류로 끝내면서 상류 구독도 취소합니다.
+                Flow.Subscription subscription = upstream;
+                if (subscription != null) {
+                    subscription.cancel();
+                }
+                fail(new IllegalArgumentException("request count must be positive"));
+                return;
+            }
+            demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            Flow.Subscription subscription = upstream;
+            if (subscription != null) {
+                subscription.cancel();
+            }
+            drain();
+        }
+    }
+
+    /**
+     * 모드에 맞는 청크 암호화 상태를 만듭니다.
+     *
+     * <p>{@link StreamingModeCipher}는 모드 타입과 블록 암호만 받으므로 CTR 모드의 설정(counter 배치, 가드)은
+     * 여기서 확인합니다. 128비트 전체 counter가 아니면 결과 형식이 달라지므로 거부합니다.</p>
+     */
+    private static ChunkEncryptor newEncryptor(ModeOfOperation mode, byte[] iv) {
+        if (mode instanceof CTRMode) {
+            CTRMode ctr = (CTRMode) mode;
+            if (ctr.layout() != CounterLayout.FULL_128) {
+                throw new IllegalArgumentException("streaming supports only the FULL_128 CTR counter layout: " + ctr.layout());
+            }
+            if (ctr.guard() != null) {
+                ctr.guard().checkAndRecord(iv);
+            }
+        }
+        if (mode instanceof GCMMode) {
+            GCMStream stream = ((GCMMode) mode).newEncryptor(iv, new byte[0]);
+            return new ChunkEncryptor() {
+                @Override
+                public ByteBuffer update(ByteBuffer in) {
+                    byte[] chunk = new byte[in.remaining()];
+                    in.get(chunk);
+                    return ByteBuffer.wrap(stream.update(chunk));
+                }
+
+                @Override
+                public ByteBuffer finish() {
+                    return ByteBuffer.wrap(stream.finish());
+                }
+            };
+        }
+        ModeType type = mode.type();
+        BlockCipher cipher = mode.blockCipher();
+        if (cipher == null || !(type == ModeType.ECB || type == ModeType.CBC || type == ModeType.CFB
+            || type == ModeType.OFB || type == ModeType.CTR)) {
+            throw new IllegalArgumentException("streaming is not supported for mode type: " + type);
+        }
+        StreamingModeCipher stream = StreamingModeCipher.encryptor(type, cipher, iv);
+        return new ChunkEncryptor() {
+            @Override
+            public ByteBuffer update(ByteBuffer in) {
+                ByteBuffer out = ByteBuffer.allocate(stream.updateOutputSize(in.remaining()));
+                stream.update(in, out);
+                return out.flip();
+            }
+
+            @Override
+            public ByteBuffer finish() {
+                return ByteBuffer.wrap(stream.doFinal());
+            }
+        };
+    }
+
+    /**
+     * 모드별 청크 암호화 상태를 감싸는 내부 인터페이스입니다.
+     */
+    private interface ChunkEncryptor {
+        ByteBuffer update(ByteBuffer in);
+
+        ByteBuffer finish();
+    }
+}
@@ -0,0 +1,278 @@
+package com.example.blockcipher.stream;
+
+import com.example.blockcipher.core.BlockCipher;
+import com.example.blockcipher.mode.ModeType;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * 2 GB를 넘는 파일을 {@code long} 위치 기반으로 암복호화합니다.
+ *
+ * <p>입력 파일은 위치 지정 {@link FileChannel#read(ByteBuffer, long)}로 고정 크기 윈도우씩 읽어
+ * {@link StreamingModeCipher}에 순서대로 흘려보내고, 결과는 출력 채널에 씁니다.
+ * 입력/출력 direct 버퍼는 작업마다 한 번만 만들어 재사용하므로 메모리 사용량은 윈도우 크기로 제한되고,
+ * 위치는 모두 {@code long}이라 파일 크기 제한은 파일 시스템 한도뿐입니다.
+ * 윈도우마다 {@code FileChannel.map}을 쓰면 매핑이 GC 전까지 해제되지 않아 TB 단위 파일에서
+ * 매핑 수 한도({@code vm.max_map_count})나 주소 공간이 먼저 바닥나므로 매핑은 쓰지 않습니다.</p>
+ *
+ * <p>출력은 IV 헤더 없는 원시 암호문(ECB/CBC는 패딩 포함)입니다.</p>
+ *
+ * <p>스냅샷 간격을 주면 입력 {@code checkpointInterval} 바이트마다 출력 채널을 {@code force}한 뒤
+ * {@link StreamCheckpoint}를 넘깁니다. 호출자가 그것을 저장해 두면 작업이 죽어도
+ * {@link #resume}으로 마지막 스냅샷 위치부터 이어서 처리합니다.</p>
+ */
+public final class LargeFileCipher {
+    /** 기본 윈도우 크기(16 MiB). */
+    public static final int DEFAULT_WINDOW_SIZE = 16 * 1024 * 1024;
+
+    private final ModeType type;
+    private final BlockCipher cipher;
+    private final int windowSize;
+
+    /**
+     * @param type 스트리밍 모드(ECB/CBC/CFB/OFB/CTR)
+     * @param cipher 단일 블록 암호 함수
+     * @param windowSize 한 번에 읽을 입력 크기(바이트)
+     */
+    public LargeFileCipher(ModeType type, BlockCipher cipher, int windowSize) {
+        this.type = Objects.requireNonNull(type, "type must not be null");
+        this.cipher = Objects.requireNonNull(cipher, "cipher must not be null");
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("windowSize must be positive");
+        }
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * 기본 윈도우 크기로 생성합니다.
+     */
+    public LargeFileCipher(ModeType type, BlockCipher cipher) {
+        this(type, cipher, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * 파일 전체를 암호화합니다.
+     *
+     * @return 출력한 바이트 수
+     */
+    public long encrypt(Path source, Path target, byte[] iv) {
+        return transform(source, target, StreamingModeCipher.encryptor(type, cipher, iv));
+    }
+
+    /**
+     * 파일 전체를 복호화합니다.
+     *
+     * @return 출력한 바이트 수
+     */
+    public long decrypt(Path source, Path target, byte[] iv) {
+        return transform(source, target, StreamingModeCipher.decryptor(type, cipher, iv));
+    }
+
+    /**
+     * 파일 전체를 암호화하면서 일정 간격으로 스냅샷을 넘깁니다.
+     *
+     * @param checkpointInterval 스냅샷 간격(입력 바이트, 블록 크기 배수)
+     * @param checkpointSink 스냅샷을 받을 함수(예: {@link StreamCheckpoint#writeTo(Path)}로 저장)
+     * @return 출력한 바이트 수
+     */
+    public long encrypt(
+        Path source,
+        Path target,
+        byte[] iv,
+        long checkpointInterval,
+        Consumer<StreamCheckpoint> checkpointSink
+    ) {
+        requireCheckpointing(checkpointInterval, checkpointSink);
+        return transform(source, target, StreamingModeCipher.encryptor(type, cipher, iv), null,
+            checkpointInterval, checkpointSink);
+    }
+
+    /**
+     * 파일 전체를 복호화하면서 일정 간격으로 스냅샷을 넘깁니다.
+     *
+     * @return 출력한 바이트 수
+     */
+    public long decrypt(
+        Path source,
+        Path target,
+        byte[] iv,
+        long checkpointInterval,
+        Consumer<StreamCheckpoint> checkpointSink
+    ) {
+        requireCheckpointing(checkpointInterval, checkpointSink);
+        return transform(source, target, StreamingModeCipher.decryptor(type, cipher, iv), null,
+            checkpointInterval, checkpointSink);
+    }
+
+    /**
+     * 중단된 작업을 스냅샷 위치부터 이어서 처리합니다.
+     *
+     * <p>처리 순서</p>
+     * <p>1. 스냅샷으로 스트림 상태 복원(암호화/복호화 방향도 스냅샷을 따름)</p>
+     * <p>2. 출력 파일을 {@link StreamCheckpoint#outputPosition()}으로 잘라 스냅샷 이후 쓰다 만 부분을 버림</p>
+     * <p>3. 입력을 {@link StreamCheckpoint#position()}부터 윈도우 단위로 이어 처리하고, 같은 간격으로 새 스냅샷을 넘김</p>
+     *
+     * @param checkpoint 마지막으로 저장한 스냅샷
+     * @param checkpointInterval 스냅샷 간격(입력 바이트, 블록 크기 배수)
+     * @param checkpointSink 스냅샷을 받을 함수
+     * @return 출력 파일 전체 길이
+     */
+    public long resume(
+        Path source,
+        Path target,
+        StreamCheckpoint checkpoint,
+        long checkpointInterval,
+        Consumer<StreamCheckpoint> checkpointSink
+    ) {
+        Objects.requireNonNull(checkpoint, "checkpoint must not be null");
+        if (checkpoint.type() != type) {
+            throw new IllegalArgumentException("checkpoint was taken for " + checkpoint.type() + ", not " + type);
+        }
+        requireCheckpointing(checkpointInterval, checkpointSink);
+        return transform(source, target, StreamingModeCipher.resume(cipher, checkpoint), checkpoint,
+            checkpointInterval, checkpointSink);
+    }
+
+    /**
+     * CTR 암호문 파일에서 임의 구간만 복호화합니다.
+     *
+     * <p>{@code offset / 16}번째 블록의 counter를 바로 계산해 그 위치부터 읽으므로
+     * 앞부분 크기와 무관하게 요청 구간만 처리합니다.</p>
+     *
+     * @param source CTR 암호문 파일
+     * @param iv 초기 counter 블록
+     * @param offset 시작 위치(바이트)
+     * @param length 읽을 길이
+     * @return 복호화된 구간
+     */
+    public byte[] decryptCtrRange(Path source, byte[] iv, long offset, int length) {
+        if (type != ModeType.CTR) {
+            throw new IllegalStateException("random access is only available for CTR");
+        }
+        int blockSize = cipher.blockSize();
+        long blockIndex = offset / blockSize;
+        int skip = (int) (offset % blockSize);
+
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ)) {
+            if (offset < 0 || length < 0 || offset + length > in.size()) {
+                throw new IllegalArgumentException("range is outside of the file");
+            }
+            ByteBuffer cipherText = ByteBuffer.allocate(skip + length);
+            long readPosition = blockIndex * blockSize;
+            while (cipherText.hasRemaining()) {
+                int read = in.read(cipherText, readPosition + cipherText.position());
+                if (read < 0) {
+                    throw new IllegalArgumentException("range is outside of the file");
+                }
+            }
+            cipherText.flip();
+
+            StreamingModeCipher stream = StreamingModeCipher.ctrAt(cipher, iv, blockIndex);
+            ByteBuffer plain = ByteBuffer.allocate(stream.updateOutputSize(cipherText.remaining()));
+            stream.update(cipherText, plain);
+            byte[] out = new byte[length];
+            plain.flip().position(skip);
+            plain.get(out);
+            return out;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long transform(Path source, Path target, StreamingModeCipher stream) {
+        return transform(source, target, stream, null, 0, null);
+    }
+
+    /**
+     * 윈도우 단위 읽기 -> 스트림 처리 -> 출력 채널 쓰기를 반복합니다.
+     *
+     * <p>스냅샷 경계에서는 윈도우를 잘라 경계에 맞추고, 출력을 {@code force}한 다음 스냅샷을 넘깁니다.
+     * 그래서 저장된 스냅샷의 {@code outputPosition}까지는 항상 디스크에 있습니다.</p>
+     *
+     * @param from 재개할 스냅샷(null이면 처음부터, 출력 파일을 비움)
+     * @param checkpointSink 스냅샷을 받을 함수(null이면 스냅샷 없음)
+     */
+    private long transform(
+        Path source,
+        Path target,
+        StreamingModeCipher stream,
+        StreamCheckpoint from,
+        long checkpointInterval,
+        Consumer<StreamCheckpoint> checkpointSink
+    ) {
+        try (
+            FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+            FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE)
+        ) {
+            long size = in.size();
+            long position = from == null ? 0 : from.position();
+            long written = from == null ? 0 : from.outputPosition();
+            if (position > size) {
+                throw new IllegalArgumentException("checkpoint position is past the end of the source");
+            }
+            if (out.size() < written) {
+                throw new IllegalStateException("target is shorter than the checkpoint output position");
+            }
+            out.truncate(written);
+            out.position(written);
+            ByteBuffer window = ByteBuffer.allocateDirect(windowSize);
+            ByteBuffer outBuffer = ByteBuffer.allocateDirect(stream.updateOutputSize(windowSize));
+            long nextCheckpoint = checkpointSink == null ? Long.MAX_VALUE : position + checkpointInterval;
+
+            while (position < size) {
+                long length = Math.min(Math.min(windowSize, size - position), nextCheckpoint - position);
+                window.clear().limit((int) length);
+                readFully(in, window, position);
+                window.flip();
+                outBuffer.clear();
+                stream.update(window, outBuffer);
+                written += drain(outBuffer, out);
+                position += length;
+                if (position == nextCheckpoint && position < size) {
+                    out.force(false);
+                    checkpointSink.accept(stream.checkpoint());
+                    nextCheckpoint += checkpointInterval;
+                }
+            }
+            outBuffer.clear();
+            stream.doFinal(outBuffer);
+            written += drain(outBuffer, out);
+            return written;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void requireCheckpointing(long checkpointInterval, Consumer<StreamCheckpoint> checkpointSink) {
+        Objects.requireNonNull(checkpointSink, "checkpointSink must not be null");
+        if (checkpointInterval <= 0 || checkpointInterval % cipher.blockSize() != 0) {
+            throw new IllegalArgumentException("checkpointInterval must be a positive multiple of the block size");
+        }
+    }
+
+    private static void readFully(FileChannel in, ByteBuffer buffer, long position) throws IOException {
+        long at = position;
+        while (buffer.hasRemaining()) {
+            int read = in.read(buffer, at);
+            if (read < 0) {
+                throw new IOException("unexpected end of file");
+            }
+            at += read;
+        }
+    }
+
+    private static long drain(ByteBuffer buffer, FileChannel out) throws IOException {
+        buffer.flip();
+        long written = 0;
+        while (buffer.hasRemaining()) {
+            written += out.write(buffer);
+        }
+        return written;
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.blockcipher.stream;
+
+import com.example.blockcipher.mode.ModeType;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * {@link StreamingModeCipher}의 진행 상태 스냅샷입니다.
+ *
+ * <p>바이트 형식(버전 1, 블록 경계에서 AES 기준 30바이트)</p>
+ * <p>{@code [version(1) | type(1) | flags(1) | blockSize(1) | position(8) | chain(blockSize)
+ *    | unusedKeystreamLength(1) | unusedKeystream | pendingLength(1) | pending]}</p>
+ * <p>type은 {@link ModeType#wireId()}, flags는 bit 0 암호화, bit 1 PKCS#7 패딩, bit 2 CTR counter 소진</p>
+ *
+ * <p>키는 들어 있지 않으므로 재개할 때 같은 키의 블록 암호를 다시 넘깁니다.
+ * 블록 경계에서 찍은 스냅샷의 체이닝 값은 CBC/CFB에서는 암호문, CTR에서는 counter라 공개돼도 되지만,
+ * OFB의 출력 feedback과 블록 중간의 미사용 keystream, 모아 둔 부분 블록(ECB/CBC 평문)은 비밀입니다.
+ * 그런 스냅샷은 키와 같은 수준으로 보관합니다.</p>
+ */
+public final class StreamCheckpoint {
+    /** 현재 바이트 형식 버전. */
+    static final byte VERSION = 1;
+
+    private static final int FLAG_ENCRYPTING = 1;
+    private static final int FLAG_PADDED = 1 << 1;
+    private static final int FLAG_COUNTER_EXHAUSTED = 1 << 2;
+
+    private final ModeType type;
+    private final boolean encrypting;
+    private final boolean padded;
+    private final boolean counterExhausted;
+    private final long position;
+    private final byte[] chain;
+    private final byte[] unusedKeystream;
+    private final byte[] pending;
+
+    StreamCheckpoint(
+        ModeType type,
+        boolean encrypting,
+        boolean padded,
+        boolean counterExhausted,
+        long position,
+        byte[] chain,
+        byte[] unusedKeystream,
+        byte[] pending
+    ) {
+        this.type = type;
+        this.encrypting = encrypting;
+        this.padded = padded;
+        this.counterExhausted = counterExhausted;
+        this.position = position;
+        this.chain = chain;
+        this.unusedKeystream = unusedKeystream;
+        this.pending = pending;
+    }
+
+    public ModeType type() {
+        return type;
+    }
+
+    public boolean encrypting() {
+        return encrypting;
+    }
+
+    /**
+     * 스냅샷 시점까지 스트림에 넣은 입력 바이트 수. 재개 시 입력을 이 위치부터 읽습니다.
+     */
+    public long position() {
+        return position;
+    }
+
+    /**
+     * 스냅샷 시점까지 스트림이 내보낸 출력 바이트 수.
+     *
+     * <p>ECB/CBC는 아직 처리하지 않은 부분 블록(패딩 복호화는 보류한 마지막 블록)만큼 입력 위치보다 작습니다.
+     * 재개할 때 출력을 이 길이로 잘라 내고 이어 씁니다.</p>
+     */
+    public long outputPosition() {
+        return position - pending.length;
+    }
+
+    boolean padded() {
+        return padded;
+    }
+
+    boolean counterExhausted() {
+        return counterExhausted;
+    }
+
+    int blockSize() {
+        return chain.length;
+    }
+
+    byte[] chain() {
+        return chain;
+    }
+
+    byte[] unusedKeystream() {
+        return unusedKeystream;
+    }
+
+    byte[] pending() {
+        return pending;
+    }
+
+    /**
+     * 바이트 형식으로 직렬화합니다.
+     */
+    public byte[] toBytes() {
+        ByteBuffer out = ByteBuffer.allocate(14 + chain.length + unusedKeystream.length + pending.length);
+        int flags = (encrypting ? FLAG_ENCRYPTING : 0)
+            | (padded ? FLAG_PADDED : 0)
+            | (counterExhausted ? FLAG_COUNTER_EXHAUSTED : 0);
+        out.put(VERSION)
+            .put((byte) type.wireId())
+            .put((byte) flags)
+            .put((byte) chain.length)
+            .putLong(position)
+            .put(chain)
+            .put((byte) unusedKeystream.length)
+            .put(unusedKeystream)
+            .put((byte) pending.length)
+            .put(pending);
+        return out.array();
+    }
+
+    /**
+     * {@link #toBytes()} 결과를 읽습니다.
+     *
+     * @throws IllegalArgumentException 버전, 모드, 길이 필드가 맞지 않는 경우
+     */
+    public static StreamCheckpoint fromBytes(byte[] bytes) {
+        Objects.requireNonNull(bytes, "bytes must not be null");
+        try {
+            ByteBuffer in = ByteBuffer.wrap(bytes);
+            if (in.get() != VERSION) {
+                throw new IllegalArgumentException("unsupported checkpoint version");
+            }
+            ModeType type = ModeType.fromWireId(Byte.toUnsignedInt(in.get()));
+            int flags = in.get();
+            int blockSize = Byte.toUnsignedInt(in.get());
+            long position = in.getLong();
+            byte[] chain = readField(in, blockSize, blockSize);
+            byte[] unusedKeystream = readField(in, Byte.toUnsignedInt(in.get()), blockSize);
+            byte[] pending = readField(in, Byte.toUnsignedInt(in.get()), blockSize);
+            if (blockSize == 0 || position < pending.length || in.hasRemaining()) {
+                throw new IllegalArgumentException("malformed checkpoint");
+            }
+            return new StreamCheckpoint(
+                type,
+                (flags & FLAG_ENCRYPTING) != 0,
+                (flags & FLAG_PADDED) != 0,
+                (flags & FLAG_COUNTER_EXHAUSTED) != 0,
+                position,
+                chain,
+                unusedKeystream,
+                pending
+            );
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("truncated checkpoint", e);
+        }
+    }
+
+    /**
+     * 파일에 원자적으로 기록합니다(임시 파일 기록, {@code force}, 같은 디렉터리 안에서 이름 변경).
+     *
+     * <p>중간에 프로세스가 죽어도 파일에는 직전 스냅샷이나 새 스냅샷 중 하나만 남습니다.</p>
+     */
+    public void writeTo(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(
+            temp,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE
+        )) {
+            ByteBuffer buffer = ByteBuffer.wrap(toBytes());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * {@link #writeTo(Path)}로 기록한 파일을 읽습니다.
+     */
+    public static StreamCheckpoint readFrom(Path file) throws IOException {
+        return fromBytes(Files.readAllBytes(file));
+    }
+
+    private static byte[] readField(ByteBuffer in, int length, int max) {
+        if (length > max) {
+            throw new IllegalArgumentException("malformed checkpoint");
+        }
+        byte[] field = new byte[length];
+        in.get(field);
+        return field;
+    }
+}
@@ -0,0 +1,380 @@
+package com.example.blockcipher.stream;
+
+import com.example.blockcipher.core.BlockCipher;
+import com.example.blockcipher.mode.ModeType;
+import com.example.blockcipher.padding.PaddingScheme;
+import com.example.blockcipher.padding.Pkcs7Padding;
+import com.example.blockcipher.util.Bytes;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * 입력을 여러 번에 나눠 넣을 수 있는 상태 보존형 모드 암복호기입니다.
+ *
+ * <p>{@code mode} 패키지의 구현체는 메시지 전체를 하나의 {@code byte[]}로 받으므로
+ * 길이가 약 2 GB로 제한되고 전부 힙에 올라와 있어야 합니다. 이 클래스는 체이닝 상태를 필드로 들고 있어서
+ * 임의 크기의 조각(ByteBuffer, 메모리 매핑 윈도우 등)을 순서대로 흘려보낼 수 있고,
+ * 처리 위치는 {@code long}으로 관리합니다. 결과 바이트열은 같은 모드의 단일 호출 결과와 같습니다.</p>
+ *
+ * <p>모드별 상태</p>
+ * <p>ECB/CBC: 블록이 다 찰 때까지 입력을 모아 둠, CBC는 이전 암호문 블록({@code C_{i-1}})</p>
+ * <p>CFB: feedback 레지스터(이전 암호문 블록)와 keystream 사용 위치</p>
+ * <p>OFB: 출력 feedback({@code O_{i-1}})과 keystream 사용 위치</p>
+ * <p>CTR: 128비트 counter 블록과 keystream 사용 위치</p>
+ *
+ * <p>ECB/CBC 복호화에서 패딩을 쓰는 경우 마지막 블록은 {@link #doFinal(ByteBuffer)}까지 보류합니다.
+ * 이 객체는 스레드 간에 공유하지 않습니다.</p>
+ *
+ * <p>{@link #checkpoint()}는 위 상태와 위치를 {@link StreamCheckpoint}로 복사하고(블록 암호 호출 없음),
+ * {@link #resume(BlockCipher, StreamCheckpoint)}는 그 상태에서 이어 처리하는 스트림을 만듭니다.
+ * 오래 걸리는 작업이 중간에 죽으면 마지막으로 저장한 스냅샷의 입력 위치부터 다시 시작할 수 있습니다.</p>
+ */
+public final class StreamingModeCipher {
+    private final ModeType type;
+    private final BlockCipher cipher;
+    private final boolean encrypting;
+    private final PaddingScheme padding;
+    private final int blockSize;
+
+    /** CBC: 이전 암호문, CFB: feedback, OFB: 출력 feedback, CTR: counter. */
+    private final byte[] chain;
+    /** 현재 keystream 블록(CFB/OFB/CTR). */
+    private final byte[] keystream;
+    /** 블록 단위로 모으는 입력 버퍼(ECB/CBC). */
+    private final byte[] pending;
+
+    private int keystreamOffset;
+    private int pendingLength;
+    private boolean counterExhausted;
+    private long position;
+    private boolean finished;
+
+    private StreamingModeCipher(
+        ModeType type,
+        BlockCipher cipher,
+        boolean encrypting,
+        PaddingScheme padding,
+        byte[] iv
+    ) {
+        this.type = Objects.requireNonNull(type, "type must not be null");
+        this.cipher = Objects.requireNonNull(cipher, "cipher must not be null");
+        this.encrypting = encrypting;
+        this.padding = padding;
+        this.blockSize = cipher.blockSize();
+        this.keystream = new byte[blockSize];
+        this.pending = new byte[blockSize];
+        this.keystreamOffset = blockSize;
+
+        switch (type) {
+            case ECB:
+                if (iv != null && iv.length > 0) {
+                    throw new IllegalArgumentException("ECB does not use IV/nonce");
+                }
+                this.chain = new byte[blockSize];
+                break;
+            case CBC:
+            case CFB:
+            case OFB:
+            case CTR:
+                if (iv == null || iv.length != blockSize) {
+                    throw new IllegalArgumentException("iv/nonce must be exactly " + blockSize + " bytes");
+                }
+                this.chain = Arrays.copyOf(iv, blockSize);
+                break;
+            default:
+                throw new IllegalArgumentException("streaming is not supported for mode type: " + type);
+        }
+    }
+
+    /**
+     * 암호화 스트림을 생성합니다. ECB/CBC는 PKCS#7 패딩을 적용합니다.
+     */
+    public static StreamingModeCipher encryptor(ModeType type, BlockCipher cipher, byte[] iv) {
+        return new StreamingModeCipher(type, cipher, true, defaultPadding(type), iv);
+    }
+
+    /**
+     * 복호화 스트림을 생성합니다. ECB/CBC는 PKCS#7 패딩을 제거합니다.
+     */
+    public static StreamingModeCipher decryptor(ModeType type, BlockCipher cipher, byte[] iv) {
+        return new StreamingModeCipher(type, cipher, false, defaultPadding(type), iv);
+    }
+
+    /**
+     * 패딩 정책을 직접 지정해 스트림을 생성합니다.
+     *
+     * <p>{@code padding}이 null이면 ECB/CBC 입력은 블록 배수여야 하며 패딩을 붙이거나 떼지 않습니다.
+     * 큰 입력을 구간별로 나눠 처리할 때 마지막 구간만 패딩을 적용하는 용도입니다.</p>
+     */
+    public static StreamingModeCipher create(
+        ModeType type,
+        BlockCipher cipher,
+        boolean encrypting,
+        PaddingScheme padding,
+        byte[] iv
+    ) {
+        return new StreamingModeCipher(type, cipher, encrypting, padding, iv);
+    }
+
+    /**
+     * CTR 스트림을 {@code blockOffset}번째 블록 위치에서 시작합니다.
+     *
+     * <p>{@code T_j = IV + j} (mod {@code 2^128})를 바로 계산하므로
+     * {@code 2^31}블록을 넘는 위치에서도 앞부분을 처리하지 않고 임의 접근할 수 있습니다.</p>
+     *
+     * @param cipher 단일 블록 암호 함수
+     * @param iv 초기 counter 블록
+     * @param blockOffset 시작 블록 번호(0 이상)
+     */
+    public static StreamingModeCipher ctrAt(BlockCipher cipher, byte[] iv, long blockOffset) {
+        if (blockOffset < 0) {
+            throw new IllegalArgumentException("blockOffset must not be negative");
+        }
+        StreamingModeCipher stream = new StreamingModeCipher(ModeType.CTR, cipher, true, null, iv);
+        stream.counterExhausted = Bytes.addBigEndian(stream.chain, blockOffset);
+        stream.position = blockOffset * stream.blockSize;
+        return stream;
+    }
+
+    /**
+     * 스냅샷 상태에서 이어 처리하는 스트림을 만듭니다.
+     *
+     * <p>입력은 {@link StreamCheckpoint#position()}부터, 출력은 {@link StreamCheckpoint#outputPosition()}부터
+     * 이어 붙이면 중단 없이 처리한 결과와 같습니다. 키는 스냅샷에 없으므로 같은 키의 블록 암호를 넘겨야 합니다.</p>
+     *
+     * @param cipher 스냅샷을 찍은 스트림과 같은 키의 블록 암호
+     * @param checkpoint {@link #checkpoint()} 결과
+     */
+    public static StreamingModeCipher resume(BlockCipher cipher, StreamCheckpoint checkpoint) {
+        Objects.requireNonNull(checkpoint, "checkpoint must not be null");
+        if (cipher.blockSize() != checkpoint.blockSize()) {
+            throw new IllegalArgumentException("checkpoint block size does not match the cipher");
+        }
+        ModeType type = checkpoint.type();
+        StreamingModeCipher stream = new StreamingModeCipher(
+            type,
+            cipher,
+            checkpoint.encrypting(),
+            checkpoint.padded() ? new Pkcs7Padding() : null,
+            type == ModeType.ECB ? null : checkpoint.chain()
+        );
+        byte[] unused = checkpoint.unusedKeystream();
+        stream.keystreamOffset = stream.blockSize - unused.length;
+        System.arraycopy(unused, 0, stream.keystream, stream.keystreamOffset, unused.length);
+        byte[] pending = checkpoint.pending();
+        System.arraycopy(pending, 0, stream.pending, 0, pending.length);
+        stream.pendingLength = pending.length;
+        stream.counterExhausted = checkpoint.counterExhausted();
+        stream.position = checkpoint.position();
+        return stream;
+    }
+
+    private static PaddingScheme defaultPadding(ModeType type) {
+        return type == ModeType.ECB || type == ModeType.CBC ? new Pkcs7Padding() : null;
+    }
+
+    /**
+     * 지금까지 처리한 입력 바이트 수(CTR 임의 접근은 시작 위치 포함)를 반환합니다.
+     */
+    public long position() {
+        return position;
+    }
+
+    /**
+     * 현재 체이닝 상태, 위치, 처리 중인 부분 블록을 스냅샷으로 복사합니다.
+     *
+     * <p>블록 하나 크기의 배열 몇 개를 복사할 뿐이므로 자주 호출해도 됩니다.
+     * 블록 경계에서 찍으면 미사용 keystream과 부분 블록이 비어 있어 스냅샷이 가장 작습니다.</p>
+     *
+     * @throws IllegalStateException 이미 종료했거나 PKCS#7이 아닌 패딩을 쓰는 경우
+     */
+    public StreamCheckpoint checkpoint() {
+        requireOpen();
+        if (padding != null && !(padding instanceof Pkcs7Padding)) {
+            throw new IllegalStateException("only PKCS#7 padded streams can be checkpointed");
+        }
+        return new StreamCheckpoint(
+            type,
+            encrypting,
+            padding != null,
+            counterExhausted,
+            position,
+            chain.clone(),
+            Arrays.copyOfRange(keystream, keystreamOffset, blockSize),
+            Arrays.copyOf(pending, pendingLength)
+        );
+    }
+
+    /**
+     * {@code inputLength} 바이트를 {@code update}할 때 필요한 최대 출력 크기입니다.
+     */
+    public int updateOutputSize(int inputLength) {
+        return inputLength + blockSize;
+    }
+
+    /**
+     * 입력 버퍼의 남은 바이트를 모두 처리하고 결과를 출력 버퍼에 씁니다.
+     *
+     * @param in 입력(처리한 만큼 position이 전진)
+     * @param out 출력({@link #updateOutputSize(int)} 이상 여유 필요)
+     * @return 출력한 바이트 수
+     */
+    public int update(ByteBuffer in, ByteBuffer out) {
+        requireOpen();
+        int before = out.position();
+        position += in.remaining();
+        if (type == ModeType.ECB || type == ModeType.CBC) {
+            updateBlocks(in, out);
+        } else {
+            updateStream(in, out);
+        }
+        return out.position() - before;
+    }
+
+    /**
+     * 배열 입력용 {@link #update(ByteBuffer, ByteBuffer)}입니다.
+     */
+    public byte[] update(byte[] input) {
+        ByteBuffer out = ByteBuffer.allocate(updateOutputSize(input.length));
+        update(ByteBuffer.wrap(input), out);
+        return Arrays.copyOf(out.array(), out.position());
+    }
+
+    /**
+     * 스트림을 종료합니다.
+     *
+     * <p>ECB/CBC 암호화는 마지막 부분 블록에 패딩을 붙여 출력하고,
+     * 복호화는 보류해 둔 마지막 블록을 복호화한 뒤 패딩을 제거합니다.
+     * CFB/OFB/CTR은 남은 출력이 없습니다.</p>
+     *
+     * @return 출력한 바이트 수
+     */
+    public int doFinal(ByteBuffer out) {
+        requireOpen();
+        finished = true;
+        if (type != ModeType.ECB && type != ModeType.CBC) {
+            return 0;
+        }
+        if (padding == null) {
+            if (pendingLength != 0) {
+                throw new IllegalArgumentException(
+                    "input length must be a multiple of block size (" + blockSize + " bytes)"
+                );
+            }
+            return 0;
+        }
+        if (encrypting) {
+            byte[] padded = padding.pad(Arrays.copyOf(pending, pendingLength), blockSize);
+            out.put(processBlock(padded));
+            return padded.length;
+        }
+        if (pendingLength != blockSize) {
+            throw new IllegalArgumentException("invalid padded input length");
+        }
+        byte[] plain = padding.unpad(processBlock(pending), blockSize);
+        out.put(plain);
+        return plain.length;
+    }
+
+    /**
+     * 배열 출력용 {@link #doFinal(ByteBuffer)}입니다.
+     */
+    public byte[] doFinal() {
+        ByteBuffer out = ByteBuffer.allocate(blockSize);
+        doFinal(out);
+        return Arrays.copyOf(out.array(), out.position());
+    }
+
+    /**
+     * ECB/CBC: 블록이 찰 때마다 처리합니다.
+     *
+     * <p>꽉 찬 블록은 다음 입력이 들어올 때 처리하므로, 패딩 복호화에서는 마지막 블록이 자연스럽게 보류됩니다.</p>
+     */
+    private void updateBlocks(ByteBuffer in, ByteBuffer out) {
+        while (in.hasRemaining()) {
+            if (pendingLength == blockSize) {
+                out.put(processBlock(pending));
+                pendingLength = 0;
+            }
+            int n = Math.min(blockSize - pendingLength, in.remaining());
+            in.get(pending, pendingLength, n);
+            pendingLength += n;
+        }
+        boolean holdLastBlock = !encrypting && padding != null;
+        if (pendingLength == blockSize && !holdLastBlock) {
+            out.put(processBlock(pending));
+            pendingLength = 0;
+        }
+    }
+
+    /**
+     * ECB/CBC 블록 하나를 처리합니다.
+     */
+    private byte[] processBlock(byte[] block) {
+        if (type == ModeType.ECB) {
+            return encrypting ? cipher.encryptBlock(block) : cipher.decryptBlock(block);
+        }
+        if (encrypting) {
+            byte[] encrypted = cipher.encryptBlock(Bytes.xor(block, chain));
+            System.arraycopy(encrypted, 0, chain, 0, blockSize);
+            return encrypted;
+        }
+        byte[] plain = Bytes.xor(cipher.decryptBlock(block), chain);
+        System.arraycopy(block, 0, chain, 0, blockSize);
+        return plain;
+    }
+
+    /**
+     * CFB/OFB/CTR: keystream을 소비하며 바이트 단위로 XOR합니다.
+     */
+    private void updateStream(ByteBuffer in, ByteBuffer out) {
+        while (in.hasRemaining()) {
+            if (keystreamOffset == blockSize) {
+                nextKeystreamBlock();
+            }
+            int n = Math.min(blockSize - keystreamOffset, in.remaining());
+            for (int i = 0; i < n; i++) {
+                byte x = in.get();
+                byte y = (byte) (x ^ keystream[keystreamOffset]);
+                out.put(y);
+                if (type == ModeType.CFB) {
+                    // 다음 feedback은 암호문 블록입니다(암호화면 출력, 복호화면 입력).
+                    chain[keystreamOffset] = encrypting ? y : x;
+                }
+                keystreamOffset++;
+            }
+        }
+    }
+
+    /**
+     * 다음 keystream 블록을 만듭니다.
+     */
+    private void nextKeystreamBlock() {
+        byte[] block;
+        switch (type) {
+            case CFB:
+                block = cipher.encryptBlock(chain);
+                break;
+            case OFB:
+                block = cipher.encryptBlock(chain);
+                System.arraycopy(block, 0, chain, 0, blockSize);
+                break;
+            default:
+                if (counterExhausted) {
+                    throw new IllegalStateException("CTR counter wrapped; nonce/counter space exhausted");
+                }
+                block = cipher.encryptBlock(chain);
+                counterExhausted = Bytes.incrementBigEndian(chain);
+                break;
+        }
+        System.arraycopy(block, 0, keystream, 0, blockSize);
+        keystreamOffset = 0;
+    }
+
+    private void requireOpen() {
+        if (finished) {
+            throw new IllegalStateException("stream is already finished");
+        }
+    }
+}
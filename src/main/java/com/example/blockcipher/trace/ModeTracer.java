@@ -0,0 +1,24 @@
+package com.example.blockcipher.trace;
+
+import com.example.blockcipher.mode.ModeType;
+
+/**
+ * 모드 내부의 블록 단위 중간 값을 받는 SPI입니다.
+ *
+ * <p>{@link Tracing#ENABLED}가 꺼져 있으면 모드 코드에서 호출 자체가 제거되므로
+ * 구현체는 추적을 켠 실행에서만 호출됩니다. 호출은 모드의 처리 스레드에서 동기적으로 일어나며,
+ * {@code src}는 모드가 작업 중인 배열 그 자체(복사본이 아님)라서 호출이 끝나면 바로 덮어써질 수 있습니다.
+ * 값을 보관하려면 {@code [offset, offset + length)} 구간을 호출 안에서 복사해야 합니다.</p>
+ */
+@FunctionalInterface
+public interface ModeTracer {
+    /**
+     * @param mode 현재 모드
+     * @param blockIndex 메시지 안에서의 블록 번호(0부터)
+     * @param kind 값 종류
+     * @param src 값이 들어 있는 모드 내부 배열
+     * @param offset {@code src} 안에서 값이 시작하는 위치
+     * @param length 값 길이(최대 한 블록)
+     */
+    void onBlock(ModeType mode, int blockIndex, TraceKind kind, byte[] src, int offset, int length);
+}
@@ -0,0 +1,50 @@
+package com.example.blockcipher.trace;
+
+import com.example.blockcipher.mode.ModeType;
+import com.example.blockcipher.util.Hex;
+import java.util.Arrays;
+
+/**
+ * {@link TraceRingBuffer}에서 읽어 낸 이벤트 하나(불변)입니다.
+ */
+public final class TraceEvent {
+    private final long sequence;
+    private final ModeType mode;
+    private final int blockIndex;
+    private final TraceKind kind;
+    private final byte[] value;
+
+    TraceEvent(long sequence, ModeType mode, int blockIndex, TraceKind kind, byte[] value) {
+        this.sequence = sequence;
+        this.mode = mode;
+        this.blockIndex = blockIndex;
+        this.kind = kind;
+        this.value = value;
+    }
+
+    /** 전역 기록 순번(0부터). */
+    public long sequence() {
+        return sequence;
+    }
+
+    public ModeType mode() {
+        return mode;
+    }
+
+    public int blockIndex() {
+        return blockIndex;
+    }
+
+    public TraceKind kind() {
+        return kind;
+    }
+
+    public byte[] value() {
+        return Arrays.copyOf(value, value.length);
+    }
+
+    @Override
+    public String toString() {
+        return "#" + sequence + " " + mode + " block " + blockIndex + " " + kind + " = " + Hex.encode(value);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.blockcipher.trace;
+
+/**
+ * 블록 하나를 처리하면서 기록하는 중간 값의 종류입니다.
+ */
+public enum TraceKind {
+    /** 모드 입력 블록(평문 또는 암호문). */
+    INPUT,
+    /** 이전 블록에서 넘어온 체인/feedback 값(첫 블록은 IV). */
+    FEEDBACK,
+    /** CTR counter 블록. */
+    COUNTER,
+    /** 블록 암호 출력으로 만든 keystream. */
+    KEYSTREAM,
+    /** 블록 암호에 들어가기 직전 XOR 결과(CBC 암호화의 {@code P_i xor C_{i-1}}). */
+    XOR,
+    /** 모드 출력 블록. */
+    OUTPUT
+}
@@ -0,0 +1,116 @@
+package com.example.blockcipher.trace;
+
+import com.example.blockcipher.mode.ModeType;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 최근 이벤트를 고정 크기로 보관하는 lock-free 링 버퍼 {@link ModeTracer}입니다.
+ *
+ * <p>기록 경로</p>
+ * <p>1. 전역 순번 {@code seq}를 {@link AtomicLong#getAndIncrement()}로 받아 슬롯({@code seq & mask}) 결정</p>
+ * <p>2. 슬롯 게시 값을 -1(기록 중)로 바꾼 뒤 미리 할당된 배열에 필드와 값을 복사
+ * (값은 모드 배열의 {@code [offset, offset + length)}에서 슬롯으로 바로 복사)</p>
+ * <p>3. 게시 값을 {@code seq}로 release 저장</p>
+ *
+ * <p>이벤트당 객체 할당이 없고 잠금도 없습니다. 가득 차면 가장 오래된 이벤트를 덮어씁니다.
+ * 읽기({@link #snapshot()})는 복사 전후 게시 값이 같은 슬롯만 채택하는 seqlock 방식이라
+ * 기록 중이거나 덮어쓰기 중인 슬롯은 건너뜁니다.</p>
+ */
+public final class TraceRingBuffer implements ModeTracer {
+    /** 이벤트 값 최대 길이(한 블록). */
+    public static final int MAX_VALUE_LENGTH = 16;
+
+    private static final ModeType[] MODES = ModeType.values();
+    private static final TraceKind[] KINDS = TraceKind.values();
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLongArray published;
+    private final int[] modes;
+    private final int[] blockIndexes;
+    private final int[] kinds;
+    private final int[] lengths;
+    private final byte[] values;
+
+    /**
+     * @param capacity 보관할 이벤트 수(2의 거듭제곱으로 올림)
+     */
+    public TraceRingBuffer(int capacity) {
+        if (capacity <= 0 || capacity > (1 << 24)) {
+            throw new IllegalArgumentException("capacity must be between 1 and 2^24");
+        }
+        this.capacity = ceilPowerOfTwo(capacity);
+        this.mask = this.capacity - 1;
+        this.published = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            published.set(i, -1L);
+        }
+        this.modes = new int[this.capacity];
+        this.blockIndexes = new int[this.capacity];
+        this.kinds = new int[this.capacity];
+        this.lengths = new int[this.capacity];
+        this.values = new byte[this.capacity * MAX_VALUE_LENGTH];
+    }
+
+    @Override
+    public void onBlock(ModeType mode, int blockIndex, TraceKind kind, byte[] src, int offset, int length) {
+        long seq = sequence.getAndIncrement();
+        int slot = (int) (seq & mask);
+        published.set(slot, -1L);
+        // 아래 필드 쓰기가 "기록 중" 표시보다 먼저 보이지 않도록 합니다.
+        VarHandle.storeStoreFence();
+        modes[slot] = mode.ordinal();
+        blockIndexes[slot] = blockIndex;
+        kinds[slot] = kind.ordinal();
+        int copied = Math.min(length, MAX_VALUE_LENGTH);
+        lengths[slot] = copied;
+        System.arraycopy(src, offset, values, slot * MAX_VALUE_LENGTH, copied);
+        published.lazySet(slot, seq);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * 지금까지 기록을 시작한 이벤트 수(덮어쓴 것 포함).
+     */
+    public long recorded() {
+        return sequence.get();
+    }
+
+    /**
+     * 남아 있는 이벤트를 오래된 순서로 복사해 반환합니다.
+     */
+    public List<TraceEvent> snapshot() {
+        long end = sequence.get();
+        long start = Math.max(0, end - capacity);
+        List<TraceEvent> events = new ArrayList<>((int) (end - start));
+        for (long seq = start; seq < end; seq++) {
+            int slot = (int) (seq & mask);
+            if (published.get(slot) != seq) {
+                continue;
+            }
+            ModeType mode = MODES[modes[slot]];
+            int blockIndex = blockIndexes[slot];
+            TraceKind kind = KINDS[kinds[slot]];
+            byte[] value = new byte[lengths[slot]];
+            System.arraycopy(values, slot * MAX_VALUE_LENGTH, value, 0, value.length);
+            // 복사하는 동안 다른 스레드가 슬롯을 덮어쓰기 시작했으면 버립니다.
+            VarHandle.acquireFence();
+            if (published.get(slot) == seq) {
+                events.add(new TraceEvent(seq, mode, blockIndex, kind, value));
+            }
+        }
+        return events;
+    }
+
+    private static int ceilPowerOfTwo(int value) {
+        return value == 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.blockcipher.trace;
+
+/**
+ * 추적 스위치와 현재 설치된 {@link ModeTracer}를 관리합니다.
+ *
+ * <p>{@link #ENABLED}는 JVM 시작 시 {@code -Dblockcipher.trace=true}로만 켤 수 있는 {@code static final} 상수입니다.
+ * JIT는 이 값을 상수로 접어서 {@code if (Tracing.ENABLED)} 블록을 통째로 제거하므로,
+ * 꺼진 상태에서는 모드 루프에 추가 비용이 없습니다(인자 계산 포함).</p>
+ */
+public final class Tracing {
+    /** 추적 활성화 여부(시스템 속성 {@code blockcipher.trace}). */
+    public static final boolean ENABLED = Boolean.getBoolean("blockcipher.trace");
+
+    private static volatile ModeTracer tracer;
+
+    private Tracing() {
+    }
+
+    /**
+     * 추적 대상을 설치합니다. null이면 해제합니다.
+     *
+     * @throws IllegalStateException 추적이 꺼진 JVM에서 설치하려는 경우
+     */
+    public static void install(ModeTracer newTracer) {
+        if (newTracer != null && !ENABLED) {
+            throw new IllegalStateException("tracing is disabled; start the JVM with -Dblockcipher.trace=true");
+        }
+        tracer = newTracer;
+    }
+
+    /**
+     * 현재 설치된 추적 대상을 반환합니다. 없으면 null.
+     */
+    public static ModeTracer tracer() {
+        return tracer;
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.blockcipher.util;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 크기 등급(size class)별로 버퍼를 재사용하는 풀입니다.
+ *
+ * <p>메시지 전체 크기의 출력/작업 배열을 호출마다 새로 만들면, 큰 메시지에서는 G1의 humongous 영역 할당이
+ * 반복됩니다. 이 풀은 요청 크기를 2의 거듭제곱 등급으로 올려 같은 등급의 버퍼를 돌려 씁니다.</p>
+ *
+ * <p>동작 규칙</p>
+ * <p>1. 등급은 {@link #MIN_CLASS_SIZE}부터 {@code maxPooledSize}까지, 그보다 크면 풀링하지 않고 매번 할당</p>
+ * <p>2. 등급별 보관 수는 {@code maxBuffersPerClass}로 제한(넘치면 반납 버퍼를 버림)</p>
+ * <p>3. 등급별 보관소는 lock-free 스택이라 여러 스레드가 동시에 빌리고 반납해도 됨</p>
+ * <p>4. {@code zeroizeOnRelease}이면 반납 시 내용을 0으로 지운 뒤 보관(키 스트림/평문 잔존 방지)</p>
+ *
+ * <p>힙({@code byte[]} 기반) 또는 direct 버퍼 중 하나를 생성 시 선택합니다.</p>
+ */
+public final class BufferPool {
+    /** 가장 작은 등급 크기(바이트). */
+    public static final int MIN_CLASS_SIZE = 256;
+
+    /** 기본 최대 풀링 크기(16 MiB). */
+    public static final int DEFAULT_MAX_POOLED_SIZE = 16 * 1024 * 1024;
+
+    /** 기본 등급별 보관 수. */
+    public static final int DEFAULT_MAX_BUFFERS_PER_CLASS = 8;
+
+    private final boolean direct;
+    private final int maxPooledSize;
+    private final int maxBuffersPerClass;
+    private final boolean zeroizeOnRelease;
+    private final ConcurrentLinkedDeque<ByteBuffer>[] classes;
+    private final AtomicInteger[] counts;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder oversized = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+
+    /**
+     * @param direct direct 버퍼를 만들면 true, 힙 버퍼면 false
+     * @param maxPooledSize 풀링할 최대 버퍼 크기(2의 거듭제곱으로 올림)
+     * @param maxBuffersPerClass 등급별로 보관할 최대 버퍼 수
+     * @param zeroizeOnRelease 반납 시 내용을 0으로 지울지 여부
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public BufferPool(boolean direct, int maxPooledSize, int maxBuffersPerClass, boolean zeroizeOnRelease) {
+        if (maxPooledSize < MIN_CLASS_SIZE || maxPooledSize > (1 << 30)) {
+            throw new IllegalArgumentException("maxPooledSize must be between " + MIN_CLASS_SIZE + " and 2^30");
+        }
+        if (maxBuffersPerClass <= 0) {
+            throw new IllegalArgumentException("maxBuffersPerClass must be positive");
+        }
+        this.direct = direct;
+        this.maxBuffersPerClass = maxBuffersPerClass;
+        this.zeroizeOnRelease = zeroizeOnRelease;
+        int classCount = classIndex(maxPooledSize) + 1;
+        this.maxPooledSize = classSize(classCount - 1);
+        this.classes = new ConcurrentLinkedDeque[classCount];
+        this.counts = new AtomicInteger[classCount];
+        for (int i = 0; i < classCount; i++) {
+            classes[i] = new ConcurrentLinkedDeque<>();
+            counts[i] = new AtomicInteger();
+        }
+    }
+
+    /**
+     * 기본 설정의 힙 버퍼 풀(반납 시 0으로 지움)을 생성합니다.
+     */
+    public static BufferPool heap() {
+        return new BufferPool(false, DEFAULT_MAX_POOLED_SIZE, DEFAULT_MAX_BUFFERS_PER_CLASS, true);
+    }
+
+    /**
+     * 기본 설정의 direct 버퍼 풀(반납 시 0으로 지움)을 생성합니다.
+     */
+    public static BufferPool direct() {
+        return new BufferPool(true, DEFAULT_MAX_POOLED_SIZE, DEFAULT_MAX_BUFFERS_PER_CLASS, true);
+    }
+
+    /**
+     * 최소 {@code size} 바이트를 담을 수 있는 버퍼를 빌립니다.
+     *
+     * <p>반환된 버퍼는 position 0, limit {@code size}입니다.
+     * 사용 후 반드시 {@link PooledBuffer#release()}(또는 try-with-resources)로 반납합니다.</p>
+     */
+    public PooledBuffer acquire(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("size must not be negative");
+        }
+        if (size > maxPooledSize) {
+            oversized.increment();
+            misses.increment();
+            return new PooledBuffer(this, allocate(size), size, -1);
+        }
+        int index = classIndex(size);
+        ByteBuffer buffer = classes[index].pollFirst();
+        if (buffer != null) {
+            counts[index].decrementAndGet();
+            hits.increment();
+        } else {
+            misses.increment();
+            buffer = allocate(classSize(index));
+        }
+        buffer.clear().limit(size);
+        return new PooledBuffer(this, buffer, size, index);
+    }
+
+    /**
+     * {@link PooledBuffer#release()}에서 호출합니다.
+     */
+    void release(PooledBuffer pooled) {
+        ByteBuffer buffer = pooled.rawBuffer();
+        int index = pooled.sizeClass();
+        if (index < 0 || counts[index].incrementAndGet() > maxBuffersPerClass) {
+            if (index >= 0) {
+                counts[index].decrementAndGet();
+            }
+            discarded.increment();
+            // 버리는 버퍼도 GC 전까지 메모리에 남으므로 설정에 따라 지웁니다.
+            if (zeroizeOnRelease) {
+                zeroize(buffer);
+            }
+            return;
+        }
+        if (zeroizeOnRelease) {
+            zeroize(buffer);
+        }
+        classes[index].offerFirst(buffer);
+    }
+
+    public boolean isDirect() {
+        return direct;
+    }
+
+    /** 풀에서 꺼내 준 횟수. */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /** 새로 할당한 횟수(풀 크기 초과 요청 포함). */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /** 풀링 한도보다 커서 매번 할당한 횟수. */
+    public long oversized() {
+        return oversized.sum();
+    }
+
+    /** 보관 한도 초과 등으로 반납 시 버린 횟수. */
+    public long discarded() {
+        return discarded.sum();
+    }
+
+    /**
+     * 적중률 = hits / (hits + misses).
+     */
+    public double hitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    /**
+     * 현재 보관 중인 버퍼 수.
+     */
+    public int pooledCount() {
+        int total = 0;
+        for (AtomicInteger count : counts) {
+            total += count.get();
+        }
+        return total;
+    }
+
+    /**
+     * 보관 중인 버퍼를 모두 지우고 비웁니다.
+     */
+    public void clear() {
+        for (int i = 0; i < classes.length; i++) {
+            ByteBuffer buffer;
+            while ((buffer = classes[i].pollFirst()) != null) {
+                counts[i].decrementAndGet();
+                zeroize(buffer);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            Locale.ROOT,
+            "BufferPool[%s, hits=%d, misses=%d, hitRate=%.2f, pooled=%d, discarded=%d]",
+            direct ? "direct" : "heap",
+            hits(),
+            misses(),
+            hitRate(),
+            pooledCount(),
+            discarded()
+        );
+    }
+
+    /**
+     * 버퍼 전체 용량을 0으로 지웁니다(position/limit은 유지하지 않음).
+     */
+    static void zeroize(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            int start = buffer.arrayOffset();
+            Arrays.fill(buffer.array(), start, start + buffer.capacity(), (byte) 0);
+            return;
+        }
+        buffer.clear();
+        while (buffer.remaining() >= Long.BYTES) {
+            buffer.putLong(0L);
+        }
+        while (buffer.hasRemaining()) {
+            buffer.put((byte) 0);
+        }
+        buffer.clear();
+    }
+
+    private ByteBuffer allocate(int capacity) {
+        return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+
+    /**
+     * {@code size}를 담는 가장 작은 등급 번호(0 = {@link #MIN_CLASS_SIZE}).
+     */
+    private static int classIndex(int size) {
+        if (size <= MIN_CLASS_SIZE) {
+            return 0;
+        }
+        int bits = 32 - Integer.numberOfLeadingZeros(size - 1);
+        return bits - Integer.numberOfTrailingZeros(MIN_CLASS_SIZE);
+    }
+
+    private static int classSize(int index) {
+        return MIN_CLASS_SIZE << index;
+    }
+}
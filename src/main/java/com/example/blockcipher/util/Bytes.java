@@ -1,5 +1,6 @@
 package com.example.blockcipher.util;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.stream.IntStream;
 
@@ -50,6 +51,28 @@ public final class Bytes {
         return true;
     }
 
+    /**
+     * 빅엔디언 counter 배열에 부호 없는 {@code long} 값을 더합니다.
+     *
+     * <p>CTR에서 {@code 2^31}블록을 넘는 위치로 바로 이동할 때 사용합니다.
+     * 하위 8바이트에 값을 더한 뒤 carry를 상위 바이트로 전파합니다.</p>
+     *
+     * @return 배열 전체 범위를 넘어 wrap됐으면 true
+     */
+    public static boolean addBigEndian(byte[] counter, long value) {
+        long carry = 0;
+        for (int i = counter.length - 1; i >= 0; i--) {
+            long sum = (counter[i] & 0xFFL) + (value & 0xFFL) + carry;
+            counter[i] = (byte) sum;
+            carry = sum >>> 8;
+            value >>>= 8;
+            if (value == 0 && carry == 0) {
+                return false;
+            }
+        }
+        return carry != 0 || value != 0;
+    }
+
     /**
      * 두 배열을 앞뒤로 이어붙입니다.
      */
@@ -58,4 +81,22 @@ public final class Bytes {
         System.arraycopy(b, 0, out, a.length, b.length);
         return out;
     }
+
+    /**
+     * {@code input[offset, offset + length)}가 배열 범위 안인지 검증합니다.
+     */
+    public static void requireRange(byte[] input, int offset, int length) {
+        if (input == null || offset < 0 || length < 0 || offset > input.length - length) {
+            throw new IllegalArgumentException("input range is out of bounds");
+        }
+    }
+
+    /**
+     * 출력 버퍼에 {@code needed} 바이트 이상 남았는지 검증합니다.
+     */
+    public static void requireRemaining(ByteBuffer out, int needed) {
+        if (out.remaining() < needed) {
+            throw new IllegalArgumentException("output buffer must have at least " + needed + " bytes remaining");
+        }
+    }
 }
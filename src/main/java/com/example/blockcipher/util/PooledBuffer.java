@@ -0,0 +1,99 @@
+package com.example.blockcipher.util;
+
+import java.nio.ByteBuffer;
+
+/**
+ * {@link BufferPool}에서 빌린 버퍼 하나입니다.
+ *
+ * <p>내용은 {@link #buffer()}의 {@code [0, limit)} 구간입니다.
+ * 한 소유자가 사용하고 {@link #release()}(또는 {@link #close()})로 한 번만 반납합니다.
+ * 반납 후 접근하면 {@link IllegalStateException}이 발생합니다.</p>
+ */
+public final class PooledBuffer implements AutoCloseable {
+    private final BufferPool pool;
+    private final ByteBuffer buffer;
+    private final int size;
+    private final int sizeClass;
+    private boolean released;
+
+    PooledBuffer(BufferPool pool, ByteBuffer buffer, int size, int sizeClass) {
+        this.pool = pool;
+        this.buffer = buffer;
+        this.size = size;
+        this.sizeClass = sizeClass;
+    }
+
+    /**
+     * 빌린 버퍼를 반환합니다. 용량은 요청 크기 이상일 수 있습니다.
+     */
+    public ByteBuffer buffer() {
+        requireLive();
+        return buffer;
+    }
+
+    /**
+     * 힙 버퍼의 배경 배열을 반환합니다. 배열 길이는 요청 크기보다 클 수 있습니다.
+     */
+    public byte[] array() {
+        requireLive();
+        if (!buffer.hasArray()) {
+            throw new IllegalStateException("direct buffer has no backing array");
+        }
+        return buffer.array();
+    }
+
+    /**
+     * 빌릴 때 요청한 크기입니다.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * {@code [0, limit)} 구간을 새 배열로 복사합니다.
+     */
+    public byte[] toByteArray() {
+        requireLive();
+        byte[] out = new byte[buffer.limit()];
+        buffer.get(0, out);
+        return out;
+    }
+
+    /**
+     * 반납하지 않고 내용만 0으로 지웁니다.
+     */
+    public void zeroize() {
+        requireLive();
+        BufferPool.zeroize(buffer);
+    }
+
+    /**
+     * 풀에 반납합니다. 풀 설정에 따라 내용이 0으로 지워집니다.
+     */
+    public void release() {
+        requireLive();
+        released = true;
+        pool.release(this);
+    }
+
+    @Override
+    public void close() {
+        if (!released) {
+            release();
+        }
+    }
+
+    ByteBuffer rawBuffer() {
+        return buffer;
+    }
+
+    int sizeClass() {
+        return sizeClass;
+    }
+
+    private void requireLive() {
+        if (released) {
+            throw new IllegalStateException("buffer is already released");
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.blockcipher.bench;
+
+import com.example.blockcipher.core.AesBlockCipher;
+import com.example.blockcipher.core.BitslicedAesBlockCipher;
+import com.example.blockcipher.core.BlockCipher;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 블록 단위 JCA 호출, JCA 일괄 호출, 비트슬라이스 AES의 블록 처리량을 비교합니다.
+ *
+ * <p>AES intrinsic이 없는 환경을 흉내 내려면 {@code -jvmArgs -XX:-UseAES -XX:-UseAESIntrinsics}로 실행합니다.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BitslicedAesBenchmark {
+    /** 한 번에 처리할 블록 수. */
+    @Param({"8", "64", "4096"})
+    public int blocks;
+
+    private BlockCipher jca;
+    private BlockCipher bitsliced;
+    private byte[] input;
+    private byte[] output;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        byte[] key = new byte[16];
+        random.nextBytes(key);
+        jca = new AesBlockCipher(key);
+        bitsliced = new BitslicedAesBlockCipher(key);
+        input = new byte[blocks * 16];
+        random.nextBytes(input);
+        output = new byte[input.length];
+    }
+
+    @Benchmark
+    public byte[] jcaPerBlock() {
+        for (int offset = 0; offset < input.length; offset += 16) {
+            byte[] block = new byte[16];
+            System.arraycopy(input, offset, block, 0, 16);
+            System.arraycopy(jca.encryptBlock(block), 0, output, offset, 16);
+        }
+        return output;
+    }
+
+    @Benchmark
+    public byte[] jcaBulk() {
+        jca.encryptBlocks(input, 0, output, 0, blocks);
+        return output;
+    }
+
+    @Benchmark
+    public byte[] bitsliced() {
+        bitsliced.encryptBlocks(input, 0, output, 0, blocks);
+        return output;
+    }
+}
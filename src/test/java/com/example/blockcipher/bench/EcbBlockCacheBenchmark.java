@@ -0,0 +1,96 @@
+package com.example.blockcipher.bench;
+
+import com.example.blockcipher.core.AesBlockCipher;
+import com.example.blockcipher.core.BitslicedAesBlockCipher;
+import com.example.blockcipher.core.BlockCipher;
+import com.example.blockcipher.factory.ModeFactory;
+import com.example.blockcipher.mode.BlockCache;
+import com.example.blockcipher.mode.ModeOfOperation;
+import com.example.blockcipher.mode.ModeType;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 반복 블록 비율별로 ECB 암호화를 {@link BlockCache} 유무로 비교합니다.
+ *
+ * <p>입력은 {@value #BLOCKS}블록이고 {@code repeatFraction} 비율의 블록이 고정 레코드 {@value #DISTINCT}종 중 하나입니다.
+ * 나머지는 무작위라 캐시에 남지 않습니다. 캐시는 설정 단계에서 한 번 데워 두고, 종료 시 적중률을 출력합니다.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EcbBlockCacheBenchmark {
+    /** 입력 블록 수(1 MiB). */
+    static final int BLOCKS = 65536;
+
+    /** 반복 레코드 종류 수. */
+    static final int DISTINCT = 256;
+
+    /** 블록 암호 구현. */
+    @Param({"jca", "bitsliced"})
+    public String cipher;
+
+    /** 반복 블록 비율. */
+    @Param({"0.0", "0.9", "0.99"})
+    public double repeatFraction;
+
+    private ModeOfOperation plain;
+    private ModeOfOperation cached;
+    private BlockCache cache;
+    private byte[] data;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        byte[] key = new byte[16];
+        random.nextBytes(key);
+        BlockCipher blockCipher = "jca".equals(cipher) ? new AesBlockCipher(key) : new BitslicedAesBlockCipher(key);
+        cache = new BlockCache(blockCipher, 4096);
+        plain = ModeFactory.create(ModeType.ECB, blockCipher);
+        cached = ModeFactory.createEcb(cache);
+
+        byte[][] records = new byte[DISTINCT][16];
+        for (byte[] record : records) {
+            random.nextBytes(record);
+        }
+        data = new byte[BLOCKS * 16];
+        random.nextBytes(data);
+        for (int i = 0; i < BLOCKS; i++) {
+            if (random.nextDouble() < repeatFraction) {
+                System.arraycopy(records[random.nextInt(DISTINCT)], 0, data, i * 16, 16);
+            }
+        }
+        cached.encrypt(data, new byte[0]);
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.printf("%n%s%n", cache);
+        cache.close();
+    }
+
+    @Benchmark
+    public byte[] uncached() {
+        return plain.encrypt(data, new byte[0]);
+    }
+
+    @Benchmark
+    public byte[] cached() {
+        return cached.encrypt(data, new byte[0]);
+    }
+}
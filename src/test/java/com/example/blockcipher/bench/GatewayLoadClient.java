@@ -0,0 +1,208 @@
+package com.example.blockcipher.bench;
+
+import com.example.blockcipher.core.AesBlockCipher;
+import com.example.blockcipher.factory.ModeFactory;
+import com.example.blockcipher.gateway.CipherGateway;
+import com.example.blockcipher.gateway.GatewayClient;
+import com.example.blockcipher.gateway.GatewayProtocol;
+import com.example.blockcipher.mode.ModeType;
+import com.example.blockcipher.service.ModeCipherService;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link CipherGateway}에 연결 여러 개로 pipelining 요청을 보내 요청/초와 지연을 재는 부하 클라이언트입니다.
+ *
+ * <pre>
+ * [--connect host:port] [--mode CTR] [--workers N] [--sizes 64,1024,16384]
+ * [--connections 4] [--pipeline 1,16] [--warmup-ms 1000] [--duration-ms 2000]
+ * </pre>
+ *
+ * <p>처리 순서</p>
+ * <p>1. {@code --connect}가 없으면 같은 JVM에 loopback 게이트웨이를 띄움(모드 {@code --mode}, 키 고정)</p>
+ * <p>2. 연결마다 송신 스레드 하나가 미완료 요청을 {@code --pipeline}개로 유지(응답이 오면 다음 요청)</p>
+ * <p>3. 워밍업 뒤 측정 구간의 요청 지연(송신 ~ 응답)을 연결별 {@link LatencyHistogram}에 기록하고 합침</p>
+ * <p>4. 크기 x pipeline 깊이마다 req/s, MB/s, p50/p99/p999/max(µs)를 한 줄씩 출력</p>
+ *
+ * <p>pipeline 1은 요청마다 왕복을 기다리는 경우입니다. 깊이를 늘렸을 때 req/s가 느는 만큼이
+ * 왕복/시스템 호출 비용을 겹쳐 숨긴 몫입니다.</p>
+ */
+public final class GatewayLoadClient {
+    private GatewayLoadClient() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        List<Integer> sizes = parseInts(options.getOrDefault("sizes", "64,1024,16384"));
+        List<Integer> depths = parseInts(options.getOrDefault("pipeline", "1,16"));
+        int connections = Integer.parseInt(options.getOrDefault("connections", "4"));
+        long warmupNanos = Long.parseLong(options.getOrDefault("warmup-ms", "1000")) * 1_000_000L;
+        long durationNanos = Long.parseLong(options.getOrDefault("duration-ms", "2000")) * 1_000_000L;
+
+        CipherGateway local = null;
+        InetSocketAddress address;
+        if (options.containsKey("connect")) {
+            String[] hostPort = options.get("connect").split(":");
+            address = new InetSocketAddress(hostPort[0], Integer.parseInt(hostPort[1]));
+        } else {
+            local = startLocal(options);
+            address = local.localAddress();
+        }
+        try {
+            System.out.printf(Locale.ROOT, "%7s %5s %8s %12s %9s %9s %9s %9s %9s%n",
+                "size", "conns", "pipeline", "req/s", "MB/s", "p50(us)", "p99(us)", "p999(us)", "max(us)");
+            for (int size : sizes) {
+                byte[] plaintext = new byte[size];
+                new Random(size).nextBytes(plaintext);
+                for (int depth : depths) {
+                    Result result = run(address, plaintext, connections, depth, warmupNanos, durationNanos);
+                    LatencyHistogram latency = result.latency;
+                    System.out.printf(Locale.ROOT, "%7d %5d %8d %12.0f %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                        size, connections, depth, result.requestsPerSecond, result.requestsPerSecond * size / 1e6,
+                        latency.percentile(0.50) / 1e3, latency.percentile(0.99) / 1e3,
+                        latency.percentile(0.999) / 1e3, latency.max() / 1e3);
+                }
+            }
+            if (local != null) {
+                System.out.println(local);
+                System.out.println(local.bufferPool());
+            }
+        } finally {
+            if (local != null) {
+                local.close();
+            }
+        }
+    }
+
+    private static CipherGateway startLocal(Map<String, String> options) throws IOException {
+        ModeType mode = ModeType.valueOf(options.getOrDefault("mode", "CTR").toUpperCase(Locale.ROOT));
+        byte[] key = new byte[16];
+        new Random(1).nextBytes(key);
+        ModeCipherService service = new ModeCipherService(ModeFactory.create(mode, new AesBlockCipher(key)));
+        if (!options.containsKey("workers")) {
+            return CipherGateway.loopback(service).start();
+        }
+        return new CipherGateway(
+            service,
+            new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+            Integer.parseInt(options.get("workers")),
+            GatewayProtocol.DEFAULT_MAX_PAYLOAD_BYTES,
+            CipherGateway.DEFAULT_INLINE_MAX_BYTES,
+            CipherGateway.DEFAULT_MAX_IN_FLIGHT
+        ).start();
+    }
+
+    /**
+     * 연결 {@code connections}개로 워밍업 후 측정 구간을 실행합니다.
+     *
+     * <p>응답 콜백은 대개 연결별 클라이언트 읽기 스레드에서 돌지만, 콜백을 붙이기 전에 응답이 오면
+     * 송신 스레드에서 돌므로 연결별 히스토그램 기록은 잠금으로 감쌉니다(경합은 거의 없음).</p>
+     */
+    static Result run(
+        InetSocketAddress address,
+        byte[] plaintext,
+        int connections,
+        int depth,
+        long warmupNanos,
+        long durationNanos
+    ) throws IOException, InterruptedException {
+        List<GatewayClient> clients = new ArrayList<>();
+        LatencyHistogram[] histograms = new LatencyHistogram[connections];
+        Thread[] senders = new Thread[connections];
+        AtomicLong failures = new AtomicLong();
+        long measureFrom = System.nanoTime() + warmupNanos;
+        long measureUntil = measureFrom + durationNanos;
+        try {
+            for (int c = 0; c < connections; c++) {
+                GatewayClient client = new GatewayClient(address);
+                clients.add(client);
+                LatencyHistogram histogram = new LatencyHistogram();
+                histograms[c] = histogram;
+                Semaphore window = new Semaphore(depth);
+                senders[c] = new Thread(() -> {
+                    while (System.nanoTime() < measureUntil) {
+                        try {
+                            window.acquire();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                        long sentAt = System.nanoTime();
+                        client.encrypt(plaintext).whenComplete((packed, error) -> {
+                            long done = System.nanoTime();
+                            if (error != null) {
+                                failures.incrementAndGet();
+                            } else if (sentAt >= measureFrom && done <= measureUntil) {
+                                synchronized (histogram) {
+                                    histogram.record(done - sentAt);
+                                }
+                            }
+                            window.release();
+                        });
+                    }
+                    // 미완료 요청이 모두 돌아올 때까지 기다린 뒤 끝냅니다(히스토그램을 합치기 전).
+                    window.acquireUninterruptibly(depth);
+                }, "gateway-load-" + c);
+            }
+            for (Thread sender : senders) {
+                sender.start();
+            }
+            for (Thread sender : senders) {
+                sender.join();
+            }
+        } finally {
+            for (GatewayClient client : clients) {
+                client.close();
+            }
+        }
+        if (failures.get() > 0) {
+            throw new IllegalStateException(failures.get() + " requests failed");
+        }
+        LatencyHistogram merged = new LatencyHistogram();
+        for (LatencyHistogram histogram : histograms) {
+            merged.add(histogram);
+        }
+        return new Result(merged, merged.count() * 1e9 / durationNanos);
+    }
+
+    private static List<Integer> parseInts(String csv) {
+        List<Integer> values = new ArrayList<>();
+        for (String value : csv.split(",")) {
+            values.add(Integer.parseInt(value.trim()));
+        }
+        return values;
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i += 2) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("invalid option: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+
+    /**
+     * 한 측정 지점의 결과.
+     */
+    static final class Result {
+        final LatencyHistogram latency;
+        final double requestsPerSecond;
+
+        Result(LatencyHistogram latency, double requestsPerSecond) {
+            this.latency = latency;
+            this.requestsPerSecond = requestsPerSecond;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.blockcipher.bench;
+
+import com.example.blockcipher.core.AesBlockCipher;
+import com.example.blockcipher.factory.ModeFactory;
+import com.example.blockcipher.mode.ModeOfOperation;
+import com.example.blockcipher.mode.ModeType;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 직접 구현한 모드(블록 단위 조합)와 JCA 빠른 경로의 처리량을 비교합니다.
+ *
+ * <p>실행 방법은 README의 Benchmarks 절을 참고하세요.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JcaFastPathBenchmark {
+    /** 비교할 모드. */
+    @Param({"ECB", "CBC", "CFB", "OFB", "CTR"})
+    public ModeType mode;
+
+    /** 메시지 크기(바이트). */
+    @Param({"1024", "65536", "1048576"})
+    public int size;
+
+    /** CUSTOM: 블록 단위 조합, JCA: 전체 모드 위임. */
+    @Param({"CUSTOM", "JCA"})
+    public String path;
+
+    private ModeOfOperation operation;
+    private byte[] iv;
+    private byte[] plaintext;
+    private byte[] ciphertext;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        byte[] key = new byte[16];
+        random.nextBytes(key);
+        AesBlockCipher cipher = new AesBlockCipher(key);
+        operation = "JCA".equals(path)
+            ? ModeFactory.createAccelerated(mode, cipher)
+            : ModeFactory.create(mode, cipher);
+        iv = new byte[operation.ivLength()];
+        random.nextBytes(iv);
+        plaintext = new byte[size];
+        random.nextBytes(plaintext);
+        ciphertext = operation.encrypt(plaintext, iv);
+    }
+
+    @Benchmark
+    public byte[] encrypt() {
+        return operation.encrypt(plaintext, iv);
+    }
+
+    @Benchmark
+    public byte[] decrypt() {
+        return operation.decrypt(ciphertext, iv);
+    }
+}
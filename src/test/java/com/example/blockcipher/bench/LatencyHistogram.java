@@ -0,0 +1,82 @@
+package com.example.blockcipher.bench;
+
+/**
+ * 나노초 지연을 로그-선형 버킷에 세는 단일 스레드용 히스토그램입니다.
+ *
+ * <p>2의 거듭제곱 구간마다 16개 하위 버킷을 두어 상대 오차가 약 6% 이내입니다.
+ * 기록은 배열 증가 한 번이라 측정 루프에 할당이 없고, 스레드별로 하나씩 두고 끝난 뒤 {@link #add}로 합칩니다.</p>
+ */
+final class LatencyHistogram {
+    private static final int SUB_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    private final long[] counts = new long[64 * SUB_BUCKETS];
+    private long total;
+    private long max;
+
+    /**
+     * 지연 하나를 기록합니다(음수는 0으로 봅니다).
+     */
+    void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts[index(value)]++;
+        total++;
+        max = Math.max(max, value);
+    }
+
+    /**
+     * 다른 히스토그램의 기록을 더합니다.
+     */
+    void add(LatencyHistogram other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        total += other.total;
+        max = Math.max(max, other.max);
+    }
+
+    long count() {
+        return total;
+    }
+
+    long max() {
+        return max;
+    }
+
+    /**
+     * 분위수(0 &lt; q &lt;= 1)에 해당하는 버킷의 상한을 나노초로 반환합니다.
+     */
+    long percentile(double q) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(q * total);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    private static int index(long value) {
+        int exponent = 63 - Long.numberOfLeadingZeros(value | 1);
+        if (exponent < SUB_BITS) {
+            return (int) value;
+        }
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BITS - 1;
+        long sub = index % SUB_BUCKETS;
+        int shift = exponent - SUB_BITS;
+        return ((SUB_BUCKETS + sub + 1) << shift) - 1;
+    }
+}
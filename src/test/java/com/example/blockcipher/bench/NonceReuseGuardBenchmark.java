@@ -0,0 +1,45 @@
+package com.example.blockcipher.bench;
+
+import com.example.blockcipher.guard.NonceReuseGuard;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 여러 스레드가 하나의 {@link NonceReuseGuard}에 새 nonce를 기록할 때의 검사 처리량을 측정합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class NonceReuseGuardBenchmark {
+    private NonceReuseGuard guard;
+
+    @Setup
+    public void setUp() {
+        guard = new NonceReuseGuard(100_000_000L, 1e-6, NonceReuseGuard.Policy.FLAG);
+    }
+
+    /**
+     * 스레드마다 난수 nonce를 만들어 기록합니다(난수 생성 비용 포함).
+     */
+    @Benchmark
+    public boolean checkFreshNonce() {
+        byte[] nonce = new byte[16];
+        ThreadLocalRandom.current().nextBytes(nonce);
+        return guard.checkAndRecord(nonce);
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.blockcipher.bench;
+
+import com.example.blockcipher.core.AesBlockCipher;
+import com.example.blockcipher.factory.ModeFactory;
+import com.example.blockcipher.mode.ModeType;
+import com.example.blockcipher.service.ModeCipherService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * 공유 {@link ModeCipherService} 하나에 스레드 1..N개가 닫힌 루프로 요청을 보내는 부하 드라이버입니다.
+ *
+ * <pre>
+ * [--modes ECB,CBC,CTR,GCM] [--sizes 64,1024,16384] [--max-threads N] [--path CUSTOM|JCA]
+ * [--warmup-ms 1000] [--duration-ms 2000]
+ * </pre>
+ *
+ * <p>처리 순서</p>
+ * <p>1. 모드 x 크기마다 서비스 하나(키 하나)를 만들고 모든 스레드가 공유</p>
+ * <p>2. 스레드 수를 1, 2, 4, ... N으로 늘리며, 각 스레드는 응답을 받자마자 다음 요청을 보냄</p>
+ * <p>3. 워밍업 뒤 측정 구간의 지연을 스레드별 {@link LatencyHistogram}에 기록하고 합침</p>
+ * <p>4. ops/s, MB/s, p50/p99/p999/max(µs), 1스레드 대비 확장 효율을 한 줄씩 출력</p>
+ *
+ * <p>확장 효율이 떨어지기 시작하는 스레드 수가 공유 자원 경합({@code SecureRandom}, JCA 조회, 할당)이
+ * 나타나는 지점입니다. {@code --path JCA}와 비교하면 블록 단위 경로의 몫을 분리할 수 있습니다.</p>
+ */
+public final class ServiceLoadDriver {
+    private ServiceLoadDriver() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = parseOptions(args);
+        List<ModeType> modes = new ArrayList<>();
+        for (String name : options.getOrDefault("modes", "ECB,CBC,CTR,GCM").split(",")) {
+            modes.add(ModeType.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+        }
+        List<Integer> sizes = new ArrayList<>();
+        for (String size : options.getOrDefault("sizes", "64,1024,16384").split(",")) {
+            sizes.add(Integer.parseInt(size.trim()));
+        }
+        int maxThreads = Integer.parseInt(options.getOrDefault("max-threads",
+            Integer.toString(Runtime.getRuntime().availableProcessors() * 2)));
+        boolean jca = "JCA".equalsIgnoreCase(options.getOrDefault("path", "CUSTOM"));
+        long warmupNanos = Long.parseLong(options.getOrDefault("warmup-ms", "1000")) * 1_000_000L;
+        long durationNanos = Long.parseLong(options.getOrDefault("duration-ms", "2000")) * 1_000_000L;
+
+        System.out.printf(Locale.ROOT, "%-8s %7s %7s %12s %9s %9s %9s %9s %9s %6s%n",
+            "mode", "size", "threads", "ops/s", "MB/s", "p50(us)", "p99(us)", "p999(us)", "max(us)", "eff");
+        for (ModeType mode : modes) {
+            for (int size : sizes) {
+                ModeCipherService service = newService(mode, jca);
+                byte[] plaintext = new byte[size];
+                new Random(size).nextBytes(plaintext);
+                double singleThreadOps = 0;
+                for (int threads = 1; threads <= maxThreads; threads *= 2) {
+                    Result result = run(service, plaintext, threads, warmupNanos, durationNanos);
+                    if (threads == 1) {
+                        singleThreadOps = result.opsPerSecond;
+                    }
+                    LatencyHistogram latency = result.latency;
+                    System.out.printf(Locale.ROOT, "%-8s %7d %7d %12.0f %9.1f %9.1f %9.1f %9.1f %9.1f %6.2f%n",
+                        mode, size, threads, result.opsPerSecond, result.opsPerSecond * size / 1e6,
+                        latency.percentile(0.50) / 1e3, latency.percentile(0.99) / 1e3,
+                        latency.percentile(0.999) / 1e3, latency.max() / 1e3,
+                        result.opsPerSecond / (singleThreadOps * threads));
+                }
+            }
+        }
+    }
+
+    private static ModeCipherService newService(ModeType mode, boolean jca) {
+        byte[] key = new byte[16];
+        new Random(1).nextBytes(key);
+        AesBlockCipher cipher = new AesBlockCipher(key);
+        return new ModeCipherService(jca
+            ? ModeFactory.createAccelerated(mode, cipher)
+            : ModeFactory.create(mode, cipher));
+    }
+
+    /**
+     * 스레드 {@code threads}개로 워밍업 후 측정 구간을 실행합니다.
+     *
+     * <p>모든 스레드가 같은 시작/종료 시각을 쓰므로 처리량은 측정 구간 전체 완료 수 / 구간 길이입니다.</p>
+     */
+    static Result run(ModeCipherService service, byte[] plaintext, int threads, long warmupNanos, long durationNanos)
+        throws InterruptedException {
+        LatencyHistogram[] histograms = new LatencyHistogram[threads];
+        Thread[] workers = new Thread[threads];
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        long[] window = new long[2];
+        for (int t = 0; t < threads; t++) {
+            LatencyHistogram histogram = new LatencyHistogram();
+            histograms[t] = histogram;
+            workers[t] = new Thread(() -> {
+                ready.countDown();
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long measureFrom = window[0];
+                long measureUntil = window[1];
+                long now = System.nanoTime();
+                while (now < measureUntil) {
+                    service.encryptWithHeader(plaintext);
+                    long done = System.nanoTime();
+                    if (now >= measureFrom) {
+                        histogram.record(done - now);
+                    }
+                    now = done;
+                }
+            }, "load-" + t);
+        }
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        ready.await();
+        window[0] = System.nanoTime() + warmupNanos;
+        window[1] = window[0] + durationNanos;
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        LatencyHistogram merged = new LatencyHistogram();
+        for (LatencyHistogram histogram : histograms) {
+            merged.add(histogram);
+        }
+        return new Result(merged, merged.count() * 1e9 / durationNanos);
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i += 2) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("invalid option: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+
+    /**
+     * 한 측정 지점의 결과.
+     */
+    static final class Result {
+        final LatencyHistogram latency;
+        final double opsPerSecond;
+
+        Result(LatencyHistogram latency, double opsPerSecond) {
+            this.latency = latency;
+            this.opsPerSecond = opsPerSecond;
+        }
+    }
+}
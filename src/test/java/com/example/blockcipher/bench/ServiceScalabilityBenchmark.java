@@ -0,0 +1,88 @@
+package com.example.blockcipher.bench;
+
+import com.example.blockcipher.core.AesBlockCipher;
+import com.example.blockcipher.factory.ModeFactory;
+import com.example.blockcipher.mode.ModeType;
+import com.example.blockcipher.service.ModeCipherService;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 스레드 여러 개가 {@link ModeCipherService} 하나(모드/키 하나)를 공유할 때의 처리량과 지연 분포를 잽니다.
+ *
+ * <p>{@code Mode.SampleTime}이 p50/p99/p999를 함께 출력합니다. 스레드 수는 메서드별 {@code @Threads}로
+ * 1/2/4/8을 고정 측정하고, 그 밖의 값은 {@code -t N}으로 덮어씁니다.
+ * 공유 자원(서비스의 {@code SecureRandom}, {@code AesBlockCipher}의 JCA 조회, 할당)을 분리해 보려면
+ * {@code path}와 {@code -prof gc}를 함께 바꿔 봅니다. 닫힌 루프 측정은 {@link ServiceLoadDriver}를 쓰세요.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServiceScalabilityBenchmark {
+    /** 공유할 모드. */
+    @Param({"ECB", "CBC", "CTR", "GCM"})
+    public ModeType mode;
+
+    /** 메시지 크기(바이트). */
+    @Param({"64", "1024", "16384"})
+    public int size;
+
+    /** CUSTOM: 블록 단위 조합, JCA: 전체 모드 위임. */
+    @Param({"CUSTOM", "JCA"})
+    public String path;
+
+    private ModeCipherService service;
+    private byte[] plaintext;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        byte[] key = new byte[16];
+        random.nextBytes(key);
+        AesBlockCipher cipher = new AesBlockCipher(key);
+        service = new ModeCipherService("JCA".equals(path)
+            ? ModeFactory.createAccelerated(mode, cipher)
+            : ModeFactory.create(mode, cipher));
+        plaintext = new byte[size];
+        random.nextBytes(plaintext);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public byte[] threads1() {
+        return service.encryptWithHeader(plaintext);
+    }
+
+    @Benchmark
+    @Threads(2)
+    public byte[] threads2() {
+        return service.encryptWithHeader(plaintext);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public byte[] threads4() {
+        return service.encryptWithHeader(plaintext);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public byte[] threads8() {
+        return service.encryptWithHeader(plaintext);
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.blockcipher.cli;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.example.blockcipher.core.AesBlockCipher;
+import com.example.blockcipher.factory.ModeFactory;
+import com.example.blockcipher.mode.ModeType;
+import com.example.blockcipher.service.ModeCipherService;
+import com.example.blockcipher.util.BufferPool;
+import com.example.blockcipher.util.Hex;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * 파이프라인 결과가 {@link ModeCipherService} 형식과 호환되고 왕복 복원되는지 검증합니다.
+ */
+class CipherPipelineTest {
+    private static final byte[] KEY = Hex.decode("000102030405060708090a0b0c0d0e0f");
+
+    /**
+     * 여러 청크(작은 청크 크기)와 경계 길이에서 왕복 복원되고, 서비스로도 복호화되어야 합니다.
+     */
+    @ParameterizedTest
+    @EnumSource(value = ModeType.class, names = {"ECB", "CBC", "CFB", "OFB", "CTR"})
+    void roundTripIsCompatibleWithService(ModeType type, @TempDir Path dir) throws IOException {
+        AesBlockCipher cipher = new AesBlockCipher(KEY);
+        ModeCipherService service = new ModeCipherService(ModeFactory.create(type, cipher));
+        try (CipherPipeline encryptor = new CipherPipeline(type, cipher, true, 3, 64, 2);
+             CipherPipeline decryptor = new CipherPipeline(type, cipher, false, 3, 64, 2)) {
+            for (int length : new int[] {0, 15, 64, 1000, 4096}) {
+                byte[] plaintext = randomBytes(length, length);
+                Path plain = Files.write(dir.resolve("plain-" + length), plaintext);
+                Path encrypted = dir.resolve("enc-" + length);
+                Path restored = dir.resolve("dec-" + length);
+
+                PipelineReport report = encryptor.run(plain, encrypted);
+                decryptor.run(encrypted, restored);
+
+                byte[] packed = Files.readAllBytes(encrypted);
+                assertEquals(packed.length, report.bytesOut(), type + " length=" + length);
+                assertArrayEquals(plaintext, service.decryptWithHeader(packed), type + " length=" + length);
+                assertArrayEquals(plaintext, Files.readAllBytes(restored), type + " length=" + length);
+            }
+        }
+    }
+
+    /**
+     * 디렉터리 입력은 하위 구조를 유지해 출력해야 합니다.
+     */
+    @Test
+    void cliMirrorsDirectories(@TempDir Path dir) throws IOException {
+        Path source = dir.resolve("src");
+        Files.createDirectories(source.resolve("nested"));
+        byte[] a = randomBytes(3000, 1);
+        byte[] b = randomBytes(77, 2);
+        Files.write(source.resolve("a.bin"), a);
+        Files.write(source.resolve("nested/b.bin"), b);
+
+        String key = Hex.encode(KEY);
+        BulkCipherCli.run(new String[] {
+            "encrypt", "--mode", "CTR", "--key", key, "--in", source.toString(),
+            "--out", dir.resolve("enc").toString(), "--chunk-size", "256"
+        });
+        BulkCipherCli.run(new String[] {
+            "decrypt", "--mode", "CTR", "--key", key, "--in", dir.resolve("enc").toString(),
+            "--out", dir.resolve("dec").toString(), "--chunk-size", "256"
+        });
+
+        assertArrayEquals(a, Files.readAllBytes(dir.resolve("dec/a.bin")));
+        assertArrayEquals(b, Files.readAllBytes(dir.resolve("dec/nested/b.bin")));
+    }
+
+    /**
+     * 작업자에서 난 예외(잘못된 패딩)는 호출자에게 전달되어야 합니다.
+     */
+    @Test
+    void workerFailureIsPropagated(@TempDir Path dir) throws IOException {
+        Path broken = Files.write(dir.resolve("broken"), randomBytes(16 + 32, 3));
+        try (CipherPipeline decryptor = new CipherPipeline(ModeType.CBC, new AesBlockCipher(KEY), false, 2, 16, 1)) {
+            assertThrows(IllegalArgumentException.class, () -> decryptor.run(broken, dir.resolve("out")));
+        }
+    }
+
+    /**
+     * 실패한 실행 뒤에도 같은 파이프라인(같은 단계 스레드)으로 다음 파일을 처리하고, 청크 버퍼는 모두 반납되어야 합니다.
+     */
+    @Test
+    void reusesStageThreadsAfterFailure(@TempDir Path dir) throws IOException {
+        AesBlockCipher cipher = new AesBlockCipher(KEY);
+        byte[] plaintext = randomBytes(500, 4);
+        Path packed = dir.resolve("packed");
+        Files.write(packed, new ModeCipherService(ModeFactory.create(ModeType.CBC, cipher)).encryptWithHeader(plaintext));
+        Path broken = Files.write(dir.resolve("broken"), randomBytes(16 + 32, 3));
+
+        CipherPipeline decryptor = new CipherPipeline(ModeType.CBC, cipher, false, 2, 16, 1);
+        try {
+            assertThrows(IllegalArgumentException.class, () -> decryptor.run(broken, dir.resolve("out")));
+            decryptor.run(packed, dir.resolve("restored"));
+            assertArrayEquals(plaintext, Files.readAllBytes(dir.resolve("restored")));
+            BufferPool pool = decryptor.pool();
+            assertEquals(pool.misses(), pool.pooledCount() + pool.discarded(), pool.toString());
+        } finally {
+            decryptor.close();
+        }
+        assertThrows(IllegalStateException.class, () -> decryptor.run(packed, dir.resolve("again")));
+    }
+
+    private static byte[] randomBytes(int length, int seed) {
+        byte[] out = new byte[length];
+        new Random(seed).nextBytes(out);
+        return out;
+    }
+}
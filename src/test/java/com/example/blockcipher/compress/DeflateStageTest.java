@@ -0,0 +1,121 @@
+package com.example.blockcipher.compress;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.blockcipher.core.AesBlockCipher;
+import com.example.blockcipher.core.CryptoException;
+import com.example.blockcipher.factory.ModeFactory;
+import com.example.blockcipher.mode.ModeOfOperation;
+import com.example.blockcipher.mode.ModeType;
+import com.example.blockcipher.service.ModeCipherService;
+import com.example.blockcipher.util.BufferPool;
+import com.example.blockcipher.util.PooledBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.Deflater;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * 압축 단계의 flag, 표본 기반 우회, 서비스 왕복(배열/풀 경로), 해제 상한을 검증합니다.
+ */
+class DeflateStageTest {
+    private static final byte[] KEY = new byte[16];
+
+    /**
+     * 잘 줄어드는 평문은 DEFLATED로 작게 저장되고 두 복호화 경로 모두 원문을 돌려줘야 합니다.
+     */
+    @ParameterizedTest
+    @EnumSource(value = ModeType.class, names = {"ECB", "CBC", "CFB", "OFB", "CTR", "GCM", "CBC_CS3"})
+    void compressibleRoundTrip(ModeType type) {
+        ModeOfOperation mode = ModeFactory.create(type, new AesBlockCipher(KEY));
+        DeflateStage compression = DeflateStage.defaults();
+        ModeCipherService service = new ModeCipherService(mode, null, compression);
+        byte[] plaintext = jsonLines(500);
+
+        byte[] packed = service.encryptWithHeader(plaintext);
+        assertTrue(packed.length < plaintext.length / 5, "packed length " + packed.length);
+        assertArrayEquals(plaintext, service.decryptWithHeader(packed));
+
+        BufferPool pool = BufferPool.heap();
+        try (PooledBuffer encrypted = service.encryptWithHeader(plaintext, pool)) {
+            byte[] pooledPacked = new byte[encrypted.buffer().remaining()];
+            encrypted.buffer().get(pooledPacked);
+            assertTrue(pooledPacked.length < plaintext.length / 5, "pooled length " + pooledPacked.length);
+            try (PooledBuffer decrypted = service.decryptWithHeader(pooledPacked, pool)) {
+                byte[] roundTrip = new byte[decrypted.buffer().remaining()];
+                decrypted.buffer().get(roundTrip);
+                assertArrayEquals(plaintext, roundTrip);
+            }
+        }
+        assertEquals(2, compression.compressed());
+    }
+
+    /**
+     * 난수처럼 줄지 않는 평문과 짧은 평문은 표본 검사에서 우회되어 STORED로 저장되어야 합니다.
+     */
+    @Test
+    void incompressibleInputBypasses() {
+        ModeOfOperation mode = ModeFactory.create(ModeType.CTR, new AesBlockCipher(KEY));
+        DeflateStage compression = DeflateStage.defaults();
+        ModeCipherService service = new ModeCipherService(mode, null, compression);
+        byte[] random = new byte[64 * 1024];
+        new Random(1).nextBytes(random);
+
+        byte[] packed = service.encryptWithHeader(random);
+        assertEquals(16 + 1 + random.length, packed.length);
+        assertArrayEquals(random, service.decryptWithHeader(packed));
+
+        byte[] shortText = "short".getBytes(StandardCharsets.UTF_8);
+        assertEquals(16 + 1 + shortText.length, service.encryptWithHeader(shortText).length);
+        assertEquals(2, compression.bypassed());
+        assertEquals(0, compression.compressed());
+    }
+
+    /**
+     * 해제 상한을 넘는 본문, 손상된 본문, 알 수 없는 flag는 거부되어야 합니다.
+     */
+    @Test
+    void rejectsBombsAndCorruption() {
+        DeflateStage small = new DeflateStage(Deflater.BEST_SPEED, 4096, 0.9, 1024);
+        byte[] zeros = DeflateStage.defaults().compressIfWorthwhile(new byte[100_000]);
+        IllegalArgumentException bomb = assertThrows(IllegalArgumentException.class,
+            () -> small.decompress(zeros, 0, zeros.length));
+        assertTrue(bomb.getMessage().contains("exceeds"));
+
+        assertThrows(IllegalArgumentException.class, () -> small.decompress(zeros, 0, zeros.length / 2));
+        assertThrows(IllegalArgumentException.class, () -> small.decompress(new byte[] {1, 2, 3, 4}, 0, 4));
+
+        // CTR은 평문 첫 바이트(flag)가 IV 바로 뒤 암호문 바이트와 XOR 관계입니다.
+        ModeOfOperation mode = ModeFactory.create(ModeType.CTR, new AesBlockCipher(KEY));
+        ModeCipherService service = new ModeCipherService(mode, null, DeflateStage.defaults());
+        byte[] packed = service.encryptWithHeader(jsonLines(10));
+        packed[16] ^= 7;
+        assertThrows(IllegalArgumentException.class, () -> service.decryptWithHeader(packed));
+    }
+
+    /**
+     * flag는 암호문 안에 있으므로 GCM에서 flag를 바꾸면(DEFLATED -> STORED) 인증에 실패해야 합니다.
+     */
+    @Test
+    void gcmAuthenticatesFlag() {
+        ModeOfOperation mode = ModeFactory.create(ModeType.GCM, new AesBlockCipher(KEY));
+        ModeCipherService service = new ModeCipherService(mode, null, DeflateStage.defaults());
+        byte[] packed = service.encryptWithHeader(jsonLines(100));
+
+        packed[mode.ivLength()] ^= DeflateStage.DEFLATED ^ DeflateStage.STORED;
+        assertThrows(CryptoException.class, () -> service.decryptWithHeader(packed));
+    }
+
+    private static byte[] jsonLines(int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            text.append("{\"ts\":").append(1_700_000_000 + i).append(",\"level\":\"INFO\",\"path\":\"/api/orders\"}\n");
+        }
+        return text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.blockcipher.container;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.example.blockcipher.core.AesBlockCipher;
+import com.example.blockcipher.factory.ModeFactory;
+import com.example.blockcipher.mode.ModeType;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * 청크 컨테이너의 전체 복호화와 범위 복호화를 검증합니다.
+ */
+class ChunkedContainerTest {
+    /**
+     * 모든 모드에서 청크 경계를 걸치는 길이로 왕복 복원되는지 확인합니다.
+     */
+    @ParameterizedTest
+    @MethodSource("singleCipherModes")
+    void roundTripAcrossChunkBoundaries(ModeType modeType) {
+        ChunkedContainer container = new ChunkedContainer(modeType, new AesBlockCipher(new byte[16]), 48);
+        for (int length : new int[] {0, 1, 47, 48, 49, 200}) {
+            byte[] plaintext = randomBytes(length, length);
+            assertArrayEquals(plaintext, container.decrypt(container.encrypt(plaintext)));
+        }
+    }
+
+    /**
+     * 범위 복호화 결과가 평문의 같은 구간과 일치하는지 확인합니다.
+     */
+    @ParameterizedTest
+    @MethodSource("singleCipherModes")
+    void decryptRangeMatchesPlaintextSlice(ModeType modeType) {
+        ChunkedContainer container = new ChunkedContainer(modeType, new AesBlockCipher(new byte[16]), 32);
+        byte[] plaintext = randomBytes(300, 3);
+        byte[] packed = container.encrypt(plaintext);
+
+        int[][] ranges = {{0, 1}, {31, 2}, {40, 100}, {299, 1}, {0, 300}, {64, 0}};
+        for (int[] range : ranges) {
+            byte[] expected = Arrays.copyOfRange(plaintext, range[0], range[0] + range[1]);
+            assertArrayEquals(expected, container.decryptRange(packed, range[0], range[1]));
+        }
+    }
+
+    /**
+     * 헤더의 모드와 다른 모드로 열면 거부되어야 합니다.
+     */
+    @Test
+    void rejectsMismatchedMode() {
+        AesBlockCipher cipher = new AesBlockCipher(new byte[16]);
+        byte[] packed = new ChunkedContainer(ModeType.CTR, cipher).encrypt(randomBytes(10, 1));
+        ChunkedContainer cbc = new ChunkedContainer(ModeType.CBC, cipher);
+        assertThrows(IllegalArgumentException.class, () -> cbc.decrypt(packed));
+    }
+
+    /**
+     * 헤더의 모드 바이트는 선언 순서가 아니라 고정 식별자여야 합니다.
+     */
+    @Test
+    void writesStableModeId() {
+        byte[] packed = new ChunkedContainer(ModeType.CTR, new AesBlockCipher(new byte[16])).encrypt(randomBytes(10, 1));
+        assertEquals(4, packed[5]);
+        assertEquals(ModeType.CTR, ModeType.fromWireId(packed[5]));
+    }
+
+    /**
+     * {@code chunkCount * 4}가 int 범위를 넘는 조작된 인덱스는 할당 전에 거부되어야 합니다.
+     */
+    @Test
+    void rejectsOverflowingChunkCount() {
+        byte[] packed = new ChunkedContainer(ModeType.CTR, new AesBlockCipher(new byte[16])).encrypt(randomBytes(10, 1));
+        int chunkCount = 0x40000001;
+        ByteBuffer.wrap(packed).putInt(7, 1).putLong(11, chunkCount).putInt(packed.length - 4, chunkCount);
+        ChunkedContainer container = new ChunkedContainer(ModeType.CTR, new AesBlockCipher(new byte[16]));
+        assertThrows(IllegalArgumentException.class, () -> container.decrypt(packed));
+    }
+
+    /**
+     * 블록 암호 하나로 생성할 수 있는 모드만 컨테이너 대상이 됩니다.
+     */
+    private static Stream<ModeType> singleCipherModes() {
+        return Stream.of(ModeType.values()).filter(ModeFactory::supportsSingleCipher);
+    }
+
+    private static byte[] randomBytes(int length, int seed) {
+        byte[] out = new byte[length];
+        new Random(seed).nextBytes(out);
+        return out;
+    }
+}
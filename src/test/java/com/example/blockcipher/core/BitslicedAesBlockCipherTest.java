@@ -0,0 +1,80 @@
+package com.example.blockcipher.core;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import com.example.blockcipher.factory.ModeFactory;
+import com.example.blockcipher.mode.ModeOfOperation;
+import com.example.blockcipher.mode.ModeType;
+import com.example.blockcipher.util.Hex;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * 비트슬라이스 AES가 JCA 기반 {@link AesBlockCipher}와 같은 결과를 내는지 검증합니다.
+ */
+class BitslicedAesBlockCipherTest {
+    /**
+     * FIPS-197 부록 C.1 AES-128 예제.
+     */
+    @Test
+    void matchesFips197Vector() {
+        BlockCipher cipher = new BitslicedAesBlockCipher(Hex.decode("000102030405060708090a0b0c0d0e0f"));
+        byte[] plaintext = Hex.decode("00112233445566778899aabbccddeeff");
+        byte[] expected = Hex.decode("69c4e0d86a7b0430d8cdb78070b4c55a");
+
+        assertArrayEquals(expected, cipher.encryptBlock(plaintext));
+        assertArrayEquals(plaintext, cipher.decryptBlock(expected));
+    }
+
+    /**
+     * 모든 키 길이와 8의 배수가 아닌 블록 수에서 JCA 결과와 일치해야 합니다.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {16, 24, 32})
+    void matchesJcaForBlockBatches(int keyLength) {
+        Random random = new Random(keyLength);
+        byte[] key = new byte[keyLength];
+        random.nextBytes(key);
+        BlockCipher reference = new AesBlockCipher(key);
+        BlockCipher bitsliced = new BitslicedAesBlockCipher(key);
+
+        for (int count : new int[] {1, 7, 8, 9, 23}) {
+            byte[] input = new byte[count * 16 + 5];
+            random.nextBytes(input);
+            byte[] expected = new byte[count * 16];
+            byte[] actual = new byte[count * 16];
+
+            reference.encryptBlocks(input, 5, expected, 0, count);
+            bitsliced.encryptBlocks(input, 5, actual, 0, count);
+            assertArrayEquals(expected, actual, "encrypt count=" + count);
+
+            byte[] decrypted = new byte[count * 16];
+            bitsliced.decryptBlocks(actual, 0, decrypted, 0, count);
+            reference.decryptBlocks(actual, 0, expected, 0, count);
+            assertArrayEquals(expected, decrypted, "decrypt count=" + count);
+        }
+    }
+
+    /**
+     * 일괄 처리 경로를 쓰는 ECB/CTR 모드도 두 구현에서 같은 암호문을 만들어야 합니다.
+     */
+    @ParameterizedTest
+    @EnumSource(value = ModeType.class, names = {"ECB", "CTR"})
+    void modesProduceSameCiphertext(ModeType type) {
+        byte[] key = new byte[16];
+        new Random(7).nextBytes(key);
+        ModeOfOperation reference = ModeFactory.create(type, new AesBlockCipher(key));
+        ModeOfOperation bitsliced = ModeFactory.create(type, new BitslicedAesBlockCipher(key));
+        byte[] iv = new byte[reference.ivLength()];
+        new Random(8).nextBytes(iv);
+        byte[] plaintext = new byte[3000];
+        new Random(9).nextBytes(plaintext);
+
+        byte[] ciphertext = bitsliced.encrypt(plaintext, iv);
+        assertArrayEquals(reference.encrypt(plaintext, iv), ciphertext);
+        assertArrayEquals(plaintext, bitsliced.decrypt(ciphertext, iv));
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.blockcipher.gateway;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.blockcipher.core.AesBlockCipher;
+import com.example.blockcipher.core.CryptoException;
+import com.example.blockcipher.factory.ModeFactory;
+import com.example.blockcipher.mode.ModeType;
+import com.example.blockcipher.service.ModeCipherService;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * loopback에서 게이트웨이의 pipelining, 오류 응답, 프레임 검증을 확인합니다.
+ */
+class CipherGatewayTest {
+    private static final byte[] KEY = new byte[16];
+
+    /**
+     * 한 연결로 인라인/작업자 크기를 섞어 응답을 기다리지 않고 보내도 모두 제자리로 돌아와야 합니다.
+     */
+    @ParameterizedTest
+    @EnumSource(value = ModeType.class, names = {"ECB", "CBC", "CTR", "GCM"})
+    void pipelinedRequestsRoundTrip(ModeType type) throws Exception {
+        ModeCipherService service = new ModeCipherService(ModeFactory.create(type, new AesBlockCipher(KEY)));
+        try (CipherGateway gateway = smallGateway(service, 8).start();
+             GatewayClient client = new GatewayClient(gateway.localAddress())) {
+            Random random = new Random(7);
+            List<byte[]> plaintexts = new ArrayList<>();
+            List<CompletableFuture<byte[]>> sealed = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                byte[] plaintext = new byte[random.nextInt(4) == 0 ? 70_000 + random.nextInt(5000) : random.nextInt(600)];
+                random.nextBytes(plaintext);
+                plaintexts.add(plaintext);
+                sealed.add(client.encrypt(plaintext));
+            }
+            List<CompletableFuture<byte[]>> opened = new ArrayList<>();
+            for (CompletableFuture<byte[]> packed : sealed) {
+                byte[] ivAndCiphertext = packed.get(30, TimeUnit.SECONDS);
+                opened.add(client.decrypt(ivAndCiphertext));
+            }
+            for (int i = 0; i < plaintexts.size(); i++) {
+                assertArrayEquals(plaintexts.get(i), opened.get(i).get(30, TimeUnit.SECONDS), "request " + i);
+            }
+            assertEquals(400, gateway.requests());
+            assertTrue(gateway.inlined() > 0 && gateway.inlined() < 400);
+            assertEquals(0, gateway.failures());
+        }
+    }
+
+    /**
+     * 게이트웨이 결과는 같은 키의 서비스와 형식이 같아야 합니다.
+     */
+    @Test
+    void outputMatchesServiceFormat() throws Exception {
+        ModeCipherService service = new ModeCipherService(ModeFactory.create(ModeType.GCM, new AesBlockCipher(KEY)));
+        byte[] plaintext = "gateway".getBytes();
+        try (CipherGateway gateway = CipherGateway.loopback(service).start();
+             GatewayClient client = new GatewayClient(gateway.localAddress())) {
+            byte[] packed = client.encrypt(plaintext).get(10, TimeUnit.SECONDS);
+            assertArrayEquals(plaintext, service.decryptWithHeader(packed));
+            byte[] local = service.encryptWithHeader(plaintext);
+            assertArrayEquals(plaintext, client.decrypt(local).get(10, TimeUnit.SECONDS));
+        }
+    }
+
+    /**
+     * 인증 실패와 알 수 없는 op는 오류 응답이 되고, 같은 연결의 다음 요청은 정상 처리되어야 합니다.
+     */
+    @Test
+    void requestErrorsKeepConnectionOpen() throws Exception {
+        ModeCipherService service = new ModeCipherService(ModeFactory.create(ModeType.GCM, new AesBlockCipher(KEY)));
+        try (CipherGateway gateway = CipherGateway.loopback(service).start();
+             GatewayClient client = new GatewayClient(gateway.localAddress())) {
+            byte[] packed = client.encrypt(new byte[100]).get(10, TimeUnit.SECONDS);
+            packed[packed.length - 1] ^= 1;
+
+            ExecutionException tampered = assertThrows(
+                ExecutionException.class,
+                () -> client.decrypt(packed).get(10, TimeUnit.SECONDS)
+            );
+            assertInstanceOf(CryptoException.class, tampered.getCause());
+            ExecutionException unknown = assertThrows(
+                ExecutionException.class,
+                () -> client.send((byte) 9, new byte[1]).get(10, TimeUnit.SECONDS)
+            );
+            assertTrue(unknown.getCause().getMessage().contains("unknown op"));
+
+            // nonce(12) + 평문(32) + 태그(16)
+            assertEquals(12 + 32 + 16, client.encrypt(new byte[32]).get(10, TimeUnit.SECONDS).length);
+            assertEquals(2, gateway.failures());
+        }
+    }
+
+    /**
+     * payload 상한을 넘는 길이 필드는 연결을 닫아야 합니다.
+     */
+    @Test
+    void oversizedFrameClosesConnection() throws Exception {
+        ModeCipherService service = new ModeCipherService(ModeFactory.create(ModeType.CTR, new AesBlockCipher(KEY)));
+        try (CipherGateway gateway = smallGateway(service, 4).start();
+             SocketChannel raw = SocketChannel.open(gateway.localAddress())) {
+            ByteBuffer frame = ByteBuffer.allocate(9);
+            frame.putInt(GatewayProtocol.HEADER_BYTES + 1024 * 1024).putInt(1).put(GatewayProtocol.ENCRYPT).flip();
+            raw.write(frame);
+            raw.socket().setSoTimeout(10_000);
+            assertEquals(-1, raw.socket().getInputStream().read());
+            assertEquals(1, gateway.protocolErrors());
+        }
+    }
+
+    /**
+     * 게이트웨이를 닫으면 미완료 요청이 연결 종료로 실패해야 합니다.
+     */
+    @Test
+    void closingGatewayFailsClient() throws Exception {
+        ModeCipherService service = new ModeCipherService(ModeFactory.create(ModeType.CTR, new AesBlockCipher(KEY)));
+        CipherGateway gateway = CipherGateway.loopback(service).start();
+        try (GatewayClient client = new GatewayClient(gateway.localAddress())) {
+            client.encrypt(new byte[16]).get(10, TimeUnit.SECONDS);
+            gateway.close();
+            ExecutionException closed = assertThrows(
+                ExecutionException.class,
+                () -> {
+                    // 종료가 전달되기 전에 보낸 요청도 결국 실패로 끝납니다.
+                    for (int i = 0; i < 1000; i++) {
+                        client.encrypt(new byte[16]).get(10, TimeUnit.SECONDS);
+                        Thread.sleep(5);
+                    }
+                }
+            );
+            assertInstanceOf(IOException.class, closed.getCause());
+        }
+    }
+
+    /**
+     * 연결당 처리 중 요청 상한을 작게 둬서 읽기 멈춤/재개 경로를 거치게 합니다.
+     */
+    private static CipherGateway smallGateway(ModeCipherService service, int maxInFlight) throws IOException {
+        return new CipherGateway(
+            service,
+            new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+            4,
+            256 * 1024,
+            1024,
+            maxInFlight
+        );
+    }
+}
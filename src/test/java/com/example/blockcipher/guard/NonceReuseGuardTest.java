@@ -0,0 +1,109 @@
+package com.example.blockcipher.guard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.blockcipher.core.AesBlockCipher;
+import com.example.blockcipher.core.CryptoException;
+import com.example.blockcipher.factory.ModeFactory;
+import com.example.blockcipher.mode.CTRMode;
+import com.example.blockcipher.mode.ModeType;
+import com.example.blockcipher.service.ModeCipherService;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * nonce 재사용 감지(정확 집합/Bloom filter), 정책, 동시성, 오탐률을 검증합니다.
+ */
+class NonceReuseGuardTest {
+    /**
+     * REJECT 정책의 CTR 모드는 같은 nonce로 두 번째 암호화를 거부해야 합니다.
+     */
+    @Test
+    void ctrModeRejectsReusedNonce() {
+        NonceReuseGuard guard = new NonceReuseGuard(1000, 0.001, NonceReuseGuard.Policy.REJECT);
+        CTRMode ctr = new CTRMode(new AesBlockCipher(new byte[16]), guard);
+        byte[] nonce = new byte[16];
+
+        byte[] ciphertext = ctr.encrypt(new byte[10], nonce);
+        ctr.decrypt(ciphertext, nonce);
+        assertThrows(CryptoException.class, () -> ctr.encrypt(new byte[10], nonce));
+        assertEquals(1, guard.definiteReuses());
+    }
+
+    /**
+     * 최근 집합에서 밀려난 오래된 nonce도 Bloom filter로 감지하고, FLAG 정책은 표시만 해야 합니다.
+     */
+    @Test
+    void flagsOldReuseThroughBloomFilter() {
+        NonceReuseGuard guard = new NonceReuseGuard(10_000, 0.001, 16, NonceReuseGuard.Policy.FLAG);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(guard.checkAndRecord(nonce(i)));
+        }
+
+        assertFalse(guard.checkAndRecord(nonce(0)));
+        assertFalse(guard.checkAndRecord(nonce(99)));
+        assertEquals(1, guard.probableReuses());
+        assertEquals(1, guard.definiteReuses());
+    }
+
+    /**
+     * 여러 스레드가 같은 nonce를 동시에 등록해도 정확히 한 번만 통과해야 합니다.
+     */
+    @Test
+    void concurrentDuplicatePassesOnce() {
+        NonceReuseGuard guard = new NonceReuseGuard(100_000, 0.001, NonceReuseGuard.Policy.FLAG);
+        AtomicInteger fresh = new AtomicInteger();
+
+        IntStream.range(0, 20_000).parallel().forEach(i -> {
+            if (guard.checkAndRecord(nonce(i % 1000))) {
+                fresh.incrementAndGet();
+            }
+        });
+
+        assertEquals(1000, fresh.get());
+    }
+
+    /**
+     * 예상 삽입 수 안에서는 처음 보는 nonce의 오탐률이 목표 근처여야 합니다.
+     */
+    @Test
+    void falsePositiveRateStaysNearTarget() {
+        NonceReuseGuard guard = new NonceReuseGuard(50_000, 0.01, 64, NonceReuseGuard.Policy.FLAG);
+        IntStream.range(0, 50_000).forEach(i -> guard.checkAndRecord(nonce(i)));
+
+        int falsePositives = 0;
+        for (int i = 50_000; i < 100_000; i++) {
+            if (guard.mightHaveSeen(nonce(i))) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 50_000 * 0.02, "false positives: " + falsePositives);
+        assertTrue(guard.estimatedFalsePositiveRate() < 0.02);
+    }
+
+    /**
+     * 서비스는 가드에 자신이 만든 IV를 기록해야 합니다.
+     */
+    @Test
+    void serviceRecordsGeneratedIvs() {
+        NonceReuseGuard guard = new NonceReuseGuard(1000, 0.001, NonceReuseGuard.Policy.REJECT);
+        ModeCipherService service = new ModeCipherService(
+            ModeFactory.create(ModeType.CTR, new AesBlockCipher(new byte[16])),
+            guard
+        );
+
+        for (int i = 0; i < 100; i++) {
+            service.encryptWithHeader(new byte[8]);
+        }
+        assertEquals(100, guard.checks());
+    }
+
+    private static byte[] nonce(int value) {
+        return ByteBuffer.allocate(16).putLong(8, value).array();
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.blockcipher.jfr;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.blockcipher.core.AesBlockCipher;
+import com.example.blockcipher.core.BitslicedAesBlockCipher;
+import com.example.blockcipher.factory.ModeFactory;
+import com.example.blockcipher.mode.ModeOfOperation;
+import com.example.blockcipher.mode.ModeType;
+import com.example.blockcipher.mode.XTSMode;
+import com.example.blockcipher.service.ModeCipherService;
+import com.example.blockcipher.util.BufferPool;
+import com.example.blockcipher.util.PooledBuffer;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * 레코딩을 켜고 호출한 뒤 덤프 파일을 읽어 이벤트 필드와 샘플링을 검증합니다.
+ */
+class BlockCipherEventsTest {
+    private static final byte[] KEY = new byte[16];
+
+    @TempDir
+    Path dir;
+
+    /**
+     * 모드 호출마다 모드/방향/키 크기/바이트/경로가 기록되어야 합니다.
+     */
+    @Test
+    void recordsModeOperations() throws Exception {
+        ModeOfOperation ctr = ModeFactory.create(ModeType.CTR, new AesBlockCipher(KEY));
+        ModeOfOperation jca = ModeFactory.createAccelerated(ModeType.CBC, new AesBlockCipher(new byte[32]));
+
+        List<RecordedEvent> events = record(ModeOperationEvent.NAME, "1", () -> {
+            byte[] ciphertext = ctr.encrypt(new byte[100], new byte[16]);
+            ctr.decrypt(ciphertext, new byte[16]);
+            jca.encrypt(new byte[48], new byte[16]);
+        });
+
+        assertEquals(3, events.size());
+        assertEvent(events.get(0), "CTR", "encrypt", 128, 100, "SEQUENTIAL");
+        assertEvent(events.get(1), "CTR", "decrypt", 128, 100, "SEQUENTIAL");
+        assertEvent(events.get(2), "CBC", "encrypt", 256, 48, "JCA_BULK");
+    }
+
+    /**
+     * XTS 섹터 API는 실제로 거친 경로를 기록해야 합니다(여러 섹터는 병렬, 섹터 하나는 순차).
+     */
+    @Test
+    void recordsXtsSectorPath() throws Exception {
+        XTSMode xts = new XTSMode(new AesBlockCipher(KEY), new AesBlockCipher(new byte[] {
+            1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16}));
+
+        List<RecordedEvent> events = record(ModeOperationEvent.NAME, "1", () -> {
+            byte[] ciphertext = xts.encryptSectors(new byte[3 * XTSMode.DEFAULT_SECTOR_SIZE], 7);
+            xts.decryptSector(new byte[512], 9);
+            xts.decrypt(ciphertext, new byte[16]);
+        });
+
+        assertEquals(3, events.size());
+        assertEvent(events.get(0), "XTS", "encrypt", 128, 3 * XTSMode.DEFAULT_SECTOR_SIZE, "PARALLEL");
+        assertEvent(events.get(1), "XTS", "decrypt", 128, 512, "SEQUENTIAL");
+        assertEvent(events.get(2), "XTS", "decrypt", 128, 3 * XTSMode.DEFAULT_SECTOR_SIZE, "SEQUENTIAL");
+    }
+
+    /**
+     * {@code sampleEvery=4}이면 연속 8번 호출 중 2번만 기록되어야 합니다.
+     */
+    @Test
+    void samplesEveryNthCall() throws Exception {
+        ModeOfOperation ecb = ModeFactory.create(ModeType.ECB, new AesBlockCipher(KEY));
+
+        List<RecordedEvent> events = record(ModeOperationEvent.NAME, "4", () -> {
+            for (int i = 0; i < 8; i++) {
+                ecb.encrypt(new byte[32], new byte[0]);
+            }
+        });
+
+        assertEquals(2, events.size());
+    }
+
+    /**
+     * 서비스 호출은 배열/풀 경로를 구분해 기록되어야 합니다.
+     */
+    @Test
+    void recordsServiceCalls() throws Exception {
+        ModeCipherService service = new ModeCipherService(ModeFactory.create(ModeType.CBC, new AesBlockCipher(KEY)));
+        BufferPool pool = new BufferPool(false, 1 << 16, 4, false);
+
+        List<RecordedEvent> events = record(ServiceCallEvent.NAME, "1", () -> {
+            byte[] packed = service.encryptWithHeader(new byte[64]);
+            try (PooledBuffer plaintext = service.decryptWithHeader(packed, pool)) {
+                assertEquals(64, plaintext.buffer().remaining());
+            }
+        });
+
+        assertEquals(2, events.size());
+        assertEquals("encrypt", events.get(0).getString("operation"));
+        assertFalse(events.get(0).getBoolean("pooled"));
+        assertEquals(64, events.get(0).getLong("bytes"));
+        assertEquals("decrypt", events.get(1).getString("operation"));
+        assertTrue(events.get(1).getBoolean("pooled"));
+        assertEquals(16 + 80, events.get(1).getLong("bytes"));
+        assertEquals(128, events.get(1).getInt("keyBits"));
+    }
+
+    /**
+     * 키 스케줄 생성은 구현 이름과 키 크기로 기록되어야 합니다.
+     */
+    @Test
+    void recordsCipherSetup() throws Exception {
+        List<RecordedEvent> events = record(CipherSetupEvent.NAME, null, () -> {
+            new BitslicedAesBlockCipher(new byte[24]);
+        });
+
+        assertEquals(1, events.size());
+        assertEquals("BitslicedAesBlockCipher", events.get(0).getString("implementation"));
+        assertEquals(192, events.get(0).getInt("keyBits"));
+    }
+
+    /**
+     * 배포하는 설정 파일이 세 이벤트를 모두 켜야 합니다.
+     */
+    @Test
+    void bundledConfigurationEnablesEvents() throws Exception {
+        try (Reader reader = new InputStreamReader(
+            getClass().getResourceAsStream("/jfr/blockcipher.jfc"), StandardCharsets.UTF_8)) {
+            Configuration configuration = Configuration.create(reader);
+            for (String name : List.of(ModeOperationEvent.NAME, ServiceCallEvent.NAME, CipherSetupEvent.NAME)) {
+                assertEquals("true", configuration.getSettings().get(name + "#enabled"), name);
+            }
+            assertEquals("1", configuration.getSettings().get(ModeOperationEvent.NAME + "#sampleEvery"));
+        }
+    }
+
+    private void assertEvent(RecordedEvent event, String mode, String operation, int keyBits, long bytes, String path) {
+        assertEquals(mode, event.getString("mode"));
+        assertEquals(operation, event.getString("operation"));
+        assertEquals(keyBits, event.getInt("keyBits"));
+        assertEquals(bytes, event.getLong("bytes"));
+        assertEquals(path, event.getString("path"));
+    }
+
+    /**
+     * 한 이벤트를 임계값 0으로 켠 레코딩에서 작업을 실행하고, 이 스레드의 해당 이벤트를 시간순으로 반환합니다.
+     *
+     * <p>다른 이벤트도 기본 설정(1 ms)으로 켜져 있으므로 이름으로 거릅니다.</p>
+     */
+    private List<RecordedEvent> record(String eventName, String sampleEvery, Runnable work) throws Exception {
+        Path file = dir.resolve(eventName + ".jfr");
+        try (Recording recording = new Recording()) {
+            if (sampleEvery == null) {
+                recording.enable(eventName).withThreshold(Duration.ZERO);
+            } else {
+                recording.enable(eventName).withThreshold(Duration.ZERO).with("sampleEvery", sampleEvery);
+            }
+            recording.start();
+            work.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        long threadId = Thread.currentThread().getId();
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+            .filter(event -> event.getEventType().getName().equals(eventName))
+            .filter(event -> event.getThread() != null && event.getThread().getJavaThreadId() == threadId)
+            .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+            .collect(Collectors.toList());
+        Files.deleteIfExists(file);
+        return events;
+    }
+}
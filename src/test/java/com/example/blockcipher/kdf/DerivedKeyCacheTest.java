@@ -0,0 +1,164 @@
+package com.example.blockcipher.kdf;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.blockcipher.core.AesBlockCipher;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 크기 제한(LRU), 만료, 제거 시 0으로 지우기, 동시 접근을 검증합니다.
+ */
+class DerivedKeyCacheTest {
+    /**
+     * 가장 오래 쓰지 않은 항목이 밀려나고 그 키 바이트는 0이 되어야 합니다.
+     */
+    @Test
+    void evictsLeastRecentlyUsedAndZeroizes() {
+        DerivedKeyCache cache = new DerivedKeyCache(2, Duration.ofMinutes(1));
+        List<byte[]> derived = new ArrayList<>();
+
+        get(cache, 1, derived);
+        get(cache, 2, derived);
+        get(cache, 1, derived);
+        get(cache, 3, derived);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.evictions());
+        assertTrue(isZero(derived.get(1)), "key 2 should be zeroized");
+        assertTrue(!isZero(derived.get(0)) && !isZero(derived.get(2)));
+
+        cache.clear();
+        assertTrue(derived.stream().allMatch(DerivedKeyCacheTest::isZero));
+    }
+
+    /**
+     * 수명이 지난 항목은 조회나 {@code purgeExpired}에서 제거되고 다시 유도되어야 합니다.
+     */
+    @Test
+    void expiresEntries() {
+        AtomicLong now = new AtomicLong();
+        DerivedKeyCache cache = new DerivedKeyCache(8, Duration.ofSeconds(10), now::get);
+        List<byte[]> derived = new ArrayList<>();
+
+        get(cache, 1, derived);
+        get(cache, 2, derived);
+        now.addAndGet(Duration.ofSeconds(11).toNanos());
+
+        get(cache, 1, derived);
+        assertEquals(3, cache.misses());
+        assertTrue(isZero(derived.get(0)));
+
+        cache.purgeExpired();
+        assertTrue(isZero(derived.get(1)));
+        assertEquals(1, cache.size());
+        assertEquals(2, cache.evictions());
+    }
+
+    /**
+     * 여러 스레드가 같은 키를 동시에 요청해도 모두 같은 키의 블록 암호를 받아야 합니다.
+     */
+    @Test
+    void concurrentLookupsAgree() {
+        DerivedKeyCache cache = new DerivedKeyCache(4, Duration.ofMinutes(1));
+        AtomicInteger derivations = new AtomicInteger();
+        byte[] block = new byte[16];
+        byte[] expected = new AesBlockCipher(keyFor(7)).encryptBlock(block);
+
+        IntStream.range(0, 200).parallel().forEach(i -> {
+            AesBlockCipher cipher = cache.getOrDerive(cacheKey(7 + (i % 3 == 0 ? 0 : 100 + i % 8)), () -> {
+                derivations.incrementAndGet();
+                return keyFor(7);
+            });
+            assertArrayEquals(expected, cipher.encryptBlock(block));
+        });
+        assertEquals(200, cache.hits() + cache.misses());
+        assertTrue(cache.size() <= 4);
+        assertEquals(derivations.get(), cache.misses());
+    }
+
+    /**
+     * 같은 키를 동시에 놓친 호출은 진행 중인 유도 하나를 기다려 함께 써야 합니다(single-flight).
+     */
+    @Test
+    void concurrentMissesDeriveOnce() throws Exception {
+        DerivedKeyCache cache = new DerivedKeyCache(4, Duration.ofMinutes(1));
+        AtomicInteger derivations = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        byte[] block = new byte[16];
+        byte[] expected = new AesBlockCipher(keyFor(9)).encryptBlock(block);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<byte[]>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> cache.getOrDerive(cacheKey(9), () -> {
+                    derivations.incrementAndGet();
+                    started.countDown();
+                    awaitQuietly(release);
+                    return keyFor(9);
+                }).encryptBlock(block)));
+            }
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            Thread.sleep(50);
+            release.countDown();
+            for (Future<byte[]> result : results) {
+                assertArrayEquals(expected, result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, derivations.get());
+        assertEquals(1, cache.misses());
+        assertEquals(7, cache.hits());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void get(DerivedKeyCache cache, int id, List<byte[]> derived) {
+        cache.getOrDerive(cacheKey(id), () -> {
+            byte[] key = keyFor(id);
+            derived.add(key);
+            return key;
+        });
+    }
+
+    private static DerivedKeyCache.CacheKey cacheKey(int id) {
+        return new DerivedKeyCache.CacheKey(new byte[] {(byte) id}, new byte[] {1, 2, 3}, 1000, 16);
+    }
+
+    private static byte[] keyFor(int id) {
+        byte[] key = new byte[16];
+        Arrays.fill(key, (byte) (id | 0x80));
+        return key;
+    }
+
+    private static boolean isZero(byte[] bytes) {
+        for (byte b : bytes) {
+            if (b != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
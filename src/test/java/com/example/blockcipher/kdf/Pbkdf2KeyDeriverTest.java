@@ -0,0 +1,81 @@
+package com.example.blockcipher.kdf;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.example.blockcipher.core.AesBlockCipher;
+import com.example.blockcipher.core.CryptoException;
+import com.example.blockcipher.mode.ModeType;
+import com.example.blockcipher.util.Hex;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+/**
+ * PBKDF2 결과, 헤더 형식, 캐시 적중을 검증합니다.
+ */
+class Pbkdf2KeyDeriverTest {
+    /**
+     * PBKDF2-HMAC-SHA256("passwd", "salt", c=1) 앞 16바이트(RFC 7914 11절)와 같은 키여야 합니다.
+     */
+    @Test
+    void matchesKnownVector() {
+        Pbkdf2KeyDeriver deriver = new Pbkdf2KeyDeriver(1, 16, null);
+        AesBlockCipher derived = deriver.derive("passwd".toCharArray(), "salt".getBytes(StandardCharsets.US_ASCII));
+        AesBlockCipher expected = new AesBlockCipher(Hex.decode("55ac046e56e3089fec1691c22544b605"));
+
+        byte[] block = new byte[16];
+        assertArrayEquals(expected.encryptBlock(block), derived.encryptBlock(block));
+        assertEquals(128, derived.keySizeBits());
+    }
+
+    /**
+     * 헤더에 반복 횟수와 salt가 들어가고, 같은 비밀번호로만 복호화되어야 합니다.
+     */
+    @Test
+    void passwordServiceRoundTrip() {
+        Pbkdf2KeyDeriver deriver = new Pbkdf2KeyDeriver(1000, 32, null);
+        PasswordCipherService service = new PasswordCipherService(ModeType.GCM, deriver);
+        byte[] plaintext = "attack at dawn".getBytes(StandardCharsets.UTF_8);
+
+        byte[] packed = service.encrypt("correct horse".toCharArray(), plaintext);
+        ByteBuffer header = ByteBuffer.wrap(packed);
+        assertEquals(1000, header.getInt());
+        assertEquals(Pbkdf2KeyDeriver.SALT_LENGTH, header.get());
+        assertArrayEquals(plaintext, service.decrypt("correct horse".toCharArray(), packed));
+        assertThrows(CryptoException.class, () -> service.decrypt("wrong horse".toCharArray(), packed));
+
+        packed[0] = 0x7F;
+        assertThrows(IllegalArgumentException.class, () -> service.decrypt("correct horse".toCharArray(), packed));
+        // 설정(1000회)보다 큰 헤더 값은 MAX_ITERATIONS 이하라도 유도 전에 거부합니다.
+        ByteBuffer.wrap(packed).putInt(0, 1001);
+        assertThrows(IllegalArgumentException.class, () -> service.decrypt("correct horse".toCharArray(), packed));
+        assertThrows(IllegalArgumentException.class, () -> new PasswordCipherService(ModeType.XTS, deriver));
+    }
+
+    /**
+     * 같은 (비밀번호, salt)는 캐시에서 가져오고, 비밀번호나 salt가 다르면 새로 유도해야 합니다.
+     */
+    @Test
+    void cacheSkipsRepeatedDerivation() {
+        DerivedKeyCache cache = new DerivedKeyCache(16, Duration.ofMinutes(5));
+        Pbkdf2KeyDeriver deriver = new Pbkdf2KeyDeriver(1000, 16, cache);
+        PasswordCipherService service = new PasswordCipherService(ModeType.CBC, deriver);
+        byte[] salt = deriver.newSalt();
+        byte[] plaintext = new byte[100];
+
+        byte[] first = service.encrypt("pass".toCharArray(), salt, plaintext);
+        byte[] second = service.encrypt("pass".toCharArray(), salt, plaintext);
+        assertArrayEquals(plaintext, service.decrypt("pass".toCharArray(), first));
+        assertArrayEquals(plaintext, service.decrypt("pass".toCharArray(), second));
+        assertEquals(1, cache.misses());
+        assertEquals(3, cache.hits());
+
+        service.encrypt("other".toCharArray(), salt, plaintext);
+        service.encrypt("pass".toCharArray(), deriver.newSalt(), plaintext);
+        assertEquals(3, cache.misses());
+        assertEquals(3, cache.size());
+    }
+}
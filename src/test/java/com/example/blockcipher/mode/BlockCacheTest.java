@@ -0,0 +1,142 @@
+package com.example.blockcipher.mode;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.blockcipher.core.AesBlockCipher;
+import com.example.blockcipher.factory.ModeFactory;
+import com.example.blockcipher.padding.Pkcs7Padding;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+/**
+ * ECB 블록 캐시의 결과 동일성, 적중률, 교체, 폐기 동작을 검증합니다.
+ */
+class BlockCacheTest {
+    private static final byte[] KEY = new byte[16];
+
+    /**
+     * 반복 블록이 많은 표는 캐시 없이 암호화한 결과와 같고, 대부분의 블록이 적중해야 합니다.
+     */
+    @Test
+    void repetitiveTableMatchesUncachedAndHits() {
+        AesBlockCipher cipher = new AesBlockCipher(KEY);
+        BlockCache cache = new BlockCache(cipher, 1024);
+        ModeOfOperation cached = ModeFactory.createEcb(cache);
+        ModeOfOperation plain = ModeFactory.create(ModeType.ECB, cipher);
+
+        byte[] table = repetitiveTable(4096, 32, 1);
+        assertArrayEquals(plain.encrypt(table, new byte[0]), cached.encrypt(table, new byte[0]));
+        // 반복 32종 + 패딩 블록만 표에 남고, 첫 미적중 묶음 이후로는 모두 적중합니다.
+        assertEquals(33, cache.size());
+        assertTrue(cache.misses() <= BlockCache.MISS_BATCH_BLOCKS + 1, cache.toString());
+
+        long misses = cache.misses();
+        assertArrayEquals(table, cached.decrypt(cached.encrypt(table, new byte[0]), new byte[0]));
+        assertEquals(misses, cache.misses());
+    }
+
+    /**
+     * 서로 다른 블록이 용량보다 많으면 교체가 일어나도 크기는 용량을 넘지 않고 결과는 그대로여야 합니다.
+     */
+    @Test
+    void evictsWhenFullAndStaysCorrect() {
+        AesBlockCipher cipher = new AesBlockCipher(KEY);
+        BlockCache cache = new BlockCache(cipher, 16);
+        ECBMode cached = new ECBMode(cipher, new Pkcs7Padding(), cache);
+
+        byte[] distinct = randomBytes(16 * 1000, 2);
+        assertArrayEquals(ModeFactory.create(ModeType.ECB, cipher).encrypt(distinct, new byte[0]),
+            cached.encrypt(distinct, new byte[0]));
+        assertTrue(cache.size() <= cache.capacity());
+        assertTrue(cache.evictions() > 0);
+    }
+
+    /**
+     * 닫으면 표를 비우고 이후에는 캐시를 거치지 않아야 합니다.
+     */
+    @Test
+    void closeClearsAndBypasses() {
+        AesBlockCipher cipher = new AesBlockCipher(KEY);
+        BlockCache cache = new BlockCache(cipher, 64);
+        ModeOfOperation cached = ModeFactory.createEcb(cache);
+        byte[] table = repetitiveTable(256, 4, 3);
+        byte[] expected = cached.encrypt(table, new byte[0]);
+        long hits = cache.hits();
+
+        cache.close();
+        assertEquals(0, cache.size());
+        assertArrayEquals(expected, cached.encrypt(table, new byte[0]));
+        assertEquals(hits, cache.hits());
+        assertEquals(0, cache.size());
+    }
+
+    /**
+     * 여러 스레드가 캐시 하나를 공유해도 결과가 캐시 없는 결과와 같아야 합니다.
+     */
+    @Test
+    void sharedAcrossThreads() throws Exception {
+        AesBlockCipher cipher = new AesBlockCipher(KEY);
+        BlockCache cache = new BlockCache(cipher, 64);
+        ModeOfOperation cached = ModeFactory.createEcb(cache);
+        ModeOfOperation plain = ModeFactory.create(ModeType.ECB, cipher);
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int seed = 10 + t;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 50; i++) {
+                        byte[] table = repetitiveTable(512, 100, seed * 1000 + i);
+                        assertArrayEquals(plain.encrypt(table, new byte[0]), cached.encrypt(table, new byte[0]));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void rejectsCacheOfAnotherCipher() {
+        BlockCache cache = new BlockCache(new AesBlockCipher(KEY), 64);
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> new ECBMode(new AesBlockCipher(KEY), new Pkcs7Padding(), cache)
+        );
+        assertThrows(IllegalArgumentException.class, () -> new BlockCache(new AesBlockCipher(KEY), 4));
+    }
+
+    /**
+     * {@code distinct}종의 16바이트 레코드를 무작위로 반복한 표를 만듭니다.
+     */
+    private static byte[] repetitiveTable(int blocks, int distinct, int seed) {
+        Random random = new Random(seed);
+        byte[][] records = new byte[distinct][16];
+        for (byte[] record : records) {
+            random.nextBytes(record);
+        }
+        byte[] table = new byte[blocks * 16];
+        for (int i = 0; i < blocks; i++) {
+            System.arraycopy(records[random.nextInt(distinct)], 0, table, i * 16, 16);
+        }
+        return table;
+    }
+
+    private static byte[] randomBytes(int length, int seed) {
+        byte[] out = new byte[length];
+        new Random(seed).nextBytes(out);
+        return out;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.blockcipher.mode;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.example.blockcipher.core.AesBlockCipher;
+import com.example.blockcipher.util.Hex;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import org.junit.jupiter.api.Test;
+
+/**
+ * CBC-CS3의 길이 보존과 블록 배치 규칙을 검증합니다.
+ */
+class CbcCs3ModeTest {
+    /**
+     * RFC 3962(Kerberos AES-CTS, CS3과 동일) 첫 번째 벡터와 일치해야 합니다.
+     */
+    @Test
+    void matchesRfc3962Vector() {
+        byte[] key = Hex.decode("636869636b656e207465726979616b69");
+        byte[] plaintext = "I would like the ".getBytes(StandardCharsets.US_ASCII);
+        CBCCS3Mode mode = new CBCCS3Mode(new AesBlockCipher(key));
+
+        byte[] ciphertext = mode.encrypt(plaintext, new byte[16]);
+        assertEquals("c6353568f2bf8cb4d8a580362da7ff7f97", Hex.encode(ciphertext));
+    }
+
+    /**
+     * 결과는 "0으로 채운 평문의 CBC 암호문에서 마지막 두 블록을 교환하고 잘라낸 값"과 같아야 합니다.
+     */
+    @Test
+    void matchesSwappedAndTruncatedCbc() throws Exception {
+        byte[] key = randomBytes(16, 1);
+        byte[] iv = randomBytes(16, 2);
+        CBCCS3Mode mode = new CBCCS3Mode(new AesBlockCipher(key));
+
+        for (int length : new int[] {16, 17, 31, 32, 33, 47, 48, 100}) {
+            byte[] plaintext = randomBytes(length, length);
+            byte[] actual = mode.encrypt(plaintext, iv);
+            assertEquals(length, actual.length);
+            assertArrayEquals(expectedCs3(key, iv, plaintext), actual, "length=" + length);
+            assertArrayEquals(plaintext, mode.decrypt(actual, iv));
+        }
+    }
+
+    private static byte[] expectedCs3(byte[] key, byte[] iv, byte[] plaintext) throws Exception {
+        int blocks = (plaintext.length + 15) / 16;
+        Cipher jdk = Cipher.getInstance("AES/CBC/NoPadding");
+        jdk.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(key, "AES"), new IvParameterSpec(iv));
+        byte[] cbc = jdk.doFinal(Arrays.copyOf(plaintext, blocks * 16));
+        if (blocks == 1) {
+            return cbc;
+        }
+        int lastLength = plaintext.length - ((blocks - 1) * 16);
+        byte[] out = new byte[plaintext.length];
+        System.arraycopy(cbc, 0, out, 0, (blocks - 2) * 16);
+        System.arraycopy(cbc, (blocks - 1) * 16, out, (blocks - 2) * 16, 16);
+        System.arraycopy(cbc, (blocks - 2) * 16, out, (blocks - 1) * 16, lastLength);
+        return out;
+    }
+
+    private static byte[] randomBytes(int length, int seed) {
+        byte[] out = new byte[length];
+        new Random(seed).nextBytes(out);
+        return out;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.blockcipher.mode;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.example.blockcipher.core.AesBlockCipher;
+import com.example.blockcipher.core.BitslicedAesBlockCipher;
+import com.example.blockcipher.factory.ModeFactory;
+import com.example.blockcipher.util.Hex;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * 세그먼트 CFB의 표준 벡터, JCA 일치, 세그먼트 크기별 왕복을 검증합니다.
+ */
+class CfbSegmentModeTest {
+    /**
+     * NIST SP 800-38A F.3.7(CFB8-AES128.Encrypt)과 일치해야 합니다.
+     */
+    @Test
+    void matchesNistCfb8Vector() {
+        byte[] key = Hex.decode("2b7e151628aed2a6abf7158809cf4f3c");
+        byte[] iv = Hex.decode("000102030405060708090a0b0c0d0e0f");
+        byte[] plaintext = Hex.decode("6bc1bee22e409f96e93d7e117393172aae2d");
+        ModeOfOperation mode = ModeFactory.create(ModeType.CFB8, new AesBlockCipher(key));
+
+        byte[] ciphertext = mode.encrypt(plaintext, iv);
+        assertEquals("3b79424c9c0dd436bace9e0ed4586a4f32b9", Hex.encode(ciphertext));
+        assertArrayEquals(plaintext, mode.decrypt(ciphertext, iv));
+    }
+
+    /**
+     * 링 버퍼 구현이 JCA {@code AES/CFB8/NoPadding}과 같은 암호문을 만들어야 합니다(레지스터가 여러 번 도는 길이 포함).
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 15, 16, 17, 100, 1000})
+    void matchesJcaCfb8(int length) {
+        AesBlockCipher cipher = new AesBlockCipher(randomBytes(32, length + 1));
+        byte[] iv = randomBytes(16, length + 2);
+        byte[] plaintext = randomBytes(length, length + 3);
+
+        byte[] custom = ModeFactory.create(ModeType.CFB8, cipher).encrypt(plaintext, iv);
+        byte[] jca = new JcaMode(ModeType.CFB8, cipher).encrypt(plaintext, iv);
+        assertArrayEquals(jca, custom);
+    }
+
+    /**
+     * 허용 세그먼트마다 왕복되어야 하고, s = 128이면 블록 단위 CFB와 같아야 합니다.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {8, 128})
+    void segmentSizesRoundTrip(int segmentBits) {
+        BitslicedAesBlockCipher cipher = new BitslicedAesBlockCipher(randomBytes(16, segmentBits));
+        byte[] iv = randomBytes(16, 7);
+        byte[] plaintext = randomBytes(333, 8);
+        CFBSegmentMode mode = ModeFactory.createCfbSegment(cipher, segmentBits);
+
+        byte[] ciphertext = mode.encrypt(plaintext, iv);
+        assertArrayEquals(plaintext, mode.decrypt(ciphertext, iv));
+        assertEquals(segmentBits, mode.segmentBits());
+        if (segmentBits == 128) {
+            assertEquals(ModeType.CFB, mode.type());
+            assertArrayEquals(new CFBMode(cipher).encrypt(plaintext, iv), ciphertext);
+        } else {
+            assertEquals(ModeType.CFB8, mode.type());
+        }
+    }
+
+    @Test
+    void rejectsInvalidSegmentSize() {
+        AesBlockCipher cipher = new AesBlockCipher(new byte[16]);
+        assertThrows(IllegalArgumentException.class, () -> ModeFactory.createCfbSegment(cipher, 4));
+        assertThrows(IllegalArgumentException.class, () -> ModeFactory.createCfbSegment(cipher, 12));
+        // 헤더에 기록할 타입이 없는 세그먼트 크기는 거부합니다.
+        assertThrows(IllegalArgumentException.class, () -> ModeFactory.createCfbSegment(cipher, 16));
+        assertThrows(IllegalArgumentException.class, () -> ModeFactory.createCfbSegment(cipher, 64));
+        assertThrows(IllegalArgumentException.class, () -> ModeFactory.createCfbSegment(cipher, 136));
+    }
+
+    private static byte[] randomBytes(int length, long seed) {
+        byte[] bytes = new byte[length];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.blockcipher.mode;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.example.blockcipher.core.AesBlockCipher;
+import com.example.blockcipher.factory.ModeFactory;
+import com.example.blockcipher.service.ModeCipherService;
+import com.example.blockcipher.util.Bytes;
+import com.example.blockcipher.util.Hex;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * CTR nonce/counter 분할별 counter 증가 범위와 사전 wrap 검사를 검증합니다.
+ */
+class CtrCounterLayoutTest {
+    private static final AesBlockCipher CIPHER = new AesBlockCipher(new byte[16]);
+
+    /**
+     * 기본 분할은 JDK AES/CTR(128비트 counter)과 같은 결과여야 합니다(하위 64비트 carry 포함).
+     */
+    @Test
+    void fullCounterMatchesJdk() {
+        byte[] iv = Hex.decode("00112233445566778899fffffffffffe");
+        byte[] plaintext = new byte[1000];
+        new Random(1).nextBytes(plaintext);
+
+        byte[] expected = ModeFactory.createAccelerated(ModeType.CTR, CIPHER).encrypt(plaintext, iv);
+        assertArrayEquals(expected, new CTRMode(CIPHER).encrypt(plaintext, iv));
+    }
+
+    /**
+     * 96/32 분할은 마지막 4바이트만 증가하고, 그 영역을 넘기면 처리 전에 거부해야 합니다.
+     */
+    @Test
+    void nonce96Counter32StaysInLastWord() {
+        CTRMode ctr = ModeFactory.createCtr(CIPHER, CounterLayout.NONCE_96_COUNTER_32);
+        byte[] iv = Hex.decode("000102030405060708090a0bfffffffe");
+
+        byte[] keystream = ctr.encrypt(new byte[32], iv);
+        byte[] second = Hex.decode("000102030405060708090a0bffffffff");
+        assertArrayEquals(Bytes.concat(CIPHER.encryptBlock(iv), CIPHER.encryptBlock(second)), keystream);
+
+        assertThrows(IllegalStateException.class, () -> ctr.encrypt(new byte[33], iv));
+    }
+
+    /**
+     * 64/64 분할은 하위 8바이트만 쓰고, 128비트 분할은 같은 IV에서 상위로 carry해야 합니다.
+     */
+    @Test
+    void nonce64Counter64RejectsCarryIntoNonce() {
+        byte[] iv = Hex.decode("0000000000000001ffffffffffffffff");
+        CTRMode split = ModeFactory.createCtr(CIPHER, CounterLayout.NONCE_64_COUNTER_64);
+        CTRMode full = new CTRMode(CIPHER);
+
+        assertThrows(IllegalStateException.class, () -> split.encrypt(new byte[17], iv));
+        byte[] keystream = full.encrypt(new byte[32], iv);
+        byte[] carried = Hex.decode("00000000000000020000000000000000");
+        assertArrayEquals(CIPHER.encryptBlock(carried), Bytes.slice(keystream, 16, 16));
+    }
+
+    /**
+     * 128비트 counter가 최댓값이면 한 블록만 허용해야 합니다.
+     */
+    @Test
+    void fullCounterRejectsWrap() {
+        byte[] iv = Hex.decode("ffffffffffffffffffffffffffffffff");
+        CTRMode ctr = new CTRMode(CIPHER);
+
+        ctr.encrypt(new byte[16], iv);
+        assertThrows(IllegalStateException.class, () -> ctr.decrypt(new byte[17], iv));
+    }
+
+    /**
+     * 서비스가 만드는 IV는 nonce 부분만 난수이고 counter 부분은 0에서 시작해야 합니다.
+     */
+    @Test
+    void serviceIvStartsCounterAtZero() {
+        byte[] plaintext = new byte[100];
+        new Random(2).nextBytes(plaintext);
+        CounterLayout[] layouts = {CounterLayout.NONCE_96_COUNTER_32, CounterLayout.NONCE_64_COUNTER_64};
+        for (CounterLayout layout : layouts) {
+            ModeCipherService service = new ModeCipherService(ModeFactory.createCtr(CIPHER, layout));
+            int nonceBytes = 16 - layout.counterBits() / 8;
+            for (int i = 0; i < 20; i++) {
+                byte[] packed = service.encryptWithHeader(plaintext);
+                byte[] counter = Bytes.slice(packed, nonceBytes, 16 - nonceBytes);
+                assertArrayEquals(new byte[counter.length], counter, layout.name());
+                assertArrayEquals(plaintext, service.decryptWithHeader(packed), layout.name());
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.blockcipher.mode;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.example.blockcipher.core.AesBlockCipher;
+import com.example.blockcipher.core.CryptoException;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Random;
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * GCM 구현 결과를 JDK {@code AES/GCM/NoPadding}과 비교합니다.
+ */
+class GcmJdkCrossCheckTest {
+    /**
+     * 키 길이/평문 길이/AAD 길이 조합에서 JDK와 같은 {@code ciphertext || tag}가 나와야 합니다.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {16, 24, 32})
+    void matchesJdkGcm(int keyLength) throws Exception {
+        int[] lengths = {0, 1, 15, 16, 17, 64, 100};
+        int[] aadLengths = {0, 13, 32};
+        for (int length : lengths) {
+            for (int aadLength : aadLengths) {
+                byte[] key = randomBytes(keyLength, keyLength);
+                byte[] iv = randomBytes(12, length);
+                byte[] aad = randomBytes(aadLength, aadLength + 1);
+                byte[] plaintext = randomBytes(length, length + 2);
+
+                GCMMode gcm = new GCMMode(new AesBlockCipher(key));
+                byte[] actual = gcm.encrypt(plaintext, iv, aad);
+                byte[] expected = jdkEncrypt(key, iv, aad, plaintext);
+
+                assertArrayEquals(expected, actual, "len=" + length + ", aad=" + aadLength);
+                assertArrayEquals(plaintext, gcm.decrypt(actual, iv, aad));
+            }
+        }
+    }
+
+    /**
+     * 청크를 임의로 나눠 스트리밍해도 한 번에 처리한 결과와 같아야 합니다.
+     */
+    @Test
+    void streamingMatchesOneShot() throws Exception {
+        byte[] key = randomBytes(16, 1);
+        byte[] iv = randomBytes(12, 2);
+        byte[] aad = randomBytes(20, 3);
+        byte[] plaintext = randomBytes(1000, 4);
+        GCMMode gcm = new GCMMode(new AesBlockCipher(key));
+
+        GCMStream stream = gcm.newEncryptor(iv, aad);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int[] cuts = {0, 3, 19, 20, 100, 517, 1000};
+        for (int i = 1; i < cuts.length; i++) {
+            out.write(stream.update(Arrays.copyOfRange(plaintext, cuts[i - 1], cuts[i])));
+        }
+        out.write(stream.finish());
+
+        assertArrayEquals(jdkEncrypt(key, iv, aad, plaintext), out.toByteArray());
+    }
+
+    /**
+     * 암호문이나 AAD가 변조되면 태그 검증이 실패해야 합니다.
+     */
+    @Test
+    void rejectsTamperedInput() {
+        GCMMode gcm = new GCMMode(new AesBlockCipher(new byte[16]));
+        byte[] iv = new byte[12];
+        byte[] aad = {1, 2, 3};
+        byte[] sealed = gcm.encrypt(randomBytes(40, 5), iv, aad);
+
+        byte[] tampered = sealed.clone();
+        tampered[3] ^= 1;
+        assertThrows(CryptoException.class, () -> gcm.decrypt(tampered, iv, aad));
+        assertThrows(CryptoException.class, () -> gcm.decrypt(sealed, iv, new byte[] {1, 2, 4}));
+    }
+
+    private static byte[] jdkEncrypt(byte[] key, byte[] iv, byte[] aad, byte[] plaintext) throws Exception {
+        Cipher jdk = Cipher.getInstance("AES/GCM/NoPadding");
+        jdk.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(key, "AES"), new GCMParameterSpec(128, iv));
+        jdk.updateAAD(aad);
+        return jdk.doFinal(plaintext);
+    }
+
+    private static byte[] randomBytes(int length, int seed) {
+        byte[] out = new byte[length];
+        new Random(seed).nextBytes(out);
+        return out;
+    }
+}
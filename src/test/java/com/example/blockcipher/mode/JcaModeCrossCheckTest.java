@@ -0,0 +1,118 @@
+package com.example.blockcipher.mode;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.example.blockcipher.core.AesBlockCipher;
+import com.example.blockcipher.factory.ModeFactory;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * JCA 빠른 경로({@link JcaMode})가 직접 구현한 모드와 같은 결과/오류를 내는지 교차 검증합니다.
+ */
+class JcaModeCrossCheckTest {
+    /**
+     * 같은 키/IV/평문에서 두 경로의 암호문이 같고, 서로의 암호문을 복호화할 수 있어야 합니다.
+     */
+    @ParameterizedTest
+    @MethodSource("cases")
+    void sameCiphertextAsCustomPath(ModeType type, int length) {
+        AesBlockCipher cipher = new AesBlockCipher(randomBytes(16, 7));
+        ModeOfOperation custom = ModeFactory.create(type, cipher);
+        ModeOfOperation jca = ModeFactory.createAccelerated(type, cipher);
+        byte[] iv = randomBytes(custom.ivLength(), 3);
+        byte[] plaintext = randomBytes(length, 11 + length);
+
+        byte[] expected = custom.encrypt(plaintext, iv);
+        byte[] actual = jca.encrypt(plaintext, iv);
+
+        assertArrayEquals(expected, actual);
+        assertArrayEquals(plaintext, jca.decrypt(expected, iv));
+        assertArrayEquals(plaintext, custom.decrypt(actual, iv));
+    }
+
+    /**
+     * 버퍼 출력 경로는 direct 버퍼에도 바로 쓰고, 결과는 직접 구현한 모드와 같아야 합니다.
+     */
+    @ParameterizedTest
+    @MethodSource("cases")
+    void bufferPathMatchesCustomPath(ModeType type, int length) {
+        AesBlockCipher cipher = new AesBlockCipher(randomBytes(16, 7));
+        ModeOfOperation custom = ModeFactory.create(type, cipher);
+        ModeOfOperation jca = ModeFactory.createAccelerated(type, cipher);
+        byte[] iv = randomBytes(custom.ivLength(), 3);
+        byte[] plaintext = randomBytes(length, 11 + length);
+        byte[] expected = custom.encrypt(plaintext, iv);
+
+        ByteBuffer out = ByteBuffer.allocateDirect(jca.maxOutputLength(length, true));
+        assertEquals(expected.length, jca.encrypt(plaintext, 0, length, iv, out));
+        byte[] actual = new byte[out.flip().remaining()];
+        out.get(actual);
+        assertArrayEquals(expected, actual);
+
+        out = ByteBuffer.allocateDirect(jca.maxOutputLength(expected.length, false));
+        assertEquals(length, jca.decrypt(expected, 0, expected.length, iv, out));
+    }
+
+    /**
+     * counter 공간이 끝나는 지점에서 두 경로 모두 같은 기준으로 허용/거부해야 합니다.
+     */
+    @Test
+    void ctrWrapBehaviorMatches() {
+        AesBlockCipher cipher = new AesBlockCipher(new byte[16]);
+        ModeOfOperation custom = new CTRMode(cipher);
+        ModeOfOperation jca = new JcaMode(ModeType.CTR, cipher);
+
+        byte[] lastCounter = new byte[16];
+        Arrays.fill(lastCounter, (byte) 0xFF);
+        assertArrayEquals(custom.encrypt(new byte[16], lastCounter), jca.encrypt(new byte[16], lastCounter));
+        assertThrows(IllegalStateException.class, () -> custom.encrypt(new byte[17], lastCounter));
+        assertThrows(IllegalStateException.class, () -> jca.encrypt(new byte[17], lastCounter));
+
+        byte[] twoLeft = lastCounter.clone();
+        twoLeft[15] = (byte) 0xFE;
+        assertArrayEquals(custom.encrypt(new byte[32], twoLeft), jca.encrypt(new byte[32], twoLeft));
+        assertThrows(IllegalStateException.class, () -> jca.encrypt(new byte[33], twoLeft));
+    }
+
+    /**
+     * 잘못된 IV, 블록 배수가 아닌 암호문, 깨진 패딩은 같은 예외 유형으로 거부되어야 합니다.
+     */
+    @Test
+    void invalidInputsAreRejectedLikeCustomPath() {
+        AesBlockCipher cipher = new AesBlockCipher(new byte[16]);
+        ModeOfOperation cbc = new JcaMode(ModeType.CBC, cipher);
+        ModeOfOperation ecb = new JcaMode(ModeType.ECB, cipher);
+        byte[] iv = new byte[16];
+
+        assertThrows(IllegalArgumentException.class, () -> cbc.encrypt(new byte[1], new byte[15]));
+        assertThrows(IllegalArgumentException.class, () -> ecb.encrypt(new byte[1], new byte[16]));
+        assertThrows(IllegalArgumentException.class, () -> cbc.decrypt(new byte[17], iv));
+        assertThrows(IllegalArgumentException.class, () -> cbc.decrypt(new byte[0], iv));
+
+        byte[] broken = cbc.encrypt(new byte[5], iv);
+        broken[broken.length - 1] ^= 0x55;
+        assertThrows(IllegalArgumentException.class, () -> cbc.decrypt(broken, iv));
+    }
+
+    private static Stream<Arguments> cases() {
+        int[] lengths = {0, 1, 15, 16, 31, 32, 100, 4099};
+        return Stream.of(ModeType.values())
+            .filter(JcaMode::supports)
+            .flatMap(type -> Arrays.stream(lengths).mapToObj(length -> Arguments.of(type, length)));
+    }
+
+    private static byte[] randomBytes(int length, int seed) {
+        byte[] out = new byte[length];
+        new Random(seed).nextBytes(out);
+        return out;
+    }
+}
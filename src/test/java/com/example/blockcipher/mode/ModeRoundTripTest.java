@@ -1,10 +1,12 @@
 package com.example.blockcipher.mode;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import com.example.blockcipher.core.AesBlockCipher;
 import com.example.blockcipher.factory.ModeFactory;
 import com.example.blockcipher.service.ModeCipherService;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Random;
 import java.util.stream.Stream;
@@ -34,6 +36,43 @@ class ModeRoundTripTest {
         assertArrayEquals(plaintext, restored);
     }
 
+    /**
+     * 버퍼 출력 경로(입력 구간 + 힙/direct 출력 버퍼)는 배열 경로와 같은 결과를 내야 합니다.
+     */
+    @ParameterizedTest
+    @MethodSource("cases")
+    void bufferPathMatchesArrayPath(ModeType modeType, int length) {
+        ModeOfOperation mode = ModeFactory.create(modeType, new AesBlockCipher(randomBytes(16, 7)));
+        byte[] iv = randomBytes(mode.ivLength(), 5);
+        byte[] plaintext = randomBytes(length, 11 + length);
+        byte[] ciphertext = mode.encrypt(plaintext, iv);
+
+        for (boolean direct : new boolean[] {false, true}) {
+            byte[] framed = new byte[length + 7];
+            System.arraycopy(plaintext, 0, framed, 3, length);
+            ByteBuffer out = allocate(direct, 2 + mode.maxOutputLength(length, true));
+            out.position(2);
+            assertEquals(ciphertext.length, mode.encrypt(framed, 3, length, iv, out));
+            assertArrayEquals(ciphertext, written(out, 2), modeType + " direct=" + direct);
+
+            framed = new byte[ciphertext.length + 7];
+            System.arraycopy(ciphertext, 0, framed, 3, ciphertext.length);
+            out = allocate(direct, mode.maxOutputLength(ciphertext.length, false));
+            assertEquals(length, mode.decrypt(framed, 3, ciphertext.length, iv, out));
+            assertArrayEquals(plaintext, written(out, 0), modeType + " direct=" + direct);
+        }
+    }
+
+    private static ByteBuffer allocate(boolean direct, int capacity) {
+        return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+
+    private static byte[] written(ByteBuffer out, int start) {
+        byte[] bytes = new byte[out.position() - start];
+        out.get(start, bytes);
+        return bytes;
+    }
+
     /**
      * 재현 가능한 테스트를 위해 고정 시드 난수를 사용합니다.
      */
@@ -49,6 +88,7 @@ class ModeRoundTripTest {
     private static Stream<Arguments> cases() {
         int[] lengths = {0, 1, 15, 16, 31, 32, 100};
         return Stream.of(ModeType.values())
+            .filter(ModeFactory::supportsSingleCipher)
             .flatMap(mode -> Arrays.stream(lengths).mapToObj(length -> Arguments.of(mode, length)));
     }
 }
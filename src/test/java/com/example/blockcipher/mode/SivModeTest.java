@@ -0,0 +1,133 @@
+package com.example.blockcipher.mode;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.example.blockcipher.core.AesBlockCipher;
+import com.example.blockcipher.core.CryptoException;
+import com.example.blockcipher.factory.ModeFactory;
+import com.example.blockcipher.service.ModeCipherService;
+import com.example.blockcipher.util.Hex;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * SIV 모드의 RFC 5297 벡터, 결정성, 변조 검출을 검증합니다.
+ */
+class SivModeTest {
+    /**
+     * RFC 5297 A.1(결정적, AD 1개)과 일치해야 합니다.
+     */
+    @Test
+    void matchesRfc5297DeterministicVector() {
+        SIVMode siv = newSiv("fffefdfcfbfaf9f8f7f6f5f4f3f2f1f0f0f1f2f3f4f5f6f7f8f9fafbfcfdfeff");
+        byte[] ad = Hex.decode("101112131415161718191a1b1c1d1e1f2021222324252627");
+        byte[] plaintext = Hex.decode("112233445566778899aabbccddee");
+
+        byte[] sealed = siv.encrypt(plaintext, List.of(ad));
+        assertEquals("85632d07c6e8f37f950acd320a2ecc93" + "40c02b9690c4dc04daef7f6afe5c", Hex.encode(sealed));
+        assertArrayEquals(plaintext, siv.decrypt(sealed, List.of(ad)));
+    }
+
+    /**
+     * RFC 5297 A.2(nonce 기반, AD 2개 + nonce)와 일치해야 합니다.
+     */
+    @Test
+    void matchesRfc5297NonceBasedVector() {
+        SIVMode siv = newSiv("7f7e7d7c7b7a79787776757473727170404142434445464748494a4b4c4d4e4f");
+        List<byte[]> ad = List.of(
+            Hex.decode("00112233445566778899aabbccddeeffdeaddadadeaddadaffeeddccbbaa99887766554433221100"),
+            Hex.decode("102030405060708090a0"),
+            Hex.decode("09f911029d74e35bd84156c5635688c0")
+        );
+        byte[] plaintext = Hex.decode(
+            "7468697320697320736f6d6520706c61696e7465787420746f20656e6372797074207573696e67205349562d414553"
+        );
+
+        byte[] sealed = siv.encrypt(plaintext, ad);
+        assertEquals(
+            "7bdb6e3b432667eb06f4d14bff2fbd0f"
+                + "cb900f2fddbe404326601965c889bf17dba77ceb094fa663b7a3f748ba8af829ea64ad544a272e9c485b62a3fd5c0d",
+            Hex.encode(sealed)
+        );
+        assertArrayEquals(plaintext, siv.decrypt(sealed, ad));
+    }
+
+    /**
+     * 같은 평문은 서비스 경로에서도 같은 암호문이 되고, 블록 경계 전후 길이에서 복원되어야 합니다.
+     */
+    @Test
+    void identicalPlaintextsProduceIdenticalCiphertexts() {
+        ModeCipherService service = new ModeCipherService(newSiv(randomBytes(32, 1)));
+        for (int length : new int[] {0, 1, 15, 16, 17, 31, 32, 33, 1000, 4096}) {
+            byte[] plaintext = randomBytes(length, length);
+            byte[] first = service.encryptWithHeader(plaintext);
+            byte[] second = service.encryptWithHeader(plaintext.clone());
+            assertEquals(length + SIVMode.TAG_LENGTH, first.length);
+            assertArrayEquals(first, second);
+            assertArrayEquals(plaintext, service.decryptWithHeader(first));
+        }
+    }
+
+    /**
+     * nonce를 주면 같은 평문도 다른 암호문이 되어야 합니다.
+     */
+    @Test
+    void nonceMakesCiphertextsDistinct() {
+        SIVMode siv = newSiv(randomBytes(32, 2));
+        byte[] plaintext = randomBytes(100, 3);
+        byte[] a = siv.encrypt(plaintext, new byte[] {1});
+        byte[] b = siv.encrypt(plaintext, new byte[] {2});
+        assertFalse(Arrays.equals(a, b));
+        assertArrayEquals(plaintext, siv.decrypt(b, new byte[] {2}));
+        assertThrows(CryptoException.class, () -> siv.decrypt(b, new byte[] {1}));
+    }
+
+    /**
+     * 암호문, 합성 IV, AD 중 어느 것이 바뀌어도 복호화는 거부되어야 합니다.
+     */
+    @Test
+    void rejectsTamperedInput() {
+        SIVMode siv = newSiv(randomBytes(32, 4));
+        List<byte[]> ad = List.of(new byte[] {7, 7});
+        byte[] sealed = siv.encrypt(randomBytes(40, 5), ad);
+
+        byte[] flippedBody = sealed.clone();
+        flippedBody[sealed.length - 1] ^= 1;
+        byte[] flippedTag = sealed.clone();
+        flippedTag[0] ^= 1;
+        assertThrows(CryptoException.class, () -> siv.decrypt(flippedBody, ad));
+        assertThrows(CryptoException.class, () -> siv.decrypt(flippedTag, ad));
+        assertThrows(CryptoException.class, () -> siv.decrypt(sealed, List.of(new byte[] {7, 8})));
+        assertThrows(IllegalArgumentException.class, () -> siv.decrypt(new byte[15], ad));
+    }
+
+    @Test
+    void rejectsSingleCipherCreation() {
+        AesBlockCipher cipher = new AesBlockCipher(new byte[16]);
+        assertThrows(IllegalArgumentException.class, () -> ModeFactory.create(ModeType.SIV, cipher));
+        assertThrows(IllegalArgumentException.class, () -> new SIVMode(cipher, cipher));
+    }
+
+    private static SIVMode newSiv(String hexKey) {
+        return newSiv(Hex.decode(hexKey));
+    }
+
+    private static SIVMode newSiv(byte[] key) {
+        int half = key.length / 2;
+        return ModeFactory.createSiv(
+            new AesBlockCipher(Arrays.copyOf(key, half)),
+            new AesBlockCipher(Arrays.copyOfRange(key, half, key.length))
+        );
+    }
+
+    private static byte[] randomBytes(int length, int seed) {
+        byte[] out = new byte[length];
+        new Random(seed).nextBytes(out);
+        return out;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.blockcipher.mode;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.example.blockcipher.core.AesBlockCipher;
+import com.example.blockcipher.factory.ModeFactory;
+import com.example.blockcipher.util.Hex;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * XTS 모드의 표준 벡터, 암호문 훔치기, 섹터 독립성을 검증합니다.
+ */
+class XtsModeTest {
+    /**
+     * IEEE 1619 Vector 1(키 0, 섹터 0, 평문 32바이트 0)과 일치해야 합니다.
+     */
+    @Test
+    void matchesIeee1619Vector1() {
+        XTSMode xts = new XTSMode(new AesBlockCipher(new byte[16]), new AesBlockCipher(new byte[16]));
+        byte[] ciphertext = xts.encryptSector(new byte[32], 0);
+        assertEquals("917cf69ebd68b2ec9b9fe9a3eadda692cd43d2f59598ed858c02c2652fbf922e", Hex.encode(ciphertext));
+    }
+
+    /**
+     * 블록 배수가 아닌 길이에서도 암호문 길이가 유지되고 복원되어야 합니다.
+     */
+    @Test
+    void ciphertextStealingRoundTrip() {
+        XTSMode xts = newXts(4096);
+        for (int length : new int[] {16, 17, 31, 32, 33, 100, 4095, 4096}) {
+            byte[] plaintext = randomBytes(length, length);
+            byte[] ciphertext = xts.encryptSector(plaintext, 42);
+            assertEquals(length, ciphertext.length);
+            assertArrayEquals(plaintext, xts.decryptSector(ciphertext, 42));
+        }
+    }
+
+    /**
+     * 여러 섹터를 한 번에 처리한 결과는 섹터별로 따로 처리한 결과와 같아야 합니다.
+     */
+    @Test
+    void bulkSectorsMatchIndividualSectors() {
+        int sectorSize = 512;
+        XTSMode xts = newXts(sectorSize);
+        byte[] data = randomBytes((sectorSize * 7) + 40, 9);
+        byte[] bulk = xts.encryptSectors(data, 1000);
+
+        for (int k = 0; k * sectorSize < data.length; k++) {
+            int from = k * sectorSize;
+            int to = Math.min(data.length, from + sectorSize);
+            byte[] single = xts.encryptSector(Arrays.copyOfRange(data, from, to), 1000 + k);
+            assertArrayEquals(single, Arrays.copyOfRange(bulk, from, to));
+        }
+        assertArrayEquals(data, xts.decryptSectors(bulk, 1000));
+    }
+
+    /**
+     * 한 블록보다 짧은 데이터 단위와 단일 키 생성은 거부되어야 합니다.
+     */
+    @Test
+    void rejectsInvalidUsage() {
+        XTSMode xts = newXts(4096);
+        assertThrows(IllegalArgumentException.class, () -> xts.encryptSector(new byte[15], 0));
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> ModeFactory.create(ModeType.XTS, new AesBlockCipher(new byte[16]))
+        );
+    }
+
+    private static XTSMode newXts(int sectorSize) {
+        return ModeFactory.createXts(
+            new AesBlockCipher(randomBytes(16, 1)),
+            new AesBlockCipher(randomBytes(16, 2)),
+            sectorSize
+        );
+    }
+
+    private static byte[] randomBytes(int length, int seed) {
+        byte[] out = new byte[length];
+        new Random(seed).nextBytes(out);
+        return out;
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.blockcipher.perf;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.blockcipher.core.AesBlockCipher;
+import com.example.blockcipher.core.BitslicedAesBlockCipher;
+import com.example.blockcipher.factory.ModeFactory;
+import com.example.blockcipher.mode.ModeOfOperation;
+import com.example.blockcipher.mode.ModeType;
+import com.example.blockcipher.service.ModeCipherService;
+import com.example.blockcipher.trace.TraceKind;
+import com.example.blockcipher.trace.TraceRingBuffer;
+import com.example.blockcipher.util.BufferPool;
+import com.example.blockcipher.util.PooledBuffer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * 할당량과 처리량 회귀를 검사하는 성능 스위트입니다({@code mvn -B test -Pperf}).
+ *
+ * <p>시나리오마다</p>
+ * <p>1. 예열(JIT 컴파일이 끝나도록 일정 시간 반복)</p>
+ * <p>2. {@code ThreadMXBean} 스레드 할당 카운터로 연산당 할당 바이트 측정</p>
+ * <p>3. 여러 구간 반복해 초당 블록 수 측정(구간 최댓값)</p>
+ * <p>4. {@code perf-baseline.properties}와 비교: 할당은 기준 x (1 + 허용치) 이하,
+ *    처리량은 기준 x (1 - 허용치) 이상. 기준 할당이 0인 경로는 1바이트라도 할당하면 실패</p>
+ *
+ * <p>측정값은 항상 {@code target/perf-results.properties}에 남기므로, 의도한 변경이면 그 값을 기준 파일로 옮깁니다.</p>
+ */
+@Tag("perf")
+class PerfRegressionTest {
+    private static final int MESSAGE_BYTES = 4096;
+    private static final long WARMUP_NANOS = 300_000_000L;
+    private static final long MEASURE_NANOS = 500_000_000L;
+    /** 처리량은 여러 구간 중 최댓값을 써서 GC/스케줄링 잡음을 줄입니다. */
+    private static final int MEASURE_WINDOWS = 5;
+    private static final int ALLOCATION_OPS = 200;
+    private static final Path RESULTS = Paths.get("target", "perf-results.properties");
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static Properties baseline;
+    private static double allocationTolerance;
+    private static double throughputTolerance;
+
+    /** 결과를 JIT가 지우지 못하게 모아 두는 값. */
+    private static volatile int sink;
+
+    @BeforeAll
+    static void loadBaseline() throws IOException {
+        assertTrue(THREADS.isThreadAllocatedMemorySupported(), "thread allocation counters are not supported");
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+        baseline = new Properties();
+        try (InputStream in = PerfRegressionTest.class.getResourceAsStream("/perf-baseline.properties")) {
+            assertNotNull(in, "perf-baseline.properties is missing from test resources");
+            baseline.load(in);
+        }
+        allocationTolerance = Double.parseDouble(baseline.getProperty("tolerance.bytesPerOp"));
+        throughputTolerance = Double.parseDouble(baseline.getProperty("tolerance.blocksPerSec"));
+        Files.createDirectories(RESULTS.getParent());
+        Files.deleteIfExists(RESULTS);
+    }
+
+    /**
+     * 모든 모드의 4 KiB 암호화.
+     */
+    @ParameterizedTest
+    @EnumSource(ModeType.class)
+    void modeEncrypt(ModeType type) throws IOException {
+        ModeOfOperation mode = newMode(type);
+        byte[] iv = new byte[mode.ivLength()];
+        byte[] plaintext = message();
+        check("mode." + type + ".encrypt", MESSAGE_BYTES / 16, () -> mode.encrypt(plaintext, iv));
+    }
+
+    /**
+     * 모든 모드의 4 KiB 복호화.
+     */
+    @ParameterizedTest
+    @EnumSource(ModeType.class)
+    void modeDecrypt(ModeType type) throws IOException {
+        ModeOfOperation mode = newMode(type);
+        byte[] iv = new byte[mode.ivLength()];
+        byte[] ciphertext = mode.encrypt(message(), iv);
+        check("mode." + type + ".decrypt", MESSAGE_BYTES / 16, () -> mode.decrypt(ciphertext, iv));
+    }
+
+    /**
+     * 서비스 배열 경로와 풀 경로({@code [IV || ciphertext]} 암호화).
+     */
+    @ParameterizedTest
+    @MethodSource("singleCipherModes")
+    void serviceEncrypt(ModeType type) throws IOException {
+        ModeCipherService service = new ModeCipherService(newMode(type));
+        byte[] plaintext = message();
+        check("service." + type + ".encryptWithHeader", MESSAGE_BYTES / 16, () -> service.encryptWithHeader(plaintext));
+
+        BufferPool pool = BufferPool.heap();
+        check("service." + type + ".encryptWithHeaderPooled", MESSAGE_BYTES / 16, () -> {
+            try (PooledBuffer out = service.encryptWithHeader(plaintext, pool)) {
+                return out.size();
+            }
+        });
+    }
+
+    /**
+     * 할당 없는 경로: 비트슬라이스 AES 일괄 암호화(스레드별 작업 공간 재사용).
+     */
+    @Test
+    void bitslicedBulkIsAllocationFree() throws IOException {
+        BitslicedAesBlockCipher cipher = new BitslicedAesBlockCipher(new byte[16]);
+        byte[] input = message();
+        byte[] output = new byte[input.length];
+        int blocks = input.length / 16;
+        check("bitsliced.encryptBlocks", blocks, () -> {
+            cipher.encryptBlocks(input, 0, output, 0, blocks);
+            return output[0];
+        });
+    }
+
+    /**
+     * 할당 없는 경로: 추적 링 버퍼 기록.
+     */
+    @Test
+    void traceRingBufferIsAllocationFree() throws IOException {
+        TraceRingBuffer ring = new TraceRingBuffer(1024);
+        byte[] value = new byte[16];
+        check("trace.ringBuffer.onBlock", 1, () -> {
+            ring.onBlock(ModeType.CTR, 0, TraceKind.KEYSTREAM, value, 0, value.length);
+            return 0;
+        });
+    }
+
+    static Stream<ModeType> singleCipherModes() {
+        return Stream.of(ModeType.values()).filter(ModeFactory::supportsSingleCipher);
+    }
+
+    /**
+     * 한 시나리오를 측정하고 기준과 비교합니다.
+     */
+    private static void check(String name, int blocksPerOp, Supplier<Object> operation) throws IOException {
+        long warmupEnd = System.nanoTime() + WARMUP_NANOS;
+        while (System.nanoTime() < warmupEnd) {
+            consume(operation.get());
+        }
+
+        long allocatedBefore = THREADS.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < ALLOCATION_OPS; i++) {
+            consume(operation.get());
+        }
+        double bytesPerOp = (THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore) / (double) ALLOCATION_OPS;
+
+        double blocksPerSec = 0;
+        for (int window = 0; window < MEASURE_WINDOWS; window++) {
+            long ops = 0;
+            long started = System.nanoTime();
+            long elapsed;
+            do {
+                consume(operation.get());
+                ops++;
+                elapsed = System.nanoTime() - started;
+            } while (elapsed < MEASURE_NANOS / MEASURE_WINDOWS);
+            blocksPerSec = Math.max(blocksPerSec, ops * (double) blocksPerOp * 1e9 / elapsed);
+        }
+
+        record(name, bytesPerOp, blocksPerSec);
+        compare(name, bytesPerOp, blocksPerSec);
+    }
+
+    private static void compare(String name, double bytesPerOp, double blocksPerSec) {
+        String allocationBaseline = baseline.getProperty(name + ".bytesPerOp");
+        String throughputBaseline = baseline.getProperty(name + ".blocksPerSec");
+        assertTrue(allocationBaseline != null && throughputBaseline != null,
+            "no baseline for " + name + "; copy it from " + RESULTS);
+
+        double maxBytes = Double.parseDouble(allocationBaseline);
+        if (maxBytes == 0) {
+            assertTrue(bytesPerOp < 1.0,
+                name + ": allocation-free path now allocates " + format(bytesPerOp) + " bytes/op");
+        } else {
+            double limit = maxBytes * (1 + allocationTolerance);
+            assertTrue(bytesPerOp <= limit,
+                name + ": " + format(bytesPerOp) + " bytes/op exceeds baseline " + maxBytes + " (limit " + format(limit) + ")");
+        }
+
+        double floor = Double.parseDouble(throughputBaseline) * (1 - throughputTolerance);
+        assertTrue(blocksPerSec >= floor,
+            name + ": " + format(blocksPerSec) + " blocks/s is below floor " + format(floor));
+    }
+
+    private static synchronized void record(String name, double bytesPerOp, double blocksPerSec) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(
+            RESULTS, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.write(name + ".bytesPerOp=" + Math.round(Math.ceil(bytesPerOp < 1.0 ? 0 : bytesPerOp)) + "\n");
+            writer.write(name + ".blocksPerSec=" + Math.round(blocksPerSec) + "\n");
+        }
+    }
+
+    private static ModeOfOperation newMode(ModeType type) {
+        byte[] key = new byte[16];
+        new Random(1).nextBytes(key);
+        if (type == ModeType.XTS) {
+            byte[] tweakKey = new byte[16];
+            new Random(2).nextBytes(tweakKey);
+            return ModeFactory.createXts(new AesBlockCipher(key), new AesBlockCipher(tweakKey), MESSAGE_BYTES);
+        }
+        if (type == ModeType.SIV) {
+            byte[] ctrKey = new byte[16];
+            new Random(2).nextBytes(ctrKey);
+            return ModeFactory.createSiv(new AesBlockCipher(key), new AesBlockCipher(ctrKey));
+        }
+        return ModeFactory.create(type, new AesBlockCipher(key));
+    }
+
+    private static byte[] message() {
+        byte[] message = new byte[MESSAGE_BYTES];
+        new Random(3).nextBytes(message);
+        return message;
+    }
+
+    private static void consume(Object result) {
+        sink += System.identityHashCode(result);
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.1f", value);
+    }
+}
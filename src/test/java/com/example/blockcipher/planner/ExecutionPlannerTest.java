@@ -0,0 +1,187 @@
+package com.example.blockcipher.planner;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.blockcipher.core.AesBlockCipher;
+import com.example.blockcipher.core.BitslicedAesBlockCipher;
+import com.example.blockcipher.core.CryptoException;
+import com.example.blockcipher.factory.ModeFactory;
+import com.example.blockcipher.guard.NonceReuseGuard;
+import com.example.blockcipher.mode.BlockCache;
+import com.example.blockcipher.mode.CTRMode;
+import com.example.blockcipher.mode.CounterLayout;
+import com.example.blockcipher.mode.ECBMode;
+import com.example.blockcipher.mode.JcaMode;
+import com.example.blockcipher.mode.ModeOfOperation;
+import com.example.blockcipher.mode.ModeType;
+import com.example.blockcipher.padding.Pkcs7Padding;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * 비용 모델에 따른 전략 선택과, 선택된 경로의 결과가 순차 경로와 같은지 검증합니다.
+ */
+class ExecutionPlannerTest {
+    /** JCA가 없고 병렬 분배가 싼 보정값. 큰 메시지는 병렬, 작은 메시지는 순차가 됩니다. */
+    private static final PlannerCalibration PARALLEL_FRIENDLY =
+        new PlannerCalibration(50, 10, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, 20_000);
+
+    /**
+     * 크기/모드/방향/코어 수에 따라 결정이 달라져야 합니다.
+     */
+    @Test
+    void choosesByCostModel() {
+        ExecutionPlanner planner = new ExecutionPlanner(PARALLEL_FRIENDLY, 8);
+
+        assertEquals(ExecutionStrategy.SEQUENTIAL, planner.choose(ModeType.CTR, true, 1024, false));
+        assertEquals(ExecutionStrategy.PARALLEL, planner.choose(ModeType.CTR, true, 1 << 20, false));
+        assertEquals(ExecutionStrategy.PARALLEL, planner.choose(ModeType.CBC, false, 1 << 20, false));
+        assertEquals(ExecutionStrategy.SEQUENTIAL, planner.choose(ModeType.CBC, true, 1 << 20, false));
+        assertEquals(ExecutionStrategy.SEQUENTIAL, planner.choose(ModeType.OFB, true, 1 << 20, false));
+
+        ExecutionPlanner singleCore = new ExecutionPlanner(PARALLEL_FRIENDLY, 1);
+        assertEquals(ExecutionStrategy.SEQUENTIAL, singleCore.choose(ModeType.ECB, true, 1 << 20, false));
+
+        ExecutionPlanner withJca = new ExecutionPlanner(new PlannerCalibration(50, 10, 5_000, 0.5, 20_000), 8);
+        assertEquals(ExecutionStrategy.SEQUENTIAL, withJca.choose(ModeType.CTR, true, 16, true));
+        assertEquals(ExecutionStrategy.JCA_BULK, withJca.choose(ModeType.CTR, true, 1 << 20, true));
+        assertEquals(ExecutionStrategy.JCA_BULK, withJca.choose(ModeType.CBC, true, 4096, true));
+    }
+
+    /**
+     * 병렬로 실행된 ECB/CTR/CBC 복호화 결과는 순차 구현과 같아야 하고, 지표에 기록되어야 합니다.
+     */
+    @ParameterizedTest
+    @EnumSource(value = ModeType.class, names = {"ECB", "CBC", "CTR"})
+    void parallelPathMatchesSequential(ModeType type) {
+        byte[] key = new byte[16];
+        new Random(1).nextBytes(key);
+        BitslicedAesBlockCipher cipher = new BitslicedAesBlockCipher(key);
+        ExecutionPlanner planner = new ExecutionPlanner(PARALLEL_FRIENDLY, 4);
+        ModeOfOperation planned = ModeFactory.createPlanned(type, cipher, planner);
+        ModeOfOperation sequential = ModeFactory.create(type, cipher);
+
+        byte[] iv = new byte[planned.ivLength()];
+        new Random(2).nextBytes(iv);
+        byte[] plaintext = new byte[200_003];
+        new Random(3).nextBytes(plaintext);
+
+        byte[] ciphertext = planned.encrypt(plaintext, iv);
+        assertArrayEquals(sequential.encrypt(plaintext, iv), ciphertext);
+        assertArrayEquals(plaintext, planned.decrypt(ciphertext, iv));
+
+        PlannerMetrics metrics = planner.metrics();
+        long expectedParallel = type == ModeType.CBC ? 1 : 2;
+        assertEquals(expectedParallel, metrics.decisions(type, ExecutionStrategy.PARALLEL));
+        assertEquals(2 - expectedParallel, metrics.decisions(type, ExecutionStrategy.SEQUENTIAL));
+    }
+
+    /**
+     * 구간 경계에서 counter 상위 64비트로 올림이 생겨도 순차 CTR과 같고, wrap은 같은 예외로 거부해야 합니다.
+     */
+    @Test
+    void parallelCtrCarriesAcrossSegments() {
+        AesBlockCipher cipher = new AesBlockCipher(new byte[16]);
+        ModeOfOperation planned = ModeFactory.createPlanned(
+            ModeType.CTR, cipher, new ExecutionPlanner(PARALLEL_FRIENDLY, 4));
+        ModeOfOperation sequential = ModeFactory.create(ModeType.CTR, cipher);
+        byte[] iv = new byte[16];
+        Arrays.fill(iv, 8, 16, (byte) 0xFF);
+        iv[15] = (byte) 0xF0;
+        byte[] plaintext = new byte[100_000];
+
+        assertArrayEquals(sequential.encrypt(plaintext, iv), planned.encrypt(plaintext, iv));
+
+        byte[] exhausted = new byte[16];
+        Arrays.fill(exhausted, (byte) 0xFF);
+        assertThrows(IllegalStateException.class, () -> planned.encrypt(plaintext, exhausted));
+    }
+
+    /**
+     * 분할 counter 레이아웃과 nonce 가드를 쓰는 CTR도 병렬 경로 결과가 순차 구현과 같고,
+     * counter 영역 wrap 거부와 nonce 기록이 그대로 적용되어야 합니다.
+     */
+    @ParameterizedTest
+    @EnumSource(value = CounterLayout.class, names = {"NONCE_96_COUNTER_32", "NONCE_64_COUNTER_64"})
+    void parallelCtrFollowsCounterLayoutAndGuard(CounterLayout layout) {
+        AesBlockCipher cipher = new AesBlockCipher(new byte[16]);
+        ExecutionPlanner planner = new ExecutionPlanner(PARALLEL_FRIENDLY, 4);
+        NonceReuseGuard guard = new NonceReuseGuard(1_000, 0.001, NonceReuseGuard.Policy.REJECT);
+        PlannedMode planned = new PlannedMode(new CTRMode(cipher, layout, guard), null, new Pkcs7Padding(), planner);
+        CTRMode sequential = new CTRMode(cipher, layout, null);
+        byte[] iv = new byte[16];
+        Arrays.fill(iv, (byte) 0xA5);
+        // counter 영역 안에서 여러 바이트에 걸친 올림이 생기는 위치에서 시작합니다.
+        Arrays.fill(iv, 16 - layout.counterBits() / 8 + 1, 16, (byte) 0xFF);
+        iv[16 - layout.counterBits() / 8] = (byte) 0xFE;
+        byte[] plaintext = new byte[100_000];
+        new Random(4).nextBytes(plaintext);
+
+        byte[] ciphertext = planned.encrypt(plaintext, iv);
+        assertArrayEquals(sequential.encrypt(plaintext, iv), ciphertext);
+        assertArrayEquals(plaintext, planned.decrypt(ciphertext, iv));
+        assertEquals(2, planner.metrics().decisions(ModeType.CTR, ExecutionStrategy.PARALLEL));
+        assertEquals(1, guard.checks());
+        assertThrows(CryptoException.class, () -> planned.encrypt(plaintext, iv));
+
+        byte[] exhausted = iv.clone();
+        Arrays.fill(exhausted, 16 - layout.counterBits() / 8, 16, (byte) 0xFF);
+        assertThrows(IllegalStateException.class, () -> planned.decrypt(plaintext, exhausted));
+    }
+
+    /**
+     * ECB 병렬 암호화는 순차 구현의 블록 캐시를 거치고, JCA 일괄 구현과는 함께 만들 수 없어야 합니다.
+     */
+    @Test
+    void parallelEcbUsesBlockCache() {
+        AesBlockCipher cipher = new AesBlockCipher(new byte[16]);
+        try (BlockCache cache = new BlockCache(cipher, 1024)) {
+            ECBMode ecb = new ECBMode(cipher, new Pkcs7Padding(), cache);
+            PlannedMode planned = new PlannedMode(ecb, null, new Pkcs7Padding(), new ExecutionPlanner(PARALLEL_FRIENDLY, 4));
+            byte[] plaintext = new byte[100_000];
+
+            assertArrayEquals(ModeFactory.create(ModeType.ECB, cipher).encrypt(plaintext, null), planned.encrypt(plaintext, null));
+            assertTrue(cache.hits() > 0);
+            assertThrows(IllegalArgumentException.class,
+                () -> new PlannedMode(ecb, new JcaMode(ModeType.ECB, cipher), new Pkcs7Padding(), planned.planner()));
+        }
+    }
+
+    /**
+     * 잘못된 입력은 순차 경로로 보내 기존과 같은 예외를 받아야 합니다.
+     */
+    @Test
+    void invalidInputFallsBackToSequentialValidation() {
+        ExecutionPlanner planner = new ExecutionPlanner(PARALLEL_FRIENDLY, 4);
+        ModeOfOperation planned = ModeFactory.createPlanned(
+            ModeType.CBC, new BitslicedAesBlockCipher(new byte[16]), planner);
+
+        assertThrows(IllegalArgumentException.class, () -> planned.decrypt(new byte[100_001], new byte[16]));
+        assertEquals(0, planner.metrics().decisions(ExecutionStrategy.PARALLEL));
+        assertEquals(1, planner.metrics().decisions(ExecutionStrategy.SEQUENTIAL));
+    }
+
+    /**
+     * 자체 벤치마크로 만든 기본 계획기는 구현 클래스별로 공유되고, JCA 경로 비용을 측정해야 합니다.
+     */
+    @Test
+    void calibratedPlannerIsSharedPerCipherClass() {
+        ExecutionPlanner first = ExecutionPlanner.calibrated(new AesBlockCipher(new byte[16]));
+        ExecutionPlanner second = ExecutionPlanner.calibrated(new AesBlockCipher(new byte[32]));
+
+        assertTrue(first == second);
+        assertTrue(Double.isFinite(first.calibration().jcaSetupNanos()));
+        assertTrue(first.calibration().bulkNanosPerByte() > 0);
+
+        ModeOfOperation planned = ModeFactory.createPlanned(ModeType.GCM, new AesBlockCipher(new byte[16]));
+        byte[] iv = new byte[planned.ivLength()];
+        byte[] plaintext = new byte[5000];
+        assertArrayEquals(plaintext, planned.decrypt(planned.encrypt(plaintext, iv), iv));
+    }
+}
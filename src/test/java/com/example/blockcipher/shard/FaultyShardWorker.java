@@ -0,0 +1,58 @@
+package com.example.blockcipher.shard;
+
+import java.io.IOException;
+
+/**
+ * 테스트에서만 쓰는 장애 주입 작업자 진입점입니다. 처리 흐름은 {@link ShardWorker}와 같고,
+ * 시스템 속성에 따라 정해진 시점에 죽거나 멈춥니다.
+ */
+final class FaultyShardWorker {
+    /** 이 수만큼 shard를 끝낸 뒤 다음 할당을 받으면 결과를 보내지 않고 즉시 종료합니다. */
+    static final String HALT_AFTER_PROPERTY = "blockcipher.test.shard.haltAfter";
+
+    /** true이면 조정자에 접속 인사만 보내고 설정을 받기 전에 즉시 종료합니다. */
+    static final String HALT_BEFORE_SETUP_PROPERTY = "blockcipher.test.shard.haltBeforeSetup";
+
+    /** 이 수만큼 shard를 끝낸 뒤 다음 할당을 받으면 연결을 유지한 채 응답하지 않고 멈춥니다. */
+    static final String HANG_AFTER_PROPERTY = "blockcipher.test.shard.hangAfter";
+
+    private FaultyShardWorker() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int haltAfter = Integer.getInteger(HALT_AFTER_PROPERTY, -1);
+        int hangAfter = Integer.getInteger(HANG_AFTER_PROPERTY, -1);
+        boolean haltBeforeSetup = Boolean.getBoolean(HALT_BEFORE_SETUP_PROPERTY);
+        ShardWorker.run(args, new ShardWorker.Hooks() {
+            @Override
+            public void beforeSetup() {
+                if (haltBeforeSetup) {
+                    Runtime.getRuntime().halt(3);
+                }
+            }
+
+            @Override
+            public void beforeShard(int completed) {
+                if (haltAfter >= 0 && completed >= haltAfter) {
+                    Runtime.getRuntime().halt(3);
+                }
+                if (hangAfter >= 0 && completed >= hangAfter) {
+                    hang();
+                }
+            }
+        });
+    }
+
+    /**
+     * 조정자가 프로세스를 종료할 때까지 멈춰 있습니다.
+     */
+    private static void hang() {
+        while (true) {
+            try {
+                Thread.sleep(Long.MAX_VALUE);
+            } catch (InterruptedException e) {
+                // 장애 주입이므로 인터럽트도 무시합니다.
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.blockcipher.shard;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.blockcipher.core.AesBlockCipher;
+import com.example.blockcipher.factory.ModeFactory;
+import com.example.blockcipher.mode.ModeType;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntFunction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * 작업자 JVM을 실제로 띄워 shard 분배, 재시도, 결과 조립을 검증합니다.
+ */
+class ShardCoordinatorTest {
+    private static final byte[] KEY = new byte[16];
+    private static final byte[] IV = new byte[16];
+
+    static {
+        for (int i = 0; i < 16; i++) {
+            KEY[i] = (byte) i;
+            // 하위 바이트를 크게 둬서 shard 경계에서 counter carry가 일어나게 합니다.
+            IV[i] = (byte) (i < 8 ? 0x40 + i : 0xFF);
+        }
+    }
+
+    @TempDir
+    Path dir;
+
+    /**
+     * 여러 작업자의 결과를 이어 붙인 파일은 한 번에 CTR 암호화한 결과와 같고, 같은 방식으로 복호화되어야 합니다.
+     */
+    @Test
+    void shardedOutputMatchesSingleCall() throws IOException {
+        byte[] plaintext = randomBytes(3 * 1024 * 1024 + 5);
+        Path source = write("plain.bin", plaintext);
+        Path sealed = dir.resolve("sealed.bin");
+        Path opened = dir.resolve("opened.bin");
+
+        ShardCoordinator coordinator = new ShardCoordinator(3, 256 * 1024, ShardCoordinator.DEFAULT_MAX_ATTEMPTS);
+        ShardReport report = coordinator.encryptCtr(source, sealed, KEY, IV);
+        byte[] expected = ModeFactory.create(ModeType.CTR, new AesBlockCipher(KEY)).encrypt(plaintext, IV);
+        assertArrayEquals(expected, Files.readAllBytes(sealed));
+        assertEquals(13, report.shards());
+        assertEquals(13, Arrays.stream(report.shardsPerWorker()).sum());
+        assertEquals(0, report.retries());
+
+        coordinator.decryptCtr(sealed, opened, KEY, IV);
+        assertArrayEquals(plaintext, Files.readAllBytes(opened));
+    }
+
+    /**
+     * 처리 중 죽은 작업자의 shard는 다시 할당되고, 남은 몫은 다른 작업자가 가져가야 합니다.
+     */
+    @Test
+    void crashedWorkerShardsAreRetriedAndStolen() throws IOException {
+        byte[] plaintext = randomBytes(2 * 1024 * 1024);
+        Path source = write("plain.bin", plaintext);
+        Path sealed = dir.resolve("sealed.bin");
+
+        ShardCoordinator coordinator = faulty(2, 128 * 1024, ShardCoordinator.DEFAULT_SHARD_TIMEOUT_MILLIS,
+            id -> id == 0 ? List.of("-D" + FaultyShardWorker.HALT_AFTER_PROPERTY + "=1") : List.of());
+        ShardReport report = coordinator.encryptCtr(source, sealed, KEY, IV);
+
+        byte[] expected = ModeFactory.create(ModeType.CTR, new AesBlockCipher(KEY)).encrypt(plaintext, IV);
+        assertArrayEquals(expected, Files.readAllBytes(sealed));
+        assertEquals(1, report.retries());
+        assertEquals(1, report.shardsPerWorker()[0]);
+        assertEquals(15, report.shardsPerWorker()[1]);
+        assertTrue(report.steals() > 0);
+    }
+
+    /**
+     * 설정을 받기 전에 죽은 작업자는 shard를 하나도 받지 않고 잃은 작업자로 처리되고,
+     * 작업은 중단되지 않은 채 남은 작업자가 그 몫까지 처리해야 합니다.
+     */
+    @Test
+    void workerDyingBeforeSetupIsDroppedWithoutAbortingJob() throws IOException {
+        byte[] plaintext = randomBytes(1024 * 1024);
+        Path source = write("plain.bin", plaintext);
+        Path sealed = dir.resolve("sealed.bin");
+
+        ShardCoordinator coordinator = faulty(3, 128 * 1024, ShardCoordinator.DEFAULT_SHARD_TIMEOUT_MILLIS,
+            id -> id == 1 ? List.of("-D" + FaultyShardWorker.HALT_BEFORE_SETUP_PROPERTY + "=true") : List.of());
+        ShardReport report = coordinator.encryptCtr(source, sealed, KEY, IV);
+
+        byte[] expected = ModeFactory.create(ModeType.CTR, new AesBlockCipher(KEY)).encrypt(plaintext, IV);
+        assertArrayEquals(expected, Files.readAllBytes(sealed));
+        assertEquals(0, report.retries());
+        assertEquals(0, report.shardsPerWorker()[1]);
+        assertEquals(8, report.shardsPerWorker()[0] + report.shardsPerWorker()[2]);
+        assertTrue(report.steals() > 0);
+    }
+
+    /**
+     * 결과를 보내지 않고 멈춘 작업자는 shard 시간 제한 뒤 잃은 작업자로 처리되고, 그 shard는 다른 작업자가 맡아야 합니다.
+     */
+    @Test
+    void hungWorkerTimesOutAndShardIsRetried() throws IOException {
+        byte[] plaintext = randomBytes(1024 * 1024);
+        Path source = write("plain.bin", plaintext);
+        Path sealed = dir.resolve("sealed.bin");
+
+        ShardCoordinator coordinator = faulty(2, 128 * 1024, 2000,
+            id -> id == 0 ? List.of("-D" + FaultyShardWorker.HANG_AFTER_PROPERTY + "=1") : List.of());
+        ShardReport report = coordinator.encryptCtr(source, sealed, KEY, IV);
+
+        byte[] expected = ModeFactory.create(ModeType.CTR, new AesBlockCipher(KEY)).encrypt(plaintext, IV);
+        assertArrayEquals(expected, Files.readAllBytes(sealed));
+        assertEquals(1, report.retries());
+        assertEquals(1, report.shardsPerWorker()[0]);
+        assertEquals(7, report.shardsPerWorker()[1]);
+    }
+
+    /**
+     * 모든 작업자가 죽으면 작업은 실패로 끝나야 합니다.
+     */
+    @Test
+    void failsWhenAllWorkersDie() throws IOException {
+        Path source = write("plain.bin", randomBytes(512 * 1024));
+        ShardCoordinator coordinator = faulty(2, 64 * 1024, ShardCoordinator.DEFAULT_SHARD_TIMEOUT_MILLIS,
+            id -> List.of("-D" + FaultyShardWorker.HALT_AFTER_PROPERTY + "=0"));
+        IOException failure = assertThrows(
+            IOException.class,
+            () -> coordinator.encryptCtr(source, dir.resolve("sealed.bin"), KEY, IV)
+        );
+        assertTrue(failure.getMessage().contains("all workers failed"), failure.getMessage());
+    }
+
+    @Test
+    void rejectsUnalignedShardSize() {
+        assertThrows(IllegalArgumentException.class, () -> new ShardCoordinator(2, 1000, 3));
+    }
+
+    /**
+     * 작업자 번호별 장애 주입 속성을 받는 {@link FaultyShardWorker} 기반 조정자를 만듭니다.
+     */
+    private static ShardCoordinator faulty(
+        int workers,
+        int shardSize,
+        int shardTimeoutMillis,
+        IntFunction<List<String>> jvmArgs
+    ) {
+        return new ShardCoordinator(
+            workers, shardSize, ShardCoordinator.DEFAULT_MAX_ATTEMPTS, shardTimeoutMillis, FaultyShardWorker.class, jvmArgs);
+    }
+
+    private Path write(String name, byte[] bytes) throws IOException {
+        return Files.write(dir.resolve(name), bytes);
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        return bytes;
+    }
+}
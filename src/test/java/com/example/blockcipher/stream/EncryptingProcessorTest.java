@@ -0,0 +1,230 @@
+package com.example.blockcipher.stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.blockcipher.compress.DeflateStage;
+import com.example.blockcipher.core.AesBlockCipher;
+import com.example.blockcipher.factory.ModeFactory;
+import com.example.blockcipher.guard.NonceReuseGuard;
+import com.example.blockcipher.mode.CTRMode;
+import com.example.blockcipher.mode.CounterLayout;
+import com.example.blockcipher.mode.ModeOfOperation;
+import com.example.blockcipher.mode.ModeType;
+import com.example.blockcipher.service.ModeCipherService;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * Flow 프로세서 출력이 서비스 형식과 호환되고, 요청량 이상으로 버퍼링하지 않는지 검증합니다.
+ */
+class EncryptingProcessorTest {
+    /**
+     * 여러 청크로 발행한 평문의 출력을 이어 붙이면 서비스로 복호화되어야 합니다.
+     */
+    @ParameterizedTest
+    @EnumSource(value = ModeType.class, names = {"ECB", "CBC", "CFB", "OFB", "CTR", "GCM"})
+    void outputIsServiceCompatible(ModeType type) throws Exception {
+        ModeOfOperation mode = ModeFactory.create(type, new AesBlockCipher(new byte[16]));
+        byte[] plaintext = new byte[5000];
+        new Random(1).nextBytes(plaintext);
+
+        EncryptingProcessor processor = new EncryptingProcessor(mode, 3);
+        CollectingSubscriber subscriber = new CollectingSubscriber();
+        try (SubmissionPublisher<ByteBuffer> publisher = new SubmissionPublisher<>()) {
+            publisher.subscribe(processor);
+            processor.subscribe(subscriber);
+            for (int offset = 0; offset < plaintext.length; offset += 777) {
+                int end = Math.min(plaintext.length, offset + 777);
+                publisher.submit(ByteBuffer.wrap(Arrays.copyOfRange(plaintext, offset, end)));
+            }
+        }
+
+        byte[] packed = subscriber.done.get(10, TimeUnit.SECONDS);
+        assertArrayEquals(plaintext, new ModeCipherService(mode).decryptWithHeader(packed), type.name());
+    }
+
+    /**
+     * 압축 단계를 주면 첫 청크로 압축을 정하고, 출력은 같은 단계를 준 서비스로 복호화되어야 합니다.
+     */
+    @ParameterizedTest
+    @EnumSource(value = ModeType.class, names = {"CBC", "CTR", "GCM"})
+    void compressedOutputIsServiceCompatible(ModeType type) throws Exception {
+        ModeOfOperation mode = ModeFactory.create(type, new AesBlockCipher(new byte[16]));
+        StringBuilder log = new StringBuilder();
+        for (int i = 0; i < 400; i++) {
+            log.append("{\"level\":\"INFO\",\"seq\":").append(i).append(",\"msg\":\"request served\"}\n");
+        }
+        byte[] plaintext = log.toString().getBytes(StandardCharsets.UTF_8);
+        DeflateStage compression = DeflateStage.defaults();
+
+        EncryptingProcessor processor = new EncryptingProcessor(mode, 3, compression);
+        CollectingSubscriber subscriber = new CollectingSubscriber();
+        try (SubmissionPublisher<ByteBuffer> publisher = new SubmissionPublisher<>()) {
+            publisher.subscribe(processor);
+            processor.subscribe(subscriber);
+            for (int offset = 0; offset < plaintext.length; offset += 1000) {
+                int end = Math.min(plaintext.length, offset + 1000);
+                publisher.submit(ByteBuffer.wrap(Arrays.copyOfRange(plaintext, offset, end)));
+            }
+        }
+
+        byte[] packed = subscriber.done.get(10, TimeUnit.SECONDS);
+        assertTrue(packed.length < plaintext.length / 4, "compressed length " + packed.length);
+        assertArrayEquals(plaintext, new ModeCipherService(mode, null, compression).decryptWithHeader(packed));
+    }
+
+    /**
+     * 하류가 요청하지 않으면 상류 요청은 버퍼 상한(IV 헤더 한 칸 제외)에서 멈춰야 합니다.
+     */
+    @Test
+    void upstreamDemandIsBoundedByDownstream() {
+        ModeOfOperation mode = ModeFactory.create(ModeType.CTR, new AesBlockCipher(new byte[16]));
+        EncryptingProcessor processor = new EncryptingProcessor(mode, 4);
+        AtomicLong requested = new AtomicLong();
+        processor.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                requested.addAndGet(n);
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+
+        Flow.Subscription[] downstream = new Flow.Subscription[1];
+        processor.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                downstream[0] = subscription;
+            }
+
+            @Override
+            public void onNext(ByteBuffer item) {
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        assertEquals(3, requested.get());
+
+        for (int i = 0; i < 3; i++) {
+            processor.onNext(ByteBuffer.allocate(16));
+        }
+        assertEquals(3, requested.get());
+
+        downstream[0].request(2);
+        assertEquals(5, requested.get());
+    }
+
+    /**
+     * 스트림이 따를 수 없는 CTR counter 배치는 거부하고, 모드의 nonce 가드에는 사용한 IV를 기록해야 합니다.
+     */
+    @Test
+    void honorsConfiguredCtrMode() {
+        AesBlockCipher cipher = new AesBlockCipher(new byte[16]);
+        CTRMode split = new CTRMode(cipher, CounterLayout.NONCE_96_COUNTER_32, null);
+        assertThrows(IllegalArgumentException.class, () -> new EncryptingProcessor(split, 3));
+
+        NonceReuseGuard guard = new NonceReuseGuard(1000, 1e-6, NonceReuseGuard.Policy.REJECT);
+        new EncryptingProcessor(new CTRMode(cipher, guard), 3);
+        assertEquals(1, guard.checks());
+    }
+
+    /**
+     * 0 이하 요청은 하류에 오류를 보내고 상류 구독도 취소해야 합니다(규칙 3.9).
+     */
+    @Test
+    void nonPositiveRequestCancelsUpstream() {
+        ModeOfOperation mode = ModeFactory.create(ModeType.CTR, new AesBlockCipher(new byte[16]));
+        EncryptingProcessor processor = new EncryptingProcessor(mode, 4);
+        AtomicBoolean upstreamCancelled = new AtomicBoolean();
+        processor.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+            }
+
+            @Override
+            public void cancel() {
+                upstreamCancelled.set(true);
+            }
+        });
+
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        processor.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(0);
+            }
+
+            @Override
+            public void onNext(ByteBuffer item) {
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                error.set(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        assertTrue(upstreamCancelled.get());
+        assertTrue(error.get() instanceof IllegalArgumentException, String.valueOf(error.get()));
+    }
+
+    /**
+     * 출력 청크를 이어 붙이는 구독자(한 번에 하나씩 요청).
+     */
+    private static final class CollectingSubscriber implements Flow.Subscriber<ByteBuffer> {
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        private final CompletableFuture<byte[]> done = new CompletableFuture<>();
+        private Flow.Subscription subscription;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(ByteBuffer item) {
+            byte[] bytes = new byte[item.remaining()];
+            item.get(bytes);
+            out.write(bytes, 0, bytes.length);
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            done.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            done.complete(out.toByteArray());
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.blockcipher.stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.example.blockcipher.core.AesBlockCipher;
+import com.example.blockcipher.factory.ModeFactory;
+import com.example.blockcipher.mode.ModeOfOperation;
+import com.example.blockcipher.mode.ModeType;
+import com.example.blockcipher.util.Bytes;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * 스트리밍 처리 결과가 단일 호출 모드 결과와 같은지, long 위치 처리가 맞는지 검증합니다.
+ */
+class StreamingModeCipherTest {
+    /**
+     * 입력을 불규칙하게 나눠 넣어도 단일 호출과 같은 암호문/평문이 나와야 합니다.
+     */
+    @ParameterizedTest
+    @EnumSource(value = ModeType.class, names = {"ECB", "CBC", "CFB", "OFB", "CTR"})
+    void chunkedStreamMatchesOneShot(ModeType type) throws IOException {
+        AesBlockCipher cipher = new AesBlockCipher(randomBytes(16, 1));
+        ModeOfOperation mode = ModeFactory.create(type, cipher);
+        byte[] iv = randomBytes(mode.ivLength(), 2);
+
+        for (int length : new int[] {0, 1, 15, 16, 17, 100, 1000}) {
+            byte[] plaintext = randomBytes(length, length);
+            byte[] expected = mode.encrypt(plaintext, iv);
+
+            byte[] encrypted = runChunked(StreamingModeCipher.encryptor(type, cipher, iv), plaintext);
+            assertArrayEquals(expected, encrypted, type + " length=" + length);
+            byte[] decrypted = runChunked(StreamingModeCipher.decryptor(type, cipher, iv), encrypted);
+            assertArrayEquals(plaintext, decrypted, type + " length=" + length);
+        }
+    }
+
+    /**
+     * {@code 2^31}블록을 넘는 위치에서도 counter가 {@code IV + j}로 계산되어야 합니다.
+     */
+    @Test
+    void ctrSeekPastTwoToThirtyOneBlocks() {
+        AesBlockCipher cipher = new AesBlockCipher(randomBytes(16, 3));
+        byte[] iv = randomBytes(16, 4);
+        iv[0] = (byte) 0xFF;
+        long blockIndex = (1L << 31) + 12345L;
+
+        byte[] keystream = StreamingModeCipher.ctrAt(cipher, iv, blockIndex).update(new byte[32]);
+
+        byte[] expectedCounter = lowest16Bytes(new BigInteger(1, iv).add(BigInteger.valueOf(blockIndex)));
+        byte[] nextCounter = expectedCounter.clone();
+        Bytes.incrementBigEndian(nextCounter);
+        byte[] expected = Bytes.concat(cipher.encryptBlock(expectedCounter), cipher.encryptBlock(nextCounter));
+        assertArrayEquals(expected, keystream);
+    }
+
+    /**
+     * 윈도우보다 큰 파일을 처리하고, CTR 임의 구간 복호화가 원문 구간과 같아야 합니다.
+     */
+    @Test
+    void largeFileCipherUsesWindows(@TempDir Path dir) throws IOException {
+        AesBlockCipher cipher = new AesBlockCipher(randomBytes(16, 5));
+        byte[] iv = randomBytes(16, 6);
+        byte[] plaintext = randomBytes(10_000, 7);
+        Path source = Files.write(dir.resolve("plain.bin"), plaintext);
+
+        for (ModeType type : new ModeType[] {ModeType.CBC, ModeType.CTR}) {
+            LargeFileCipher files = new LargeFileCipher(type, cipher, 4096);
+            Path encrypted = dir.resolve(type + ".enc");
+            Path restored = dir.resolve(type + ".dec");
+            files.encrypt(source, encrypted, iv);
+            files.decrypt(encrypted, restored, iv);
+
+            assertArrayEquals(ModeFactory.create(type, cipher).encrypt(plaintext, iv), Files.readAllBytes(encrypted));
+            assertArrayEquals(plaintext, Files.readAllBytes(restored));
+        }
+
+        LargeFileCipher ctr = new LargeFileCipher(ModeType.CTR, cipher, 4096);
+        Path encrypted = dir.resolve("CTR.enc");
+        assertArrayEquals(Arrays.copyOfRange(plaintext, 4093, 4200), ctr.decryptCtrRange(encrypted, iv, 4093, 107));
+    }
+
+    /**
+     * 블록 중간을 포함한 임의 위치에서 스냅샷을 직렬화하고 다른 블록 암호 인스턴스로 재개해도
+     * 중단 없이 처리한 결과와 같아야 합니다.
+     */
+    @ParameterizedTest
+    @EnumSource(value = ModeType.class, names = {"ECB", "CBC", "CFB", "OFB", "CTR"})
+    void checkpointResumeMatchesUninterrupted(ModeType type) throws IOException {
+        byte[] key = randomBytes(16, 8);
+        ModeOfOperation mode = ModeFactory.create(type, new AesBlockCipher(key));
+        byte[] iv = randomBytes(mode.ivLength(), 9);
+        byte[] plaintext = randomBytes(1000, 10);
+        byte[] ciphertext = mode.encrypt(plaintext, iv);
+
+        for (int split : new int[] {0, 7, 16, 33, 999}) {
+            StreamingModeCipher encryptor = StreamingModeCipher.encryptor(type, new AesBlockCipher(key), iv);
+            assertArrayEquals(ciphertext, interruptAt(encryptor, plaintext, split, key), type + " split=" + split);
+
+            StreamingModeCipher decryptor = StreamingModeCipher.decryptor(type, new AesBlockCipher(key), iv);
+            assertArrayEquals(plaintext, interruptAt(decryptor, ciphertext, split, key), type + " split=" + split);
+        }
+        StreamingModeCipher fresh = StreamingModeCipher.encryptor(type, new AesBlockCipher(key), iv);
+        byte[] truncated = Arrays.copyOf(fresh.checkpoint().toBytes(), 20);
+        assertThrows(IllegalArgumentException.class, () -> StreamCheckpoint.fromBytes(truncated));
+    }
+
+    /**
+     * 파일 작업이 스냅샷 이후에 죽어 출력 끝이 깨져도, 저장한 스냅샷에서 재개하면 같은 파일이 나와야 합니다.
+     */
+    @Test
+    void largeFileResumesFromLastCheckpoint(@TempDir Path dir) throws IOException {
+        AesBlockCipher cipher = new AesBlockCipher(randomBytes(16, 11));
+        byte[] iv = randomBytes(16, 12);
+        byte[] plaintext = randomBytes(20_000, 13);
+        Path source = Files.write(dir.resolve("plain.bin"), plaintext);
+
+        for (ModeType type : new ModeType[] {ModeType.CBC, ModeType.CFB, ModeType.CTR}) {
+            LargeFileCipher files = new LargeFileCipher(type, cipher, 3000);
+            byte[] expected = ModeFactory.create(type, cipher).encrypt(plaintext, iv);
+
+            Path encrypted = dir.resolve(type + ".enc");
+            List<StreamCheckpoint> checkpoints = new ArrayList<>();
+            files.encrypt(source, encrypted, iv, 4096, checkpoints::add);
+            assertEquals(4, checkpoints.size());
+            assertEquals(8192, checkpoints.get(1).position());
+
+            Path saved = dir.resolve(type + ".ckpt");
+            checkpoints.get(1).writeTo(saved);
+            crashAfter(encrypted, checkpoints.get(2).outputPosition() + 100);
+            long length = files.resume(source, encrypted, StreamCheckpoint.readFrom(saved), 4096, cp -> { });
+            assertEquals(expected.length, length);
+            assertArrayEquals(expected, Files.readAllBytes(encrypted), type.toString());
+
+            Path restored = dir.resolve(type + ".dec");
+            checkpoints.clear();
+            files.decrypt(encrypted, restored, iv, 4096, checkpoints::add);
+            crashAfter(restored, checkpoints.get(3).outputPosition());
+            files.resume(encrypted, restored, checkpoints.get(0), 4096, cp -> { });
+            assertArrayEquals(plaintext, Files.readAllBytes(restored), type.toString());
+        }
+    }
+
+    /**
+     * {@code split} 바이트를 넣은 뒤 스냅샷을 바이트로 직렬화했다가 새 스트림으로 복원해 나머지를 처리합니다.
+     */
+    private static byte[] interruptAt(StreamingModeCipher stream, byte[] input, int split, byte[] key)
+        throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(stream.update(Arrays.copyOf(input, split)));
+        byte[] saved = stream.checkpoint().toBytes();
+        assertEquals(stream.checkpoint().type().wireId(), saved[1]);
+        StreamingModeCipher resumed =
+            StreamingModeCipher.resume(new AesBlockCipher(key), StreamCheckpoint.fromBytes(saved));
+        assertEquals(split, resumed.position());
+        out.write(resumed.update(Arrays.copyOfRange(input, split, input.length)));
+        out.write(resumed.doFinal());
+        return out.toByteArray();
+    }
+
+    /**
+     * 출력 파일을 {@code length}로 자르고 쓰다 만 쓰레기 바이트를 덧붙여 중단 상황을 흉내 냅니다.
+     */
+    private static void crashAfter(Path file, long length) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(length);
+        }
+        Files.write(file, new byte[37], StandardOpenOption.APPEND);
+    }
+
+    /**
+     * 1~37바이트 사이의 불규칙한 크기로 나눠 스트림에 넣습니다.
+     */
+    private static byte[] runChunked(StreamingModeCipher stream, byte[] input) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Random random = new Random(input.length);
+        int offset = 0;
+        while (offset < input.length) {
+            int n = Math.min(input.length - offset, 1 + random.nextInt(37));
+            out.write(stream.update(Arrays.copyOfRange(input, offset, offset + n)));
+            offset += n;
+        }
+        out.write(stream.doFinal());
+        return out.toByteArray();
+    }
+
+    private static byte[] lowest16Bytes(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        byte[] out = new byte[16];
+        int n = Math.min(16, bytes.length);
+        System.arraycopy(bytes, bytes.length - n, out, 16 - n, n);
+        return out;
+    }
+
+    private static byte[] randomBytes(int length, int seed) {
+        byte[] out = new byte[length];
+        new Random(seed).nextBytes(out);
+        return out;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.blockcipher.trace;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.example.blockcipher.core.AesBlockCipher;
+import com.example.blockcipher.factory.ModeFactory;
+import com.example.blockcipher.mode.ModeOfOperation;
+import com.example.blockcipher.mode.ModeType;
+import com.example.blockcipher.util.Bytes;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 링 버퍼 기록/덮어쓰기와 모드 추적 훅을 검증합니다.
+ */
+class TraceRingBufferTest {
+    /**
+     * 용량을 넘기면 가장 최근 이벤트만 순서대로 남아야 합니다.
+     */
+    @Test
+    void keepsLatestEventsInOrder() {
+        TraceRingBuffer ring = new TraceRingBuffer(6);
+        assertEquals(8, ring.capacity());
+
+        for (int i = 0; i < 20; i++) {
+            ring.onBlock(ModeType.CTR, i, TraceKind.COUNTER, new byte[] {(byte) i}, 0, 1);
+        }
+
+        List<TraceEvent> events = ring.snapshot();
+        assertEquals(8, events.size());
+        assertEquals(12, events.get(0).blockIndex());
+        assertEquals(19, events.get(7).sequence());
+        assertArrayEquals(new byte[] {19}, events.get(7).value());
+    }
+
+    /**
+     * 모드 배열의 일부 구간만 넘기면 그 구간만 슬롯에 복사되어야 합니다.
+     */
+    @Test
+    void copiesOnlyTheGivenRange() {
+        TraceRingBuffer ring = new TraceRingBuffer(4);
+        byte[] work = new byte[48];
+        for (int i = 0; i < work.length; i++) {
+            work[i] = (byte) i;
+        }
+
+        byte[] expected = Arrays.copyOfRange(work, 16, 32);
+
+        ring.onBlock(ModeType.CBC, 1, TraceKind.OUTPUT, work, 16, 16);
+        ring.onBlock(ModeType.CTR, 2, TraceKind.OUTPUT, work, 40, 5);
+        // 모드가 작업 배열을 곧바로 덮어써도 기록된 값은 바뀌지 않아야 합니다.
+        Arrays.fill(work, (byte) 0);
+
+        List<TraceEvent> events = ring.snapshot();
+        assertArrayEquals(expected, events.get(0).value());
+        assertArrayEquals(new byte[] {40, 41, 42, 43, 44}, events.get(1).value());
+    }
+
+    /**
+     * 여러 스레드가 동시에 기록해도 순번이 빠짐없이 배정되어야 합니다.
+     */
+    @Test
+    void concurrentWritersGetDistinctSequences() {
+        TraceRingBuffer ring = new TraceRingBuffer(1 << 16);
+        byte[] value = new byte[16];
+
+        IntStream.range(0, 8).parallel().forEach(thread -> {
+            for (int i = 0; i < 5000; i++) {
+                ring.onBlock(ModeType.ECB, i, TraceKind.OUTPUT, value, 0, value.length);
+            }
+        });
+
+        List<TraceEvent> events = ring.snapshot();
+        assertEquals(40_000, ring.recorded());
+        assertEquals(40_000, events.size());
+        assertEquals(40_000, events.stream().map(TraceEvent::sequence).collect(Collectors.toSet()).size());
+    }
+
+    /**
+     * CBC 암호화 추적은 블록마다 FEEDBACK(첫 블록은 IV), XOR, OUTPUT 순서여야 합니다.
+     */
+    @Test
+    void cbcModeEmitsPerBlockEvents() {
+        assumeTrue(Tracing.ENABLED, "run with -Dblockcipher.trace=true");
+        ModeOfOperation mode = ModeFactory.create(ModeType.CBC, new AesBlockCipher(new byte[16]));
+        byte[] iv = new byte[16];
+        iv[15] = 1;
+        byte[] plaintext = new byte[20];
+
+        TraceRingBuffer ring = new TraceRingBuffer(64);
+        Tracing.install(ring);
+        byte[] ciphertext;
+        try {
+            ciphertext = mode.encrypt(plaintext, iv);
+        } finally {
+            Tracing.install(null);
+        }
+
+        List<TraceEvent> events = ring.snapshot();
+        assertEquals(6, events.size());
+        assertEquals(TraceKind.FEEDBACK, events.get(0).kind());
+        assertArrayEquals(iv, events.get(0).value());
+        assertEquals(TraceKind.XOR, events.get(1).kind());
+        assertArrayEquals(Bytes.slice(ciphertext, 16, 16), events.get(5).value());
+        assertEquals(1, events.get(5).blockIndex());
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.blockcipher.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.blockcipher.core.AesBlockCipher;
+import com.example.blockcipher.core.CryptoException;
+import com.example.blockcipher.factory.ModeFactory;
+import com.example.blockcipher.guard.NonceReuseGuard;
+import com.example.blockcipher.mode.CTRMode;
+import com.example.blockcipher.mode.CounterLayout;
+import com.example.blockcipher.mode.ModeType;
+import com.example.blockcipher.service.ModeCipherService;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * 버퍼 풀의 재사용/반납/지우기 동작과 서비스 풀 경로의 호환성을 검증합니다.
+ */
+class BufferPoolTest {
+    /**
+     * 같은 등급 요청은 반납된 버퍼를 다시 받고, 반납 시 내용이 0으로 지워져야 합니다.
+     */
+    @Test
+    void reusesReleasedBuffersAndZeroizes() {
+        BufferPool pool = new BufferPool(false, 4096, 2, true);
+
+        PooledBuffer first = pool.acquire(1000);
+        byte[] array = first.array();
+        assertEquals(1024, array.length);
+        first.buffer().put(new byte[] {1, 2, 3});
+        first.release();
+        assertEquals(0, array[0]);
+
+        PooledBuffer second = pool.acquire(700);
+        assertSame(array, second.array());
+        assertEquals(700, second.buffer().limit());
+        assertEquals(1, pool.hits());
+        assertEquals(1, pool.misses());
+        assertEquals(0.5, pool.hitRate());
+
+        second.close();
+        assertThrows(IllegalStateException.class, second::buffer);
+        assertThrows(IllegalStateException.class, second::release);
+    }
+
+    /**
+     * 한도보다 큰 요청과 보관 수 초과 반납은 풀에 남지 않아야 합니다.
+     */
+    @Test
+    void boundsPooledMemory() {
+        BufferPool pool = new BufferPool(true, 1024, 1, true);
+
+        pool.acquire(5000).release();
+        assertEquals(1, pool.oversized());
+        assertEquals(0, pool.pooledCount());
+
+        PooledBuffer a = pool.acquire(512);
+        PooledBuffer b = pool.acquire(512);
+        a.release();
+        b.release();
+        assertEquals(1, pool.pooledCount());
+        assertEquals(2, pool.discarded());
+        assertThrows(IllegalStateException.class, () -> pool.acquire(512).array());
+    }
+
+    /**
+     * 풀 경로 결과는 기존 {@code [IV || ciphertext]} 형식과 상호 복호화되어야 합니다.
+     */
+    @ParameterizedTest
+    @EnumSource(value = ModeType.class, names = {"ECB", "CBC", "CFB", "OFB", "CTR", "GCM", "CBC_CS3"})
+    void pooledServiceMatchesArrayService(ModeType type) {
+        ModeCipherService service = new ModeCipherService(ModeFactory.create(type, new AesBlockCipher(new byte[16])));
+        BufferPool pool = BufferPool.heap();
+
+        for (int length : new int[] {0, 17, 1000}) {
+            byte[] plaintext = new byte[length];
+            new Random(length).nextBytes(plaintext);
+
+            byte[] packed;
+            try (PooledBuffer encrypted = service.encryptWithHeader(plaintext, pool)) {
+                packed = encrypted.toByteArray();
+            }
+            assertArrayEquals(plaintext, service.decryptWithHeader(packed), type + " length=" + length);
+
+            try (PooledBuffer decrypted = service.decryptWithHeader(service.encryptWithHeader(plaintext), pool)) {
+                ByteBuffer buffer = decrypted.buffer();
+                assertEquals(length, buffer.remaining());
+                assertArrayEquals(plaintext, decrypted.toByteArray(), type + " length=" + length);
+            }
+        }
+        assertTrue(pool.hits() > 0);
+    }
+
+    /**
+     * 풀 경로도 모드 구현체를 거쳐 모드에 설정된 nonce 가드가 사용한 IV를 기록해야 합니다.
+     */
+    @Test
+    void pooledServiceUsesConfiguredMode() {
+        AesBlockCipher cipher = new AesBlockCipher(new byte[16]);
+        NonceReuseGuard guard = new NonceReuseGuard(1000, 1e-6, NonceReuseGuard.Policy.REJECT);
+        CTRMode mode = new CTRMode(cipher, CounterLayout.NONCE_96_COUNTER_32, guard);
+        ModeCipherService service = new ModeCipherService(mode);
+        byte[] plaintext = new byte[100];
+        new Random(5).nextBytes(plaintext);
+
+        byte[] packed;
+        try (PooledBuffer encrypted = service.encryptWithHeader(plaintext, BufferPool.heap())) {
+            packed = encrypted.toByteArray();
+        }
+        assertEquals(1, guard.checks());
+        assertArrayEquals(plaintext, service.decryptWithHeader(packed));
+        byte[] iv = Arrays.copyOf(packed, 16);
+        assertThrows(CryptoException.class, () -> mode.encrypt(plaintext, iv));
+    }
+}